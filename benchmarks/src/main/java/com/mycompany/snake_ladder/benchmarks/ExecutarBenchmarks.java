@@ -0,0 +1,68 @@
+package com.mycompany.snake_ladder.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Ponto de entrada do {@code benchmarks.jar}.
+ *
+ * Aceita as mesmas opções da linha de comandos do JMH (por exemplo, uma
+ * expressão regular com os benchmarks a correr, {@code -f}, {@code -wi} ou
+ * {@code -rf json}), mas junta sempre o profiler de GC, para que cada
+ * resultado venha acompanhado de {@code gc.alloc.rate.norm}: os bytes
+ * alocados por operação. As opções que só listam ou mostram ajuda
+ * ({@code -l}, {@code -lp}, {@code -lprof}, {@code -lrf}, {@code -h})
+ * são tratadas como no JMH, sem correr nada.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class ExecutarBenchmarks {
+    private ExecutarBenchmarks() {
+    }
+
+    /**
+     * Corre os benchmarks pedidos.
+     *
+     * @param args Opções do JMH
+     * @throws CommandLineOptionException Se as opções forem inválidas
+     * @throws RunnerException Se algum benchmark falhar
+     * @throws IOException Se não for possível mostrar a ajuda
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions linha = new CommandLineOptions(args);
+        if (linha.shouldHelp()) {
+            linha.showHelp();
+            return;
+        }
+        if (linha.shouldListProfilers()) {
+            linha.listProfilers();
+            return;
+        }
+        if (linha.shouldListResultFormats()) {
+            linha.listResultFormats();
+            return;
+        }
+        if (linha.shouldList() || linha.shouldListWithParams()) {
+            Runner runner = new Runner(linha);
+            if (linha.shouldListWithParams()) {
+                runner.listWithParams(linha);
+            } else {
+                runner.list();
+            }
+            return;
+        }
+        Options opcoes = new OptionsBuilder()
+            .parent(linha)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(opcoes).run();
+    }
+}
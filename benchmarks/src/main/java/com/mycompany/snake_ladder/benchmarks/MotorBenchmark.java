@@ -0,0 +1,152 @@
+package com.mycompany.snake_ladder.benchmarks;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+import com.mycompany.snake_ladder.model.GeradorAleatorio;
+import com.mycompany.snake_ladder.model.GeradorSplittable;
+import com.mycompany.snake_ladder.model.Jogo;
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.simulacao.SimuladorMonteCarlo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de uma jogada em cada motor do jogo.
+ *
+ * Todos os motores jogam no mesmo tabuleiro, gerado a partir de
+ * {@link #semente}, com lançamentos de um {@link GeradorSplittable} com a
+ * mesma semente: duas execuções com os mesmos parâmetros fazem exatamente
+ * as mesmas jogadas. Um motor novo entra aqui como mais um método
+ * {@code @Benchmark}, com o mesmo estado, para ser comparado com os
+ * existentes.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MotorBenchmark {
+    /** Partidas por chamada do simulador Monte Carlo */
+    private static final int PARTIDAS_SIMULADOR = 1_000;
+
+    /** Semente do tabuleiro e dos lançamentos */
+    @Param({"42"})
+    public long semente;
+
+    /** Lugares na partida */
+    @Param({"2", "4"})
+    public int jogadores;
+
+    /** Partida conduzida pelo motor do servidor */
+    private Jogo jogo;
+
+    /** Tabela do mesmo tabuleiro, para o motor sem objetos */
+    private TabelaMovimentos tabela;
+
+    /** Lançamentos para o motor sem objetos */
+    private GeradorAleatorio gerador;
+
+    /** Casas das peças no motor sem objetos */
+    private int[] posicoes;
+
+    /** Vez no motor sem objetos */
+    private int vez;
+
+    /** Simulador de uma só thread, para não medir o escalonamento */
+    private SimuladorMonteCarlo simulador;
+
+    /** Pool do simulador */
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Tabuleiro tabuleiro = new Tabuleiro(semente);
+        String[] nomes = new String[jogadores];
+        for (int i = 0; i < jogadores; i++) {
+            nomes[i] = "Jogador " + (i + 1);
+        }
+        jogo = new Jogo(Arrays.asList(nomes), tabuleiro, new GeradorSplittable(semente));
+        tabela = tabuleiro.getTabelaMovimentos();
+        gerador = new GeradorSplittable(semente);
+        posicoes = new int[jogadores];
+        Arrays.fill(posicoes, 1);
+        pool = new ForkJoinPool(1);
+        simulador = new SimuladorMonteCarlo(tabuleiro, jogadores, pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminar() {
+        pool.shutdown();
+    }
+
+    /**
+     * Uma jogada do {@link Jogo}, como o servidor a faz: rolar, mover, passar
+     * a vez se não saiu 6, e recomeçar a partida quando alguém ganha.
+     *
+     * @return Casa final, para o JIT não eliminar a jogada
+     */
+    @Benchmark
+    public int jogo() {
+        EventoMovimento evento = jogo.moverJogadorAtual(jogo.rolarDado());
+        if (evento.isVitoria()) {
+            jogo.reiniciarJogo();
+        } else if (!evento.isJogaDeNovo()) {
+            jogo.passarVez();
+        }
+        return evento.getCasaFinal();
+    }
+
+    /**
+     * A mesma jogada lida diretamente da {@link TabelaMovimentos}, sobre um
+     * array de posições.
+     *
+     * @return Movimento codificado
+     */
+    @Benchmark
+    public int tabela() {
+        int dado = gerador.rolarDado();
+        int movimento = tabela.mover(posicoes[vez], dado);
+        int casa = TabelaMovimentos.casaFinal(movimento);
+        if (TabelaMovimentos.resultado(movimento) == TabelaMovimentos.VITORIA) {
+            Arrays.fill(posicoes, 1);
+            vez = 0;
+        } else {
+            posicoes[vez] = casa;
+            if (dado != 6) {
+                vez = (vez + 1) % posicoes.length;
+            }
+        }
+        return movimento;
+    }
+
+    /**
+     * {@value #PARTIDAS_SIMULADOR} partidas completas no simulador Monte
+     * Carlo, sempre com a mesma semente.
+     *
+     * @return Média de jogadas por partida
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double simulador() {
+        return simulador.simular(PARTIDAS_SIMULADOR, semente).getMediaJogadas();
+    }
+}
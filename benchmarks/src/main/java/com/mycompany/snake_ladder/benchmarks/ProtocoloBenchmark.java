@@ -0,0 +1,199 @@
+package com.mycompany.snake_ladder.benchmarks;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+import com.mycompany.snake_ladder.model.GeradorSplittable;
+import com.mycompany.snake_ladder.model.InstantaneoJogo;
+import com.mycompany.snake_ladder.model.Jogo;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.rede.MensagemEstado;
+import com.mycompany.snake_ladder.rede.Protocolo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de codificar e decodificar os estados da partida.
+ *
+ * No início de cada execução é jogada uma partida com {@link #semente},
+ * guardando o instantâneo e a jogada de cada passo, como em
+ * {@code Sala.broadcastEstado}. Os benchmarks percorrem esses passos em
+ * ciclo: as tramas codificadas e lidas são sempre as mesmas, de execução
+ * para execução. A leitura não mexe na posição da trama, por isso as
+ * mesmas tramas são lidas vezes sem conta sem cópias.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProtocoloBenchmark {
+    /** Jogadas guardadas; a partida recomeça quando alguém ganha */
+    private static final int PASSOS = 1024;
+
+    /** Semente do tabuleiro e dos lançamentos */
+    @Param({"42"})
+    public long semente;
+
+    /** Lugares na partida */
+    @Param({"2", "4"})
+    public int jogadores;
+
+    /** Estado depois de cada jogada */
+    private InstantaneoJogo[] estados;
+
+    /** Jogada que levou a cada estado */
+    private EventoMovimento[] eventos;
+
+    /** Trama de estado completo de cada passo, posicionada no tipo */
+    private ByteBuffer[] completos;
+
+    /**
+     * Tramas lidas pelo cliente: um estado completo seguido das alterações
+     * dos passos seguintes, com versões consecutivas
+     */
+    private ByteBuffer[] sequencia;
+
+    /** Buffer reaproveitado onde o servidor codifica, como o rascunho da sala */
+    private final ByteBuffer rascunho = ByteBuffer.allocate(Protocolo.CABECALHO + Protocolo.TRAMA_MAXIMA);
+
+    /** Estado do cliente */
+    private MensagemEstado mensagem;
+
+    /** Passo atual */
+    private int passo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        String[] nomes = new String[jogadores];
+        for (int i = 0; i < jogadores; i++) {
+            nomes[i] = "Jogador " + (i + 1);
+        }
+        Jogo jogo = new Jogo(Arrays.asList(nomes), new Tabuleiro(semente), new GeradorSplittable(semente));
+        estados = new InstantaneoJogo[PASSOS];
+        eventos = new EventoMovimento[PASSOS];
+        for (int i = 0; i < PASSOS; i++) {
+            EventoMovimento evento = jogo.moverJogadorAtual(jogo.rolarDado());
+            eventos[i] = new EventoMovimento();
+            eventos[i].copiarDe(evento);
+            estados[i] = jogo.getInstantaneo();
+            if (evento.isVitoria()) {
+                jogo.reiniciarJogo();
+            } else if (!evento.isJogaDeNovo()) {
+                jogo.passarVez();
+            }
+        }
+
+        completos = new ByteBuffer[PASSOS];
+        sequencia = new ByteBuffer[PASSOS];
+        for (int i = 0; i < PASSOS; i++) {
+            rascunho.clear();
+            Protocolo.escreverEstado(rascunho, i, estados[i], eventos[i], false, false);
+            completos[i] = copiarRascunho();
+            if (i == 0) {
+                sequencia[i] = completos[i];
+            } else {
+                rascunho.clear();
+                Protocolo.escreverDelta(rascunho, i, estados[i - 1], estados[i], eventos[i], false);
+                sequencia[i] = copiarRascunho();
+            }
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void recomecar() {
+        mensagem = new MensagemEstado();
+        passo = 0;
+    }
+
+    /**
+     * Codifica o estado completo de um passo e copia-o para uma trama com o
+     * tamanho exato, como a sala faz antes de o pôr nas filas.
+     *
+     * @return Trama codificada
+     */
+    @Benchmark
+    public ByteBuffer codificarEstado() {
+        int i = proximoPasso();
+        rascunho.clear();
+        Protocolo.escreverEstado(rascunho, i, estados[i], eventos[i], false, false);
+        return copiarRascunho();
+    }
+
+    /**
+     * Codifica só as alterações de um passo em relação ao anterior, como na
+     * difusão normal de uma jogada.
+     *
+     * @return Trama codificada
+     */
+    @Benchmark
+    public ByteBuffer codificarDelta() {
+        int i = proximoPasso();
+        int anterior = i == 0 ? PASSOS - 1 : i - 1;
+        rascunho.clear();
+        Protocolo.escreverDelta(rascunho, i, estados[anterior], estados[i], eventos[i], false);
+        return copiarRascunho();
+    }
+
+    /**
+     * Decodifica no cliente o estado completo de um passo.
+     *
+     * @return Resultado da leitura
+     */
+    @Benchmark
+    public int lerEstado() {
+        return mensagem.ler(completos[proximoPasso()]);
+    }
+
+    /**
+     * Decodifica no cliente as tramas de uma partida pela ordem em que
+     * chegam: um estado completo e depois só alterações.
+     *
+     * @return Resultado da leitura
+     */
+    @Benchmark
+    public int lerSequencia() {
+        return mensagem.ler(sequencia[proximoPasso()]);
+    }
+
+    /**
+     * Avança para o passo seguinte, voltando ao primeiro no fim.
+     *
+     * @return Passo a usar
+     */
+    private int proximoPasso() {
+        int i = passo;
+        passo = i + 1 == PASSOS ? 0 : i + 1;
+        return i;
+    }
+
+    /**
+     * Copia a trama do rascunho para um buffer com o tamanho exato e deixa-o
+     * posicionado no tipo, como a trama devolvida ao cliente pela ligação.
+     *
+     * @return Trama copiada
+     */
+    private ByteBuffer copiarRascunho() {
+        rascunho.flip();
+        ByteBuffer trama = ByteBuffer.allocate(rascunho.remaining());
+        trama.put(rascunho).flip();
+        trama.position(Protocolo.CABECALHO);
+        return trama;
+    }
+}
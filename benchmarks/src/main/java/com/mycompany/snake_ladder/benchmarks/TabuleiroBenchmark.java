@@ -0,0 +1,71 @@
+package com.mycompany.snake_ladder.benchmarks;
+
+import com.mycompany.snake_ladder.model.GeradorSplittable;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de gerar um tabuleiro aleatório, como o servidor faz a cada
+ * partida nova.
+ *
+ * As sementes são tiradas de um {@link GeradorSplittable} iniciado com
+ * {@link #semente}, por isso a sequência de tabuleiros gerados é a mesma
+ * em todas as execuções.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TabuleiroBenchmark {
+    /** Semente da sequência de tabuleiros */
+    @Param({"42"})
+    public long semente;
+
+    /** Gerador das sementes de cada tabuleiro */
+    private GeradorSplittable sementes;
+
+    @Setup(Level.Iteration)
+    public void preparar() {
+        sementes = new GeradorSplittable(semente);
+    }
+
+    /**
+     * Gera um tabuleiro com uma semente nova, incluindo a compilação da
+     * tabela de movimentos.
+     *
+     * @return Tabuleiro gerado
+     */
+    @Benchmark
+    public Tabuleiro gerar() {
+        return new Tabuleiro(sementes.dividir());
+    }
+
+    /**
+     * Gera sempre o mesmo tabuleiro, para separar o custo da geração do
+     * das cobras e escadas que calham.
+     *
+     * @return Tabuleiro gerado
+     */
+    @Benchmark
+    public Tabuleiro gerarMesmaSemente() {
+        return new Tabuleiro(semente);
+    }
+}
@@ -1,10 +1,13 @@
 package com.mycompany.snake_ladder;
 
+import com.mycompany.snake_ladder.controller.Imagens;
+import com.mycompany.snake_ladder.controller.TabuleiroController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import java.util.List;
 //Concluido 1 de 4
 /**
  * Classe principal da aplicação Cobras e Escadas.
@@ -40,6 +43,33 @@ public class App extends Application {
         launch(args);
     }
 
+    /**
+     * Prepara a aplicação antes de a janela abrir. No modo cliente,
+     * descodifica já as imagens do dado e dos peões, para que o tabuleiro
+     * não tenha de as ler durante o jogo, e com {@code --canvas} escolhe o
+     * tabuleiro desenhado em canvas em vez da grelha de nós. Com
+     * {@code --atraso MS}, os estados que esperam mais do que isso por
+     * outras animações passam a ser mostrados sem animação.
+     */
+    @Override
+    public void init() {
+        if (!isServidor) {
+            Imagens.carregar();
+            if (getParameters().getRaw().contains("--canvas")) {
+                TabuleiroController.setRenderizadorPadrao(TabuleiroController.RENDERIZADOR_CANVAS);
+            }
+            List<String> argumentos = getParameters().getRaw();
+            int i = argumentos.indexOf("--atraso");
+            if (i >= 0 && i + 1 < argumentos.size()) {
+                try {
+                    TabuleiroController.setAtrasoMaximoMs(Long.parseLong(argumentos.get(i + 1)));
+                } catch (NumberFormatException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
     /**
      * Método principal do JavaFX que configura e exibe a janela principal.
      * Carrega o FXML apropriado baseado no modo (servidor ou cliente).
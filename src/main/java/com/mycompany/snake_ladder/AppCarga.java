@@ -0,0 +1,241 @@
+package com.mycompany.snake_ladder;
+
+import com.mycompany.snake_ladder.carga.GeradorCarga;
+import com.mycompany.snake_ladder.carga.Histograma;
+import com.mycompany.snake_ladder.servidor.GestorSalas;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe executável para medir a capacidade do servidor com jogadores
+ * automáticos.
+ *
+ * Liga milhares de bots (ver {@link GeradorCarga}) a um servidor, deixa-os
+ * jogar durante o aquecimento e depois mede, durante a duração pedida, as
+ * jogadas por segundo e a latência entre cada clique e o estado com a
+ * jogada (p50, p99, p99,9). Com {@code --local} arranca também o servidor
+ * no mesmo processo, numa porta livre. Tal como {@link AppServidorHeadless},
+ * não carrega classes {@code javafx.*}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public class AppCarga {
+    /** Porta usada quando não é indicada nenhuma */
+    private static final int PORTA_PADRAO = 12345;
+
+    /** Bots quando não é indicado nenhum número */
+    private static final int BOTS_PADRAO = 1000;
+
+    /** Segundos medidos quando não é indicada a duração */
+    private static final long DURACAO_PADRAO_S = 30;
+
+    /** Segundos de aquecimento, não medidos, quando não são indicados */
+    private static final long AQUECIMENTO_PADRAO_S = 5;
+
+    /** Intervalo entre linhas de progresso, em segundos, quando não é indicado */
+    private static final long ESTATISTICAS_PADRAO_S = 5;
+
+    /** Lugares por sala do servidor local quando não é indicado nenhum número */
+    private static final int LUGARES_PADRAO = 2;
+
+    /** Espera por uma sala cheia no servidor local, em milissegundos */
+    private static final long ESPERA_LOCAL_MS = 1_000;
+
+    /**
+     * Método principal que corre a medição.
+     *
+     * @param args Argumentos da linha de comando (ver {@link #uso()})
+     */
+    public static void main(String[] args) {
+        String ip = "127.0.0.1";
+        int porta = PORTA_PADRAO;
+        int bots = BOTS_PADRAO;
+        int threads = Math.min(4, Runtime.getRuntime().availableProcessors());
+        long pausaMs = 0;
+        long duracaoS = DURACAO_PADRAO_S;
+        long aquecimentoS = AQUECIMENTO_PADRAO_S;
+        long estatisticasS = ESTATISTICAS_PADRAO_S;
+        boolean local = false;
+        int lugares = LUGARES_PADRAO;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--ip":
+                        ip = valor(args, ++i);
+                        break;
+                    case "--porta":
+                        porta = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--bots":
+                        bots = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--pausa":
+                        pausaMs = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--duracao":
+                        duracaoS = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--aquecimento":
+                        aquecimentoS = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--estatisticas":
+                        estatisticasS = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--local":
+                        local = true;
+                        break;
+                    case "--lugares":
+                        lugares = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--ajuda":
+                        System.out.println(uso());
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(uso());
+            System.exit(2);
+            return;
+        }
+
+        GestorSalas gestor = null;
+        GeradorCarga gerador;
+        try {
+            if (local) {
+                gestor = new GestorSalas(Runtime.getRuntime().availableProcessors(), lugares, ESPERA_LOCAL_MS);
+                gestor.iniciar(new InetSocketAddress("127.0.0.1", 0));
+                ip = "127.0.0.1";
+                porta = gestor.getServidor().getPorta();
+            }
+            gerador = new GeradorCarga(new InetSocketAddress(ip, porta), bots, threads, pausaMs);
+            gerador.iniciar();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Não foi possível iniciar a carga: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        System.out.printf("Carga: %d bots em %d threads contra %s:%d%s, pausa de %d ms%n",
+            bots, threads, ip, porta, local ? " (servidor local)" : "", pausaMs);
+        try {
+            esperar(gerador, TimeUnit.SECONDS.toNanos(aquecimentoS), estatisticasS, "aquecimento");
+            gerador.iniciarMedicao();
+            long jogadasInicio = gerador.getJogadas();
+            long inicio = System.nanoTime();
+            esperar(gerador, TimeUnit.SECONDS.toNanos(duracaoS), estatisticasS, "medição");
+            long jogadas = gerador.getJogadas() - jogadasInicio;
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+            gerador.parar();
+            if (gestor != null) {
+                gestor.parar();
+            }
+            relatorio(gerador, jogadas, segundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Espera um período, mostrando o progresso a intervalos regulares.
+     *
+     * @param gerador Gerador em curso
+     * @param duracaoNs Duração do período
+     * @param estatisticasS Segundos entre linhas de progresso, 0 para nenhuma
+     * @param fase Nome do período, para as linhas de progresso
+     * @throws InterruptedException Se a espera for interrompida
+     */
+    private static void esperar(GeradorCarga gerador, long duracaoNs, long estatisticasS, String fase)
+            throws InterruptedException {
+        long fim = System.nanoTime() + duracaoNs;
+        long intervaloNs = estatisticasS > 0 ? TimeUnit.SECONDS.toNanos(estatisticasS) : duracaoNs;
+        long jogadasAntes = gerador.getJogadas();
+        long antes = System.nanoTime();
+        while (true) {
+            long resta = fim - System.nanoTime();
+            if (resta <= 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(resta, intervaloNs));
+            if (estatisticasS > 0) {
+                long jogadas = gerador.getJogadas();
+                long agora = System.nanoTime();
+                System.out.printf("  [%s] %d bots em jogo, %.0f jogadas/s, %d falhas%n", fase,
+                    gerador.getBotsEmJogo(), (jogadas - jogadasAntes) * 1e9 / (agora - antes), gerador.getFalhas());
+                jogadasAntes = jogadas;
+                antes = agora;
+            }
+        }
+    }
+
+    /**
+     * Mostra o resultado da medição.
+     *
+     * @param gerador Gerador já parado
+     * @param jogadas Jogadas durante a medição
+     * @param segundos Duração da medição
+     */
+    private static void relatorio(GeradorCarga gerador, long jogadas, double segundos) {
+        Histograma latencias = gerador.getLatencias();
+        System.out.printf("Resultado: %d jogadas em %.1f s, %.0f jogadas/s%n", jogadas, segundos, jogadas / segundos);
+        System.out.printf("Latência clique-estado (ms, %d amostras): p50 %.3f  p90 %.3f  p99 %.3f  p99,9 %.3f  máx %.3f  média %.3f%n",
+            latencias.getTotal(), ms(latencias.getPercentil(50)), ms(latencias.getPercentil(90)),
+            ms(latencias.getPercentil(99)), ms(latencias.getPercentil(99.9)),
+            ms(latencias.getMaximo()), latencias.getMedia() / 1e6);
+        System.out.printf("Bots em jogo: %d, falhas: %d, cliques repetidos: %d%n",
+            gerador.getBotsEmJogo(), gerador.getFalhas(), gerador.getRepeticoes());
+    }
+
+    /**
+     * Converte nanossegundos em milissegundos.
+     *
+     * @param ns Nanossegundos
+     * @return Milissegundos
+     */
+    private static double ms(long ns) {
+        return ns / 1e6;
+    }
+
+    /**
+     * Obtém o valor de uma opção.
+     *
+     * @param args Argumentos da linha de comando
+     * @param i Posição do valor
+     * @return Valor da opção
+     */
+    private static String valor(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta o valor da opção " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Texto de ajuda com as opções aceites.
+     *
+     * @return Descrição das opções
+     */
+    private static String uso() {
+        return "Uso: java -cp target/classes com.mycompany.snake_ladder.AppCarga [opções]\n"
+            + "  --ip ENDERECO      endereço do servidor (padrão 127.0.0.1)\n"
+            + "  --porta N          porta do servidor (padrão " + PORTA_PADRAO + ")\n"
+            + "  --local            arranca o servidor neste processo, numa porta livre\n"
+            + "  --lugares N        jogadores por sala do servidor local (padrão " + LUGARES_PADRAO + ")\n"
+            + "  --bots N           jogadores automáticos (padrão " + BOTS_PADRAO + ")\n"
+            + "  --threads N        threads dos bots (padrão: até 4, uma por núcleo)\n"
+            + "  --pausa MS         pausa de cada bot antes de rolar o dado (padrão 0)\n"
+            + "  --aquecimento S    segundos a jogar antes de medir (padrão " + AQUECIMENTO_PADRAO_S + ")\n"
+            + "  --duracao S        segundos medidos (padrão " + DURACAO_PADRAO_S + ")\n"
+            + "  --estatisticas S   segundos entre linhas de progresso, 0 para desligar (padrão " + ESTATISTICAS_PADRAO_S + ")\n"
+            + "  --ajuda            mostra esta ajuda";
+    }
+}
@@ -0,0 +1,187 @@
+package com.mycompany.snake_ladder;
+
+import com.mycompany.snake_ladder.persistencia.Classificacao;
+import com.mycompany.snake_ladder.persistencia.Diario;
+import com.mycompany.snake_ladder.persistencia.EstatisticasJogador;
+import com.mycompany.snake_ladder.servidor.GestorSalas;
+import com.mycompany.snake_ladder.servidor.Sala;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classe executável para iniciar o servidor sem interface gráfica.
+ *
+ * Usa o mesmo código de jogo e de rede que {@link AppServidor}, mas nunca
+ * carrega classes {@code javafx.*}: pode correr em máquinas sem ecrã e
+ * apenas com {@code target/classes} no classpath. A configuração é lida
+ * dos argumentos da linha de comando.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public class AppServidorHeadless {
+    /** Porta usada quando não é indicada nenhuma */
+    private static final int PORTA_PADRAO = 12345;
+
+    /** Lugares por sala quando não é indicado nenhum número */
+    private static final int LUGARES_PADRAO = 2;
+
+    /** Espera por uma sala cheia, em milissegundos, quando não é indicada */
+    private static final long ESPERA_PADRAO_MS = 10_000;
+
+    /** Intervalo entre linhas de estatísticas, em segundos, quando não é indicado */
+    private static final long ESTATISTICAS_PADRAO_S = 10;
+
+    /** Jogadores da classificação mostrados ao parar */
+    private static final int TOP_CLASSIFICACAO = 5;
+
+    /** Intervalo máximo entre instantâneos do diário, em segundos, quando não é indicado */
+    private static final long INSTANTANEO_PADRAO_S = TimeUnit.MILLISECONDS.toSeconds(Diario.INTERVALO_INSTANTANEO_MS);
+
+    /**
+     * Método principal que inicia o servidor sem interface gráfica.
+     *
+     * @param args Argumentos da linha de comando (ver {@link #uso()})
+     */
+    public static void main(String[] args) {
+        long arranque = System.nanoTime();
+        String ip = "0.0.0.0";
+        int porta = PORTA_PADRAO;
+        int ciclos = Runtime.getRuntime().availableProcessors();
+        int lugares = LUGARES_PADRAO;
+        long esperaMs = ESPERA_PADRAO_MS;
+        long estatisticasS = ESTATISTICAS_PADRAO_S;
+        String pastaDiario = null;
+        String ficheiroClassificacao = null;
+        long instantaneoS = INSTANTANEO_PADRAO_S;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--ip":
+                        ip = valor(args, ++i);
+                        break;
+                    case "--porta":
+                        porta = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--ciclos":
+                        ciclos = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--lugares":
+                        lugares = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--espera":
+                        esperaMs = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--estatisticas":
+                        estatisticasS = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--diario":
+                        pastaDiario = valor(args, ++i);
+                        break;
+                    case "--instantaneo":
+                        instantaneoS = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--classificacao":
+                        ficheiroClassificacao = valor(args, ++i);
+                        break;
+                    case "--ajuda":
+                        System.out.println(uso());
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            if (lugares < 2 || lugares > Sala.LUGARES_MAXIMOS) {
+                throw new IllegalArgumentException("--lugares tem de estar entre 2 e " + Sala.LUGARES_MAXIMOS);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(uso());
+            System.exit(2);
+            return;
+        }
+
+        GestorSalas gestor;
+        try {
+            Diario diario = pastaDiario == null ? null
+                : new Diario(Paths.get(pastaDiario), Diario.TAMANHO_SEGMENTO, TimeUnit.SECONDS.toMillis(instantaneoS));
+            Classificacao classificacao = ficheiroClassificacao == null ? null
+                : new Classificacao(Paths.get(ficheiroClassificacao));
+            gestor = new GestorSalas(ciclos, lugares, esperaMs, diario, classificacao);
+            gestor.iniciar(new InetSocketAddress(ip, porta));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Não foi possível iniciar o servidor: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        CountDownLatch terminado = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            gestor.parar();
+            System.out.println("Servidor parado. " + gestor.resumo());
+            if (gestor.getClassificacao() != null) {
+                for (EstatisticasJogador jogador : gestor.getClassificacao().getMelhores(TOP_CLASSIFICACAO)) {
+                    System.out.println("  " + jogador);
+                }
+            }
+            terminado.countDown();
+        }));
+
+        if (pastaDiario != null) {
+            System.out.printf("Recuperadas %d salas do diário (%d registos reproduzidos) em %d ms%n",
+                gestor.getSalasRecuperadas(), gestor.getRegistosRecuperados(), gestor.getTempoRecuperacaoMs());
+        }
+        System.out.printf("Servidor aguardando conexões em %s:%d (%d ciclos, %d lugares por sala) - pronto em %d ms%n",
+            ip, porta, ciclos, lugares, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - arranque));
+
+        try {
+            if (estatisticasS > 0) {
+                while (!terminado.await(estatisticasS, TimeUnit.SECONDS)) {
+                    System.out.println(gestor.resumo());
+                }
+            } else {
+                terminado.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Obtém o valor de uma opção.
+     *
+     * @param args Argumentos da linha de comando
+     * @param i Posição do valor
+     * @return Valor da opção
+     */
+    private static String valor(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta o valor da opção " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Texto de ajuda com as opções aceites.
+     *
+     * @return Descrição das opções
+     */
+    private static String uso() {
+        return "Uso: java -cp target/classes com.mycompany.snake_ladder.AppServidorHeadless [opções]\n"
+            + "  --ip ENDERECO         endereço de escuta (padrão 0.0.0.0)\n"
+            + "  --porta N             porta de escuta (padrão " + PORTA_PADRAO + ")\n"
+            + "  --ciclos N            ciclos de eventos (padrão: número de núcleos)\n"
+            + "  --lugares N           jogadores por sala, de 2 a " + Sala.LUGARES_MAXIMOS + " (padrão " + LUGARES_PADRAO + ")\n"
+            + "  --espera MS           espera por uma sala cheia depois de haver dois jogadores (padrão " + ESPERA_PADRAO_MS + ")\n"
+            + "  --estatisticas S      segundos entre linhas de estatísticas, 0 para desligar (padrão " + ESTATISTICAS_PADRAO_S + ")\n"
+            + "  --diario PASTA        regista todas as salas num diário nesta pasta e retoma as que lá estiverem (padrão: sem diário)\n"
+            + "  --instantaneo S       segundos máximos entre instantâneos do diário (padrão " + INSTANTANEO_PADRAO_S + ")\n"
+            + "  --classificacao FICH  guarda vitórias, partidas e duração por jogador neste ficheiro (padrão: sem classificação)\n"
+            + "  --ajuda               mostra esta ajuda";
+    }
+}
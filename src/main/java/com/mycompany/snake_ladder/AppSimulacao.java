@@ -0,0 +1,133 @@
+package com.mycompany.snake_ladder;
+
+import com.mycompany.snake_ladder.model.GeradorSplittable;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.simulacao.ResultadoSimulacao;
+import com.mycompany.snake_ladder.simulacao.SimuladorMonteCarlo;
+import com.mycompany.snake_ladder.simulacao.SolucionadorMarkov;
+
+/**
+ * Classe executável para avaliar um tabuleiro antes de o pôr em jogo.
+ *
+ * Gera o tabuleiro de uma semente, como o servidor faz no início de cada
+ * partida, e joga nele milhares de partidas com o
+ * {@link SimuladorMonteCarlo}: mostra a duração das partidas, a taxa de
+ * vitória de cada lugar e quantas vezes cada cobra e escada foi usada.
+ * Antes disso mostra os lançamentos esperados de um jogador calculados
+ * exatamente pelo {@link SolucionadorMarkov}.
+ * A mesma semente do tabuleiro e dos dados dá sempre o mesmo resultado.
+ * Tal como {@link AppServidorHeadless}, não carrega classes {@code javafx.*}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public class AppSimulacao {
+    /** Jogadores por partida quando não é indicado nenhum número */
+    private static final int JOGADORES_PADRAO = 2;
+
+    /** Partidas simuladas quando não é indicado nenhum número */
+    private static final int JOGOS_PADRAO = 100_000;
+
+    /**
+     * Método principal que corre a simulação.
+     *
+     * @param args Argumentos da linha de comando (ver {@link #uso()})
+     */
+    public static void main(String[] args) {
+        long semente = GeradorSplittable.novaSemente();
+        long sementeDados = GeradorSplittable.novaSemente();
+        int jogadores = JOGADORES_PADRAO;
+        int jogos = JOGOS_PADRAO;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--semente":
+                        semente = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--semente-dados":
+                        sementeDados = Long.parseLong(valor(args, ++i));
+                        break;
+                    case "--jogadores":
+                        jogadores = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--jogos":
+                        jogos = Integer.parseInt(valor(args, ++i));
+                        break;
+                    case "--ajuda":
+                        System.out.println(uso());
+                        return;
+                    default:
+                        throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+                }
+            }
+            if (jogadores < 1 || jogos < 1) {
+                throw new IllegalArgumentException("São precisos pelo menos um jogador e uma partida");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(uso());
+            System.exit(2);
+            return;
+        }
+
+        Tabuleiro tabuleiro = new Tabuleiro(semente);
+        System.out.printf("Tabuleiro %d: cobras %s, escadas %s%n", semente, tabuleiro.getCobras(), tabuleiro.getEscadas());
+        SolucionadorMarkov solucionador = new SolucionadorMarkov();
+        try {
+            System.out.printf("Exato: %.4f lançamentos de um jogador, 99%% das vezes até %d%n",
+                solucionador.resolver(tabuleiro), percentil99(solucionador));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Exato: " + e.getMessage());
+        }
+        System.out.printf("Simulação: %d partidas de %d jogadores, dados %d%n", jogos, jogadores, sementeDados);
+        long inicio = System.nanoTime();
+        ResultadoSimulacao resultado = new SimuladorMonteCarlo(tabuleiro, jogadores).simular(jogos, sementeDados);
+        System.out.println(resultado);
+        System.out.printf("Tempo: %.1f ms%n", (System.nanoTime() - inicio) / 1e6);
+    }
+
+    /**
+     * Procura o primeiro lançamento até ao qual a partida de um jogador
+     * termina com pelo menos 99% de probabilidade.
+     *
+     * @param solucionador Solucionador já resolvido
+     * @return Lançamento do percentil 99
+     */
+    private static int percentil99(SolucionadorMarkov solucionador) {
+        double acumulada = 0;
+        for (int k = 1; k < solucionador.getDuracaoMaxima(); k++) {
+            acumulada += solucionador.getProbabilidadeDuracao(k);
+            if (acumulada >= 0.99) return k;
+        }
+        return solucionador.getDuracaoMaxima();
+    }
+
+    /**
+     * Obtém o valor de uma opção.
+     *
+     * @param args Argumentos da linha de comando
+     * @param i Posição do valor
+     * @return Valor da opção
+     */
+    private static String valor(String[] args, int i) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException("Falta o valor da opção " + args[i - 1]);
+        }
+        return args[i];
+    }
+
+    /**
+     * Texto de ajuda com as opções aceites.
+     *
+     * @return Descrição das opções
+     */
+    private static String uso() {
+        return "Uso: java -cp target/classes com.mycompany.snake_ladder.AppSimulacao [opções]\n"
+            + "  --semente N        semente do tabuleiro, como no diário do servidor (padrão: aleatória)\n"
+            + "  --semente-dados N  semente dos dados das partidas (padrão: aleatória)\n"
+            + "  --jogadores N      jogadores por partida (padrão " + JOGADORES_PADRAO + ")\n"
+            + "  --jogos N          partidas simuladas (padrão " + JOGOS_PADRAO + ")\n"
+            + "  --ajuda            mostra esta ajuda";
+    }
+}
@@ -0,0 +1,230 @@
+package com.mycompany.snake_ladder.carga;
+
+import com.mycompany.snake_ladder.rede.MensagemEstado;
+import com.mycompany.snake_ladder.rede.Protocolo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Um jogador automático do gerador de carga.
+ *
+ * Fala o mesmo protocolo que o cliente gráfico: envia {@link Protocolo#OLA}
+ * com o nome, espera por {@link Protocolo#INICIO}, mantém o estado com uma
+ * {@link MensagemEstado} (confirmando versões e pedindo um estado completo
+ * quando falta alguma) e, na sua vez, envia {@link Protocolo#ROLAR_DADO}.
+ * No fim da partida vota sempre para reiniciar.
+ *
+ * A latência medida é a do clique ao estado: do envio do pedido para rolar
+ * até chegar o estado com a jogada deste bot. O canal não bloqueia e todo o
+ * bot é tratado pela thread do {@link GeradorCarga} a que pertence.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+final class BotCarga {
+    /** Sem resposta ao clique durante este tempo, o bot volta a clicar */
+    static final long ESPERA_RESPOSTA_NS = 5_000_000_000L;
+
+    /** Nome enviado no aperto de mão */
+    private final String nome;
+
+    /** Canal ligado ao servidor */
+    final SocketChannel canal;
+
+    /** Chave do canal no seletor da thread */
+    SelectionKey chave;
+
+    /** Tramas recebidas e ainda não tratadas, em modo de escrita */
+    private ByteBuffer entrada = ByteBuffer.allocate(4096);
+
+    /** Tramas por enviar, em modo de escrita */
+    private final ByteBuffer saida = ByteBuffer.allocate(512);
+
+    /** Estado da partida, mantido sem criar objetos */
+    private final MensagemEstado estado = new MensagemEstado();
+
+    /** Lugar atribuído pelo servidor, ou -1 antes do {@link Protocolo#BEM_VINDO} */
+    private int lugar = -1;
+
+    /** Indica se a partida já começou */
+    private boolean emJogo;
+
+    /** Instante em que pediu para rolar, ou 0 se não espera resposta */
+    private long instanteClique;
+
+    /** Instante a partir do qual pode clicar, ou 0 se não é a sua vez */
+    long proximoClique;
+
+    /**
+     * Cria um bot sobre um canal em ligação.
+     *
+     * @param nome Nome do jogador
+     * @param canal Canal não bloqueante, com a ligação já pedida
+     */
+    BotCarga(String nome, SocketChannel canal) {
+        this.nome = nome;
+        this.canal = canal;
+    }
+
+    /**
+     * Indica se a partida deste bot já começou.
+     *
+     * @return true depois de receber {@link Protocolo#INICIO}
+     */
+    boolean isEmJogo() {
+        return emJogo;
+    }
+
+    /**
+     * Termina a ligação e envia o aperto de mão.
+     *
+     * @throws IOException Se a ligação falhar
+     */
+    void ligado() throws IOException {
+        canal.finishConnect();
+        Protocolo.escreverOla(saida, nome);
+        escrever();
+    }
+
+    /**
+     * Lê o que houver no canal e trata as tramas completas.
+     *
+     * @param ciclo Thread do bot, onde ficam as medições
+     * @return false se o servidor fechou a ligação ou enviou um erro
+     * @throws IOException Se a leitura ou uma resposta falhar
+     */
+    boolean ler(GeradorCarga.Ciclo ciclo) throws IOException {
+        if (canal.read(entrada) < 0) {
+            return false;
+        }
+        entrada.flip();
+        while (entrada.remaining() >= Protocolo.CABECALHO) {
+            int comprimento = entrada.getShort(entrada.position()) & 0xFFFF;
+            if (entrada.remaining() < Protocolo.CABECALHO + comprimento) {
+                break;
+            }
+            int fim = entrada.position() + Protocolo.CABECALHO + comprimento;
+            int limite = entrada.limit();
+            entrada.position(entrada.position() + Protocolo.CABECALHO).limit(fim);
+            boolean continuar = tratar(entrada, ciclo);
+            entrada.limit(limite).position(fim);
+            if (!continuar) {
+                return false;
+            }
+        }
+        entrada.compact();
+        if (!entrada.hasRemaining()) {
+            // Uma trama maior do que o buffer: só cresce neste caso raro
+            ByteBuffer maior = ByteBuffer.allocate(Math.min(entrada.capacity() * 2, Protocolo.CABECALHO + Protocolo.TRAMA_MAXIMA));
+            entrada.flip();
+            maior.put(entrada);
+            entrada = maior;
+        }
+        escrever();
+        return true;
+    }
+
+    /**
+     * Trata uma trama.
+     *
+     * @param trama Trama posicionada no tipo
+     * @param ciclo Thread do bot
+     * @return false se o servidor enviou um erro
+     * @throws IOException Se uma resposta falhar
+     */
+    private boolean tratar(ByteBuffer trama, GeradorCarga.Ciclo ciclo) throws IOException {
+        int tipo = Protocolo.tipo(trama);
+        if (tipo == Protocolo.BEM_VINDO) {
+            lugar = Protocolo.lerU8(trama, 1);
+            return true;
+        }
+        if (tipo == Protocolo.INICIO) {
+            emJogo = true;
+            ciclo.botIniciado();
+            return true;
+        }
+        if (tipo == Protocolo.ERRO) {
+            return false;
+        }
+        if (tipo != Protocolo.ESTADO && tipo != Protocolo.DELTA) {
+            return true;
+        }
+        int resultado = estado.ler(trama);
+        if (resultado == MensagemEstado.LACUNA) {
+            Protocolo.escreverPedirEstado(saida);
+        }
+        if (resultado != MensagemEstado.APLICADA) {
+            return true;
+        }
+        if (estado.deveConfirmar()) {
+            Protocolo.escreverConfirmar(saida, estado.getVersao());
+        }
+        if (instanteClique != 0 && estado.temEvento() && estado.getEvento().getJogador() == lugar) {
+            ciclo.jogada(System.nanoTime() - instanteClique);
+            instanteClique = 0;
+        }
+        if (estado.isFim()) {
+            instanteClique = 0;
+            proximoClique = 0;
+            Protocolo.escreverVotoReinicio(saida, true);
+        } else if (estado.getJogadorAtual() == lugar && instanteClique == 0 && proximoClique == 0) {
+            ciclo.agendarClique(this);
+        }
+        return true;
+    }
+
+    /**
+     * Pede para rolar o dado, se ainda for a vez deste bot.
+     *
+     * @param agora Instante atual, em nanossegundos
+     * @throws IOException Se o envio falhar
+     */
+    void clicar(long agora) throws IOException {
+        proximoClique = 0;
+        if (estado.isFim() || estado.getJogadorAtual() != lugar) {
+            return;
+        }
+        Protocolo.escreverRolarDado(saida);
+        instanteClique = agora;
+        escrever();
+    }
+
+    /**
+     * Verifica se o último clique ficou sem resposta e, nesse caso, volta a
+     * clicar. Evita que um pedido perdido (por exemplo, durante o reinício)
+     * pare o bot e a sala.
+     *
+     * @param agora Instante atual, em nanossegundos
+     * @return true se o bot voltou a clicar
+     * @throws IOException Se o envio falhar
+     */
+    boolean verificarResposta(long agora) throws IOException {
+        if (instanteClique == 0 || agora - instanteClique < ESPERA_RESPOSTA_NS) {
+            return false;
+        }
+        instanteClique = 0;
+        clicar(agora);
+        return true;
+    }
+
+    /**
+     * Escreve o que houver por enviar. O que não couber no canal fica para
+     * quando ele voltar a aceitar dados.
+     *
+     * @throws IOException Se a escrita falhar
+     */
+    void escrever() throws IOException {
+        if (saida.position() == 0) {
+            return;
+        }
+        saida.flip();
+        canal.write(saida);
+        saida.compact();
+        if (chave != null && chave.isValid()) {
+            chave.interestOps(saida.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+}
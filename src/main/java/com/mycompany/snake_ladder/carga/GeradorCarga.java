@@ -0,0 +1,407 @@
+package com.mycompany.snake_ladder.carga;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gerador de carga: muitos {@link BotCarga} ligados a um servidor, a jogar
+ * partidas completas.
+ *
+ * Os bots são repartidos por algumas threads, cada uma com o seu
+ * {@link Selector}, à semelhança dos ciclos de eventos do servidor; milhares
+ * de bots não precisam de milhares de threads. As ligações são abertas aos
+ * poucos, para não encher a fila de ligações pendentes do servidor.
+ *
+ * Cada thread regista as latências clique-estado no seu {@link Histograma},
+ * sem sincronização; os histogramas só são juntados depois de as threads
+ * pararem. As latências só contam depois de {@link #iniciarMedicao()}, para
+ * que o arranque e o aquecimento não entrem nos percentis.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class GeradorCarga {
+    /** Ligações em curso ao mesmo tempo, por thread */
+    private static final int LIGACOES_EM_CURSO = 32;
+
+    /** Intervalo entre verificações de cliques sem resposta */
+    private static final long VERIFICACAO_NS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Espera máxima no seletor, para as ligações e os cliques não atrasarem */
+    private static final long ESPERA_MAXIMA_MS = 100;
+
+    /** Endereço do servidor */
+    private final InetSocketAddress servidor;
+
+    /** Pausa entre a vez chegar e o bot clicar, em nanossegundos */
+    private final long pausaNs;
+
+    /** Threads dos bots */
+    private final Ciclo[] ciclos;
+
+    /** Jogadas confirmadas pelo servidor, desde o início */
+    private final LongAdder jogadas = new LongAdder();
+
+    /** Bots cuja partida já começou */
+    private final LongAdder botsEmJogo = new LongAdder();
+
+    /** Ligações que falharam ou que o servidor fechou */
+    private final LongAdder falhas = new LongAdder();
+
+    /** Cliques repetidos por falta de resposta */
+    private final LongAdder repeticoes = new LongAdder();
+
+    /** Indica se as latências já contam */
+    private volatile boolean medir;
+
+    /** Indica se as threads devem parar */
+    private volatile boolean parado;
+
+    /**
+     * Cria um gerador. Os bots só se ligam com {@link #iniciar()}.
+     *
+     * @param servidor Endereço do servidor
+     * @param numBots Número de bots
+     * @param numThreads Threads pelas quais os bots são repartidos
+     * @param pausaMs Pausa entre a vez chegar e o bot clicar, em milissegundos
+     */
+    public GeradorCarga(InetSocketAddress servidor, int numBots, int numThreads, long pausaMs) {
+        if (numBots < 1 || numThreads < 1) {
+            throw new IllegalArgumentException("São precisos pelo menos um bot e uma thread");
+        }
+        this.servidor = servidor;
+        this.pausaNs = TimeUnit.MILLISECONDS.toNanos(pausaMs);
+        int threads = Math.min(numThreads, numBots);
+        ciclos = new Ciclo[threads];
+        for (int i = 0; i < threads; i++) {
+            // Os bots são numerados por ordem de thread, para os nomes não se repetirem
+            int primeiro = (int) ((long) numBots * i / threads);
+            int ultimo = (int) ((long) numBots * (i + 1) / threads);
+            ciclos[i] = new Ciclo(primeiro, ultimo - primeiro);
+        }
+    }
+
+    /**
+     * Abre os seletores e arranca as threads.
+     *
+     * @throws IOException Se não for possível abrir um seletor
+     */
+    public void iniciar() throws IOException {
+        for (Ciclo ciclo : ciclos) {
+            ciclo.seletor = Selector.open();
+        }
+        for (int i = 0; i < ciclos.length; i++) {
+            Thread thread = new Thread(ciclos[i], "carga-" + i);
+            thread.setDaemon(true);
+            ciclos[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Passa a contar as latências a partir deste momento.
+     */
+    public void iniciarMedicao() {
+        medir = true;
+    }
+
+    /**
+     * Para as threads, fecha as ligações e espera que terminem.
+     *
+     * @throws InterruptedException Se a espera for interrompida
+     */
+    public void parar() throws InterruptedException {
+        parado = true;
+        for (Ciclo ciclo : ciclos) {
+            ciclo.seletor.wakeup();
+        }
+        for (Ciclo ciclo : ciclos) {
+            ciclo.thread.join();
+        }
+    }
+
+    /**
+     * Junta os histogramas de todas as threads. Só deve ser chamado depois
+     * de {@link #parar()}.
+     *
+     * @return Latências clique-estado, em nanossegundos
+     */
+    public Histograma getLatencias() {
+        Histograma total = new Histograma();
+        for (Ciclo ciclo : ciclos) {
+            total.juntar(ciclo.latencias);
+        }
+        return total;
+    }
+
+    /**
+     * Obtém o número de jogadas confirmadas pelo servidor.
+     *
+     * @return Jogadas desde o início
+     */
+    public long getJogadas() {
+        return jogadas.sum();
+    }
+
+    /**
+     * Obtém o número de bots cuja partida já começou.
+     *
+     * @return Bots em jogo
+     */
+    public long getBotsEmJogo() {
+        return botsEmJogo.sum();
+    }
+
+    /**
+     * Obtém o número de ligações que falharam ou foram fechadas pelo servidor.
+     *
+     * @return Falhas
+     */
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    /**
+     * Obtém o número de cliques repetidos por falta de resposta.
+     *
+     * @return Repetições
+     */
+    public long getRepeticoes() {
+        return repeticoes.sum();
+    }
+
+    /**
+     * Uma thread do gerador, com o seu seletor e os seus bots.
+     */
+    final class Ciclo implements Runnable {
+        /** Número do primeiro bot desta thread */
+        private final int primeiro;
+
+        /** Bots desta thread */
+        private final int quantidade;
+
+        /** Bots já criados */
+        private final List<BotCarga> bots = new ArrayList<>();
+
+        /** Bots à espera da pausa para clicar, por ordem de vencimento */
+        private final ArrayDeque<BotCarga> cliques = new ArrayDeque<>();
+
+        /** Latências medidas por esta thread */
+        private final Histograma latencias = new Histograma();
+
+        /** Seletor dos canais desta thread */
+        private Selector seletor;
+
+        /** Thread que corre este ciclo */
+        private Thread thread;
+
+        /** Bots já criados, incluindo os que não chegaram a ligar */
+        private int criados;
+
+        /** Ligações pedidas e ainda por terminar */
+        private int emLigacao;
+
+        /**
+         * Cria o ciclo de um intervalo de bots.
+         *
+         * @param primeiro Número do primeiro bot
+         * @param quantidade Número de bots
+         */
+        Ciclo(int primeiro, int quantidade) {
+            this.primeiro = primeiro;
+            this.quantidade = quantidade;
+        }
+
+        @Override
+        public void run() {
+            long proximaVerificacao = System.nanoTime() + VERIFICACAO_NS;
+            try {
+                while (!parado) {
+                    ligarMais();
+                    long espera = ESPERA_MAXIMA_MS;
+                    BotCarga seguinte = cliques.peek();
+                    if (seguinte != null) {
+                        espera = Math.min(espera, TimeUnit.NANOSECONDS.toMillis(seguinte.proximoClique - System.nanoTime()));
+                    }
+                    if (espera > 0) {
+                        seletor.select(espera);
+                    } else {
+                        seletor.selectNow();
+                    }
+                    tratarProntos();
+
+                    long agora = System.nanoTime();
+                    while ((seguinte = cliques.peek()) != null && seguinte.proximoClique - agora <= 0) {
+                        cliques.poll();
+                        // Um bot reagendado ou cuja partida acabou deixa entradas antigas na fila
+                        if (seguinte.proximoClique != 0 && seguinte.proximoClique - agora <= 0) {
+                            clicar(seguinte, agora);
+                        }
+                    }
+                    if (agora - proximaVerificacao >= 0) {
+                        proximaVerificacao = agora + VERIFICACAO_NS;
+                        for (BotCarga bot : bots) {
+                            if (bot.chave != null && bot.chave.isValid() && bot.verificarResposta(agora)) {
+                                repeticoes.increment();
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                for (BotCarga bot : bots) {
+                    try {
+                        bot.canal.close();
+                    } catch (IOException e) {
+                        // A fechar de qualquer maneira
+                    }
+                }
+                try {
+                    seletor.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        /**
+         * Pede novas ligações até ao limite de ligações em curso.
+         */
+        private void ligarMais() {
+            while (emLigacao < LIGACOES_EM_CURSO && criados < quantidade) {
+                String nome = "bot-" + (primeiro + criados++);
+                try {
+                    SocketChannel canal = SocketChannel.open();
+                    canal.configureBlocking(false);
+                    canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    BotCarga bot = new BotCarga(nome, canal);
+                    bots.add(bot);
+                    if (canal.connect(servidor)) {
+                        bot.chave = canal.register(seletor, SelectionKey.OP_READ, bot);
+                        bot.ligado();
+                    } else {
+                        bot.chave = canal.register(seletor, SelectionKey.OP_CONNECT, bot);
+                        emLigacao++;
+                    }
+                } catch (IOException e) {
+                    falhas.increment();
+                }
+            }
+        }
+
+        /**
+         * Trata os canais que o seletor devolveu.
+         */
+        private void tratarProntos() {
+            Iterator<SelectionKey> it = seletor.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey chave = it.next();
+                it.remove();
+                BotCarga bot = (BotCarga) chave.attachment();
+                try {
+                    if (!chave.isValid()) {
+                        continue;
+                    }
+                    if (chave.isConnectable()) {
+                        ligado(bot);
+                        continue;
+                    }
+                    if (chave.isWritable()) {
+                        bot.escrever();
+                    }
+                    if (chave.isReadable() && !bot.ler(this)) {
+                        fechar(bot);
+                    }
+                } catch (IOException e) {
+                    fechar(bot);
+                }
+            }
+        }
+
+        /**
+         * Termina uma ligação acabada de estabelecer e passa a ler dela.
+         *
+         * @param bot Bot ligado
+         * @throws IOException Se a ligação falhou
+         */
+        private void ligado(BotCarga bot) throws IOException {
+            emLigacao--;
+            bot.chave.interestOps(SelectionKey.OP_READ);
+            bot.ligado();
+        }
+
+        /**
+         * Fecha a ligação de um bot que falhou.
+         *
+         * @param bot Bot a fechar
+         */
+        private void fechar(BotCarga bot) {
+            falhas.increment();
+            bot.chave.cancel();
+            try {
+                bot.canal.close();
+            } catch (IOException e) {
+                // Já estava a falhar
+            }
+        }
+
+        /**
+         * Envia o clique de um bot.
+         *
+         * @param bot Bot cuja pausa acabou
+         * @param agora Instante atual
+         */
+        private void clicar(BotCarga bot, long agora) {
+            if (!bot.chave.isValid()) {
+                return;
+            }
+            try {
+                bot.clicar(agora);
+            } catch (IOException e) {
+                fechar(bot);
+            }
+        }
+
+        /**
+         * Chamado por um bot cuja partida começou.
+         */
+        void botIniciado() {
+            botsEmJogo.increment();
+        }
+
+        /**
+         * Põe um bot a clicar depois da pausa. Como a pausa é igual para
+         * todos, a fila fica sempre ordenada pelo vencimento.
+         *
+         * @param bot Bot cuja vez chegou
+         */
+        void agendarClique(BotCarga bot) {
+            // 0 quer dizer "sem clique agendado", por isso nunca é usado como instante
+            bot.proximoClique = (System.nanoTime() + pausaNs) | 1;
+            cliques.add(bot);
+        }
+
+        /**
+         * Regista uma jogada confirmada pelo servidor.
+         *
+         * @param latenciaNs Tempo entre o clique e o estado com a jogada
+         */
+        void jogada(long latenciaNs) {
+            jogadas.increment();
+            if (medir) {
+                latencias.registar(latenciaNs);
+            }
+        }
+    }
+}
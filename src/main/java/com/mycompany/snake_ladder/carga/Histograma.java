@@ -0,0 +1,177 @@
+package com.mycompany.snake_ladder.carga;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de valores inteiros com erro relativo limitado, no estilo do
+ * HdrHistogram.
+ *
+ * Os valores abaixo de {@value #SUBBALDES} têm um balde cada. Acima disso,
+ * cada potência de 2 é dividida em {@value #SUBBALDES}/2 baldes iguais, por
+ * isso um valor é guardado com erro inferior a 1/128 (menos de 0,8%), seja
+ * ele 1 µs ou 10 s, e o histograma ocupa sempre o mesmo espaço. Registar é
+ * uma conta com o bit mais alto e um incremento num array, sem objetos.
+ *
+ * Não é seguro entre threads: cada thread regista no seu e os histogramas
+ * são juntados com {@link #juntar(Histograma)} no fim.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Histograma {
+    /** Bits de precisão de cada balde */
+    private static final int BITS_PRECISAO = 8;
+
+    /** Baldes de largura 1 no início da escala */
+    private static final int SUBBALDES = 1 << BITS_PRECISAO;
+
+    /** Baldes por potência de 2 acima de {@link #SUBBALDES} */
+    private static final int METADE = SUBBALDES / 2;
+
+    /** Contagem por balde */
+    private final long[] contagens = new long[SUBBALDES + (63 - BITS_PRECISAO) * METADE];
+
+    /** Número de valores registados */
+    private long total;
+
+    /** Soma dos valores registados, para a média */
+    private long soma;
+
+    /** Menor valor registado */
+    private long minimo = Long.MAX_VALUE;
+
+    /** Maior valor registado */
+    private long maximo;
+
+    /**
+     * Regista um valor.
+     *
+     * @param valor Valor a registar; os negativos contam como 0
+     */
+    public void registar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        contagens[indice(valor)]++;
+        total++;
+        soma += valor;
+        if (valor < minimo) minimo = valor;
+        if (valor > maximo) maximo = valor;
+    }
+
+    /**
+     * Soma a este histograma os valores de outro.
+     *
+     * @param outro Histograma a juntar; não é alterado
+     */
+    public void juntar(Histograma outro) {
+        for (int i = 0; i < contagens.length; i++) {
+            contagens[i] += outro.contagens[i];
+        }
+        total += outro.total;
+        soma += outro.soma;
+        minimo = Math.min(minimo, outro.minimo);
+        maximo = Math.max(maximo, outro.maximo);
+    }
+
+    /**
+     * Esquece todos os valores registados.
+     */
+    public void limpar() {
+        Arrays.fill(contagens, 0);
+        total = 0;
+        soma = 0;
+        minimo = Long.MAX_VALUE;
+        maximo = 0;
+    }
+
+    /**
+     * Obtém o valor abaixo do qual (ou igual) está uma percentagem dos
+     * valores registados.
+     *
+     * @param percentil Percentagem, de 0 a 100 (por exemplo 99.9)
+     * @return Maior valor equivalente ao do balde do percentil, limitado ao
+     *         máximo registado; 0 se o histograma estiver vazio
+     */
+    public long getPercentil(double percentil) {
+        if (total == 0) {
+            return 0;
+        }
+        long alvo = Math.max(1, (long) Math.ceil(percentil / 100.0 * total));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length; i++) {
+            acumulado += contagens[i];
+            if (acumulado >= alvo) {
+                return Math.min(limiteSuperior(i), maximo);
+            }
+        }
+        return maximo;
+    }
+
+    /**
+     * Obtém o número de valores registados.
+     *
+     * @return Contagem
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Obtém a média exata dos valores registados.
+     *
+     * @return Média, ou 0 se o histograma estiver vazio
+     */
+    public double getMedia() {
+        return total == 0 ? 0 : (double) soma / total;
+    }
+
+    /**
+     * Obtém o menor valor registado.
+     *
+     * @return Mínimo, ou 0 se o histograma estiver vazio
+     */
+    public long getMinimo() {
+        return total == 0 ? 0 : minimo;
+    }
+
+    /**
+     * Obtém o maior valor registado.
+     *
+     * @return Máximo
+     */
+    public long getMaximo() {
+        return maximo;
+    }
+
+    /**
+     * Calcula o balde de um valor.
+     *
+     * @param valor Valor não negativo
+     * @return Índice em {@link #contagens}
+     */
+    private static int indice(long valor) {
+        if (valor < SUBBALDES) {
+            return (int) valor;
+        }
+        int bitAlto = 63 - Long.numberOfLeadingZeros(valor);
+        int deslocamento = bitAlto - BITS_PRECISAO + 1;
+        int topo = (int) (valor >>> deslocamento);
+        return SUBBALDES + (deslocamento - 1) * METADE + (topo - METADE);
+    }
+
+    /**
+     * Calcula o maior valor que cai num balde.
+     *
+     * @param indice Índice do balde
+     * @return Limite superior, inclusivo
+     */
+    private static long limiteSuperior(int indice) {
+        if (indice < SUBBALDES) {
+            return indice;
+        }
+        int deslocamento = (indice - SUBBALDES) / METADE + 1;
+        long topo = (indice - SUBBALDES) % METADE + METADE;
+        return ((topo + 1) << deslocamento) - 1;
+    }
+}
@@ -0,0 +1,185 @@
+package com.mycompany.snake_ladder.controller;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.rede.MensagemEstado;
+
+/**
+ * Um estado recebido do servidor, pronto a ser mostrado pelo
+ * {@link TabuleiroController}.
+ *
+ * As instâncias são reaproveitadas pelo {@link LeitorServidor}: a thread de
+ * leitura preenche-as com {@link #preencher} e publica-as, e a partir daí
+ * ninguém as altera até a thread do JavaFX as devolver. Enquanto está
+ * publicada, uma atualização é portanto imutável e pode ser lida sem
+ * sincronização.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+final class AtualizacaoEstado {
+    /** Nomes dos jogadores, por lugar; partilhado por todas as atualizações da mesma lista */
+    private String[] nomes;
+
+    /** Número de jogadores */
+    private int numJogadores;
+
+    /** Posições, por lugar */
+    private int[] posicoes = new int[4];
+
+    /** Vitórias, por lugar */
+    private int[] vitorias = new int[4];
+
+    /** Jogada que originou o estado, válida se {@link #temEvento} */
+    private final EventoMovimento evento = new EventoMovimento();
+
+    /** Indica se o estado traz a jogada que o originou */
+    private boolean temEvento;
+
+    /** Tabuleiro em vigor quando o estado chegou */
+    private Tabuleiro tabuleiro;
+
+    /** Indica se o estado é o primeiro de um jogo reiniciado */
+    private boolean reinicio;
+
+    /** Indica se o jogo terminou */
+    private boolean fim;
+
+    /** Lugar de quem joga a seguir */
+    private int jogadorAtual;
+
+    /** Instante da chegada, em nanossegundos */
+    private long recebidaEm;
+
+    /**
+     * Copia o estado acabado de decodificar. Os arrays só crescem quando
+     * chega uma sala maior.
+     *
+     * @param estado Estado decodificado pela thread de leitura
+     * @param nomes Nomes dos jogadores, por lugar
+     * @param tabuleiro Tabuleiro em vigor
+     */
+    void preencher(MensagemEstado estado, String[] nomes, Tabuleiro tabuleiro) {
+        int n = estado.getNumeroJogadores();
+        if (posicoes.length < n) {
+            posicoes = new int[n];
+            vitorias = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            posicoes[i] = estado.getPosicao(i);
+            vitorias[i] = estado.getVitorias(i);
+        }
+        numJogadores = n;
+        temEvento = estado.temEvento();
+        if (temEvento) {
+            evento.copiarDe(estado.getEvento());
+        }
+        this.nomes = nomes;
+        this.tabuleiro = tabuleiro;
+        reinicio = estado.isReinicio();
+        fim = estado.isFim();
+        jogadorAtual = estado.getJogadorAtual();
+        recebidaEm = System.nanoTime();
+    }
+
+    /**
+     * Obtém os nomes dos jogadores. O array não deve ser alterado.
+     *
+     * @return Nomes, por lugar
+     */
+    String[] getNomes() {
+        return nomes;
+    }
+
+    /**
+     * Obtém o número de jogadores do estado.
+     *
+     * @return Número de lugares
+     */
+    int getNumeroJogadores() {
+        return numJogadores;
+    }
+
+    /**
+     * Obtém a posição de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Casa onde está a peça
+     */
+    int getPosicao(int lugar) {
+        return posicoes[lugar];
+    }
+
+    /**
+     * Obtém as vitórias de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Número de vitórias
+     */
+    int getVitorias(int lugar) {
+        return vitorias[lugar];
+    }
+
+    /**
+     * Obtém a jogada que originou o estado.
+     *
+     * @return Evento da jogada, ou null se o estado não vier de uma jogada
+     */
+    EventoMovimento getEvento() {
+        return temEvento ? evento : null;
+    }
+
+    /**
+     * Obtém o valor do dado da jogada.
+     *
+     * @return Valor do dado, ou 0 se o estado não vier de uma jogada
+     */
+    int getDado() {
+        return temEvento ? evento.getDado() : 0;
+    }
+
+    /**
+     * Obtém o tabuleiro em vigor quando o estado chegou.
+     *
+     * @return Tabuleiro, a mesma instância enquanto o servidor não o mudar
+     */
+    Tabuleiro getTabuleiro() {
+        return tabuleiro;
+    }
+
+    /**
+     * Verifica se é o primeiro estado de um jogo reiniciado.
+     *
+     * @return true se o jogo acabou de ser reiniciado
+     */
+    boolean isReinicio() {
+        return reinicio;
+    }
+
+    /**
+     * Verifica se o jogo terminou.
+     *
+     * @return true se o estado é o final da partida
+     */
+    boolean isFim() {
+        return fim;
+    }
+
+    /**
+     * Obtém o lugar de quem joga a seguir.
+     *
+     * @return Lugar do jogador atual
+     */
+    int getJogadorAtual() {
+        return jogadorAtual;
+    }
+
+    /**
+     * Obtém o instante em que o estado chegou.
+     *
+     * @return Valor de {@link System#nanoTime()} na chegada
+     */
+    long getRecebidaEm() {
+        return recebidaEm;
+    }
+}
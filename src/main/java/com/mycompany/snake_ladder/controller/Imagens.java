@@ -0,0 +1,120 @@
+package com.mycompany.snake_ladder.controller;
+
+import javafx.scene.image.Image;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache partilhada das imagens do jogo: faces do dado e peões.
+ *
+ * Cada imagem é descodificada uma única vez e a mesma instância de
+ * {@link Image} é usada por todas as {@link javafx.scene.image.ImageView},
+ * em vez de uma imagem nova por peça, por redesenho ou por quadro da
+ * animação do dado. {@link #carregar()} descodifica tudo no arranque do
+ * cliente; os contadores de acertos e falhas permitem confirmar que, a
+ * partir daí, nenhuma imagem volta a ser lida.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Imagens {
+    /** Imagens dos peões, por cor; o lugar escolhe a cor */
+    private static final String[] PEOES = {"/imagens/peao.png", "/imagens/peao_azul.png"};
+
+    /** Imagens já descodificadas, pelo caminho do recurso */
+    private static final Map<String, Image> cache = new ConcurrentHashMap<>();
+
+    /** Faces do dado, de 1 a 6 (a posição 0 não é usada) */
+    private static final Image[] faces = new Image[7];
+
+    /** Pedidos servidos pela cache */
+    private static final AtomicLong acertos = new AtomicLong();
+
+    /** Pedidos que obrigaram a ler e descodificar a imagem */
+    private static final AtomicLong falhas = new AtomicLong();
+
+    private Imagens() {
+    }
+
+    /**
+     * Descodifica todas as faces do dado e todos os peões. Pode ser chamado
+     * de qualquer thread, antes de a interface precisar das imagens.
+     */
+    public static void carregar() {
+        for (int face = 1; face <= 6; face++) {
+            dado(face);
+        }
+        for (int cor = 0; cor < PEOES.length; cor++) {
+            peao(cor);
+        }
+    }
+
+    /**
+     * Obtém a imagem de uma face do dado.
+     *
+     * @param face Valor da face, de 1 a 6
+     * @return Imagem da face, ou null se o recurso não existir
+     */
+    public static Image dado(int face) {
+        Image imagem = faces[face];
+        if (imagem != null) {
+            acertos.incrementAndGet();
+            return imagem;
+        }
+        imagem = obter("/imagens/dado" + face + ".png");
+        faces[face] = imagem;
+        return imagem;
+    }
+
+    /**
+     * Obtém a imagem do peão de um jogador. O jogador do lugar 1 tem o
+     * peão azul; os restantes, o preto.
+     *
+     * @param lugar Lugar do jogador
+     * @return Imagem do peão, ou null se o recurso não existir
+     */
+    public static Image peao(int lugar) {
+        return obter(PEOES[lugar == 1 ? 1 : 0]);
+    }
+
+    /**
+     * Obtém uma imagem dos recursos da aplicação, descodificando-a só no
+     * primeiro pedido.
+     *
+     * @param caminho Caminho do recurso, por exemplo {@code /imagens/peao.png}
+     * @return Imagem partilhada, ou null se o recurso não existir
+     */
+    public static Image obter(String caminho) {
+        Image imagem = cache.get(caminho);
+        if (imagem != null) {
+            acertos.incrementAndGet();
+            return imagem;
+        }
+        URL url = Imagens.class.getResource(caminho);
+        if (url == null) {
+            return null;
+        }
+        falhas.incrementAndGet();
+        return cache.computeIfAbsent(caminho, c -> new Image(url.toExternalForm()));
+    }
+
+    /**
+     * Obtém o número de pedidos servidos pela cache.
+     *
+     * @return Acertos desde o arranque
+     */
+    public static long getAcertos() {
+        return acertos.get();
+    }
+
+    /**
+     * Obtém o número de pedidos em que a imagem teve de ser descodificada.
+     *
+     * @return Falhas desde o arranque
+     */
+    public static long getFalhas() {
+        return falhas.get();
+    }
+}
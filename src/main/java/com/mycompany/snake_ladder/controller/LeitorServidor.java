@@ -0,0 +1,179 @@
+package com.mycompany.snake_ladder.controller;
+
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.rede.LigacaoCliente;
+import com.mycompany.snake_ladder.rede.MensagemEstado;
+import com.mycompany.snake_ladder.rede.Protocolo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decodifica as tramas do servidor na thread de leitura do cliente e
+ * entrega à thread do JavaFX estados prontos a mostrar.
+ *
+ * Os jogadores, o tabuleiro e o estado são mantidos em estruturas
+ * reaproveitadas: uma trama de estado é copiada para uma
+ * {@link AtualizacaoEstado} tirada de um conjunto de instâncias livres, e
+ * a lista de espera é um array circular, por isso em regime estável
+ * receber um estado não cria objetos. O {@link Tabuleiro} e a lista de
+ * nomes só são substituídos quando o servidor manda outros diferentes; ao
+ * reiniciar com o mesmo tabuleiro, as atualizações continuam a apontar para
+ * a mesma instância.
+ *
+ * Uma única thread chama {@link #ler}; {@link #retirar()} e
+ * {@link #devolver} são chamados pela thread do JavaFX.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+final class LeitorServidor {
+    /** Estado da partida, decodificado sem criar objetos */
+    private final MensagemEstado estado = new MensagemEstado();
+
+    /** Nomes dos jogadores, por lugar */
+    private String[] nomes = new String[0];
+
+    /** Destino de cada casa no tabuleiro atual, ou 0 se não tiver cobra nem escada */
+    private final int[] destinos = new int[101];
+
+    /** Destinos lidos da última trama de tabuleiro, antes de comparar */
+    private final int[] destinosRecebidos = new int[101];
+
+    /** Tabuleiro atual */
+    private Tabuleiro tabuleiro = new Tabuleiro(new HashMap<>(), new HashMap<>());
+
+    /** Estados à espera da thread do JavaFX, por ordem de chegada */
+    private final ArrayDeque<AtualizacaoEstado> pendentes = new ArrayDeque<>();
+
+    /** Instâncias já mostradas, prontas a ser preenchidas de novo */
+    private final ArrayDeque<AtualizacaoEstado> livres = new ArrayDeque<>();
+
+    /**
+     * Decodifica uma trama de jogadores, de tabuleiro ou de estado. As
+     * restantes são ignoradas.
+     *
+     * @param trama Trama recebida, válida só até à leitura seguinte
+     * @param ligacao Ligação por onde confirmar versões ou pedir um estado completo
+     * @return true se foi publicado um estado novo
+     * @throws IOException Se falhar o envio de uma confirmação ou pedido
+     */
+    boolean ler(ByteBuffer trama, LigacaoCliente ligacao) throws IOException {
+        int tipo = Protocolo.tipo(trama);
+        if (tipo == Protocolo.JOGADORES) {
+            lerJogadores(trama);
+            return false;
+        }
+        if (tipo == Protocolo.TABULEIRO) {
+            lerTabuleiro(trama);
+            return false;
+        }
+        if (tipo != Protocolo.ESTADO && tipo != Protocolo.DELTA) {
+            return false;
+        }
+        int resultado = estado.ler(trama);
+        if (resultado == MensagemEstado.LACUNA) {
+            ligacao.enviarPedirEstado();
+        }
+        if (resultado != MensagemEstado.APLICADA) {
+            return false;
+        }
+        if (estado.deveConfirmar()) {
+            ligacao.enviarConfirmar(estado.getVersao());
+        }
+        AtualizacaoEstado atualizacao;
+        synchronized (this) {
+            atualizacao = livres.poll();
+        }
+        if (atualizacao == null) {
+            atualizacao = new AtualizacaoEstado();
+        }
+        atualizacao.preencher(estado, nomes, tabuleiro);
+        synchronized (this) {
+            pendentes.add(atualizacao);
+        }
+        return true;
+    }
+
+    /**
+     * Retira o estado mais antigo da lista de espera.
+     *
+     * @return Estado a mostrar, ou null se não houver nenhum
+     */
+    synchronized AtualizacaoEstado retirar() {
+        return pendentes.poll();
+    }
+
+    /**
+     * Obtém o número de estados à espera.
+     *
+     * @return Estados por mostrar
+     */
+    synchronized int getPendentes() {
+        return pendentes.size();
+    }
+
+    /**
+     * Devolve um estado já mostrado, para ser reaproveitado. Não pode voltar
+     * a ser lido depois disto.
+     *
+     * @param atualizacao Estado retirado com {@link #retirar()}
+     */
+    synchronized void devolver(AtualizacaoEstado atualizacao) {
+        livres.add(atualizacao);
+    }
+
+    /**
+     * Lê a lista de jogadores. Se for igual à atual, mantém o mesmo array,
+     * para que a interface não tenha de refazer os painéis.
+     *
+     * @param trama Trama {@link Protocolo#JOGADORES}
+     */
+    private void lerJogadores(ByteBuffer trama) {
+        int n = Protocolo.lerU8(trama, 0);
+        String[] lidos = new String[n];
+        int pos = 1;
+        for (int i = 0; i < n; i++) {
+            lidos[i] = Protocolo.lerTexto(trama, pos);
+            pos += Protocolo.tamanhoTexto(trama, pos);
+        }
+        if (!Arrays.equals(lidos, nomes)) {
+            nomes = lidos;
+        }
+    }
+
+    /**
+     * Lê as cobras e escadas para uma tabela de destinos por casa. Só é
+     * criado um {@link Tabuleiro} novo se a tabela mudar.
+     *
+     * @param trama Trama {@link Protocolo#TABULEIRO}
+     */
+    private void lerTabuleiro(ByteBuffer trama) {
+        Arrays.fill(destinosRecebidos, 0);
+        int n = Protocolo.lerU8(trama, 0);
+        int pos = 1;
+        for (int i = 0; i < n; i++, pos += 2) {
+            destinosRecebidos[Protocolo.lerU8(trama, pos)] = Protocolo.lerU8(trama, pos + 1);
+        }
+        n = Protocolo.lerU8(trama, pos++);
+        for (int i = 0; i < n; i++, pos += 2) {
+            destinosRecebidos[Protocolo.lerU8(trama, pos)] = Protocolo.lerU8(trama, pos + 1);
+        }
+        if (Arrays.equals(destinosRecebidos, destinos)) {
+            return;
+        }
+        System.arraycopy(destinosRecebidos, 0, destinos, 0, destinos.length);
+        // As cobras descem e as escadas sobem, por isso o destino basta para as distinguir
+        Map<Integer, Integer> cobras = new HashMap<>();
+        Map<Integer, Integer> escadas = new HashMap<>();
+        for (int casa = 1; casa <= 100; casa++) {
+            if (destinos[casa] == 0) continue;
+            (destinos[casa] < casa ? cobras : escadas).put(casa, destinos[casa]);
+        }
+        tabuleiro = new Tabuleiro(cobras, escadas);
+    }
+}
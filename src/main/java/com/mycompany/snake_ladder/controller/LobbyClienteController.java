@@ -1,5 +1,7 @@
 package com.mycompany.snake_ladder.controller;
 
+import com.mycompany.snake_ladder.rede.LigacaoCliente;
+import com.mycompany.snake_ladder.rede.Protocolo;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -9,6 +11,7 @@ import javafx.scene.control.TextField;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 /**
  * Controlador para o lobby do cliente no jogo Cobras e Escadas.
@@ -39,24 +42,15 @@ public class LobbyClienteController {
     @FXML private Button botaoComecar;
 
     /**
-     * Socket de conexão com o servidor.
+     * Ligação ao servidor.
      */
-    private java.net.Socket socket;
-    
-    /**
-     * Leitor de entrada do socket.
-     */
-    private java.io.BufferedReader socketInput;
-    
-    /**
-     * Escritor de saída do socket.
-     */
-    private java.io.PrintWriter socketOutput;
+    private LigacaoCliente ligacao;
 
     /**
      * Inicia a conexão com o servidor e começa o jogo.
-     * Conecta ao servidor, envia o nome do jogador e aguarda o início da partida.
-     * Após receber o sinal START, navega para a tela do tabuleiro.
+     * Conecta ao servidor, faz o aperto de mão com o nome do jogador e aguarda
+     * o início da partida. O servidor responde com o lugar atribuído; após
+     * receber o aviso de início, navega para a tela do tabuleiro.
      * 
      * @throws IOException Se ocorrer erro na conexão com o servidor
      * @throws NumberFormatException Se a porta não for um número válido
@@ -69,11 +63,8 @@ public class LobbyClienteController {
             String nome = campoNome.getText().trim(); // Remove espaços do nome
 
             // Estabelece conexão com o servidor
-            socket = new java.net.Socket(ip, porta);
-            socketInput = new java.io.BufferedReader(new java.io.InputStreamReader(socket.getInputStream()));
-            socketOutput = new java.io.PrintWriter(socket.getOutputStream(), true);
-
-            socketOutput.println(nome); // Envia nome ao servidor
+            ligacao = new LigacaoCliente(ip, porta);
+            ligacao.enviarOla(nome); // Aperto de mão com o nome
 
             // Troca para a tela de espera
             try {
@@ -82,24 +73,40 @@ public class LobbyClienteController {
                 Stage stage = (Stage) botaoComecar.getScene().getWindow();
                 stage.setScene(new Scene(root));
 
-                // Inicia thread para aguardar o sinal START do servidor
+                // Inicia thread para aguardar o lugar e o sinal de início do servidor
                 new Thread(() -> {
                     try {
-                        String msg = socketInput.readLine();
-                        if ("START".equals(msg)) {
-                            // Navega para a tela do tabuleiro quando o jogo iniciar
-                            javafx.application.Platform.runLater(() -> {
-                                try {
-                                    FXMLLoader tabuleiroLoader = new FXMLLoader(getClass().getResource("/com/mycompany/snake_ladder/tabuleiro.fxml"));
-                                    Parent tabuleiroRoot = tabuleiroLoader.load();
-                                    TabuleiroController controller = tabuleiroLoader.getController();
-                                    controller.setSocket(socket, socketInput, socketOutput, nome);
-                                    stage.setScene(new Scene(tabuleiroRoot));
-                                } catch (IOException e) {
-                                    e.printStackTrace();
-                                }
-                            });
+                        int lugar = -1;
+                        long sala = -1;
+                        ByteBuffer trama;
+                        while ((trama = ligacao.lerTrama()) != null) {
+                            int tipo = Protocolo.tipo(trama);
+                            if (tipo == Protocolo.BEM_VINDO) {
+                                lugar = Protocolo.lerU8(trama, 1);
+                                sala = Protocolo.lerLong(trama, 2);
+                            } else if (tipo == Protocolo.ERRO) {
+                                System.err.println("Servidor recusou a ligação: " + Protocolo.lerTexto(trama, 0));
+                                ligacao.close();
+                                return;
+                            } else if (tipo == Protocolo.INICIO) {
+                                break;
+                            }
                         }
+                        if (trama == null) return;
+                        final int meuLugar = lugar;
+                        final long minhaSala = sala;
+                        // Navega para a tela do tabuleiro quando o jogo iniciar
+                        javafx.application.Platform.runLater(() -> {
+                            try {
+                                FXMLLoader tabuleiroLoader = new FXMLLoader(getClass().getResource("/com/mycompany/snake_ladder/tabuleiro.fxml"));
+                                Parent tabuleiroRoot = tabuleiroLoader.load();
+                                TabuleiroController controller = tabuleiroLoader.getController();
+                                controller.setLigacao(ligacao, nome, meuLugar, minhaSala);
+                                stage.setScene(new Scene(tabuleiroRoot));
+                            } catch (IOException e) {
+                                e.printStackTrace();
+                            }
+                        });
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
@@ -1,19 +1,17 @@
 package com.mycompany.snake_ladder.controller;
 
-import com.mycompany.snake_ladder.model.Jogo;
-import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.rede.Ligacao;
+import com.mycompany.snake_ladder.rede.ServidorRede;
+import com.mycompany.snake_ladder.servidor.OuvinteSala;
+import com.mycompany.snake_ladder.servidor.Sala;
+import com.mycompany.snake_ladder.servidor.TratadorComandos;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
-import java.net.ServerSocket;
-import java.net.Socket;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 /*Conexao estabelecida */
 /**
  * Controlador para o lobby do servidor no jogo Cobras e Escadas.
@@ -44,49 +42,14 @@ public class LobbyServidorController {
     @FXML private Button botaoIniciar;
 
     /**
-     * Lista de leitores de entrada dos clientes conectados.
+     * Servidor de rede não bloqueante.
      */
-    private final List<BufferedReader> entradas = new ArrayList<>();
+    private ServidorRede servidor;
     
     /**
-     * Lista de escritores de saída para os clientes conectados.
+     * Sala única deste servidor, com o jogo, os lugares e os votos de reinício.
      */
-    private final List<PrintWriter> saidas = new ArrayList<>();
-    
-    /**
-     * Lista de sockets dos clientes conectados.
-     */
-    private final List<Socket> clientes = new ArrayList<>();
-    
-    /**
-     * Lista dos nomes dos jogadores conectados.
-     */
-    private final List<String> nomesJogadores = new ArrayList<>();
-    
-    /**
-     * Socket do servidor.
-     */
-    private ServerSocket serverSocket;
-    
-    /**
-     * Instância do jogo.
-     */
-    private Jogo jogo;
-    
-    /**
-     * Flag para indicar se o jogo foi finalizado.
-     */
-    private volatile boolean jogoFinalizado = false;
-    
-    /**
-     * Contador de votos para reiniciar o jogo.
-     */
-    private int votosReinicio = 0;
-    
-    /**
-     * Contador de votos negativos para reiniciar o jogo.
-     */
-    private int votosNegativos = 0;
+    private Sala sala;
 
     /**
      * Inicializa o controlador do servidor.
@@ -96,192 +59,70 @@ public class LobbyServidorController {
     public void initialize() {
         botaoIniciar.setDisable(true);
 
-        new Thread(() -> {
-            try {
-                int porta = Integer.parseInt(campoPorta.getText());
-                serverSocket = new ServerSocket(porta);
-                System.out.println("Servidor aguardando conexões...");
-
-                while (true) {
-                    Socket cliente = serverSocket.accept();
-                    BufferedReader in = new BufferedReader(new InputStreamReader(cliente.getInputStream()));
-                    PrintWriter out = new PrintWriter(cliente.getOutputStream(), true);
-                    String nome = in.readLine(); // Cliente envia o nome logo após conectar
-                    nomesJogadores.add(nome);
-                    entradas.add(in);
-                    saidas.add(out);
-                    clientes.add(cliente);
-                    System.out.println("Cliente conectado! Nome: " + nome);
-
-                    javafx.application.Platform.runLater(() -> {
-                        listaJogadores.getItems().add(nome);
-                        botaoIniciar.setDisable(listaJogadores.getItems().size() < 2);
-                    });
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }).start();
+        try {
+            int porta = Integer.parseInt(campoPorta.getText());
+            // Uma só sala: basta um ciclo de eventos, que atende todas as ligações
+            servidor = new ServidorRede(1, new TratadorSala());
+            sala = new Sala(0, servidor.getCiclo(0), Sala.LUGARES_MAXIMOS, new OuvinteLobby());
+            servidor.iniciar(new InetSocketAddress(porta));
+            System.out.println("Servidor aguardando conexões...");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
-     * Inicia o jogo após todos os jogadores se conectarem.
-     * Cria o tabuleiro, configura o jogo e inicia as threads de comunicação.
+     * Senta na sala única todos os clientes que fazem o aperto de mão e
+     * devolve ao seu lugar quem volta depois de a ligação cair.
+     * Com um só ciclo de eventos, os comandos já chegam na thread da sala.
      */
-    @FXML
-    private void onIniciarJogo() {
-        System.out.println("Botão Iniciar Jogo pressionado!");
-        // Desabilitar o botão para evitar múltiplos cliques
-        botaoIniciar.setDisable(true);
-
-        // Tabuleiro aleatório para todos
-        Tabuleiro tabuleiro = new Tabuleiro();
-        Map<Integer, Integer> cobras = tabuleiro.getCobras();
-        Map<Integer, Integer> escadas = tabuleiro.getEscadas();
-        jogo = new Jogo(nomesJogadores, tabuleiro);
-
-        // Primeiro, enviar sinal START para todos os clientes migrarem para o tabuleiro
-        for (PrintWriter out : saidas) {
-            out.println("START");
-        }
-
-        // Aguardar um pouco para os clientes processarem a mudança de tela
-        new Thread(() -> {
-            try {
-                Thread.sleep(1000); // Aguarda 1 segundo
-
-                // Enviar mapas para todos os clientes
-                for (PrintWriter out : saidas) {
-                    out.println("COBRAS:" + cobras.entrySet().stream()
-                        .map(e -> e.getKey() + "-" + e.getValue()).collect(Collectors.joining(",")));
-                    out.println("ESCADAS:" + escadas.entrySet().stream()
-                        .map(e -> e.getKey() + "-" + e.getValue()).collect(Collectors.joining(",")));
-                }
-
-                // Enviar estado inicial para todos
-                broadcastEstado(0, jogo.getNomeJogadorAtual() + " começa!", false);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+    private final class TratadorSala extends TratadorComandos {
+        @Override
+        protected void entrar(Ligacao ligacao, String nome) {
+            if (!sala.entrar(ligacao, nome)) {
+                recusar(ligacao, "O jogo já começou");
             }
-        }).start();
+        }
 
-        // Thread para ouvir comandos dos clientes
-        new Thread(() -> {
-            try {
-                while (true) {
-                    for (int i = 0; i < clientes.size(); i++) {
-                        BufferedReader in = entradas.get(i);
-                        if (in.ready()) {
-                            String comando = in.readLine();
-                            if ("ROLAR_DADO".equals(comando) && jogo.getJogadorAtualIndex() == i && !jogoFinalizado) {
-                                int valor = jogo.rolarDado();
-                                String status = jogo.moverJogadorAtual(valor);
-                                boolean venceu = jogo.jogadorVenceu();
-                                if (venceu) {
-                                    jogoFinalizado = true;
-                                    broadcastEstado(valor, status, true);
-                                } else {
-                                    if (valor != 6) jogo.passarVez();
-                                    broadcastEstado(valor, status, false);
-                                }
-                            } else if ("REINICIAR_SIM".equals(comando)) {
-                                votosReinicio++;
-                                if (votosReinicio == nomesJogadores.size()) {
-                                    reiniciarJogo();
-                                    votosReinicio = 0;
-                                    votosNegativos = 0;
-                                }
-                            } else if ("REINICIAR_NAO".equals(comando)) {
-                                votosNegativos++;
-                                if (votosNegativos > 0) {
-                                    votosReinicio = 0;
-                                    votosNegativos = 0;
-                                }
-                            }
-                        }
-                    }
-                    Thread.sleep(50);
-                }
-            } catch (Exception e) {
-                e.printStackTrace();
+        @Override
+        protected void retomar(Ligacao ligacao, long id, int lugar, String nome) {
+            if (id != sala.getId() || !sala.retomar(ligacao, lugar, nome)) {
+                recusar(ligacao, "Não é possível voltar a esta partida");
             }
-        }).start();
+        }
     }
 
     /**
-     * Envia o estado atual do jogo para todos os clientes conectados.
-     * Inclui informações sobre turnos, posições das peças, vitórias e status do jogo.
-     * 
-     * @param dado Valor do dado que foi lançado
-     * @param status Mensagem de status do jogo
-     * @param fim Indica se o jogo chegou ao fim
+     * Mostra na lista do lobby os jogadores que entram e saem da sala.
      */
-    private void broadcastEstado(int dado, String status, boolean fim) {
-        for (PrintWriter out : saidas) {
-            out.println("ESTADO");
-            out.println("vez:" + String.join(",", jogo.getNomesJogadores()));
-            out.println("indiceVez:" + jogo.getJogadorAtualIndex());
-            StringBuilder posicoes = new StringBuilder("posicoes:");
-            for (int i = 0; i < jogo.getNumeroJogadores(); i++) {
-                posicoes.append(jogo.getPosicaoJogador(i));
-                if (i < jogo.getNumeroJogadores() - 1) posicoes.append(",");
-            }
-            out.println(posicoes.toString());
-            
-            // Adicionar informações de vitórias
-            StringBuilder vitorias = new StringBuilder("vitorias:");
-            for (int i = 0; i < jogo.getNumeroJogadores(); i++) {
-                int vitoriasJogador = jogo.getVitoriasJogador(i);
-                vitorias.append(vitoriasJogador);
-                if (i < jogo.getNumeroJogadores() - 1) vitorias.append(",");
-            }
-            System.out.println("=== SERVIDOR ENVIANDO VITÓRIAS ===");
-            System.out.println("String de vitórias: " + vitorias.toString());
-            for (int i = 0; i < jogo.getNumeroJogadores(); i++) {
-                System.out.println("Jogador " + i + " (" + jogo.getNomesJogadores().get(i) + ") tem " + jogo.getVitoriasJogador(i) + " vitórias");
-            }
-            System.out.println("==================================");
-            out.println(vitorias.toString());
-            
-            out.println("dado:" + dado);
-            out.println("status:" + status);
-            out.println("fim:" + (fim ? "1" : "0"));
-            out.flush(); // Garantir que a mensagem seja enviada imediatamente
+    private final class OuvinteLobby implements OuvinteSala {
+        @Override
+        public void jogadorEntrou(Sala sala, int lugar, String nome) {
+            System.out.println("Cliente conectado! Nome: " + nome);
+            javafx.application.Platform.runLater(() -> {
+                listaJogadores.getItems().add(nome);
+                botaoIniciar.setDisable(listaJogadores.getItems().size() < 2);
+            });
+        }
+
+        @Override
+        public void jogadorSaiu(Sala sala, String nome) {
+            javafx.application.Platform.runLater(() -> {
+                listaJogadores.getItems().remove(nome);
+                botaoIniciar.setDisable(listaJogadores.getItems().size() < 2);
+            });
         }
     }
 
     /**
-     * Reinicia o jogo com um novo tabuleiro aleatório.
-     * Reseta todas as posições das peças, cria novas cobras e escadas,
-     * e envia o novo estado para todos os clientes.
-     * As vitórias dos jogadores são preservadas.
+     * Inicia o jogo após todos os jogadores se conectarem.
+     * A sala cria o tabuleiro e o jogo na thread do seu ciclo de eventos.
      */
-    private void reiniciarJogo() {
-        // Resetar votos
-        votosReinicio = 0;
-        votosNegativos = 0;
-        
-        // Novo tabuleiro aleatório
-        Tabuleiro novoTabuleiro = new Tabuleiro();
-        Map<Integer, Integer> cobras = novoTabuleiro.getCobras();
-        Map<Integer, Integer> escadas = novoTabuleiro.getEscadas();
-        
-        // Atualizar apenas o tabuleiro do jogo existente, preservando as vitórias
-        jogo.setTabuleiro(novoTabuleiro);
-        jogo.reiniciarJogo(); // Resetar posições das peças para casa 1
-        jogoFinalizado = false;
-
-        // Enviar novos mapas para todos os clientes
-        for (PrintWriter out : saidas) {
-            out.println("COBRAS:" + cobras.entrySet().stream()
-                .map(e -> e.getKey() + "-" + e.getValue()).collect(Collectors.joining(",")));
-            out.println("ESCADAS:" + escadas.entrySet().stream()
-                .map(e -> e.getKey() + "-" + e.getValue()).collect(Collectors.joining(",")));
-        }
-
-        // Enviar estado inicial
-        broadcastEstado(0, jogo.getNomeJogadorAtual() + " começa! Novo jogo iniciado!", false);
+    @FXML
+    private void onIniciarJogo() {
+        System.out.println("Botão Iniciar Jogo pressionado!");
+        // Desabilitar o botão para evitar múltiplos cliques
+        botaoIniciar.setDisable(true);
+        sala.getCiclo().executar(sala::iniciar);
     }
-
-    // Removido: gerarCobrasFixas e gerarEscadasFixas (não são mais necessários)
 }
@@ -0,0 +1,287 @@
+package com.mycompany.snake_ladder.controller;
+
+import com.mycompany.snake_ladder.model.Jogo;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import java.util.Map;
+
+/**
+ * Tabuleiro desenhado em duas camadas, em alternativa à grelha de nós do
+ * {@link TabuleiroController}.
+ *
+ * As casas, os números, as cores das cobras e escadas e as setas são
+ * desenhados uma única vez por {@link Tabuleiro} (e por tamanho) e guardados
+ * como uma imagem de fundo. Por cima fica um {@link Canvas} só com as peças,
+ * que é o único a ser redesenhado a cada jogada e a cada quadro das
+ * animações. Assim não há 100 nós com CSS para calcular a cada passo, nem
+ * setas no grafo de cena.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+final class TabuleiroCanvas extends Region {
+    /** Espaço entre o limite do tabuleiro e as casas: borda de 3 px e margem de 15 px */
+    private static final double MARGEM = 18;
+
+    /** Lado de uma peça, em píxeis */
+    private static final double LADO_PECA = 22;
+
+    /** Fonte dos números das casas */
+    private static final Font FONTE_CASA = Font.font("System", FontWeight.BOLD, 14);
+
+    /** Imagem pré-desenhada com as casas e as setas */
+    private final ImageView fundo = new ImageView();
+
+    /** Camada das peças */
+    private final Canvas camadaPecas = new Canvas();
+
+    /** Tabuleiro mostrado */
+    private Tabuleiro tabuleiro;
+
+    /** Lado com que o fundo foi desenhado (0 enquanto não estiver desenhado) */
+    private double ladoFundo;
+
+    /** Casa de cada peça, por lugar */
+    private int[] posicoes = new int[0];
+
+    /** Lugar da peça que está a ser animada fora da sua casa, ou -1 */
+    private int emVoo = -1;
+
+    /** Coordenadas do centro da peça animada */
+    private double vooX, vooY;
+
+    /**
+     * Cria um tabuleiro vazio, com os mesmos limites de tamanho da grelha.
+     */
+    TabuleiroCanvas() {
+        getChildren().addAll(fundo, camadaPecas);
+        setMinSize(400, 400);
+        setPrefSize(500, 500);
+        setMaxSize(600, 600);
+    }
+
+    /**
+     * Define o tabuleiro a mostrar. O fundo só é redesenhado se o tabuleiro mudar.
+     *
+     * @param tabuleiro Tabuleiro com as cobras e escadas
+     */
+    void setTabuleiro(Tabuleiro tabuleiro) {
+        if (tabuleiro == this.tabuleiro) return;
+        this.tabuleiro = tabuleiro;
+        ladoFundo = 0;
+        requestLayout();
+    }
+
+    /**
+     * Copia as posições das peças de um jogo e redesenha a camada das peças.
+     *
+     * @param jogo Jogo com as posições atuais
+     */
+    void setPosicoes(Jogo jogo) {
+        int n = jogo.getNumeroJogadores();
+        if (posicoes.length != n) {
+            posicoes = new int[n];
+        }
+        for (int i = 0; i < n; i++) {
+            posicoes[i] = jogo.getPosicaoJogador(i);
+        }
+        desenharPecas();
+    }
+
+    /**
+     * Desenha uma peça fora da sua casa, durante uma animação.
+     *
+     * @param lugar Lugar do jogador
+     * @param x Coordenada x do centro da peça, neste nó
+     * @param y Coordenada y do centro da peça, neste nó
+     */
+    void voar(int lugar, double x, double y) {
+        emVoo = lugar;
+        vooX = x;
+        vooY = y;
+        desenharPecas();
+    }
+
+    /**
+     * Termina a animação: a peça volta a ser desenhada na sua casa.
+     */
+    void pousar() {
+        emVoo = -1;
+        desenharPecas();
+    }
+
+    /**
+     * Calcula o centro de uma casa, em coordenadas deste nó.
+     *
+     * @param numCasa Número da casa (1-100)
+     * @return Array com coordenadas [x, y] do centro da casa
+     */
+    double[] getCentroCasa(int numCasa) {
+        double lado = Math.min(getWidth(), getHeight());
+        if (lado <= 0) lado = 600;
+        double celula = (lado - 2 * MARGEM) / 10.0;
+        double x = camadaPecas.getLayoutX() + MARGEM + coluna(numCasa) * celula + celula / 2.0;
+        double y = camadaPecas.getLayoutY() + MARGEM + linha(numCasa) * celula + celula / 2.0;
+        return new double[]{x, y};
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double lado = Math.floor(Math.min(getWidth(), getHeight()));
+        if (lado <= 0) return;
+        double x = Math.floor((getWidth() - lado) / 2);
+        double y = Math.floor((getHeight() - lado) / 2);
+        fundo.relocate(x, y);
+        camadaPecas.relocate(x, y);
+        if (tabuleiro != null && lado != ladoFundo) {
+            fundo.setImage(desenharFundo(lado));
+            ladoFundo = lado;
+        }
+        if (camadaPecas.getWidth() != lado || camadaPecas.getHeight() != lado) {
+            camadaPecas.setWidth(lado);
+            camadaPecas.setHeight(lado);
+            desenharPecas();
+        }
+    }
+
+    /**
+     * Desenha as casas, os números e as setas do tabuleiro numa imagem.
+     *
+     * @param lado Lado do tabuleiro, em píxeis
+     * @return Imagem do fundo
+     */
+    private Image desenharFundo(double lado) {
+        Canvas canvas = new Canvas(lado, lado);
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.setFill(Color.WHITE);
+        g.fillRect(0, 0, lado, lado);
+        g.setStroke(Color.web("#2196f3"));
+        g.setLineWidth(3);
+        g.strokeRect(1.5, 1.5, lado - 3, lado - 3);
+
+        double celula = (lado - 2 * MARGEM) / 10.0;
+        g.setFont(FONTE_CASA);
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        g.setLineWidth(1);
+        for (int numCasa = 1; numCasa <= 100; numCasa++) {
+            double x = MARGEM + coluna(numCasa) * celula;
+            double y = MARGEM + linha(numCasa) * celula;
+            String texto = String.valueOf(numCasa);
+            Color fundoCasa = Color.WHITE;
+            Color corTexto = Color.web("#333");
+            if (tabuleiro.eCabecaDeCobra(numCasa)) {
+                fundoCasa = Color.web("#e74c3c");
+                corTexto = Color.WHITE;
+                texto = "🐍 " + numCasa;
+            } else if (tabuleiro.eBaseDeEscada(numCasa)) {
+                fundoCasa = Color.web("#27ae60");
+                corTexto = Color.WHITE;
+                texto = "🪜 " + numCasa;
+            }
+            g.setFill(fundoCasa);
+            g.fillRect(x, y, celula, celula);
+            g.setStroke(Color.web("#333"));
+            g.strokeRect(x + 0.5, y + 0.5, celula - 1, celula - 1);
+            g.setFill(corTexto);
+            g.fillText(texto, x + celula / 2, y + celula / 2);
+        }
+
+        desenharSetas(g, tabuleiro.getCobras(), Color.RED, celula);
+        desenharSetas(g, tabuleiro.getEscadas(), Color.FORESTGREEN, celula);
+
+        SnapshotParameters parametros = new SnapshotParameters();
+        parametros.setFill(Color.TRANSPARENT);
+        return canvas.snapshot(parametros, null);
+    }
+
+    /**
+     * Desenha as setas de um conjunto de cobras ou escadas.
+     *
+     * @param g Contexto onde desenhar
+     * @param ligacoes Mapa de casa de partida para casa de chegada
+     * @param cor Cor das setas
+     * @param celula Lado de uma casa
+     */
+    private static void desenharSetas(GraphicsContext g, Map<Integer, Integer> ligacoes, Color cor, double celula) {
+        g.setStroke(cor);
+        g.setLineWidth(6);
+        for (Map.Entry<Integer, Integer> entry : ligacoes.entrySet()) {
+            double sx = MARGEM + coluna(entry.getKey()) * celula + celula / 2;
+            double sy = MARGEM + linha(entry.getKey()) * celula + celula / 2;
+            double ex = MARGEM + coluna(entry.getValue()) * celula + celula / 2;
+            double ey = MARGEM + linha(entry.getValue()) * celula + celula / 2;
+            g.strokeLine(sx, sy, ex, ey);
+
+            // Ponta da seta, com os mesmos 20 px e 30 graus das setas da grelha
+            double dx = ex - sx;
+            double dy = ey - sy;
+            double norm = Math.sqrt(dx * dx + dy * dy);
+            if (norm > 0) {
+                double arrowLen = 20;
+                double cos = Math.cos(Math.toRadians(30));
+                double sin = Math.sin(Math.toRadians(30));
+                g.strokeLine(ex, ey, ex - arrowLen * (dx * cos + dy * sin) / norm, ey - arrowLen * (dy * cos - dx * sin) / norm);
+                g.strokeLine(ex, ey, ex - arrowLen * (dx * cos - dy * sin) / norm, ey - arrowLen * (dy * cos + dx * sin) / norm);
+            }
+        }
+    }
+
+    /**
+     * Redesenha a camada das peças: cada peça no centro da sua casa e a
+     * peça animada, se houver, nas suas coordenadas.
+     */
+    private void desenharPecas() {
+        GraphicsContext g = camadaPecas.getGraphicsContext2D();
+        double lado = camadaPecas.getWidth();
+        g.clearRect(0, 0, lado, camadaPecas.getHeight());
+        if (lado <= 0) return;
+        double celula = (lado - 2 * MARGEM) / 10.0;
+        for (int i = 0; i < posicoes.length; i++) {
+            Image imagem = Imagens.peao(i);
+            if (imagem == null) continue;
+            if (i == emVoo) {
+                g.drawImage(imagem, vooX - camadaPecas.getLayoutX() - LADO_PECA / 2,
+                    vooY - camadaPecas.getLayoutY() - LADO_PECA / 2, LADO_PECA, LADO_PECA);
+                continue;
+            }
+            int casa = posicoes[i];
+            if (casa < 1 || casa > 100) continue;
+            double x = MARGEM + coluna(casa) * celula + (celula - LADO_PECA) / 2;
+            double y = MARGEM + linha(casa) * celula + (celula - LADO_PECA) / 2;
+            g.drawImage(imagem, x, y, LADO_PECA, LADO_PECA);
+        }
+    }
+
+    /**
+     * Obtém a coluna de uma casa no padrão serpentina.
+     *
+     * @param numCasa Número da casa (1-100)
+     * @return Coluna, de 0 (esquerda) a 9
+     */
+    private static int coluna(int numCasa) {
+        int linhaOriginal = (numCasa - 1) / 10;
+        // Linhas pares da esquerda para a direita, ímpares da direita para a esquerda
+        return linhaOriginal % 2 == 0 ? (numCasa - 1) % 10 : 9 - (numCasa - 1) % 10;
+    }
+
+    /**
+     * Obtém a linha de uma casa.
+     *
+     * @param numCasa Número da casa (1-100)
+     * @return Linha, de 0 (topo, casas 91-100) a 9
+     */
+    private static int linha(int numCasa) {
+        return 9 - (numCasa - 1) / 10;
+    }
+}
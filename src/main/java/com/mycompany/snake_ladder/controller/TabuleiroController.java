@@ -1,6 +1,8 @@
 package com.mycompany.snake_ladder.controller;
 
 import com.mycompany.snake_ladder.model.*;
+import com.mycompany.snake_ladder.rede.LigacaoCliente;
+import com.mycompany.snake_ladder.rede.Protocolo;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
@@ -10,19 +12,27 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.geometry.Pos;
 import javafx.scene.layout.StackPane;
+import javafx.animation.Animation;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.animation.PathTransition;
+import javafx.animation.Transition;
 import javafx.scene.shape.Path;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.LineTo;
 import javafx.util.Duration;
 import javafx.scene.layout.Pane;
+import javafx.scene.Group;
 import javafx.scene.image.ImageView;
 import javafx.scene.image.Image;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Controlador principal do tabuleiro do jogo Cobras e Escadas.
@@ -30,7 +40,7 @@ import java.util.Arrays;
  * Esta classe é responsável por:
  * - Gerenciar a interface gráfica do tabuleiro de jogo
  * - Coordenar as animações das peças e dados
- * - Comunicar com o servidor através de sockets
+ * - Comunicar com o servidor através de tramas binárias
  * - Atualizar o estado visual do jogo
  * - Processar eventos de interface do usuário
  * 
@@ -39,6 +49,39 @@ import java.util.Arrays;
  * @since 2025
  */
 public class TabuleiroController {
+    /** Tempo durante o qual se tenta voltar à partida depois de a ligação cair, em milissegundos */
+    private static final long TEMPO_RELIGAR_MS = 60_000;
+
+    /** Pausa depois da primeira tentativa falhada de voltar à partida, em milissegundos */
+    private static final long PAUSA_RELIGAR_MS = 500;
+
+    /** Pausa máxima entre tentativas; a pausa duplica a cada tentativa até aqui */
+    private static final long PAUSA_RELIGAR_MAXIMA_MS = 8_000;
+
+    /** Tabuleiro feito de nós: uma grelha de casas e setas no overlay */
+    public static final int RENDERIZADOR_NOS = 0;
+
+    /** Tabuleiro com fundo pré-desenhado e peças num {@link javafx.scene.canvas.Canvas} */
+    public static final int RENDERIZADOR_CANVAS = 1;
+
+    /** Renderizador usado pelos tabuleiros criados a seguir */
+    private static int renderizadorPadrao = RENDERIZADOR_NOS;
+
+    /** Atraso por omissão a partir do qual os estados em fila deixam de ser animados, em milissegundos */
+    public static final long ATRASO_MAXIMO_MS = 1_500;
+
+    /** Maior fator de aceleração das animações quando há estados em fila */
+    private static final double VELOCIDADE_MAXIMA = 4;
+
+    /** Atraso a partir do qual os estados em fila deixam de ser animados, em milissegundos */
+    private static long atrasoMaximoMs = ATRASO_MAXIMO_MS;
+
+    /** Estilo de uma casa sem cobra nem escada */
+    private static final String ESTILO_CASA = "-fx-border-color: #333; -fx-font-size: 14px; -fx-font-weight: bold; -fx-background-color: #fff;";
+
+    /** Estilo do quadro de um jogador no painel */
+    private static final String ESTILO_QUADRO = "-fx-padding: 10; -fx-background-color: white; -fx-border-color: #ddd; -fx-border-width: 1px; -fx-border-radius: 5px;";
+
     // Elementos da interface FXML
     /** GridPane que representa o tabuleiro do jogo */
     @FXML private GridPane gridTabuleiro;
@@ -71,11 +114,8 @@ public class TabuleiroController {
     /** Instância do jogo atual */
     private Jogo jogo;
     
-    /** Stream de entrada para comunicação com o servidor */
-    private java.io.BufferedReader socketInput;
-    
-    /** Stream de saída para comunicação com o servidor */
-    private java.io.PrintWriter socketOutput;
+    /** Ligação ao servidor; trocada pela thread de leitura quando a partida é retomada */
+    private volatile LigacaoCliente ligacao;
     
     /** Índice do jogador atual neste cliente (-1 se não definido) */
     private int meuIndice = -1;
@@ -86,118 +126,215 @@ public class TabuleiroController {
     /** Nome do jogador deste cliente */
     private String nomeJogador;
 
-    /** Mapa das cobras recebidas do servidor (cabeça -> cauda) */
-    private final Map<Integer, Integer> cobrasRecebidas = new HashMap<>();
-    
-    /** Mapa das escadas recebidas do servidor (base -> topo) */
-    private final Map<Integer, Integer> escadasRecebidas = new HashMap<>();
+    /** Decodifica as tramas do servidor e guarda os estados por mostrar */
+    private final LeitorServidor leitorServidor = new LeitorServidor();
+
+    /** Nomes com que o jogo atual foi criado */
+    private String[] nomesJogo;
+
+    // Nós da interface criados uma vez e atualizados a cada jogada
+    /** Células das casas, pelo número da casa (a posição 0 não é usada); null até ao primeiro desenho */
+    private StackPane[] celulas;
+
+    /** Etiquetas das casas, pelo número da casa */
+    private Label[] etiquetasCasas;
+
+    /** Centro de cada casa em coordenadas do overlay, pelo número da casa */
+    private double[][] centros;
+
+    /** Indica se {@link #centros} corresponde ao layout atual */
+    private boolean centrosValidos;
+
+    /** Indica se já há um redesenho das setas agendado para depois do layout */
+    private boolean setasPendentes;
+
+    /** Camada do overlay com as setas das cobras e escadas; null até serem desenhadas */
+    private Group camadaSetas;
+
+    /** Tabuleiro cujas setas estão em {@link #camadaSetas} */
+    private Tabuleiro tabuleiroSetas;
+
+    /** Tabuleiro cujas cobras e escadas estão marcadas nas casas */
+    private Tabuleiro tabuleiroDesenhado;
+
+    /** Peças dos jogadores, por lugar; fora de uma animação, cada uma está na célula da casa do seu jogador */
+    private ImageView[] pecas = new ImageView[0];
+
+    /** Jogo para o qual foram criados os painéis de jogadores e de vitórias */
+    private Jogo jogoPaineis;
+
+    /** Quadros dos jogadores no painel, por lugar */
+    private VBox[] quadrosJogadores;
+
+    /** Etiquetas com a casa de cada jogador, por lugar */
+    private Label[] etiquetasPosicao;
+
+    /** Indicadores de vez, por lugar */
+    private Label[] etiquetasVez;
+
+    /** Etiquetas do placar de vitórias, por lugar */
+    private Label[] etiquetasVitorias;
+
+    /** Tabuleiro desenhado em canvas, ou null se for usada a grelha de nós */
+    private TabuleiroCanvas tabuleiroCanvas;
+
+    /** Indica se já há uma chamada a {@link #drenarPendentes()} pedida à thread do JavaFX */
+    private final AtomicBoolean drenagemAgendada = new AtomicBoolean();
+
+    /** Fator de velocidade das animações em curso */
+    private double velocidadeAnimacao = 1;
+
+    /** Tarefa entregue à thread do JavaFX para mostrar os estados em fila */
+    private final Runnable drenagem = this::drenarPendentes;
 
     /**
-     * Configura a conexão socket e inicia a comunicação com o servidor.
+     * Escolhe o renderizador dos tabuleiros abertos daqui em diante.
      * 
-     * Este método estabelece a comunicação entre o cliente e o servidor,
-     * enviando o nome do jogador e criando uma thread para escutar
-     * mensagens do servidor em tempo real.
+     * @param renderizador {@link #RENDERIZADOR_NOS} ou {@link #RENDERIZADOR_CANVAS}
+     */
+    public static void setRenderizadorPadrao(int renderizador) {
+        renderizadorPadrao = renderizador;
+    }
+
+    /**
+     * Define o atraso a partir do qual os estados em fila são aplicados sem
+     * animação, para os tabuleiros abertos daqui em diante.
      * 
-     * @param socket Socket de conexão com o servidor
-     * @param in Stream de entrada para ler dados do servidor
-     * @param out Stream de saída para enviar dados ao servidor
-     * @param nome Nome do jogador deste cliente
+     * @param atrasoMs Atraso máximo, em milissegundos
      */
+    public static void setAtrasoMaximoMs(long atrasoMs) {
+        atrasoMaximoMs = atrasoMs;
+    }
 
-    public void setSocket(java.net.Socket socket, java.io.BufferedReader in, java.io.PrintWriter out, String nome) {
-        this.socketInput = in;
-        this.socketOutput = out;
-        this.nomeJogador = nome;
+    /**
+     * Inicializa o controlador depois de carregado o FXML. Com o
+     * renderizador em canvas, a grelha é trocada por um {@link TabuleiroCanvas}
+     * no mesmo lugar, por baixo do overlay das mensagens.
+     */
+    @FXML
+    private void initialize() {
+        if (renderizadorPadrao == RENDERIZADOR_CANVAS) {
+            tabuleiroCanvas = new TabuleiroCanvas();
+            StackPane pai = (StackPane) gridTabuleiro.getParent();
+            pai.getChildren().set(pai.getChildren().indexOf(gridTabuleiro), tabuleiroCanvas);
+        }
+    }
 
-        // Envia o nome do jogador assim que o socket é criado
-        out.println(nome);
+    /**
+     * Configura a ligação ao servidor e inicia a comunicação.
+     * 
+     * O aperto de mão já foi feito no lobby, que recebeu do servidor o
+     * lugar deste jogador. É criada uma thread que lê as tramas do servidor
+     * e as decodifica com o {@link LeitorServidor}, porque cada trama só é
+     * válida até à leitura seguinte; a thread do JavaFX mostra os estados
+     * por ordem em {@link #drenarPendentes()}. Se a ligação cair (por exemplo, porque o
+     * servidor foi reiniciado), a mesma thread volta a ligar e pede o mesmo
+     * lugar com {@link Protocolo#RETOMAR}; o servidor reenvia os jogadores, o
+     * tabuleiro e o estado completo. O prazo de {@link #TEMPO_RELIGAR_MS} é
+     * contado desde a queda e só recomeça depois de chegar um estado; se o
+     * servidor fechar a ligação a seguir ao pedido sem enviar nenhum, o
+     * regresso foi recusado e o cliente desiste.
+     * 
+     * @param ligacao Ligação ao servidor
+     * @param nome Nome do jogador deste cliente
+     * @param lugar Lugar atribuído pelo servidor
+     * @param sala Identificador da sala atribuída pelo servidor
+     */
+    public void setLigacao(LigacaoCliente ligacao, String nome, int lugar, long sala) {
+        this.ligacao = ligacao;
+        this.nomeJogador = nome;
+        this.meuIndice = lugar;
 
-        new Thread(() -> {
-            try {
-                String linha;
-                while ((linha = socketInput.readLine()) != null) {
-                    if (linha.startsWith("COBRAS:")) {
-                        cobrasRecebidas.clear();
-                        String[] pares = linha.substring(7).split(",");
-                        for (String par : pares) {
-                            if (par.isEmpty()) continue;
-                            String[] vals = par.split("-");
-                            cobrasRecebidas.put(Integer.parseInt(vals[0]), Integer.parseInt(vals[1]));
+        Thread leitor = new Thread(() -> {
+            // Prazo para voltar à partida, comum a todas as tentativas; 0 enquanto a ligação está bem
+            long limite = 0;
+            while (this.ligacao != null) {
+                boolean recebeuEstado = false;
+                try {
+                    LigacaoCliente atual = this.ligacao;
+                    ByteBuffer trama;
+                    while ((trama = atual.lerTrama()) != null) {
+                        int tipo = Protocolo.tipo(trama);
+                        if (tipo == Protocolo.ERRO) {
+                            // O servidor fecha a ligação a seguir: não vale a pena voltar
+                            System.err.println("Erro do servidor: " + Protocolo.lerTexto(trama, 0));
+                            return;
                         }
-                        continue;
-                    }
-                    if (linha.startsWith("ESCADAS:")) {
-                        escadasRecebidas.clear();
-                        String[] pares = linha.substring(8).split(",");
-                        for (String par : pares) {
-                            if (par.isEmpty()) continue;
-                            String[] vals = par.split("-");
-                            escadasRecebidas.put(Integer.parseInt(vals[0]), Integer.parseInt(vals[1]));
+                        if (leitorServidor.ler(trama, atual)) {
+                            recebeuEstado = true;
+                            agendarDrenagem();
                         }
-                        continue;
                     }
-                    if (linha.equals("ESTADO")) {
-                        String vez = socketInput.readLine().substring(4);
-                        String indiceVezStr = socketInput.readLine().substring(10);
-                        int indiceVez = Integer.parseInt(indiceVezStr);
-                        String posicoes = socketInput.readLine().substring(9);
-                        String vitorias = socketInput.readLine().substring(9);
-                        String dado = socketInput.readLine().substring(5);
-
-                        // Definir o índice do jogador atual se ainda não foi definido
-                        if (meuIndice == -1) {
-                            String[] nomesJogadores = vez.split(",");
-                            for (int i = 0; i < nomesJogadores.length; i++) {
-                                if (nomesJogadores[i].equals(nomeJogador)) {
-                                    meuIndice = i;
-                                    break;
-                                }
-                            }
-                        }
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                if (recebeuEstado) {
+                    limite = 0;
+                } else if (limite != 0) {
+                    System.err.println("O servidor recusou o regresso à partida");
+                    fecharLigacao(this.ligacao);
+                    this.ligacao = null;
+                    return;
+                }
+                if (limite == 0) {
+                    limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TEMPO_RELIGAR_MS);
+                }
+                this.ligacao = religar(this.ligacao, sala, lugar, nome, limite);
+            }
+        });
+        leitor.setDaemon(true);
+        leitor.start();
+    }
 
-                        // Ler status multi-linha até encontrar "fim:"
-                        StringBuilder statusBuilder = new StringBuilder();
-                        String statusLine = socketInput.readLine();
-                        if (statusLine.startsWith("status:")) {
-                            statusBuilder.append(statusLine.substring(7));
-                        }
-                        String fimStr = "";
-                        while (true) {
-                            socketInput.mark(1000);
-                            String nextLine = socketInput.readLine();
-                            if (nextLine.startsWith("fim:")) {
-                                fimStr = nextLine.substring(4);
-                                break;
-                            }
-                            statusBuilder.append("\n").append(nextLine);
-                        }
-                        String status = statusBuilder.toString();
-                        boolean jogoAcabou = fimStr.equals("1");
-
-                        javafx.application.Platform.runLater(() -> {
-                            boolean isReinicio = status.contains("Novo jogo iniciado");
-                            
-                            if (jogo == null || isReinicio) {
-                                Tabuleiro tabuleiro = new Tabuleiro(cobrasRecebidas, escadasRecebidas);
-                                String[] nomesJogadores = vez.split(",");
-                                jogo = new Jogo(Arrays.asList(nomesJogadores), tabuleiro);
-                                if (isReinicio) {
-                                    jogo.reiniciarJogo();
-                                    animando = false;
-                                }
-                                atualizarPainelJogadores(indiceVez);
-                                atualizarPainelVitorias();
-                            }
-                            processarEstado(vez, posicoes, vitorias, Integer.parseInt(dado), status, indiceVez, jogoAcabou);
-                            desenharTabuleiro();
-                        });
-                    }
+    /**
+     * Tenta voltar ao lugar deste jogador depois de a ligação cair, até ao
+     * prazo indicado, com pausas cada vez maiores entre tentativas.
+     * 
+     * @param antiga Ligação que caiu
+     * @param sala Identificador da sala
+     * @param lugar Lugar deste jogador
+     * @param nome Nome deste jogador
+     * @param limite Instante, em {@link System#nanoTime()}, a partir do qual se desiste
+     * @return Nova ligação, já com o pedido para retomar enviado, ou null se
+     *         o servidor não voltou a tempo
+     */
+    private static LigacaoCliente religar(LigacaoCliente antiga, long sala, int lugar, String nome, long limite) {
+        fecharLigacao(antiga);
+        long pausa = PAUSA_RELIGAR_MS;
+        while (true) {
+            try {
+                LigacaoCliente nova = antiga.religar();
+                nova.enviarRetomar(sala, lugar, nome);
+                return nova;
+            } catch (IOException e) {
+                long resta = TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime());
+                if (resta <= 0) {
+                    break;
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
+                try {
+                    Thread.sleep(Math.min(pausa, resta));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                pausa = Math.min(pausa * 2, PAUSA_RELIGAR_MAXIMA_MS);
             }
-        }).start();
+        }
+        System.err.println("Não foi possível voltar à partida");
+        return null;
+    }
+
+    /**
+     * Fecha uma ligação que já não vai ser usada.
+     * 
+     * @param ligacao Ligação a fechar
+     */
+    private static void fecharLigacao(LigacaoCliente ligacao) {
+        try {
+            ligacao.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
     /**
@@ -209,28 +346,58 @@ public class TabuleiroController {
      */
     @FXML
     private void rolarDado() {
-        if (!animando && socketOutput != null) {
-            socketOutput.println("ROLAR_DADO");
-            socketOutput.flush();
+        if (!animando && ligacao != null) {
+            try {
+                ligacao.enviarRolarDado();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
     }
 
     /**
-     * Desenha o tabuleiro completo do jogo.
+     * Desenha o tabuleiro do jogo.
+     * 
+     * A grelha e as 100 casas são criadas na primeira chamada e reaproveitadas
+     * daí em diante; as cobras e escadas só são marcadas de novo quando muda o
+     * tabuleiro, e as peças só quando muda o jogo. Em cada jogada, apenas as
+     * peças que mudaram de casa passam para a célula nova. As setas são
+     * desenhadas logo que as posições das casas sejam conhecidas e, depois,
+     * só quando muda o tabuleiro ou o layout.
      * 
-     * Este método:
-     * - Limpa o tabuleiro anterior
-     * - Configura o grid 10x10 com casas numeradas de 1 a 100
-     * - Posiciona as peças dos jogadores
-     * - Marca visualmente as casas com cobras e escadas
-     * - Agenda o desenho das setas após o layout estar pronto
+     * Com o renderizador em canvas, só é redesenhada a camada das peças.
      */
     private void desenharTabuleiro() {
         if (jogo == null) return;
-        gridTabuleiro.getChildren().clear();
-        gridTabuleiro.getColumnConstraints().clear();
-        gridTabuleiro.getRowConstraints().clear();
+        if (tabuleiroCanvas != null) {
+            tabuleiroCanvas.setTabuleiro(jogo.getTabuleiro());
+            tabuleiroCanvas.setPosicoes(jogo);
+            return;
+        }
+        if (celulas == null) {
+            criarCasas();
+        }
+        if (jogo.getTabuleiro() != tabuleiroDesenhado) {
+            marcarCobrasEscadas(jogo.getTabuleiro());
+        }
+        if (pecas.length != jogo.getNumeroJogadores()) {
+            criarPecas();
+        }
+        posicionarPecas();
+
+        // Antes do primeiro layout, as setas são desenhadas quando as células tiverem lugar
+        if (centrosValidos && tabuleiroSetas != jogo.getTabuleiro()) {
+            desenharSetas();
+        }
+    }
 
+    /**
+     * Configura a grelha 10x10 e cria as casas numeradas de 1 a 100.
+     * 
+     * Só é chamado uma vez: as casas ficam em {@link #celulas} e
+     * {@link #etiquetasCasas}, pelo seu número, em padrão serpentina.
+     */
+    private void criarCasas() {
         // Torna o tabuleiro responsivo e adaptável ao tamanho da tela
         gridTabuleiro.setPrefWidth(500);
         gridTabuleiro.setPrefHeight(500);
@@ -259,6 +426,8 @@ public class TabuleiroController {
             gridTabuleiro.getRowConstraints().add(row);
         }
 
+        celulas = new StackPane[101];
+        etiquetasCasas = new Label[101];
         for (int i = 0; i < 10; i++) {
             for (int j = 0; j < 10; j++) {
                 int numCasa = 100 - (i * 10 + ((i % 2 == 0) ? j : 9 - j));
@@ -266,111 +435,143 @@ public class TabuleiroController {
                 Label casa = new Label(String.valueOf(numCasa));
                 casa.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
                 casa.setAlignment(Pos.CENTER);
-                casa.setStyle("-fx-border-color: #333; -fx-font-size: 14px; -fx-font-weight: bold; -fx-background-color: #fff;");
-
+                casa.setStyle(ESTILO_CASA);
                 cell.getChildren().add(casa);
 
-                // Desenhar peças
-                for (int idx = 0; idx < jogo.getNumeroJogadores(); idx++) {
-                    int pos = jogo.getPosicaoJogador(idx);
-                    if (pos < 1 || pos > 100) continue;
-                    if (pos == numCasa) {
-                        String imagemPeao;
-                        if (idx == 1) {
-                            imagemPeao = "/imagens/peao_azul.png";
-                        } else {
-                            imagemPeao = "/imagens/peao.png";
-                        }
-                        java.net.URL peaoUrl = getClass().getResource(imagemPeao);
-                        if (peaoUrl != null) {
-                            ImageView pecaView = new ImageView(new Image(peaoUrl.toExternalForm()));
-                            pecaView.setFitWidth(22);
-                            pecaView.setFitHeight(22);
-                            cell.getChildren().add(pecaView);
-                        }
-                    }
-                }
-                
-                // Verificar se é cabeça de cobra (chave do Map)
-                if (cobrasRecebidas.containsKey(numCasa)) {
-                    casa.setStyle(casa.getStyle() + "-fx-background-color: #e74c3c; -fx-text-fill: white;");
-                    casa.setText("🐍 " + numCasa);
-                }
-                // Verificar se é base de escada (chave do Map, não valor)
-                else if (escadasRecebidas.containsKey(numCasa)) {
-                    casa.setStyle(casa.getStyle() + "-fx-background-color: #27ae60; -fx-text-fill: white;");
-                    casa.setText("🪜 " + numCasa);
-                }
-                
+                celulas[numCasa] = cell;
+                etiquetasCasas[numCasa] = casa;
                 gridTabuleiro.add(cell, j, i);
             }
         }
-        // Desenhar setas após o layout estar pronto
-        javafx.application.Platform.runLater(() -> {
-            // Aguarda um pouco mais para garantir que o layout esteja completo
-            Timeline esperarLayout = new Timeline(new KeyFrame(Duration.millis(100), e -> {
-                desenharSetas();
-            }));
-            esperarLayout.play();
-        });
+
+        // Os centros das casas só mudam quando a grelha ou o overlay mudam de layout
+        centros = new double[101][2];
+        javafx.beans.value.ChangeListener<Object> mudou = (obs, antes, depois) -> invalidarCentros();
+        for (javafx.scene.Node no : new javafx.scene.Node[]{gridTabuleiro, overlayPane, celulas[1], celulas[100]}) {
+            no.layoutXProperty().addListener(mudou);
+            no.layoutYProperty().addListener(mudou);
+            no.layoutBoundsProperty().addListener(mudou);
+        }
+    }
+
+    /**
+     * Marca as casas com cobras e escadas de um tabuleiro, devolvendo as
+     * restantes ao aspeto normal.
+     * 
+     * @param tabuleiro Tabuleiro a mostrar
+     */
+    private void marcarCobrasEscadas(Tabuleiro tabuleiro) {
+        for (int numCasa = 1; numCasa <= 100; numCasa++) {
+            Label casa = etiquetasCasas[numCasa];
+            // Verificar se é cabeça de cobra (chave do Map)
+            if (tabuleiro.eCabecaDeCobra(numCasa)) {
+                casa.setStyle(ESTILO_CASA + "-fx-background-color: #e74c3c; -fx-text-fill: white;");
+                casa.setText("🐍 " + numCasa);
+            }
+            // Verificar se é base de escada (chave do Map, não valor)
+            else if (tabuleiro.eBaseDeEscada(numCasa)) {
+                casa.setStyle(ESTILO_CASA + "-fx-background-color: #27ae60; -fx-text-fill: white;");
+                casa.setText("🪜 " + numCasa);
+            } else {
+                casa.setStyle(ESTILO_CASA);
+                casa.setText(String.valueOf(numCasa));
+            }
+        }
+        tabuleiroDesenhado = tabuleiro;
+    }
+
+    /**
+     * Cria as peças dos jogadores do jogo atual, retirando as anteriores.
+     */
+    private void criarPecas() {
+        for (ImageView peca : pecas) {
+            if (peca != null && peca.getParent() instanceof Pane) {
+                ((Pane) peca.getParent()).getChildren().remove(peca);
+            }
+        }
+        pecas = new ImageView[jogo.getNumeroJogadores()];
+        for (int idx = 0; idx < pecas.length; idx++) {
+            Image imagemPeao = Imagens.peao(idx);
+            if (imagemPeao != null) {
+                ImageView pecaView = new ImageView(imagemPeao);
+                pecaView.setFitWidth(22);
+                pecaView.setFitHeight(22);
+                pecas[idx] = pecaView;
+            }
+        }
+    }
+
+    /**
+     * Põe cada peça na célula da casa do seu jogador.
+     * 
+     * Só as peças que mudaram de casa (ou que voltam do overlay, depois de
+     * uma animação) são mexidas; as outras ficam onde estão.
+     */
+    private void posicionarPecas() {
+        for (int idx = 0; idx < pecas.length; idx++) {
+            ImageView peca = pecas[idx];
+            if (peca == null) continue;
+            int pos = jogo.getPosicaoJogador(idx);
+            StackPane destino = (pos >= 1 && pos <= 100) ? celulas[pos] : null;
+            if (peca.getParent() == destino) continue;
+            if (peca.getParent() instanceof Pane) {
+                ((Pane) peca.getParent()).getChildren().remove(peca);
+            }
+            // Desfazer o deslocamento deixado pelas animações de cobra e escada
+            peca.setTranslateX(0);
+            peca.setTranslateY(0);
+            if (destino != null) {
+                destino.getChildren().add(peca);
+            }
+        }
     }
 
     /**
      * Desenha as setas visuais das cobras e escadas no overlay.
      * 
      * As cobras são representadas por setas vermelhas que apontam para baixo,
-     * e as escadas por setas verdes que apontam para cima.
+     * e as escadas por setas verdes que apontam para cima. As setas ficam
+     * todas em {@link #camadaSetas}, por baixo das mensagens e das peças
+     * animadas, e só são refeitas quando muda o tabuleiro ou o layout; a
+     * camada fica em cache como imagem entre essas mudanças.
      */
     private void desenharSetas() {
-        overlayPane.getChildren().clear();
+        Tabuleiro tabuleiro = jogo.getTabuleiro();
+        if (camadaSetas == null) {
+            camadaSetas = new Group();
+            camadaSetas.setCache(true);
+            overlayPane.getChildren().add(0, camadaSetas);
+        }
+        List<javafx.scene.Node> setas = new ArrayList<>();
         
         // Desenhar cobras (setas vermelhas)
-        for (Map.Entry<Integer, Integer> entry : cobrasRecebidas.entrySet()) {
-            int cabeca = entry.getKey();
-            int cauda = entry.getValue();
-            double[] start = getCasaCenter(cabeca);
-            double[] end = getCasaCenter(cauda);
-            
-            // Linha principal da cobra
-            javafx.scene.shape.Line corpo = new javafx.scene.shape.Line(start[0], start[1], end[0], end[1]);
-            corpo.setStroke(javafx.scene.paint.Color.RED);
-            corpo.setStrokeWidth(6);
-            overlayPane.getChildren().add(corpo);
-            
-            // Calcular e desenhar a ponta da seta
-            double dx = end[0] - start[0];
-            double dy = end[1] - start[1];
-            double norm = Math.sqrt(dx*dx + dy*dy);
-            if (norm > 0) {
-                double arrowLen = 20;
-                double arrowAngle = Math.toRadians(30);
-                double x1 = end[0] - arrowLen * (dx * Math.cos(arrowAngle) + dy * Math.sin(arrowAngle)) / norm;
-                double y1 = end[1] - arrowLen * (dy * Math.cos(arrowAngle) - dx * Math.sin(arrowAngle)) / norm;
-                double x2 = end[0] - arrowLen * (dx * Math.cos(-arrowAngle) + dy * Math.sin(-arrowAngle)) / norm;
-                double y2 = end[1] - arrowLen * (dy * Math.cos(-arrowAngle) - dx * Math.sin(-arrowAngle)) / norm;
-                
-                javafx.scene.shape.Line seta1 = new javafx.scene.shape.Line(end[0], end[1], x1, y1);
-                javafx.scene.shape.Line seta2 = new javafx.scene.shape.Line(end[0], end[1], x2, y2);
-                seta1.setStroke(javafx.scene.paint.Color.RED);
-                seta2.setStroke(javafx.scene.paint.Color.RED);
-                seta1.setStrokeWidth(6);
-                seta2.setStrokeWidth(6);
-                overlayPane.getChildren().addAll(seta1, seta2);
-            }
-        }
+        adicionarSetas(setas, tabuleiro.getCobras(), javafx.scene.paint.Color.RED);
         
         // Desenhar escadas (setas verdes)
-        for (Map.Entry<Integer, Integer> entry : escadasRecebidas.entrySet()) {
-            int base = entry.getKey();
-            int topo = entry.getValue();
-            double[] start = getCasaCenter(base);
-            double[] end = getCasaCenter(topo);
+        adicionarSetas(setas, tabuleiro.getEscadas(), javafx.scene.paint.Color.FORESTGREEN);
+
+        camadaSetas.getChildren().setAll(setas);
+        tabuleiroSetas = tabuleiro;
+    }
+
+    /**
+     * Cria as linhas de um conjunto de cobras ou escadas: o corpo e as duas
+     * metades da ponta de cada seta.
+     * 
+     * @param setas Lista onde juntar as linhas
+     * @param ligacoes Mapa de casa de partida para casa de chegada
+     * @param cor Cor das setas
+     */
+    private void adicionarSetas(List<javafx.scene.Node> setas, Map<Integer, Integer> ligacoes, javafx.scene.paint.Color cor) {
+        for (Map.Entry<Integer, Integer> entry : ligacoes.entrySet()) {
+            double[] start = getCasaCenter(entry.getKey());
+            double[] end = getCasaCenter(entry.getValue());
             
-            // Linha principal da escada
+            // Linha principal
             javafx.scene.shape.Line corpo = new javafx.scene.shape.Line(start[0], start[1], end[0], end[1]);
-            corpo.setStroke(javafx.scene.paint.Color.FORESTGREEN);
+            corpo.setStroke(cor);
             corpo.setStrokeWidth(6);
-            overlayPane.getChildren().add(corpo);
+            setas.add(corpo);
             
             // Calcular e desenhar a ponta da seta
             double dx = end[0] - start[0];
@@ -386,127 +587,165 @@ public class TabuleiroController {
                 
                 javafx.scene.shape.Line seta1 = new javafx.scene.shape.Line(end[0], end[1], x1, y1);
                 javafx.scene.shape.Line seta2 = new javafx.scene.shape.Line(end[0], end[1], x2, y2);
-                seta1.setStroke(javafx.scene.paint.Color.FORESTGREEN);
-                seta2.setStroke(javafx.scene.paint.Color.FORESTGREEN);
+                seta1.setStroke(cor);
+                seta2.setStroke(cor);
                 seta1.setStrokeWidth(6);
                 seta2.setStrokeWidth(6);
-                overlayPane.getChildren().addAll(seta1, seta2);
+                setas.add(seta1);
+                setas.add(seta2);
             }
         }
     }
 
     /**
-     * Calcula o centro de uma casa específica no gridTabuleiro.
+     * Obtém o centro de uma casa específica no gridTabuleiro, em coordenadas
+     * do overlayPane.
      * 
-     * Converte o número da casa (1-100) em coordenadas (x,y) do centro
-     * da célula correspondente, considerando o padrão serpentina do tabuleiro
-     * e convertendo para o sistema de coordenadas do overlayPane.
+     * Os centros das 100 casas vêm de uma tabela que só é recalculada depois
+     * de o layout da grelha ou do overlay mudar (ver {@link #invalidarCentros()}),
+     * por isso as setas e as animações não convertem coordenadas a cada pedido.
      * 
      * @param numCasa Número da casa (1-100)
-     * @return Array com coordenadas [x, y] do centro da casa
+     * @return Array com coordenadas [x, y] do centro da casa; partilhado, não deve ser alterado
      */
     private double[] getCasaCenter(int numCasa) {
-        // Calcula a linha e coluna corretas para o número da casa
-        int linha = 9 - (numCasa - 1) / 10;
-        int coluna;
-        
-        // Corrige o cálculo da coluna baseado no padrão serpentina do tabuleiro
-        int linhaOriginal = (numCasa - 1) / 10;
-        if (linhaOriginal % 2 == 0) {
-            // Linhas pares: 1-10, 21-30, 41-50, 61-70, 81-90 (da esquerda para direita)
-            coluna = (numCasa - 1) % 10;
-        } else {
-            // Linhas ímpares: 11-20, 31-40, 51-60, 71-80, 91-100 (da direita para esquerda)
-            coluna = 9 - ((numCasa - 1) % 10);
+        if (!centrosValidos) {
+            calcularCentros();
+        }
+        return centros[numCasa];
+    }
+
+    /**
+     * Recalcula a tabela dos centros das casas a partir dos limites reais
+     * das células, já com a margem e a borda da grelha.
+     */
+    private void calcularCentros() {
+        // Converter a origem da grelha para coordenadas do overlayPane uma única vez
+        javafx.geometry.Point2D origem = overlayPane.sceneToLocal(gridTabuleiro.localToScene(0, 0));
+        for (int numCasa = 1; numCasa <= 100; numCasa++) {
+            javafx.geometry.Bounds celula = celulas[numCasa].getBoundsInParent();
+            centros[numCasa][0] = origem.getX() + celula.getCenterX();
+            centros[numCasa][1] = origem.getY() + celula.getCenterY();
+        }
+        centrosValidos = true;
+    }
+
+    /**
+     * Marca a tabela dos centros como desatualizada, porque a grelha, as
+     * células ou o overlay mudaram de lugar ou de tamanho, e pede que as
+     * setas sejam redesenhadas quando o layout em curso terminar.
+     */
+    private void invalidarCentros() {
+        centrosValidos = false;
+        if (!setasPendentes) {
+            setasPendentes = true;
+            javafx.application.Platform.runLater(() -> {
+                setasPendentes = false;
+                if (jogo != null) desenharSetas();
+            });
+        }
+    }
+
+    /**
+     * Pede à thread do JavaFX que mostre os estados em fila. Só fica um
+     * pedido pendente de cada vez, por muitos estados que cheguem.
+     */
+    private void agendarDrenagem() {
+        if (drenagemAgendada.compareAndSet(false, true)) {
+            javafx.application.Platform.runLater(drenagem);
+        }
+    }
+
+    /**
+     * Mostra os estados em fila, por ordem, na thread do JavaFX.
+     * 
+     * Enquanto uma jogada está a ser animada, os estados seguintes esperam;
+     * quando a animação acaba, é pedida uma nova drenagem. Se o estado
+     * mais antigo já esperou mais de {@link #atrasoMaximoMs} e há outros
+     * atrás dele, é aplicado sem animação, e assim sucessivamente até ao mais
+     * recente, que é sempre animado. Com estados à espera, as animações
+     * correm mais depressa, na proporção dos que faltam mostrar.
+     */
+    private void drenarPendentes() {
+        drenagemAgendada.set(false);
+        while (!animando) {
+            AtualizacaoEstado atualizacao = leitorServidor.retirar();
+            if (atualizacao == null) {
+                return;
+            }
+            int atrasados = leitorServidor.getPendentes();
+            boolean saltar = atrasados > 0
+                && System.nanoTime() - atualizacao.getRecebidaEm() > TimeUnit.MILLISECONDS.toNanos(atrasoMaximoMs);
+            velocidadeAnimacao = Math.min(VELOCIDADE_MAXIMA, 1 + atrasados);
+
+            // O jogo só é recriado se mudarem os jogadores; o tabuleiro é trocado no mesmo jogo
+            boolean novoJogo = jogo == null || atualizacao.getNomes() != nomesJogo;
+            if (novoJogo) {
+                nomesJogo = atualizacao.getNomes();
+                jogo = new Jogo(Arrays.asList(nomesJogo), atualizacao.getTabuleiro());
+            } else if (atualizacao.getTabuleiro() != jogo.getTabuleiro()) {
+                jogo.setTabuleiro(atualizacao.getTabuleiro());
+            }
+            if (atualizacao.isReinicio()) {
+                jogo.reiniciarJogo();
+            }
+            if (novoJogo || atualizacao.isReinicio()) {
+                atualizarPainelJogadores(atualizacao.getJogadorAtual());
+                atualizarPainelVitorias();
+            }
+            if (!processarEstado(atualizacao, !saltar)) {
+                leitorServidor.devolver(atualizacao);
+            }
+            desenharTabuleiro();
         }
-        
-        // Usar dimensões reais do grid diretamente
-        double gridWidth = gridTabuleiro.getWidth();
-        double gridHeight = gridTabuleiro.getHeight();
-        if (gridWidth <= 0) gridWidth = 600; // Valor padrão
-        if (gridHeight <= 0) gridHeight = 600; // Valor padrão
-        
-        double cellWidth = gridWidth / 10.0;
-        double cellHeight = gridHeight / 10.0;
-        double x = coluna * cellWidth + cellWidth / 2.0;
-        double y = linha * cellHeight + cellHeight / 2.0;
-        
-        // Converter coordenadas do grid para coordenadas do overlayPane
-        // Obter bounds do grid em relação ao overlayPane
-        javafx.geometry.Bounds gridBoundsInOverlay = overlayPane.sceneToLocal(gridTabuleiro.localToScene(gridTabuleiro.getBoundsInLocal()));
-        
-        // Adicionar offset do grid em relação ao overlayPane
-        x += gridBoundsInOverlay.getMinX();
-        y += gridBoundsInOverlay.getMinY();
-        
-        return new double[]{x, y};
     }
 
     /**
      * Processa o estado do jogo recebido do servidor.
      * 
-     * Este método analisa as mudanças de posição dos jogadores,
-     * determina se houve movimento com cobra/escada, e coordena
-     * as animações apropriadas.
+     * A jogada chega já descrita pelo servidor, por isso a animação usa
+     * diretamente a origem, a casa atingida pelo dado e a casa final do
+     * evento, sem comparar posições antigas e novas. Um estado saltado
+     * (sem animação) só atualiza as posições, os painéis e o status, e não
+     * mostra o diálogo de vitória, porque já há estados mais recentes.
      * 
-     * @param vez String com nomes dos jogadores separados por vírgula
-     * @param posicoes String com posições atuais separadas por vírgula
-     * @param vitorias String com contadores de vitórias separados por vírgula
-     * @param dado Valor do dado que foi rolado
-     * @param status Mensagem de status do jogo
-     * @param indiceVez Índice do jogador que deve jogar
-     * @param jogoAcabou Flag indicando se o jogo terminou
+     * @param atualizacao Estado a mostrar
+     * @param animar false para aplicar o estado de imediato, sem animação
+     * @return true se ficou uma animação a decorrer; nesse caso o estado só
+     *         é devolvido ao {@link LeitorServidor} quando ela acabar
      */
-    private void processarEstado(String vez, String posicoes, String vitorias, int dado, String status, int indiceVez, boolean jogoAcabou) {
-        String[] nomesJogadores = vez.split(",");
+    private boolean processarEstado(AtualizacaoEstado atualizacao, boolean animar) {
+        String[] nomesJogadores = atualizacao.getNomes();
+        EventoMovimento evento = atualizacao.getEvento();
+        boolean reinicio = atualizacao.isReinicio();
+        int indiceVez = atualizacao.getJogadorAtual();
+        boolean jogoAcabou = atualizacao.isFim();
         if (indiceVez < nomesJogadores.length) {
             labelVez.setText("Vez de: " + nomesJogadores[indiceVez]);
         }
         
         if (jogo != null) {
-            String[] vitoriasArray = vitorias.split(",");
-            for (int i = 0; i < vitoriasArray.length && i < jogo.getNumeroJogadores(); i++) {
-                int numVitorias = Integer.parseInt(vitoriasArray[i]);
-                jogo.getVitorias().put(i, numVitorias);
+            for (int i = 0; i < atualizacao.getNumeroJogadores() && i < jogo.getNumeroJogadores(); i++) {
+                jogo.setVitoriasJogador(i, atualizacao.getVitorias(i));
             }
         }
         
-        String[] pos = posicoes.split(",");
         int jogadorMovendoTmp = -1;
         int origemTmp = -1, destinoTmp = -1;
         Integer casaFinalTmp = null;
 
-        for (int i = 0; i < pos.length; i++) {
-            int novaPos = Integer.parseInt(pos[i]);
-            int antigaPos = jogo.getPeca(i).getIdCasa();
-            
-            if (novaPos != antigaPos) {
-                jogadorMovendoTmp = i;
-                origemTmp = antigaPos;
-
-                int posicaoEsperada = antigaPos + dado;
-                
-                if (novaPos != posicaoEsperada && posicaoEsperada <= 100) {
-                    if (cobrasRecebidas.containsKey(posicaoEsperada)) {
-                        destinoTmp = posicaoEsperada;
-                        casaFinalTmp = novaPos;
-                    }
-                    else if (escadasRecebidas.containsKey(posicaoEsperada)) {
-                        destinoTmp = posicaoEsperada;
-                        casaFinalTmp = novaPos;
-                    }
-                    else {
-                        destinoTmp = novaPos;
-                        casaFinalTmp = null;
-                    }
-                }
-                else {
-                    destinoTmp = novaPos;
-                    casaFinalTmp = null;
-                }
+        if (animar && evento != null && evento.getCasaFinal() != evento.getOrigem()) {
+            jogadorMovendoTmp = evento.getJogador();
+            origemTmp = evento.getOrigem();
+            destinoTmp = evento.getAterragem();
+            if (evento.getCasaFinal() != evento.getAterragem()) {
+                casaFinalTmp = evento.getCasaFinal();
             }
+        }
+
+        for (int i = 0; i < atualizacao.getNumeroJogadores(); i++) {
             if (i != jogadorMovendoTmp) {
-                jogo.getPeca(i).setIdCasa(novaPos);
+                jogo.setPosicaoJogador(i, atualizacao.getPosicao(i));
             }
         }
 
@@ -518,34 +757,51 @@ public class TabuleiroController {
         if (jogadorMovendo != -1) {
             animando = true;
             botaoRolar.setDisable(true);
-            animarDado(dado, () -> {
+            animarDado(atualizacao.getDado(), () -> {
                 moverComCobraOuEscada(jogadorMovendo, origem, destino, casaFinal, () -> {
                     desenharTabuleiro();
                     atualizarPainelJogadores(indiceVez);
                     atualizarPainelVitorias();
-                    areaStatus.setText(status);
+                    areaStatus.setText(textoStatus(nomesJogadores, evento, reinicio, indiceVez));
                     animando = false;
                     botaoRolar.setDisable(animando || meuIndice != indiceVez || jogoAcabou);
+                    leitorServidor.devolver(atualizacao);
+                    // Fora do fim da animação, onde o diálogo de vitória não pode abrir
+                    agendarDrenagem();
                 });
             });
         } else {
-            for (int i = 0; i < pos.length; i++) {
-                int novaPos = Integer.parseInt(pos[i]);
-                jogo.getPeca(i).setIdCasa(novaPos);
-            }
-            
             desenharTabuleiro();
             atualizarPainelJogadores(indiceVez);
             atualizarPainelVitorias();
-            areaStatus.setText(status);
+            areaStatus.setText(textoStatus(nomesJogadores, evento, reinicio, indiceVez));
             animando = false;
             botaoRolar.setDisable(animando || meuIndice != indiceVez || jogoAcabou);
         }
 
         if (jogoAcabou) {
             botaoRolar.setDisable(true);
-            mostrarDialogoVitoria(nomesJogadores[indiceVez]);
+            if (animar) {
+                mostrarDialogoVitoria(nomesJogadores[indiceVez]);
+            }
+        }
+        return jogadorMovendo != -1;
+    }
+
+    /**
+     * Produz o texto de status a mostrar na área de status.
+     * 
+     * @param nomesJogadores Nomes dos jogadores, por lugar
+     * @param evento Jogada recebida, ou null no início do jogo
+     * @param reinicio Indica se o jogo acabou de ser reiniciado
+     * @param indiceVez Índice do jogador que deve jogar
+     * @return Mensagem para o jogador
+     */
+    private String textoStatus(String[] nomesJogadores, EventoMovimento evento, boolean reinicio, int indiceVez) {
+        if (evento != null) {
+            return evento.descrever(nomesJogadores[evento.getJogador()]);
         }
+        return nomesJogadores[indiceVez] + (reinicio ? " começa! Novo jogo iniciado!" : " começa!");
     }
 
     /**
@@ -566,10 +822,10 @@ public class TabuleiroController {
         alert.getButtonTypes().setAll(btnSim, btnNao);
 
         alert.showAndWait().ifPresent(type -> {
-            if (type == btnSim) {
-                socketOutput.println("REINICIAR_SIM");
-            } else {
-                socketOutput.println("REINICIAR_NAO");
+            try {
+                ligacao.enviarVotoReinicio(type == btnSim);
+            } catch (IOException e) {
+                e.printStackTrace();
             }
         });
     }
@@ -629,7 +885,7 @@ public class TabuleiroController {
             int posAtual = origem + i * passo;
             int frame = i;
             timeline.getKeyFrames().add(new KeyFrame(Duration.millis(300 * frame), e -> {
-                jogo.getPeca(idxJogador).setIdCasa(posAtual);
+                jogo.setPosicaoJogador(idxJogador, posAtual);
                 desenharTabuleiro();
             }));
         }
@@ -637,14 +893,15 @@ public class TabuleiroController {
         timeline.setOnFinished(e -> {
             if (aoTerminar != null) aoTerminar.run();
         });
-        timeline.play();
+        tocar(timeline);
     }
 
     /**
      * Anima o dado mostrando faces aleatórias antes do resultado final.
      * 
      * Simula o efeito de um dado rolando, exibindo faces aleatórias
-     * por um curto período antes de mostrar o resultado real.
+     * por um curto período antes de mostrar o resultado real. As faces vêm
+     * da cache de {@link Imagens}, sem descodificar nada por quadro.
      * 
      * @param resultado Face final que deve ser exibida no dado
      * @param aoTerminar Callback executado ao final da animação
@@ -654,14 +911,25 @@ public class TabuleiroController {
         for (int i = 0; i < 10; i++) {
             int face = 1 + (int)(Math.random() * 6);
             timeline.getKeyFrames().add(new KeyFrame(Duration.millis(60 * i), e -> {
-                dadoImage.setImage(new Image(getClass().getResource("/imagens/dado" + face + ".png").toExternalForm()));
+                dadoImage.setImage(Imagens.dado(face));
             }));
         }
         timeline.getKeyFrames().add(new KeyFrame(Duration.millis(600), e -> {
-            dadoImage.setImage(new Image(getClass().getResource("/imagens/dado" + resultado + ".png").toExternalForm()));
+            dadoImage.setImage(Imagens.dado(resultado));
             if (aoTerminar != null) aoTerminar.run();
         }));
-        timeline.play();
+        tocar(timeline);
+    }
+
+    /**
+     * Inicia uma animação do tabuleiro ou do dado à velocidade atual, mais
+     * rápida quando há estados à espera de serem mostrados.
+     * 
+     * @param animacao Animação a iniciar
+     */
+    private void tocar(Animation animacao) {
+        animacao.setRate(velocidadeAnimacao);
+        animacao.play();
     }
 
     /**
@@ -688,7 +956,7 @@ public class TabuleiroController {
                         animarMovimentoCobra(idxJogador, destino, casaFinal, aoTerminar);
                     }
                 }));
-                pausaTimeline.play();
+                tocar(pausaTimeline);
             } else {
                 if (aoTerminar != null) aoTerminar.run();
             }
@@ -707,10 +975,14 @@ public class TabuleiroController {
      * @param aoTerminar Callback executado ao final da animação
      */
     private void animarMovimentoReto(int idxJogador, int origem, int destino, Runnable aoTerminar) {
+        if (tabuleiroCanvas != null) {
+            animarNoCanvas(idxJogador, origem, destino, false, 900, aoTerminar);
+            return;
+        }
         ImageView pecaReal = encontrarPecaJogador(idxJogador, origem);
         
         if (pecaReal == null) {
-            jogo.getPeca(idxJogador).setIdCasa(destino);
+            jogo.setPosicaoJogador(idxJogador, destino);
             desenharTabuleiro();
             if (aoTerminar != null) aoTerminar.run();
             return;
@@ -732,11 +1004,11 @@ public class TabuleiroController {
         PathTransition pt = new PathTransition(Duration.millis(900), path, pecaReal);
         pt.setOnFinished(e -> {
             overlayPane.getChildren().remove(pecaReal);
-            jogo.getPeca(idxJogador).setIdCasa(destino);
+            jogo.setPosicaoJogador(idxJogador, destino);
             desenharTabuleiro();
             if (aoTerminar != null) aoTerminar.run();
         });
-        pt.play();
+        tocar(pt);
     }
 
     /**
@@ -751,12 +1023,16 @@ public class TabuleiroController {
      * @param aoTerminar Callback executado ao final da animação
      */
     private void animarMovimentoCobra(int idxJogador, int origem, int destino, Runnable aoTerminar) {
+        if (tabuleiroCanvas != null) {
+            animarNoCanvas(idxJogador, origem, destino, true, 1200, aoTerminar);
+            return;
+        }
         // Encontrar a peça real do jogador e movê-la para o overlay para animação
         ImageView pecaReal = encontrarPecaJogador(idxJogador, origem);
         
         if (pecaReal == null) {
             // Fallback: teleportar diretamente
-            jogo.getPeca(idxJogador).setIdCasa(destino);
+            jogo.setPosicaoJogador(idxJogador, destino);
             desenharTabuleiro();
             if (aoTerminar != null) aoTerminar.run();
             return;
@@ -791,53 +1067,79 @@ public class TabuleiroController {
             // Remover do overlay
             overlayPane.getChildren().remove(pecaReal);
             // Atualizar posição da peça no jogo
-            jogo.getPeca(idxJogador).setIdCasa(destino);
+            jogo.setPosicaoJogador(idxJogador, destino);
             // Redesenhar tabuleiro
             desenharTabuleiro();
             if (aoTerminar != null) aoTerminar.run();
         });
-        pt.play();
+        tocar(pt);
+    }
+
+    /**
+     * Anima uma peça do tabuleiro em canvas, em linha reta ou na mesma curva
+     * usada pela grelha de nós. Cada quadro só redesenha a camada das peças.
+     * 
+     * @param idxJogador Índice do jogador
+     * @param origem Casa de origem
+     * @param destino Casa de destino
+     * @param curva true para a curva das cobras, false para a linha reta das escadas
+     * @param duracaoMs Duração da animação, em milissegundos
+     * @param aoTerminar Callback executado ao final da animação
+     */
+    private void animarNoCanvas(int idxJogador, int origem, int destino, boolean curva, double duracaoMs, Runnable aoTerminar) {
+        double[] start = tabuleiroCanvas.getCentroCasa(origem);
+        double[] end = tabuleiroCanvas.getCentroCasa(destino);
+        double dx = end[0] - start[0];
+        double dy = end[1] - start[1];
+        double cx1 = dx * 0.25 + 30;
+        double cy1 = dy * 0.25 - 30;
+        double cx2 = dx * 0.75 - 30;
+        double cy2 = dy * 0.75 + 30;
+
+        Transition transicao = new Transition() {
+            {
+                setCycleDuration(Duration.millis(duracaoMs));
+            }
+
+            @Override
+            protected void interpolate(double t) {
+                double x = t * dx;
+                double y = t * dy;
+                if (curva) {
+                    // Curva de Bézier cúbica com início em (0, 0)
+                    double u = 1 - t;
+                    x = 3 * u * u * t * cx1 + 3 * u * t * t * cx2 + t * t * t * dx;
+                    y = 3 * u * u * t * cy1 + 3 * u * t * t * cy2 + t * t * t * dy;
+                }
+                tabuleiroCanvas.voar(idxJogador, start[0] + x, start[1] + y);
+            }
+        };
+        transicao.setOnFinished(e -> {
+            tabuleiroCanvas.pousar();
+            jogo.setPosicaoJogador(idxJogador, destino);
+            desenharTabuleiro();
+            if (aoTerminar != null) aoTerminar.run();
+        });
+        tocar(transicao);
     }
 
     /**
      * Encontra e retorna a ImageView da peça de um jogador específico.
      * 
-     * Busca no gridTabuleiro pela peça do jogador na casa especificada,
-     * identificando-a pela imagem correspondente.
+     * As peças e as células são guardadas por lugar e por número da casa
+     * ({@link #pecas} e {@link #celulas}), por isso basta confirmar que a
+     * peça do jogador está na célula da casa, sem percorrer a grelha.
      * 
-     * @param idxJogador Índice do jogador (0 ou 1)
+     * @param idxJogador Índice do jogador
      * @param casa Número da casa onde buscar a peça
-     * @return ImageView da peça encontrada, ou null se não encontrada
+     * @return ImageView da peça encontrada, ou null se não estiver nessa casa
      */
     private ImageView encontrarPecaJogador(int idxJogador, int casa) {
-        String imagemEsperada = (idxJogador == 1) ? "peao_azul.png" : "peao.png";
-        
-        for (javafx.scene.Node node : gridTabuleiro.getChildren()) {
-            if (node instanceof StackPane) {
-                StackPane cell = (StackPane) node;
-                
-                // Verificar se esta célula corresponde à casa
-                Integer row = GridPane.getRowIndex(node);
-                Integer col = GridPane.getColumnIndex(node);
-                if (row == null) row = 0;
-                if (col == null) col = 0;
-                
-                int numCasaCalculada = 100 - (row * 10 + ((row % 2 == 0) ? col : 9 - col));
-                
-                if (numCasaCalculada == casa) {
-                    // Procurar a peça do jogador nesta célula
-                    for (javafx.scene.Node child : cell.getChildren()) {
-                        if (child instanceof ImageView) {
-                            ImageView img = (ImageView) child;
-                            if (img.getImage() != null && img.getImage().getUrl().contains(imagemEsperada)) {
-                                return img;
-                            }
-                        }
-                    }
-                }
-            }
+        if (celulas == null || idxJogador < 0 || idxJogador >= pecas.length || casa < 1 || casa > 100) {
+            return null;
         }
-        return null;
+        ImageView peca = pecas[idxJogador];
+        return peca != null && peca.getParent() == celulas[casa] ? peca : null;
     }
 
     /**
@@ -859,29 +1161,80 @@ public class TabuleiroController {
      * - Posição atual no tabuleiro
      * - Indicador visual se é sua vez de jogar
      * 
+     * Os quadros são criados uma vez por jogo; aqui só mudam a casa e o
+     * destaque de quem joga.
+     * 
      * @param indiceJogadorVez Índice do jogador que deve jogar agora
      */
     private void atualizarPainelJogadores(int indiceJogadorVez) {
-        if (jogo == null || painelJogadores == null) return;
-        
+        if (jogo == null || painelJogadores == null || painelVitorias == null) return;
+        if (jogo != jogoPaineis) {
+            criarPaineis();
+        }
+
+        for (int i = 0; i < quadrosJogadores.length; i++) {
+            etiquetasPosicao[i].setText("Casa: " + jogo.getPosicaoJogador(i));
+            
+            // Destacar jogador que vai jogar (vez atual)
+            boolean vez = i == indiceJogadorVez;
+            quadrosJogadores[i].setStyle(vez
+                ? ESTILO_QUADRO + "-fx-background-color: #e8f5e8; -fx-border-color: #4caf50; -fx-border-width: 2px;"
+                : ESTILO_QUADRO);
+            etiquetasVez[i].setVisible(vez);
+            etiquetasVez[i].setManaged(vez);
+        }
+    }
+
+    /**
+     * Atualiza o painel de vitórias com o placar atual.
+     * 
+     * Exibe o número de vitórias de cada jogador, mudando apenas o texto
+     * das etiquetas criadas para o jogo atual.
+     */
+    private void atualizarPainelVitorias() {
+        if (jogo == null || painelJogadores == null || painelVitorias == null) return;
+        if (jogo != jogoPaineis) {
+            criarPaineis();
+        }
+
+        for (int i = 0; i < etiquetasVitorias.length; i++) {
+            etiquetasVitorias[i].setText(nomesJogo[i] + ": " + jogo.getVitoriasJogador(i));
+        }
+    }
+
+    /**
+     * Cria os quadros dos jogadores e o placar de vitórias do jogo atual,
+     * substituindo os do jogo anterior.
+     */
+    private void criarPaineis() {
+        int n = jogo.getNumeroJogadores();
+        quadrosJogadores = new VBox[n];
+        etiquetasPosicao = new Label[n];
+        etiquetasVez = new Label[n];
+        etiquetasVitorias = new Label[n];
         painelJogadores.getChildren().clear();
-        
-        for (int i = 0; i < jogo.getNumeroJogadores(); i++) {
+        painelVitorias.getChildren().clear();
+
+        // Adicionar título
+        Label titulo = new Label("🏆 VITÓRIAS");
+        titulo.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #d4af37; -fx-padding: 0 0 10 0;");
+        painelVitorias.getChildren().add(titulo);
+
+        for (int i = 0; i < n; i++) {
             // Criar um container para cada jogador
             VBox containerJogador = new VBox(5);
             containerJogador.setAlignment(Pos.CENTER);
-            containerJogador.setStyle("-fx-padding: 10; -fx-background-color: white; -fx-border-color: #ddd; -fx-border-width: 1px; -fx-border-radius: 5px;");
+            containerJogador.setStyle(ESTILO_QUADRO);
             
             // Nome do jogador
-            String nomeJogador = jogo.getNomesJogadores().get(i);
+            String nomeJogador = nomesJogo[i];
             Label nomeLabel = new Label(nomeJogador);
             nomeLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
             
             // Imagem da peça
-            String imagemPeao = (i == 1) ? "/imagens/peao_azul.png" : "/imagens/peao.png";
-            java.net.URL peaoUrl = getClass().getResource(imagemPeao);
-            if (peaoUrl != null) {
-                ImageView pecaView = new ImageView(new Image(peaoUrl.toExternalForm()));
+            Image imagemPeao = Imagens.peao(i);
+            if (imagemPeao != null) {
+                ImageView pecaView = new ImageView(imagemPeao);
                 pecaView.setFitWidth(32);
                 pecaView.setFitHeight(32);
                 containerJogador.getChildren().addAll(nomeLabel, pecaView);
@@ -894,48 +1247,27 @@ public class TabuleiroController {
             }
             
             // Posição atual
-            Label posicaoLabel = new Label("Casa: " + jogo.getPosicaoJogador(i));
+            Label posicaoLabel = new Label();
             posicaoLabel.setStyle("-fx-font-size: 12px;");
-            containerJogador.getChildren().add(posicaoLabel);
-            
-            // Destacar jogador que vai jogar (vez atual)..
-            if (i == indiceJogadorVez) {
-                containerJogador.setStyle(containerJogador.getStyle() + "-fx-background-color: #e8f5e8; -fx-border-color: #4caf50; -fx-border-width: 2px;");
-                // Adicionar indicador de vez....
-                Label vezLabel = new Label("SUA VEZ!");
-                vezLabel.setStyle("-fx-font-size: 10px; -fx-font-weight: bold; -fx-text-fill: #4caf50;");
-                containerJogador.getChildren().add(vezLabel);
-            }
             
+            // Indicador de vez, só visível para quem joga
+            Label vezLabel = new Label("SUA VEZ!");
+            vezLabel.setStyle("-fx-font-size: 10px; -fx-font-weight: bold; -fx-text-fill: #4caf50;");
+            vezLabel.setVisible(false);
+            vezLabel.setManaged(false);
+            containerJogador.getChildren().addAll(posicaoLabel, vezLabel);
             painelJogadores.getChildren().add(containerJogador);
-        }
-    }
 
-    /**
-     * Atualiza o painel de vitórias com o placar atual.
-     * 
-     * Exibe o número de vitórias de cada jogador,
-     * removendo entradas antigas e adicionando as atualizadas.
-     */
-    private void atualizarPainelVitorias() {
-        if (jogo == null || painelVitorias == null) return;
-        
-        // Limpar completamente o painel e recriar
-        painelVitorias.getChildren().clear();
-        
-        // Adicionar título
-        Label titulo = new Label("🏆 VITÓRIAS");
-        titulo.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #d4af37; -fx-padding: 0 0 10 0;");
-        painelVitorias.getChildren().add(titulo);
-        
-        // Adicionar vitórias de cada jogador
-        for (int i = 0; i < jogo.getNumeroJogadores(); i++) {
-            String nomeJogador = jogo.getNomesJogadores().get(i);
-            int vitorias = jogo.getVitoriasJogador(i);
-            
-            Label vitoriaLabel = new Label(nomeJogador + ": " + vitorias);
+            // Vitórias do jogador
+            Label vitoriaLabel = new Label();
             vitoriaLabel.setStyle("-fx-font-size: 14px; -fx-font-weight: bold; -fx-text-fill: #8b4513;");
             painelVitorias.getChildren().add(vitoriaLabel);
+
+            quadrosJogadores[i] = containerJogador;
+            etiquetasPosicao[i] = posicaoLabel;
+            etiquetasVez[i] = vezLabel;
+            etiquetasVitorias[i] = vitoriaLabel;
         }
+        jogoPaineis = jogo;
     }
 }
@@ -1,12 +1,8 @@
 package com.mycompany.snake_ladder.model;
 
-import java.util.Random;
-import javafx.fxml.FXML;
-import javafx.scene.image.ImageView;
-
 /**
  * Representa um dado no jogo Cobras e Escadas.
- * Responsável por gerar números aleatórios e animar o lançamento do dado.
+ * Responsável por gerar números aleatórios para o lançamento do dado.
  * 
  * @author Snake_Ladder Team
  * @version 1.0
@@ -15,12 +11,24 @@ public class Dado {
     /**
      * Gerador de números aleatórios para simular o lançamento do dado.
      */
-    private final Random random = new Random();
-    
+    private final GeradorAleatorio gerador;
+
     /**
-     * Componente visual do dado na interface JavaFX.
+     * Construtor que cria um dado com uma semente nova.
      */
-    @FXML private ImageView dadoImage;
+    public Dado() {
+        this(new GeradorSplittable());
+    }
+
+    /**
+     * Construtor que cria um dado a partir de um gerador específico.
+     * Com um gerador de semente conhecida, os lançamentos podem ser repetidos.
+     * 
+     * @param gerador Gerador de números aleatórios do dado
+     */
+    public Dado(GeradorAleatorio gerador) {
+        this.gerador = gerador;
+    }
 
     /**
      * Simula o lançamento do dado e retorna um valor aleatório entre 1 e 6.
@@ -28,6 +36,15 @@ public class Dado {
      * @return Valor do dado (1-6)
      */
     public int rolarDados() {
-        return random.nextInt(6) + 1;
+        return gerador.rolarDado();
+    }
+
+    /**
+     * Obtém o gerador usado pelo dado.
+     * 
+     * @return Gerador de números aleatórios
+     */
+    public GeradorAleatorio getGerador() {
+        return gerador;
     }
 }
@@ -0,0 +1,199 @@
+package com.mycompany.snake_ladder.model;
+
+import java.util.Arrays;
+
+/**
+ * Estado mutável de uma partida guardado em arrays primitivos.
+ *
+ * Posições e vitórias são indexadas diretamente pelo lugar do jogador na
+ * mesa (0, 1, ...), por isso todas as consultas são O(1) e sem mapas.
+ * Cada alteração incrementa a versão do estado, o que permite a quem lê
+ * um {@link InstantaneoJogo} saber se ficou desatualizado.
+ *
+ * Não é thread-safe: deve ser alterado apenas pela thread que conduz a
+ * partida. As outras threads leem instantâneos obtidos com {@link #instantaneo()}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class EstadoJogo {
+    /** Casa onde todas as peças começam */
+    public static final int CASA_INICIAL = 1;
+
+    /** Posição da peça de cada jogador */
+    private final int[] posicoes;
+
+    /** Vitórias acumuladas de cada jogador */
+    private final int[] vitorias;
+
+    /** Lugar do jogador que tem a vez */
+    private int jogadorAtual = 0;
+
+    /** Indica se a partida terminou */
+    private boolean finalizado = false;
+
+    /** Número de alterações feitas ao estado */
+    private long versao = 0;
+
+    /**
+     * Cria o estado inicial de uma partida.
+     *
+     * @param numJogadores Número de lugares na mesa
+     */
+    public EstadoJogo(int numJogadores) {
+        this.posicoes = new int[numJogadores];
+        this.vitorias = new int[numJogadores];
+        Arrays.fill(posicoes, CASA_INICIAL);
+    }
+
+    /**
+     * Obtém o número de jogadores.
+     *
+     * @return Número de lugares na mesa
+     */
+    public int getNumeroJogadores() {
+        return posicoes.length;
+    }
+
+    /**
+     * Obtém a posição de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Casa onde está a peça
+     */
+    public int getPosicao(int lugar) {
+        return posicoes[lugar];
+    }
+
+    /**
+     * Define a posição de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @param casa Nova casa da peça
+     */
+    public void setPosicao(int lugar, int casa) {
+        posicoes[lugar] = casa;
+        versao++;
+    }
+
+    /**
+     * Obtém as vitórias de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Número de vitórias
+     */
+    public int getVitorias(int lugar) {
+        return vitorias[lugar];
+    }
+
+    /**
+     * Define as vitórias de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @param numVitorias Número de vitórias
+     */
+    public void setVitorias(int lugar, int numVitorias) {
+        vitorias[lugar] = numVitorias;
+        versao++;
+    }
+
+    /**
+     * Soma uma vitória a um jogador.
+     *
+     * @param lugar Lugar do jogador que venceu
+     */
+    public void adicionarVitoria(int lugar) {
+        vitorias[lugar]++;
+        versao++;
+    }
+
+    /**
+     * Obtém o lugar do jogador que tem a vez.
+     *
+     * @return Lugar do jogador atual
+     */
+    public int getJogadorAtual() {
+        return jogadorAtual;
+    }
+
+    /**
+     * Define o jogador que tem a vez.
+     *
+     * @param lugar Lugar do jogador
+     */
+    public void setJogadorAtual(int lugar) {
+        jogadorAtual = lugar;
+        versao++;
+    }
+
+    /**
+     * Passa a vez ao lugar seguinte.
+     */
+    public void passarVez() {
+        jogadorAtual = (jogadorAtual + 1) % posicoes.length;
+        versao++;
+    }
+
+    /**
+     * Verifica se a partida terminou.
+     *
+     * @return true se a partida terminou
+     */
+    public boolean isFinalizado() {
+        return finalizado;
+    }
+
+    /**
+     * Define se a partida terminou.
+     *
+     * @param finalizado true se a partida terminou
+     */
+    public void setFinalizado(boolean finalizado) {
+        this.finalizado = finalizado;
+        versao++;
+    }
+
+    /**
+     * Obtém a versão atual do estado.
+     *
+     * @return Número de alterações feitas até agora
+     */
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Volta a pôr todas as peças na casa inicial e dá a vez ao primeiro lugar.
+     * As vitórias são mantidas.
+     */
+    public void reiniciar() {
+        Arrays.fill(posicoes, CASA_INICIAL);
+        jogadorAtual = 0;
+        finalizado = false;
+        versao++;
+    }
+
+    /**
+     * Copia este estado para outro com o mesmo número de jogadores, sem
+     * alocar memória. Útil para simular jogadas hipotéticas sobre uma cópia.
+     *
+     * @param destino Estado que passa a ser igual a este
+     */
+    public void copiarPara(EstadoJogo destino) {
+        System.arraycopy(posicoes, 0, destino.posicoes, 0, posicoes.length);
+        System.arraycopy(vitorias, 0, destino.vitorias, 0, vitorias.length);
+        destino.jogadorAtual = jogadorAtual;
+        destino.finalizado = finalizado;
+        destino.versao = versao;
+    }
+
+    /**
+     * Tira um instantâneo imutável do estado atual.
+     * Custa apenas a cópia de dois arrays pequenos.
+     *
+     * @return Instantâneo coerente, que pode ser lido por qualquer thread
+     */
+    public InstantaneoJogo instantaneo() {
+        return new InstantaneoJogo(posicoes.clone(), vitorias.clone(), jogadorAtual, finalizado, versao);
+    }
+}
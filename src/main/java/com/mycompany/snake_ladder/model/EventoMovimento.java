@@ -0,0 +1,202 @@
+package com.mycompany.snake_ladder.model;
+
+/**
+ * Descrição estruturada de uma jogada.
+ *
+ * Guarda apenas números: quem jogou, o valor do dado, a casa de origem,
+ * a casa atingida pelo dado, a casa final depois de cobras/escadas e o
+ * tipo de movimento da {@link TabelaMovimentos}. O texto para o jogador
+ * só é produzido por {@link #descrever(String)}, no sítio onde é mostrado.
+ *
+ * Cada {@link Jogo} reutiliza a mesma instância em todas as jogadas, por
+ * isso quem precisar de a guardar deve usar {@link #copiarDe(EventoMovimento)}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class EventoMovimento {
+    /** Índice do jogador que jogou */
+    private int jogador;
+
+    /** Valor do dado (1-6) */
+    private int dado;
+
+    /** Casa onde a peça estava antes da jogada */
+    private int origem;
+
+    /** Casa atingida pelo dado, antes de cobras e escadas */
+    private int aterragem;
+
+    /** Casa onde a peça ficou no fim da jogada */
+    private int casaFinal;
+
+    /** Tipo de movimento, um dos códigos de {@link TabelaMovimentos} */
+    private int resultado;
+
+    /**
+     * Preenche o evento com os dados de uma jogada.
+     *
+     * @param jogador Índice do jogador que jogou
+     * @param dado Valor do dado
+     * @param origem Casa de origem
+     * @param aterragem Casa atingida pelo dado (igual à origem se excedeu a casa 100)
+     * @param casaFinal Casa final depois de cobras e escadas
+     * @param resultado Tipo de movimento
+     */
+    public void definir(int jogador, int dado, int origem, int aterragem, int casaFinal, int resultado) {
+        this.jogador = jogador;
+        this.dado = dado;
+        this.origem = origem;
+        this.aterragem = aterragem;
+        this.casaFinal = casaFinal;
+        this.resultado = resultado;
+    }
+
+    /**
+     * Preenche o evento a partir de uma entrada da tabela de movimentos.
+     *
+     * @param jogador Índice do jogador que jogou
+     * @param dado Valor do dado
+     * @param origem Casa de origem
+     * @param movimento Entrada devolvida por {@link TabelaMovimentos#mover(int, int)}
+     */
+    void definir(int jogador, int dado, int origem, int movimento) {
+        int tipo = TabelaMovimentos.resultado(movimento);
+        definir(jogador, dado, origem, tipo == TabelaMovimentos.EXCEDEU ? origem : origem + dado,
+            TabelaMovimentos.casaFinal(movimento), tipo);
+    }
+
+    /**
+     * Copia todos os campos de outro evento.
+     *
+     * @param outro Evento a copiar
+     */
+    public void copiarDe(EventoMovimento outro) {
+        definir(outro.jogador, outro.dado, outro.origem, outro.aterragem, outro.casaFinal, outro.resultado);
+    }
+
+    /**
+     * Obtém o índice do jogador que jogou.
+     *
+     * @return Índice do jogador
+     */
+    public int getJogador() {
+        return jogador;
+    }
+
+    /**
+     * Obtém o valor do dado.
+     *
+     * @return Valor do dado (1-6)
+     */
+    public int getDado() {
+        return dado;
+    }
+
+    /**
+     * Obtém a casa de origem.
+     *
+     * @return Casa onde a peça estava antes da jogada
+     */
+    public int getOrigem() {
+        return origem;
+    }
+
+    /**
+     * Obtém a casa atingida pelo dado, antes de cobras e escadas.
+     *
+     * @return Casa de aterragem
+     */
+    public int getAterragem() {
+        return aterragem;
+    }
+
+    /**
+     * Obtém a casa final da jogada.
+     *
+     * @return Casa onde a peça ficou
+     */
+    public int getCasaFinal() {
+        return casaFinal;
+    }
+
+    /**
+     * Obtém o tipo de movimento.
+     *
+     * @return Código de {@link TabelaMovimentos}
+     */
+    public int getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Verifica se a peça desceu por uma cobra.
+     *
+     * @return true se caiu numa cobra
+     */
+    public boolean isCobra() {
+        return resultado == TabelaMovimentos.COBRA;
+    }
+
+    /**
+     * Verifica se a peça subiu por uma escada.
+     *
+     * @return true se caiu numa escada
+     */
+    public boolean isEscada() {
+        return resultado == TabelaMovimentos.ESCADA;
+    }
+
+    /**
+     * Verifica se a jogada terminou o jogo.
+     *
+     * @return true se o jogador chegou à casa 100
+     */
+    public boolean isVitoria() {
+        return resultado == TabelaMovimentos.VITORIA;
+    }
+
+    /**
+     * Verifica se o jogador volta a jogar (tirou 6 e não venceu).
+     *
+     * @return true se o jogador mantém a vez
+     */
+    public boolean isJogaDeNovo() {
+        return dado == 6 && resultado != TabelaMovimentos.VITORIA;
+    }
+
+    /**
+     * Produz a mensagem de status da jogada para mostrar ao jogador.
+     *
+     * @param nome Nome do jogador que jogou
+     * @return Mensagem de status descrevendo o movimento
+     */
+    public String descrever(String nome) {
+        StringBuilder status = new StringBuilder();
+        status.append(nome).append(" rolou um ").append(dado).append(".");
+        switch (resultado) {
+            case TabelaMovimentos.EXCEDEU:
+                status.append("\n❌ ").append(nome)
+                      .append(" precisa de exatamente ").append(TabelaMovimentos.CASA_FINAL - origem)
+                      .append(" para ganhar! Fica na casa ").append(origem).append(".");
+                return status.toString();
+            case TabelaMovimentos.VITORIA:
+                status.append("\n🏆 ").append(nome).append(" venceu o jogo!");
+                return status.toString();
+            case TabelaMovimentos.COBRA:
+                status.append("\n⚠️ ").append(nome)
+                      .append(" caiu numa COBRA! Desce até a casa ").append(casaFinal).append(".");
+                break;
+            case TabelaMovimentos.ESCADA:
+                status.append("\n🪜 ").append(nome)
+                      .append(" caiu numa escada! Sobe até a casa ").append(casaFinal).append(".");
+                break;
+            default:
+                break;
+        }
+        if (dado == 6) {
+            status.append("\n🎲 ").append(nome).append(" rolou um 6 e pode jogar outra vez!");
+        }
+        return status.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.mycompany.snake_ladder.model;
+
+/**
+ * Fonte de números aleatórios usada pelo dado e pela geração de tabuleiros.
+ *
+ * Cada partida, tabuleiro ou tarefa de simulação deve ter o seu próprio
+ * gerador: as implementações não precisam de ser thread-safe. Para
+ * trabalho paralelo, {@link #dividir()} cria um gerador independente cuja
+ * sequência depende apenas do estado deste, o que mantém os resultados
+ * reproduzíveis a partir de uma única semente.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public interface GeradorAleatorio {
+    /**
+     * Gera um inteiro uniforme em [0, limite).
+     *
+     * @param limite Limite superior exclusivo (maior que 0)
+     * @return Valor aleatório
+     */
+    int proximoInt(int limite);
+
+    /**
+     * Cria um novo gerador independente deste.
+     *
+     * @return Gerador para usar noutra thread ou tarefa
+     */
+    GeradorAleatorio dividir();
+
+    /**
+     * Lança o dado uma vez.
+     *
+     * @return Valor do dado (1-6)
+     */
+    default int rolarDado() {
+        return proximoInt(6) + 1;
+    }
+
+    /**
+     * Preenche um buffer com lançamentos do dado.
+     *
+     * @param destino Buffer a preencher com valores de 1 a 6
+     * @param inicio Primeira posição a preencher
+     * @param quantidade Número de lançamentos
+     */
+    default void preencherDados(byte[] destino, int inicio, int quantidade) {
+        for (int i = inicio; i < inicio + quantidade; i++) {
+            destino[i] = (byte) rolarDado();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.mycompany.snake_ladder.model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link GeradorAleatorio} baseado em {@link SplittableRandom}.
+ *
+ * Sem sincronização e com divisão em fluxos independentes, serve tanto
+ * para o dado de uma partida como para as tarefas paralelas do simulador.
+ * Guarda a semente com que foi criado, para que qualquer partida ou
+ * tabuleiro possa ser repetido exatamente.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class GeradorSplittable implements GeradorAleatorio {
+    /**
+     * Limiar de rejeição do método de Lemire para 16 bits: 2^16 mod 6.
+     * Amostras abaixo dele são descartadas para não haver enviesamento.
+     */
+    private static final int LIMIAR_REJEICAO = 65536 % 6;
+
+    /** Gerador subjacente */
+    private final SplittableRandom random;
+
+    /** Semente usada na criação */
+    private final long semente;
+
+    /**
+     * Cria um gerador com uma semente nova.
+     */
+    public GeradorSplittable() {
+        this(novaSemente());
+    }
+
+    /**
+     * Cria um gerador reproduzível.
+     *
+     * @param semente Semente do gerador
+     */
+    public GeradorSplittable(long semente) {
+        this.semente = semente;
+        this.random = new SplittableRandom(semente);
+    }
+
+    /**
+     * Cria um gerador a partir de outro já dividido.
+     *
+     * @param random Gerador subjacente
+     * @param semente Semente que o originou
+     */
+    private GeradorSplittable(SplittableRandom random, long semente) {
+        this.random = random;
+        this.semente = semente;
+    }
+
+    /**
+     * Gera uma semente nova para partidas ou tabuleiros que não indicam uma.
+     *
+     * @return Semente aleatória
+     */
+    public static long novaSemente() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Obtém a semente com que o gerador foi criado.
+     * Para geradores obtidos com {@link #dividir()} é a semente do gerador original.
+     *
+     * @return Semente do gerador
+     */
+    public long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Tira uma semente do fluxo deste gerador, para um tabuleiro ou gerador
+     * derivado. Com a mesma semente inicial, a sequência de sementes tiradas
+     * é sempre a mesma.
+     *
+     * @return Semente derivada
+     */
+    public long proximaSemente() {
+        return random.nextLong();
+    }
+
+    @Override
+    public int proximoInt(int limite) {
+        return random.nextInt(limite);
+    }
+
+    @Override
+    public GeradorSplittable dividir() {
+        return new GeradorSplittable(random.split(), semente);
+    }
+
+    /**
+     * Preenche um buffer com lançamentos do dado.
+     * Cada valor de 64 bits do gerador é partido em quatro blocos de 16 bits
+     * e cada bloco dá um dado com uma multiplicação (método de Lemire), em
+     * vez de uma chamada ao gerador por dado. Os raros blocos que
+     * enviesariam o resultado são rejeitados.
+     */
+    @Override
+    public void preencherDados(byte[] destino, int inicio, int quantidade) {
+        int i = inicio;
+        int fim = inicio + quantidade;
+        while (i < fim) {
+            long bits = random.nextLong();
+            for (int k = 0; k < 4 && i < fim; k++) {
+                int m = ((int) bits & 0xFFFF) * 6;
+                bits >>>= 16;
+                if ((m & 0xFFFF) >= LIMIAR_REJEICAO) {
+                    destino[i++] = (byte) ((m >>> 16) + 1);
+                }
+            }
+        }
+    }
+}
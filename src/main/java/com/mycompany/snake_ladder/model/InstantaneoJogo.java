@@ -0,0 +1,101 @@
+package com.mycompany.snake_ladder.model;
+
+/**
+ * Cópia imutável do estado de uma partida num dado momento.
+ *
+ * Obtida com {@link EstadoJogo#instantaneo()} na thread que conduz a
+ * partida e depois lida livremente, sem locks, por quem difunde o estado
+ * aos clientes, o regista ou faz análises hipotéticas.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class InstantaneoJogo {
+    /** Posição da peça de cada jogador */
+    private final int[] posicoes;
+
+    /** Vitórias de cada jogador */
+    private final int[] vitorias;
+
+    /** Lugar do jogador que tem a vez */
+    private final int jogadorAtual;
+
+    /** Indica se a partida terminou */
+    private final boolean finalizado;
+
+    /** Versão do estado de onde foi tirado */
+    private final long versao;
+
+    /**
+     * Cria um instantâneo. Os arrays passam a pertencer ao instantâneo.
+     *
+     * @param posicoes Posições por lugar
+     * @param vitorias Vitórias por lugar
+     * @param jogadorAtual Lugar do jogador que tem a vez
+     * @param finalizado Indica se a partida terminou
+     * @param versao Versão do estado
+     */
+    InstantaneoJogo(int[] posicoes, int[] vitorias, int jogadorAtual, boolean finalizado, long versao) {
+        this.posicoes = posicoes;
+        this.vitorias = vitorias;
+        this.jogadorAtual = jogadorAtual;
+        this.finalizado = finalizado;
+        this.versao = versao;
+    }
+
+    /**
+     * Obtém o número de jogadores.
+     *
+     * @return Número de lugares na mesa
+     */
+    public int getNumeroJogadores() {
+        return posicoes.length;
+    }
+
+    /**
+     * Obtém a posição de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Casa onde estava a peça
+     */
+    public int getPosicao(int lugar) {
+        return posicoes[lugar];
+    }
+
+    /**
+     * Obtém as vitórias de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Número de vitórias
+     */
+    public int getVitorias(int lugar) {
+        return vitorias[lugar];
+    }
+
+    /**
+     * Obtém o lugar do jogador que tinha a vez.
+     *
+     * @return Lugar do jogador atual
+     */
+    public int getJogadorAtual() {
+        return jogadorAtual;
+    }
+
+    /**
+     * Verifica se a partida tinha terminado.
+     *
+     * @return true se a partida terminou
+     */
+    public boolean isFinalizado() {
+        return finalizado;
+    }
+
+    /**
+     * Obtém a versão do estado de onde o instantâneo foi tirado.
+     *
+     * @return Versão do estado
+     */
+    public long getVersao() {
+        return versao;
+    }
+}
@@ -17,22 +17,16 @@ public class Jogo {
     private List<Jogador> jogadores;
     
     /** Tabuleiro do jogo com cobras e escadas */
-    private Tabuleiro tabuleiro = new Tabuleiro();
+    private Tabuleiro tabuleiro;
     
     /** Dado usado para movimentação */
-    private final Dado dado = new Dado();
+    private final Dado dado;
     
-    /** Mapa de peças por ID do jogador */
-    private Map<Integer, Peca> pecas;
-    
-    /** Contador de vitórias por jogador */
-    private Map<Integer, Integer> vitorias;
-    
-    /** Índice do jogador atual */
-    private int jogadorAtual = 0;
-    
-    /** Flag indicando se o jogo terminou */
-    private boolean jogoFinalizado = false;
+    /** Posições, vitórias, vez e fim do jogo, indexados pelo lugar do jogador */
+    private final EstadoJogo estado;
+
+    /** Evento reutilizado para descrever cada jogada */
+    private final EventoMovimento evento = new EventoMovimento();
 
     /**
      * Construtor padrão que cria um jogo com 2 jogadores pré-definidos.
@@ -44,12 +38,9 @@ public class Jogo {
         // Para 3 ou 4 jogadores, adicione mais:
         // jogadores.add(new Jogador("Jogador 3"));
         // jogadores.add(new Jogador("Jogador 4"));
-        pecas = new HashMap<>();
-        vitorias = new HashMap<>();
-        for (Jogador j : jogadores) {
-            pecas.put(j.getIdJogador(), new Peca(j.getIdJogador()));
-            vitorias.put(j.getIdJogador(), 0); // Inicializa contador de vitórias
-        }
+        estado = new EstadoJogo(jogadores.size());
+        tabuleiro = new Tabuleiro();
+        dado = new Dado();
     }
 
     /**
@@ -58,46 +49,53 @@ public class Jogo {
      * @param nomesJogadores Lista com os nomes dos jogadores
      */
     public Jogo(List<String> nomesJogadores) {
-        this.jogadores = new ArrayList<>();
-        this.pecas = new HashMap<>();
-        this.vitorias = new HashMap<>();
-        for (int i = 0; i < nomesJogadores.size(); i++) {
-            Jogador jogador = new Jogador(i, nomesJogadores.get(i));
-            jogadores.add(jogador);
-            pecas.put(i, new Peca(i, 1)); // começa na casa 1
-            vitorias.put(i, 0); // Inicializa contador de vitórias
-        }
-        this.jogadorAtual = 0;
-        this.jogoFinalizado = false;
+        this(nomesJogadores, new Tabuleiro());
     }
 
+    /**
+     * Construtor que cria um jogo com jogadores personalizados num tabuleiro dado.
+     * 
+     * @param nomesJogadores Lista com os nomes dos jogadores
+     * @param tabuleiro Tabuleiro onde a partida é jogada
+     */
     public Jogo(List<String> nomesJogadores, Tabuleiro tabuleiro) {
+        this(nomesJogadores, tabuleiro, new GeradorSplittable());
+    }
+
+    /**
+     * Construtor que cria um jogo cujo dado usa um gerador específico.
+     * Com um gerador de semente conhecida, toda a partida pode ser repetida.
+     * 
+     * @param nomesJogadores Lista com os nomes dos jogadores
+     * @param tabuleiro Tabuleiro onde a partida é jogada
+     * @param gerador Gerador de números aleatórios do dado
+     */
+    public Jogo(List<String> nomesJogadores, Tabuleiro tabuleiro, GeradorAleatorio gerador) {
         this.tabuleiro = tabuleiro;
+        this.dado = new Dado(gerador);
         this.jogadores = new ArrayList<>();
-        this.pecas = new HashMap<>();
-        this.vitorias = new HashMap<>();
         for (int i = 0; i < nomesJogadores.size(); i++) {
             Jogador jogador = new Jogador(i, nomesJogadores.get(i));
             jogadores.add(jogador);
-            pecas.put(i, new Peca(i, 1)); // começa na casa 1
-            vitorias.put(i, 0); // Inicializa contador de vitórias
         }
-        this.jogadorAtual = 0;
-        this.jogoFinalizado = false;
+        this.estado = new EstadoJogo(jogadores.size()); // todos começam na casa 1
     }
 
+    /**
+     * Construtor que cria um jogo com 2 jogadores pré-definidos num tabuleiro dado.
+     * 
+     * @param tabuleiro Tabuleiro onde a partida é jogada
+     */
     public Jogo(Tabuleiro tabuleiro) {
         this.tabuleiro = tabuleiro;
+        this.dado = new Dado();
         jogadores = new ArrayList<>();
         jogadores.add(new Jogador("Jogador 1"));
         jogadores.add(new Jogador("Jogador 2"));
         // Para 3 ou 4 jogadores, adicione mais:
         // jogadores.add(new Jogador("Jogador 3"));
         // jogadores.add(new Jogador("Jogador 4"));
-        pecas = new HashMap<>();
-        for (Jogador j : jogadores) {
-            pecas.put(j.getIdJogador(), new Peca(j.getIdJogador()));
-        }
+        estado = new EstadoJogo(jogadores.size());
     }
 
     /**
@@ -117,7 +115,7 @@ public class Jogo {
      * @return Índice do jogador atual (0-based)
      */
     public int getJogadorAtualIndex() {
-        return jogadorAtual;
+        return estado.getJogadorAtual();
     }
 
     /**
@@ -126,7 +124,7 @@ public class Jogo {
      * @return Nome do jogador atual
      */
     public String getNomeJogadorAtual() {
-        return jogadores.get(jogadorAtual).getNome();
+        return jogadores.get(estado.getJogadorAtual()).getNome();
     }
 
     /**
@@ -145,7 +143,17 @@ public class Jogo {
      * @return Posição da peça do jogador no tabuleiro
      */
     public int getPosicaoJogador(int idx) {
-        return pecas.get(jogadores.get(idx).getIdJogador()).getIdCasa();
+        return estado.getPosicao(idx);
+    }
+
+    /**
+     * Define a posição atual de um jogador.
+     * 
+     * @param idx Índice do jogador
+     * @param casa Nova casa da peça do jogador
+     */
+    public void setPosicaoJogador(int idx, int casa) {
+        estado.setPosicao(idx, casa);
     }
 
     /**
@@ -157,53 +165,31 @@ public class Jogo {
         return jogadores.size();
     }
 
-    public String moverJogadorAtual(int valorDado) {
-    Jogador jogador = jogadores.get(jogadorAtual);
-    int origem = pecas.get(jogador.getIdJogador()).getIdCasa();
-    int destino = origem + valorDado;
-    StringBuilder status = new StringBuilder();
-
-    status.append(jogador.getNome())
-          .append(" rolou um ").append(valorDado).append(".");
-
-    // Verificar regra do número exato para ganhar
-    if (destino > 100) {
-        status.append("\n❌ ").append(jogador.getNome())
-              .append(" precisa de exatamente ").append(100 - origem)
-              .append(" para ganhar! Fica na casa ").append(origem).append(".");
-        // Jogador fica na mesma posição
-        return status.toString();
-    } else if (destino == 100) {
-        // Jogador ganhou!
-        pecas.get(jogador.getIdJogador()).setIdCasa(destino);
-        // Incrementa as vitórias usando o método apropriado
-        adicionarVitoria(jogador.getIdJogador());
-        jogoFinalizado = true; // Marcar jogo como finalizado
-        status.append("\n🏆 ").append(jogador.getNome()).append(" venceu o jogo!");
-        return status.toString();
-    } else {
-        // Movimento normal
-        pecas.get(jogador.getIdJogador()).setIdCasa(destino);
-    }
-
-    if (tabuleiro.eCabecaDeCobra(destino)) {
-        int cauda = tabuleiro.getCaudaCobra(destino);
-        status.append("\n⚠️ ").append(jogador.getNome())
-              .append(" caiu numa COBRA! Desce até a casa ").append(cauda).append(".");
-        pecas.get(jogador.getIdJogador()).setIdCasa(cauda);
-    } else if (tabuleiro.eBaseDeEscada(destino)) {
-        int topo = tabuleiro.getTopoEscada(destino);
-        status.append("\n🪜 ").append(jogador.getNome())
-              .append(" caiu numa escada! Sobe até a casa ").append(topo).append(".");
-        pecas.get(jogador.getIdJogador()).setIdCasa(topo);
-    }
+    /**
+     * Move a peça do jogador atual de acordo com o valor do dado.
+     * 
+     * O movimento é lido da {@link TabelaMovimentos} do tabuleiro, que já
+     * aplica a regra do número exato para a casa 100 e as cobras e escadas.
+     * Não é construído nenhum texto: a mensagem para o jogador é obtida com
+     * {@link EventoMovimento#descrever(String)} apenas onde for mostrada.
+     * 
+     * @param valorDado Valor obtido no dado (1-6)
+     * @return Evento da jogada; a mesma instância é reutilizada na jogada seguinte
+     */
+    public EventoMovimento moverJogadorAtual(int valorDado) {
+        int lugar = estado.getJogadorAtual();
+        int origem = estado.getPosicao(lugar);
+        int movimento = tabuleiro.getTabelaMovimentos().mover(origem, valorDado);
+        evento.definir(lugar, valorDado, origem, movimento);
 
-    if (valorDado == 6) {
-        status.append("\n🎲 ").append(jogador.getNome()).append(" rolou um 6 e pode jogar outra vez!");
+        estado.setPosicao(lugar, evento.getCasaFinal());
+        if (evento.isVitoria()) {
+            estado.adicionarVitoria(lugar);
+            estado.setFinalizado(true); // Marcar jogo como finalizado
+        }
+        return evento;
     }
 
-    return status.toString();
-}    
     /**
      * Verifica se uma casa é cabeça de cobra.
      * 
@@ -226,7 +212,7 @@ public class Jogo {
      * @return Nome do jogador atual
      */
     public String getJogadorAtual() {
-        return jogadores.get(jogadorAtual).getNome();
+        return jogadores.get(estado.getJogadorAtual()).getNome();
     }
     
     /**
@@ -235,7 +221,7 @@ public class Jogo {
      * @return true se o jogo foi finalizado, false caso contrário
      */
     public boolean isJogoFinalizado() {
-        return jogoFinalizado;
+        return estado.isFinalizado();
     }
     
     /**
@@ -243,40 +229,38 @@ public class Jogo {
      * As vitórias dos jogadores são mantidas entre jogos.
      */
     public void reiniciarJogo() {
-        jogoFinalizado = false;
-        jogadorAtual = 0;
-        for (Peca peca : pecas.values()) {
-         peca.setIdCasa(1); // Reseta todas as peças para a casa 1
-        }
+        estado.reiniciar(); // Reseta todas as peças para a casa 1
         // Nota: NÃO resetamos as vitórias - elas persistem entre jogos
     }
     
     /**
-     * Obtém o mapa de vitórias de todos os jogadores.
+     * Obtém o número de vitórias de um jogador específico.
      * 
-     * @return Mapa onde a chave é o ID do jogador e o valor é o número de vitórias
+     * @param idx Índice do jogador
+     * @return Número de vitórias do jogador
      */
-    public Map<Integer, Integer> getVitorias() {
-        return vitorias;
+    public int getVitoriasJogador(int idx) {
+        return estado.getVitorias(idx);
     }
     
     /**
-     * Obtém o número de vitórias de um jogador específico.
+     * Define o número de vitórias de um jogador específico.
+     * Usado pelo cliente para refletir o placar recebido do servidor.
      * 
-     * @param idJogador ID do jogador
-     * @return Número de vitórias do jogador
+     * @param idx Índice do jogador
+     * @param numVitorias Número de vitórias do jogador
      */
-    public int getVitoriasJogador(int idJogador) {
-        return vitorias.getOrDefault(idJogador, 0);
+    public void setVitoriasJogador(int idx, int numVitorias) {
+        estado.setVitorias(idx, numVitorias);
     }
     
     /**
      * Adiciona uma vitória para um jogador específico.
      * 
-     * @param idJogador ID do jogador que venceu
+     * @param idx Índice do jogador que venceu
      */
-    public void adicionarVitoria(int idJogador) {
-        vitorias.put(idJogador, vitorias.getOrDefault(idJogador, 0) + 1);
+    public void adicionarVitoria(int idx) {
+        estado.adicionarVitoria(idx);
     }
     
     /**
@@ -317,12 +301,23 @@ public class Jogo {
     }
     
     /**
-     * Obtém o mapa de peças dos jogadores.
+     * Obtém o estado mutável da partida (posições, vitórias, vez e fim).
+     * 
+     * @return Estado da partida, indexado pelo lugar de cada jogador
+     */
+    public EstadoJogo getEstado() {
+        return estado;
+    }
+    
+    /**
+     * Tira um instantâneo imutável do estado da partida.
+     * Deve ser chamado na thread que conduz a partida; o instantâneo pode
+     * depois ser lido por qualquer thread sem bloquear o jogo.
      * 
-     * @return Mapa onde a chave é o ID do jogador e o valor é sua peça
+     * @return Instantâneo do estado atual
      */
-    public Map<Integer, Peca> getPecas() {
-        return pecas;
+    public InstantaneoJogo getInstantaneo() {
+        return estado.instantaneo();
     }
     
     /**
@@ -331,7 +326,7 @@ public class Jogo {
      * @param jogadorAtual Índice do jogador atual
      */
     public void setJogadorAtual(int jogadorAtual) {
-        this.jogadorAtual = jogadorAtual;
+        estado.setJogadorAtual(jogadorAtual);
     }
     
     /**
@@ -340,24 +335,14 @@ public class Jogo {
      * @param jogoFinalizado true se o jogo foi finalizado, false caso contrário
      */
     public void setJogoFinalizado(boolean jogoFinalizado) {
-        this.jogoFinalizado = jogoFinalizado;
-    }
-
-    /**
-     * Obtém a peça de um jogador específico.
-     * 
-     * @param idxJogador Índice do jogador
-     * @return Peça do jogador
-     */
-    public Peca getPeca(int idxJogador) {
-        return pecas.get(jogadores.get(idxJogador).getIdJogador());
+        estado.setFinalizado(jogoFinalizado);
     }
 
     /**
      * Passa a vez para o próximo jogador.
      */
     public void passarVez() {
-        jogadorAtual = (jogadorAtual + 1) % jogadores.size();
+        estado.passarVez();
     }
 
     /**
@@ -366,8 +351,7 @@ public class Jogo {
      * @return true se o jogador chegou exatamente na casa 100, false caso contrário
      */
     public boolean jogadorVenceu() {
-        Jogador jogador = jogadores.get(jogadorAtual);
-        return pecas.get(jogador.getIdJogador()).getIdCasa() == 100;
+        return estado.getPosicao(estado.getJogadorAtual()) == TabelaMovimentos.CASA_FINAL;
     }
 
     /**
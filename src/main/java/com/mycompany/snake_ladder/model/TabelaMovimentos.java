@@ -0,0 +1,121 @@
+package com.mycompany.snake_ladder.model;
+
+import java.util.Map;
+
+/**
+ * Tabela de transições pré-calculada de um {@link Tabuleiro}.
+ *
+ * Para cada casa (0-100) e cada valor do dado (1-6) guarda, num único
+ * {@code int}, a casa onde a peça termina e o tipo de movimento
+ * (normal, cobra, escada, excesso ou vitória). Um movimento passa assim a
+ * ser uma leitura de array, sem mapas nem conversões para {@code Integer}.
+ * A tabela é imutável e pode ser partilhada entre threads.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class TabelaMovimentos {
+    /** Casa que termina a partida */
+    public static final int CASA_FINAL = 100;
+
+    /** Movimento normal: a peça avança o valor do dado */
+    public static final int NORMAL = 0;
+
+    /** A peça caiu numa cabeça de cobra e desceu */
+    public static final int COBRA = 1;
+
+    /** A peça caiu numa base de escada e subiu */
+    public static final int ESCADA = 2;
+
+    /** O dado passava da casa 100: a peça fica onde está */
+    public static final int EXCEDEU = 3;
+
+    /** A peça chegou à casa 100 */
+    public static final int VITORIA = 4;
+
+    /** Bits reservados para a casa final em cada entrada */
+    private static final int BITS_CASA = 8;
+
+    /** Máscara da casa final em cada entrada */
+    private static final int MASCARA_CASA = (1 << BITS_CASA) - 1;
+
+    /** Entradas indexadas por casa * 6 + (dado - 1) */
+    private final int[] movimentos = new int[(CASA_FINAL + 1) * 6];
+
+    /**
+     * Compila a tabela a partir dos mapas de cobras e escadas.
+     *
+     * @param cobras Mapa das cobras (cabeça -> cauda)
+     * @param escadas Mapa das escadas (base -> topo)
+     */
+    TabelaMovimentos(Map<Integer, Integer> cobras, Map<Integer, Integer> escadas) {
+        int[] saltos = new int[CASA_FINAL + 1];
+        for (int i = 0; i <= CASA_FINAL; i++) saltos[i] = i;
+        for (Map.Entry<Integer, Integer> e : cobras.entrySet()) saltos[e.getKey()] = e.getValue();
+        for (Map.Entry<Integer, Integer> e : escadas.entrySet()) saltos[e.getKey()] = e.getValue();
+
+        for (int casa = 0; casa <= CASA_FINAL; casa++) {
+            for (int dado = 1; dado <= 6; dado++) {
+                int destino = casa + dado;
+                int entrada;
+                if (casa == CASA_FINAL || destino > CASA_FINAL) {
+                    entrada = codificar(casa, EXCEDEU);
+                } else {
+                    int casaFinal = saltos[destino];
+                    if (casaFinal == CASA_FINAL) {
+                        entrada = codificar(casaFinal, VITORIA);
+                    } else if (casaFinal < destino) {
+                        entrada = codificar(casaFinal, COBRA);
+                    } else if (casaFinal > destino) {
+                        entrada = codificar(casaFinal, ESCADA);
+                    } else {
+                        entrada = codificar(casaFinal, NORMAL);
+                    }
+                }
+                movimentos[casa * 6 + dado - 1] = entrada;
+            }
+        }
+    }
+
+    /**
+     * Junta a casa final e o tipo de movimento numa entrada.
+     *
+     * @param casaFinal Casa onde a peça termina
+     * @param resultado Tipo de movimento
+     * @return Entrada codificada
+     */
+    private static int codificar(int casaFinal, int resultado) {
+        return (resultado << BITS_CASA) | casaFinal;
+    }
+
+    /**
+     * Obtém o movimento codificado de uma peça.
+     *
+     * @param casa Casa de origem (0-100)
+     * @param dado Valor do dado (1-6)
+     * @return Entrada a decodificar com {@link #casaFinal(int)} e {@link #resultado(int)}
+     */
+    public int mover(int casa, int dado) {
+        return movimentos[casa * 6 + dado - 1];
+    }
+
+    /**
+     * Extrai a casa final de uma entrada.
+     *
+     * @param movimento Entrada devolvida por {@link #mover(int, int)}
+     * @return Casa onde a peça termina
+     */
+    public static int casaFinal(int movimento) {
+        return movimento & MASCARA_CASA;
+    }
+
+    /**
+     * Extrai o tipo de movimento de uma entrada.
+     *
+     * @param movimento Entrada devolvida por {@link #mover(int, int)}
+     * @return {@link #NORMAL}, {@link #COBRA}, {@link #ESCADA}, {@link #EXCEDEU} ou {@link #VITORIA}
+     */
+    public static int resultado(int movimento) {
+        return movimento >>> BITS_CASA;
+    }
+}
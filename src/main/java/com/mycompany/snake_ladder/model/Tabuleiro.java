@@ -1,10 +1,10 @@
 package com.mycompany.snake_ladder.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -29,6 +29,12 @@ public class Tabuleiro {
     /** Mapa das escadas (base -> topo) */
     private final Map<Integer, Integer> escadas = new HashMap<>();
 
+    /** Tabela de movimentos compilada a partir das cobras e escadas */
+    private final TabelaMovimentos tabelaMovimentos;
+
+    /** Semente que gerou o tabuleiro, ou null se não for conhecida */
+    private final Long semente;
+
     /**
      * Construtor que cria um tabuleiro com cobras e escadas pré-definidas.
      * 
@@ -50,19 +56,50 @@ public class Tabuleiro {
         for (Map.Entry<Integer, Integer> entry : escadas.entrySet()) {
             getCasa(entry.getKey()).setDestino(entry.getValue());
         }
+        this.tabelaMovimentos = new TabelaMovimentos(this.cobras, this.escadas);
+        this.semente = null;
     }
 
     /**
      * Construtor padrão que cria um tabuleiro com cobras e escadas aleatórias.
-     * Gera 6 cobras e 6 escadas em posições aleatórias válidas.
+     * Gera 6 cobras e 6 escadas em posições aleatórias válidas, a partir de
+     * uma semente nova que fica disponível em {@link #getSemente()}.
      */
     public Tabuleiro() {
+        this(GeradorSplittable.novaSemente());
+    }
+
+    /**
+     * Construtor que gera um tabuleiro aleatório reproduzível.
+     * A mesma semente produz sempre as mesmas cobras e escadas.
+     * 
+     * @param semente Semente da geração
+     */
+    public Tabuleiro(long semente) {
+        this(new GeradorSplittable(semente), semente);
+    }
+
+    /**
+     * Construtor que gera um tabuleiro aleatório a partir de um gerador.
+     * 
+     * @param gerador Gerador de números aleatórios a usar
+     */
+    public Tabuleiro(GeradorAleatorio gerador) {
+        this(gerador, null);
+    }
+
+    /**
+     * Gera 6 cobras e 6 escadas em posições aleatórias válidas.
+     * 
+     * @param rand Gerador de números aleatórios a usar
+     * @param semente Semente do gerador, se conhecida
+     */
+    private Tabuleiro(GeradorAleatorio rand, Long semente) {
         // Inicializa as 100 casas
         for (int i = 1; i <= 100; i++) {
             casas.add(new Casas(i));
         }
 
-        Random rand = new Random();
         int numCobras = 6;
         int numEscadas = 6;
         Set<Integer> ocupadas = new HashSet<>();
@@ -72,8 +109,8 @@ public class Tabuleiro {
             int cabeca, cauda;
             int tentativas = 0;
             while (true) {
-                cabeca = 15 + rand.nextInt(81); // 15 a 95 (evita casas muito próximas do início/fim)
-                cauda = cabeca - (5 + rand.nextInt(Math.min(15, cabeca - 10)));
+                cabeca = 15 + rand.proximoInt(81); // 15 a 95 (evita casas muito próximas do início/fim)
+                cauda = cabeca - (5 + rand.proximoInt(Math.min(15, cabeca - 10)));
                 if (
                     cabeca <= 10 || cabeca >= 96 ||
                     cauda <= 5 || cauda >= 91 ||
@@ -97,8 +134,8 @@ public class Tabuleiro {
             int base, topo;
             int tentativas = 0;
             while (true) {
-                base = 5 + rand.nextInt(81); // 5 a 85 (deixa espaço para subir)
-                topo = base + (5 + rand.nextInt(Math.min(15, 95 - base)));
+                base = 5 + rand.proximoInt(81); // 5 a 85 (deixa espaço para subir)
+                topo = base + (5 + rand.proximoInt(Math.min(15, 95 - base)));
                 if (
                     base <= 5 || base >= 86 ||
                     topo <= 10 || topo >= 96 ||
@@ -116,6 +153,8 @@ public class Tabuleiro {
                 break;
             }
         }
+        this.tabelaMovimentos = new TabelaMovimentos(cobras, escadas);
+        this.semente = semente;
     }
 
     /**
@@ -177,20 +216,41 @@ public class Tabuleiro {
 
     /**
      * Obtém o mapa de cobras do tabuleiro.
+     * O mapa é só de leitura, para se manter coerente com a tabela de movimentos.
      * 
      * @return Mapa onde a chave é a cabeça da cobra e o valor é a cauda
      */
     public Map<Integer, Integer> getCobras() {
-        return cobras;
+        return Collections.unmodifiableMap(cobras);
     }
 
     /**
      * Obtém o mapa de escadas do tabuleiro.
+     * O mapa é só de leitura, para se manter coerente com a tabela de movimentos.
      * 
      * @return Mapa onde a chave é a base da escada e o valor é o topo
      */
     public Map<Integer, Integer> getEscadas() {
-        return escadas;
+        return Collections.unmodifiableMap(escadas);
+    }
+
+    /**
+     * Obtém a semente que gerou este tabuleiro.
+     * 
+     * @return Semente da geração, ou null se o tabuleiro foi criado a partir
+     *         de mapas ou de um gerador sem semente conhecida
+     */
+    public Long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Obtém a tabela de movimentos pré-calculada deste tabuleiro.
+     * 
+     * @return Tabela imutável de (casa, dado) para casa final e tipo de movimento
+     */
+    public TabelaMovimentos getTabelaMovimentos() {
+        return tabelaMovimentos;
     }
 
     /**
@@ -0,0 +1,474 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Classificação persistente dos jogadores, identificados pelo nome.
+ *
+ * Guarda, para cada jogador, vitórias, partidas jogadas e o comprimento das
+ * partidas, em memória e num ficheiro. Em memória há dois índices: um
+ * {@link TreeSet} ordenado por vitórias, que dá os N primeiros em
+ * O(log n + N), e uma árvore de Fenwick com o número de jogadores por número
+ * de vitórias, que dá a posição de qualquer jogador em O(log n) sem
+ * percorrer os que estão à frente.
+ *
+ * O ficheiro é só de acréscimo: cada registo é o estado completo de um
+ * jogador, {@code [u32 crc][u16 comprimento][texto nome][u32 vitórias]
+ * [u32 partidas][u64 jogadas][u64 duração ms]}, e ao carregar vale o último
+ * de cada nome. Terminar uma partida só marca os jogadores como alterados;
+ * uma thread própria grava de {@link #INTERVALO_ESCRITA_MS} em
+ * {@link #INTERVALO_ESCRITA_MS} milissegundos todos os alterados e força o
+ * ficheiro uma só vez, por isso milhares de partidas por segundo custam
+ * poucas idas ao disco. Quando o ficheiro cresce demasiado em relação ao
+ * número de jogadores é reescrito à parte, só com o último registo de cada
+ * um, e renomeado por cima do antigo.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Classificacao implements Runnable {
+    /** Intervalo entre gravações, em milissegundos */
+    public static final long INTERVALO_ESCRITA_MS = 200;
+
+    /** Bytes fixos de um registo, sem o nome */
+    private static final int BASE_REGISTO = 4 + 2 + 2 + 4 + 4 + 8 + 8;
+
+    /** Tamanho do ficheiro abaixo do qual nunca se reescreve */
+    private static final long MINIMO_COMPACTAR = 1024 * 1024;
+
+    /** Ordem da classificação: mais vitórias primeiro, depois menos partidas, depois o nome */
+    private static final Comparator<Ficha> ORDEM = Comparator
+        .comparingInt((Ficha f) -> -f.vitorias)
+        .thenComparingInt(f -> f.partidas)
+        .thenComparing(f -> f.nome);
+
+    /** Ficheiro da classificação */
+    private final Path ficheiro;
+
+    /** Fichas por nome; protegido pelo lock da classificação */
+    private final Map<String, Ficha> porNome = new HashMap<>();
+
+    /** Fichas pela ordem da classificação; protegido pelo lock da classificação */
+    private final TreeSet<Ficha> ordem = new TreeSet<>(ORDEM);
+
+    /** Árvore de Fenwick: jogadores por número de vitórias (índice vitórias + 1); protegida pelo lock */
+    private int[] arvore = new int[64];
+
+    /** Fichas alteradas desde a última gravação; protegido pelo lock da classificação */
+    private Set<Ficha> alteradas = new LinkedHashSet<>();
+
+    /** Thread que grava as alterações */
+    private final Thread thread;
+
+    /** Canal do ficheiro, aberto para acrescentar; só usado na thread de gravação depois de iniciar */
+    private FileChannel canal;
+
+    /** Bytes atuais do ficheiro */
+    private long tamanhoFicheiro;
+
+    /** Número de vezes que o ficheiro foi forçado para o disco */
+    private volatile long idasAoDisco;
+
+    /** Indica se a gravação deve continuar */
+    private volatile boolean ativa = true;
+
+    /**
+     * Estado de um jogador, mutável e só alterado com o lock da classificação.
+     * Sai do {@link #ordem} antes de mudar e volta a entrar depois.
+     */
+    private static final class Ficha {
+        /** Nome do jogador */
+        final String nome;
+
+        /** Partidas ganhas */
+        int vitorias;
+
+        /** Partidas jogadas */
+        int partidas;
+
+        /** Jogadas somadas */
+        long jogadas;
+
+        /** Duração somada, em milissegundos */
+        long duracaoMs;
+
+        Ficha(String nome) {
+            this.nome = nome;
+        }
+
+        EstatisticasJogador copia() {
+            return new EstatisticasJogador(nome, vitorias, partidas, jogadas, duracaoMs);
+        }
+    }
+
+    /**
+     * Cria uma classificação guardada num ficheiro. Nada é lido até {@link #iniciar()}.
+     *
+     * @param ficheiro Ficheiro da classificação; é criado se não existir
+     */
+    public Classificacao(Path ficheiro) {
+        this.ficheiro = ficheiro;
+        this.thread = new Thread(this, "classificacao");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Carrega o ficheiro e arranca a gravação. Um registo truncado ou
+     * corrompido no fim do ficheiro (escrita interrompida) é descartado.
+     *
+     * @throws IOException Se não for possível ler ou abrir o ficheiro
+     */
+    public void iniciar() throws IOException {
+        Path pasta = ficheiro.toAbsolutePath().getParent();
+        if (pasta != null) Files.createDirectories(pasta);
+        long valido = 0;
+        if (Files.exists(ficheiro)) {
+            ByteBuffer dados = ByteBuffer.wrap(Files.readAllBytes(ficheiro));
+            valido = carregar(dados);
+        }
+        canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        canal.truncate(valido);
+        canal.position(valido);
+        tamanhoFicheiro = valido;
+        thread.start();
+    }
+
+    /**
+     * Grava o que estiver por gravar e para a thread de gravação.
+     */
+    public void parar() {
+        ativa = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Regista uma partida terminada. Pode ser chamado a partir de qualquer
+     * thread; só atualiza a memória, a gravação fica para a thread própria.
+     *
+     * @param nomes Nomes dos jogadores sentados na partida, por lugar
+     * @param vencedor Lugar de quem ganhou
+     * @param jogadas Jogadas feitas na partida
+     * @param duracaoMs Duração da partida, em milissegundos
+     */
+    public synchronized void registarPartida(List<String> nomes, int vencedor, long jogadas, long duracaoMs) {
+        for (int lugar = 0; lugar < nomes.size(); lugar++) {
+            Ficha ficha = porNome.get(nomes.get(lugar));
+            if (ficha == null) {
+                ficha = new Ficha(nomes.get(lugar));
+                porNome.put(ficha.nome, ficha);
+                somar(0, 1);
+            } else {
+                ordem.remove(ficha);
+            }
+            if (lugar == vencedor) {
+                somar(ficha.vitorias, -1);
+                ficha.vitorias++;
+                somar(ficha.vitorias, 1);
+            }
+            ficha.partidas++;
+            ficha.jogadas += jogadas;
+            ficha.duracaoMs += duracaoMs;
+            ordem.add(ficha);
+            alteradas.add(ficha);
+        }
+    }
+
+    /**
+     * Obtém os primeiros da classificação.
+     *
+     * @param n Número máximo de jogadores
+     * @return Estatísticas dos primeiros, por ordem
+     */
+    public synchronized List<EstatisticasJogador> getMelhores(int n) {
+        List<EstatisticasJogador> melhores = new ArrayList<>(Math.min(n, ordem.size()));
+        Iterator<Ficha> it = ordem.iterator();
+        while (melhores.size() < n && it.hasNext()) {
+            melhores.add(it.next().copia());
+        }
+        return melhores;
+    }
+
+    /**
+     * Obtém a posição de um jogador: um mais o número de jogadores com mais
+     * vitórias, por isso quem tem as mesmas vitórias partilha a posição.
+     *
+     * @param nome Nome do jogador
+     * @return Posição a partir de 1, ou 0 se o jogador não tiver partidas
+     */
+    public synchronized int getPosicao(String nome) {
+        Ficha ficha = porNome.get(nome);
+        if (ficha == null) return 0;
+        return 1 + porNome.size() - contarAte(ficha.vitorias);
+    }
+
+    /**
+     * Obtém as estatísticas de um jogador.
+     *
+     * @param nome Nome do jogador
+     * @return Cópia das estatísticas, ou null se o jogador não tiver partidas
+     */
+    public synchronized EstatisticasJogador getEstatisticas(String nome) {
+        Ficha ficha = porNome.get(nome);
+        return ficha == null ? null : ficha.copia();
+    }
+
+    /**
+     * Obtém o número de jogadores na classificação.
+     *
+     * @return Jogadores com pelo menos uma partida
+     */
+    public synchronized int getNumeroJogadores() {
+        return porNome.size();
+    }
+
+    /**
+     * Obtém o número de vezes que o ficheiro foi forçado para o disco.
+     *
+     * @return Idas ao disco desde o arranque
+     */
+    public long getIdasAoDisco() {
+        return idasAoDisco;
+    }
+
+    /**
+     * Corpo da thread: grava as fichas alteradas em lotes.
+     */
+    @Override
+    public void run() {
+        while (true) {
+            boolean ultima = !ativa;
+            try {
+                gravarAlteradas();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (ultima) break;
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(INTERVALO_ESCRITA_MS));
+        }
+        try {
+            canal.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Acrescenta ao ficheiro o estado atual das fichas alteradas e força-o
+     * uma vez; se o ficheiro tiver crescido demasiado, reescreve-o.
+     *
+     * @throws IOException Se a escrita falhar
+     */
+    private void gravarAlteradas() throws IOException {
+        ByteBuffer lote;
+        int jogadores;
+        synchronized (this) {
+            if (alteradas.isEmpty()) return;
+            lote = codificar(alteradas);
+            alteradas = new LinkedHashSet<>();
+            jogadores = porNome.size();
+        }
+        while (lote.hasRemaining()) canal.write(lote);
+        canal.force(false);
+        idasAoDisco++;
+        tamanhoFicheiro += lote.limit();
+        // Reescreve quando menos de um quarto dos registos ainda conta
+        if (tamanhoFicheiro > MINIMO_COMPACTAR && tamanhoFicheiro > 4L * jogadores * (BASE_REGISTO + 16)) {
+            compactar();
+        }
+    }
+
+    /**
+     * Reescreve o ficheiro só com o estado atual de cada jogador.
+     *
+     * @throws IOException Se a escrita falhar
+     */
+    private void compactar() throws IOException {
+        ByteBuffer tudo;
+        synchronized (this) {
+            tudo = codificar(porNome.values());
+            alteradas.clear();
+        }
+        Path temporario = ficheiro.resolveSibling(ficheiro.getFileName() + ".tmp");
+        try (FileChannel novo = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (tudo.hasRemaining()) novo.write(tudo);
+            novo.force(true);
+        }
+        canal.close();
+        Files.move(temporario, ficheiro, StandardCopyOption.ATOMIC_MOVE);
+        canal = FileChannel.open(ficheiro, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        tamanhoFicheiro = tudo.limit();
+        idasAoDisco++;
+    }
+
+    /**
+     * Codifica o estado de várias fichas. Chamado com o lock.
+     *
+     * @param fichas Fichas a codificar
+     * @return Registos prontos a escrever
+     */
+    private static ByteBuffer codificar(Collection<Ficha> fichas) {
+        byte[][] nomes = new byte[fichas.size()][];
+        int tamanho = 0;
+        int i = 0;
+        for (Ficha ficha : fichas) {
+            nomes[i] = ficha.nome.getBytes(StandardCharsets.UTF_8);
+            tamanho += BASE_REGISTO + nomes[i++].length;
+        }
+        ByteBuffer b = ByteBuffer.allocate(tamanho);
+        CRC32C crc = new CRC32C();
+        i = 0;
+        for (Ficha ficha : fichas) {
+            int inicio = b.position();
+            byte[] nome = nomes[i++];
+            b.putInt(0).putShort((short) (BASE_REGISTO - 6 + nome.length));
+            b.putShort((short) nome.length).put(nome);
+            b.putInt(ficha.vitorias).putInt(ficha.partidas).putLong(ficha.jogadas).putLong(ficha.duracaoMs);
+            crc.reset();
+            crc.update(b.array(), inicio + 4, b.position() - inicio - 4);
+            b.putInt(inicio, (int) crc.getValue());
+        }
+        b.flip();
+        return b;
+    }
+
+    /**
+     * Lê os registos do ficheiro, ficando com o último de cada nome.
+     *
+     * @param dados Conteúdo do ficheiro
+     * @return Bytes válidos, até ao primeiro registo truncado ou corrompido
+     */
+    private synchronized long carregar(ByteBuffer dados) {
+        CRC32C crc = new CRC32C();
+        int pos = 0;
+        while (dados.limit() - pos >= 6) {
+            int comprimento = dados.getShort(pos + 4) & 0xFFFF;
+            int fim = pos + 6 + comprimento;
+            if (comprimento < BASE_REGISTO - 6 || fim > dados.limit()) break;
+            crc.reset();
+            crc.update(dados.array(), pos + 4, fim - pos - 4);
+            if ((int) crc.getValue() != dados.getInt(pos)) break;
+            int bytesNome = dados.getShort(pos + 6) & 0xFFFF;
+            String nome = new String(dados.array(), pos + 8, bytesNome, StandardCharsets.UTF_8);
+            int campos = pos + 8 + bytesNome;
+            Ficha ficha = porNome.get(nome);
+            if (ficha == null) {
+                ficha = new Ficha(nome);
+                porNome.put(nome, ficha);
+            } else {
+                ordem.remove(ficha);
+            }
+            ficha.vitorias = dados.getInt(campos);
+            ficha.partidas = dados.getInt(campos + 4);
+            ficha.jogadas = dados.getLong(campos + 8);
+            ficha.duracaoMs = dados.getLong(campos + 16);
+            ordem.add(ficha);
+            pos = fim;
+        }
+        int[] contagens = new int[arvore.length];
+        for (Ficha f : porNome.values()) {
+            if (f.vitorias + 1 >= contagens.length) contagens = Arrays.copyOf(contagens, tamanhoPara(f.vitorias, contagens.length));
+            contagens[f.vitorias + 1]++;
+        }
+        construir(contagens);
+        return pos;
+    }
+
+    /**
+     * Soma um valor à contagem de jogadores com um número de vitórias.
+     *
+     * @param vitorias Número de vitórias
+     * @param delta Valor a somar
+     */
+    private void somar(int vitorias, int delta) {
+        if (vitorias + 1 >= arvore.length) {
+            crescer(vitorias);
+        }
+        for (int i = vitorias + 1; i < arvore.length; i += i & -i) {
+            arvore[i] += delta;
+        }
+    }
+
+    /**
+     * Conta os jogadores com até um número de vitórias.
+     *
+     * @param vitorias Número máximo de vitórias
+     * @return Jogadores com essas vitórias ou menos
+     */
+    private int contarAte(int vitorias) {
+        int total = 0;
+        for (int i = Math.min(vitorias + 1, arvore.length - 1); i > 0; i -= i & -i) {
+            total += arvore[i];
+        }
+        return total;
+    }
+
+    /**
+     * Aumenta a árvore para caber um número de vitórias, desfazendo-a nas
+     * contagens de cada índice e voltando a construí-la maior. O tamanho
+     * duplica, por isso o custo fica amortizado.
+     *
+     * @param vitorias Número de vitórias que tem de caber
+     */
+    private void crescer(int vitorias) {
+        int[] contagens = Arrays.copyOf(arvore, tamanhoPara(vitorias, arvore.length));
+        for (int i = arvore.length - 1; i > 0; i--) {
+            int pai = i + (i & -i);
+            if (pai < arvore.length) contagens[pai] -= contagens[i];
+        }
+        construir(contagens);
+    }
+
+    /**
+     * Calcula o tamanho da árvore, em potências de dois, onde cabe um número de vitórias.
+     *
+     * @param vitorias Número de vitórias que tem de caber
+     * @param atual Tamanho atual
+     * @return Novo tamanho
+     */
+    private static int tamanhoPara(int vitorias, int atual) {
+        int tamanho = atual;
+        while (tamanho <= vitorias + 1) tamanho *= 2;
+        return tamanho;
+    }
+
+    /**
+     * Constrói a árvore de Fenwick em O(n) a partir das contagens de cada
+     * índice: cada nó passa a sua soma ao pai.
+     *
+     * @param contagens Jogadores por índice (vitórias + 1); passa a ser a árvore
+     */
+    private void construir(int[] contagens) {
+        for (int i = 1; i < contagens.length; i++) {
+            int pai = i + (i & -i);
+            if (pai < contagens.length) contagens[pai] += contagens[i];
+        }
+        arvore = contagens;
+    }
+}
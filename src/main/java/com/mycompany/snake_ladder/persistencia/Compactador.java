@@ -0,0 +1,314 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Junta os segmentos selados do {@link Diario} num instantâneo.
+ *
+ * Parte do último instantâneo, reproduz por cima dele os segmentos que
+ * entretanto foram selados e grava o resultado em
+ * {@code instantaneo-NNNNNNNNNN.snap}, onde o número é o do primeiro segmento
+ * que ele não inclui. O ficheiro é escrito à parte e só depois renomeado, por
+ * isso há sempre um instantâneo completo; a seguir, os segmentos e
+ * instantâneos que ele substitui são apagados. As salas já fechadas, e as
+ * que perderam registos, não passam para o instantâneo.
+ *
+ * Corre numa thread própria, para que nem as salas nem a gravação do diário
+ * esperem pela compactação.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Compactador implements Runnable {
+    /** Prefixo do nome dos instantâneos */
+    private static final String PREFIXO = "instantaneo-";
+
+    /** Extensão dos instantâneos */
+    private static final String EXTENSAO = ".snap";
+
+    /** Identifica um ficheiro de instantâneo ("SLS3") */
+    private static final int MAGIA = 0x534C5333;
+
+    /** Identifica um instantâneo sem as jogadas da partida em curso ("SLS2"), ainda aceite na leitura */
+    private static final int MAGIA_SEMENTES = 0x534C5332;
+
+    /** Identifica um instantâneo anterior às sementes das partidas ("SLS1"), ainda aceite na leitura */
+    private static final int MAGIA_ANTERIOR = 0x534C5331;
+
+    /** Pasta do diário */
+    private final Path pasta;
+
+    /** Thread da compactação */
+    private final Thread thread;
+
+    /** Primeiro segmento que o próximo instantâneo não deve incluir */
+    private volatile int pedido;
+
+    /** Primeiro segmento não incluído no último instantâneo gravado */
+    private volatile int feito;
+
+    /** Indica se a compactação deve continuar */
+    private volatile boolean ativo = true;
+
+    /**
+     * Cria o compactador de uma pasta.
+     *
+     * @param pasta Pasta do diário
+     */
+    public Compactador(Path pasta) {
+        this.pasta = pasta;
+        this.thread = new Thread(this, "compactador");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Arranca a thread da compactação.
+     */
+    public void iniciar() {
+        thread.start();
+    }
+
+    /**
+     * Para a compactação, esperando pela que estiver a decorrer.
+     */
+    public void parar() {
+        ativo = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Pede um instantâneo com todos os segmentos anteriores a um número.
+     * Pode ser chamado a partir de qualquer thread; pedidos seguidos juntam-se.
+     *
+     * @param segmento Primeiro segmento a deixar de fora (o que está em escrita)
+     */
+    public void pedir(int segmento) {
+        if (segmento > pedido) {
+            pedido = segmento;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Obtém o número do primeiro segmento não incluído no último instantâneo gravado.
+     *
+     * @return Número do segmento, ou 0 se ainda não houve compactação
+     */
+    public int getFeito() {
+        return feito;
+    }
+
+    /**
+     * Corpo da thread: compacta sempre que há segmentos novos selados.
+     */
+    @Override
+    public void run() {
+        while (ativo) {
+            int alvo = pedido;
+            if (alvo > feito) {
+                try {
+                    compactar(alvo);
+                    feito = alvo;
+                    continue;
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
+        }
+    }
+
+    /**
+     * Grava um instantâneo com os segmentos anteriores a {@code ate} e apaga
+     * o que ele substitui.
+     *
+     * @param ate Primeiro segmento a deixar de fora
+     * @throws IOException Se a leitura ou a escrita falhar
+     */
+    private void compactar(int ate) throws IOException {
+        Map<Long, SalaGuardada> salas = new HashMap<>();
+        int desde = carregar(pasta, salas);
+        if (desde >= ate) return;
+        reproduzir(pasta, desde, ate, salas);
+        salas.values().removeIf(sala -> sala.isFechada() || sala.isIncompleta() || !sala.isIniciada());
+        gravar(ate, salas);
+
+        for (int segmento : LeitorDiario.segmentos(pasta)) {
+            if (segmento < ate) Files.deleteIfExists(pasta.resolve(LeitorDiario.nomeSegmento(segmento)));
+        }
+        for (int instantaneo : instantaneos(pasta)) {
+            if (instantaneo < ate) Files.deleteIfExists(pasta.resolve(nomeInstantaneo(instantaneo)));
+        }
+    }
+
+    /**
+     * Escreve o ficheiro de um instantâneo: {@code [u32 magia][u32 segmento]
+     * [u32 salas]}, cada sala, e o CRC32C de tudo o que vem antes.
+     *
+     * @param ate Primeiro segmento não incluído
+     * @param salas Salas a gravar
+     * @throws IOException Se a escrita falhar
+     */
+    private void gravar(int ate, Map<Long, SalaGuardada> salas) throws IOException {
+        int tamanho = 12 + Diario.BYTES_CRC;
+        for (SalaGuardada sala : salas.values()) tamanho += sala.tamanho();
+        ByteBuffer buffer = ByteBuffer.allocate(tamanho);
+        buffer.putInt(MAGIA).putInt(ate).putInt(salas.size());
+        for (SalaGuardada sala : salas.values()) sala.escrever(buffer);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporario = pasta.resolve(nomeInstantaneo(ate) + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) canal.write(buffer);
+            canal.force(true);
+        }
+        Files.move(temporario, pasta.resolve(nomeInstantaneo(ate)), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reproduz os registos de um intervalo de segmentos sobre um conjunto de salas.
+     * Uma sala que aparece pela primeira vez é criada no seu registo
+     * {@link Registo#SALA_ABERTA}.
+     *
+     * @param pasta Pasta do diário
+     * @param desde Primeiro segmento a ler
+     * @param ate Primeiro segmento a não ler
+     * @param salas Salas a atualizar, por identificador
+     * @return Número de registos reproduzidos
+     * @throws IOException Se não for possível ler um segmento
+     */
+    public static long reproduzir(Path pasta, int desde, int ate, Map<Long, SalaGuardada> salas) throws IOException {
+        long registos = 0;
+        for (int segmento : LeitorDiario.segmentos(pasta)) {
+            if (segmento < desde || segmento >= ate) continue;
+            registos += LeitorDiario.ler(pasta, segmento, (tipo, id, dados) -> {
+                SalaGuardada sala = salas.get(id);
+                if (sala == null) {
+                    if (tipo != Registo.SALA_ABERTA) return;
+                    sala = new SalaGuardada(id);
+                    salas.put(id, sala);
+                }
+                sala.aplicar(tipo, dados);
+            });
+        }
+        return registos;
+    }
+
+    /**
+     * Carrega o último instantâneo válido de uma pasta.
+     *
+     * @param pasta Pasta do diário
+     * @param destino Mapa onde as salas são postas, por identificador
+     * @return Primeiro segmento não incluído no instantâneo, ou 0 se não houver nenhum
+     * @throws IOException Se não for possível ler a pasta
+     */
+    public static int carregar(Path pasta, Map<Long, SalaGuardada> destino) throws IOException {
+        int[] numeros = instantaneos(pasta);
+        for (int i = numeros.length - 1; i >= 0; i--) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(pasta.resolve(nomeInstantaneo(numeros[i]))));
+            int fim = buffer.limit() - Diario.BYTES_CRC;
+            int magia = fim < 12 ? 0 : buffer.getInt(0);
+            int formato = formato(magia);
+            if (formato < 0) continue;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), 0, fim);
+            if ((int) crc.getValue() != buffer.getInt(fim)) continue;
+            int segmento = buffer.getInt(4);
+            int n = buffer.getInt(8);
+            buffer.position(12);
+            for (int s = 0; s < n; s++) {
+                SalaGuardada sala = SalaGuardada.ler(buffer, formato);
+                destino.put(sala.getId(), sala);
+            }
+            return segmento;
+        }
+        return 0;
+    }
+
+    /**
+     * Indica o formato das salas de um instantâneo.
+     *
+     * @param magia Primeiros quatro bytes do ficheiro
+     * @return Formato para {@link SalaGuardada#ler(ByteBuffer, int)}, ou -1 se não for um instantâneo
+     */
+    private static int formato(int magia) {
+        switch (magia) {
+            case MAGIA:
+                return SalaGuardada.FORMATO;
+            case MAGIA_SEMENTES:
+                return SalaGuardada.FORMATO_SEMENTES;
+            case MAGIA_ANTERIOR:
+                return SalaGuardada.FORMATO_INICIAL;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Obtém o primeiro segmento não incluído no último instantâneo de uma pasta.
+     *
+     * @param pasta Pasta do diário
+     * @return Número do segmento, ou 0 se não houver instantâneos
+     * @throws IOException Se não for possível listar a pasta
+     */
+    static int proximoSegmento(Path pasta) throws IOException {
+        int[] numeros = instantaneos(pasta);
+        return numeros.length == 0 ? 0 : numeros[numeros.length - 1];
+    }
+
+    /**
+     * Lista os instantâneos de uma pasta.
+     *
+     * @param pasta Pasta do diário
+     * @return Números dos instantâneos, por ordem crescente
+     * @throws IOException Se não for possível listar a pasta
+     */
+    private static int[] instantaneos(Path pasta) throws IOException {
+        if (!Files.isDirectory(pasta)) return new int[0];
+        List<Integer> numeros = new ArrayList<>();
+        try (DirectoryStream<Path> ficheiros = Files.newDirectoryStream(pasta, PREFIXO + "*" + EXTENSAO)) {
+            for (Path ficheiro : ficheiros) {
+                String nome = ficheiro.getFileName().toString();
+                try {
+                    numeros.add(Integer.parseInt(nome.substring(PREFIXO.length(), nome.length() - EXTENSAO.length())));
+                } catch (NumberFormatException e) {
+                    // Não é um instantâneo
+                }
+            }
+        }
+        return numeros.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+
+    /**
+     * Obtém o nome do ficheiro de um instantâneo.
+     *
+     * @param segmento Primeiro segmento não incluído
+     * @return Nome do ficheiro
+     */
+    private static String nomeInstantaneo(int segmento) {
+        return String.format("%s%010d%s", PREFIXO, segmento, EXTENSAO);
+    }
+}
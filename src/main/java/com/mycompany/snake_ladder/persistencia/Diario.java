@@ -0,0 +1,383 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Diário binário, só de acréscimo, de tudo o que acontece nas salas.
+ *
+ * As salas entregam registos já codificados ({@link Registo}) com
+ * {@link #registar(ByteBuffer)}, que nunca bloqueia: o registo vai para uma
+ * fila e uma thread própria copia-o para um segmento mapeado em memória.
+ * Cada vez que a fila esvazia (ou a cada {@link #LOTE_MAXIMO} registos) o
+ * segmento é forçado para o disco de uma só vez, por isso muitas jogadas
+ * partilham a mesma escrita (group commit).
+ *
+ * Os segmentos têm tamanho fixo e chamam-se {@code diario-NNNNNNNNNN.seg};
+ * quando um enche, ou quando passa o intervalo entre instantâneos, é selado e
+ * abre-se o seguinte, e o {@link Compactador} junta os segmentos selados num
+ * instantâneo. Assim, depois de uma falha, basta carregar o último
+ * instantâneo e reproduzir no máximo um intervalo de registos. Se o disco não acompanhar e a
+ * fila passar de {@link #PENDENTES_MAXIMOS} bytes, os registos novos são
+ * descartados e contados, em vez de atrasar o jogo; a sala de cada registo
+ * descartado fica marcada com {@link Registo#INCOMPLETA}, para não ser
+ * recuperada com um estado errado. Se a gravação falhar (disco cheio, por
+ * exemplo), o registo fica na fila e a gravação é repetida a cada
+ * {@link #PAUSA_REPETICAO_MS}, sem perder a ordem.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Diario implements Runnable {
+    /** Tamanho por omissão de um segmento */
+    public static final int TAMANHO_SEGMENTO = 16 * 1024 * 1024;
+
+    /** Intervalo por omissão entre instantâneos, em milissegundos */
+    public static final long INTERVALO_INSTANTANEO_MS = 30_000;
+
+    /** Bytes do CRC que antecede cada registo no segmento */
+    static final int BYTES_CRC = 4;
+
+    /** Bytes em fila a partir dos quais os registos novos são descartados */
+    private static final long PENDENTES_MAXIMOS = 64L * 1024 * 1024;
+
+    /** Registos gravados no máximo entre duas idas ao disco */
+    private static final int LOTE_MAXIMO = 4096;
+
+    /** Pausa antes de repetir uma gravação que falhou, em milissegundos */
+    private static final long PAUSA_REPETICAO_MS = 1_000;
+
+    /** Pasta dos segmentos e instantâneos */
+    private final Path pasta;
+
+    /** Tamanho de cada segmento */
+    private final int tamanhoSegmento;
+
+    /** Tempo máximo de escrita num segmento com registos, em nanossegundos */
+    private final long intervaloInstantaneo;
+
+    /** Registos à espera de serem gravados */
+    private final Queue<ByteBuffer> fila = new ConcurrentLinkedQueue<>();
+
+    /** Bytes em {@link #fila} */
+    private final AtomicLong bytesPendentes = new AtomicLong();
+
+    /** Registos descartados por a fila estar cheia, ou por estar por gravar ao parar */
+    private final AtomicLong registosPerdidos = new AtomicLong();
+
+    /** Salas com registos descartados, ainda por marcar no diário */
+    private final Set<Long> salasComPerdas = ConcurrentHashMap.newKeySet();
+
+    /** Compactador dos segmentos selados */
+    private final Compactador compactador;
+
+    /** CRC dos registos; só usado na thread do diário */
+    private final CRC32C crc = new CRC32C();
+
+    /** Thread que grava os registos */
+    private final Thread thread;
+
+    /** Segmento em escrita; só usado na thread do diário */
+    private MappedByteBuffer segmento;
+
+    /** Instante em que o segmento em escrita foi aberto, em nanossegundos */
+    private long abertoEm;
+
+    /** Número do segmento em escrita */
+    private volatile int numeroSegmento;
+
+    /** Registos já forçados para o disco */
+    private volatile long registosGravados;
+
+    /** Indica se a thread do diário está parada à espera de registos */
+    private volatile boolean aEspera;
+
+    /** Indica se a última gravação falhou; só usado na thread do diário */
+    private boolean avariado;
+
+    /** Indica se o diário deve continuar a gravar */
+    private volatile boolean ativo = true;
+
+    /**
+     * Cria um diário com segmentos do tamanho por omissão.
+     *
+     * @param pasta Pasta dos segmentos
+     */
+    public Diario(Path pasta) {
+        this(pasta, TAMANHO_SEGMENTO);
+    }
+
+    /**
+     * Cria um diário com o intervalo entre instantâneos por omissão.
+     *
+     * @param pasta Pasta dos segmentos
+     * @param tamanhoSegmento Tamanho de cada segmento, em bytes
+     */
+    public Diario(Path pasta, int tamanhoSegmento) {
+        this(pasta, tamanhoSegmento, INTERVALO_INSTANTANEO_MS);
+    }
+
+    /**
+     * Cria um diário. Nada é aberto até {@link #iniciar()}.
+     *
+     * @param pasta Pasta dos segmentos
+     * @param tamanhoSegmento Tamanho de cada segmento, em bytes
+     * @param intervaloInstantaneoMs Tempo máximo entre instantâneos enquanto houver registos novos
+     */
+    public Diario(Path pasta, int tamanhoSegmento, long intervaloInstantaneoMs) {
+        if (tamanhoSegmento < 128 * 1024) {
+            throw new IllegalArgumentException("Um segmento tem pelo menos 128 KB");
+        }
+        if (intervaloInstantaneoMs <= 0) {
+            throw new IllegalArgumentException("O intervalo entre instantâneos tem de ser positivo");
+        }
+        this.pasta = pasta;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.intervaloInstantaneo = TimeUnit.MILLISECONDS.toNanos(intervaloInstantaneoMs);
+        this.compactador = new Compactador(pasta);
+        this.thread = new Thread(this, "diario");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Abre um segmento novo, a seguir a todos os que já existem na pasta,
+     * e arranca a gravação e a compactação.
+     *
+     * @throws IOException Se não for possível criar a pasta ou o segmento
+     */
+    public void iniciar() throws IOException {
+        Files.createDirectories(pasta);
+        int[] existentes = LeitorDiario.segmentos(pasta);
+        int ultimo = existentes.length == 0 ? 0 : existentes[existentes.length - 1];
+        abrir(Math.max(ultimo + 1, Compactador.proximoSegmento(pasta)));
+        compactador.iniciar();
+        // Segmentos deixados por uma execução anterior já estão selados
+        compactador.pedir(numeroSegmento);
+        thread.start();
+    }
+
+    /**
+     * Grava o que estiver em fila e para a gravação e a compactação.
+     */
+    public void parar() {
+        ativo = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        compactador.parar();
+    }
+
+    /**
+     * Entrega um registo para ser gravado. Nunca bloqueia e pode ser chamado
+     * a partir de qualquer thread.
+     *
+     * @param registo Registo em modo de leitura; passa a pertencer ao diário
+     * @return true se ficou em fila; false se foi descartado por a fila estar cheia
+     */
+    public boolean registar(ByteBuffer registo) {
+        if (bytesPendentes.addAndGet(registo.remaining()) > PENDENTES_MAXIMOS) {
+            bytesPendentes.addAndGet(-registo.remaining());
+            registosPerdidos.incrementAndGet();
+            salasComPerdas.add(Registo.sala(registo));
+            return false;
+        }
+        fila.add(registo);
+        if (aEspera) {
+            // Só o primeiro registo depois de a thread adormecer a acorda
+            aEspera = false;
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Corpo da thread: grava lotes de registos, força cada lote para o disco
+     * e sela o segmento quando passa o intervalo entre instantâneos. Um
+     * registo só sai da fila depois de copiado para o segmento, por isso uma
+     * falha não o perde: a gravação é repetida mais tarde, a partir dele.
+     */
+    @Override
+    public void run() {
+        long gravados = 0;
+        int porForcar = 0;
+        while (true) {
+            int lote = 0;
+            try {
+                ByteBuffer registo;
+                while (lote < LOTE_MAXIMO && (registo = fila.peek()) != null) {
+                    int tamanho = registo.remaining();
+                    gravar(registo);
+                    fila.poll();
+                    bytesPendentes.addAndGet(-tamanho);
+                    lote++;
+                    porForcar++;
+                }
+                // Só com a fila vazia, para a marca ficar depois de todos os registos anteriores da sala
+                if (lote < LOTE_MAXIMO && !salasComPerdas.isEmpty()) {
+                    porForcar += marcarSalasComPerdas();
+                }
+                if (porForcar > 0) {
+                    segmento.force();
+                    gravados += porForcar;
+                    porForcar = 0;
+                    registosGravados = gravados;
+                }
+                if (segmento.position() > 0 && System.nanoTime() - abertoEm >= intervaloInstantaneo) {
+                    rodar();
+                }
+                if (avariado) {
+                    avariado = false;
+                    System.err.println("Diário: gravação retomada");
+                }
+            } catch (IOException | UncheckedIOException e) {
+                if (!avariado) {
+                    // Uma mensagem por avaria, não uma por registo
+                    avariado = true;
+                    System.err.println("Diário: falha na gravação, a repetir a cada " + PAUSA_REPETICAO_MS + " ms");
+                    e.printStackTrace();
+                }
+                if (!ativo) break;
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(PAUSA_REPETICAO_MS));
+                continue;
+            }
+            if (lote > 0) continue;
+            if (!ativo) break;
+            aEspera = true;
+            if (fila.isEmpty() && ativo) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+            }
+            aEspera = false;
+        }
+        long descartados = 0;
+        while (fila.poll() != null) descartados++;
+        if (descartados > 0) {
+            registosPerdidos.addAndGet(descartados);
+            System.err.println("Diário: " + descartados + " registos por gravar ao parar");
+        }
+        try {
+            segmento.force();
+        } catch (UncheckedIOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Grava a marca {@link Registo#INCOMPLETA} de cada sala com registos
+     * descartados.
+     *
+     * @return Número de marcas gravadas
+     * @throws IOException Se não for possível abrir o segmento seguinte
+     */
+    private int marcarSalasComPerdas() throws IOException {
+        int marcas = 0;
+        for (Iterator<Long> it = salasComPerdas.iterator(); it.hasNext(); ) {
+            gravar(Registo.incompleta(it.next()));
+            it.remove();
+            marcas++;
+        }
+        return marcas;
+    }
+
+    /**
+     * Copia um registo para o segmento, precedido do seu CRC, e abre um
+     * segmento novo se o atual não tiver espaço.
+     *
+     * @param registo Registo a gravar
+     * @throws IOException Se não for possível abrir o segmento seguinte
+     */
+    private void gravar(ByteBuffer registo) throws IOException {
+        if (BYTES_CRC + registo.remaining() > segmento.remaining()) {
+            rodar();
+        }
+        crc.reset();
+        crc.update(registo.duplicate());
+        segmento.putInt((int) crc.getValue());
+        segmento.put(registo);
+    }
+
+    /**
+     * Sela o segmento atual e passa ao seguinte.
+     *
+     * @throws IOException Se não for possível criar o segmento seguinte
+     */
+    private void rodar() throws IOException {
+        segmento.force();
+        abrir(numeroSegmento + 1);
+        compactador.pedir(numeroSegmento);
+    }
+
+    /**
+     * Cria e mapeia um segmento vazio.
+     *
+     * @param numero Número do segmento
+     * @throws IOException Se o ficheiro já existir ou não puder ser criado
+     */
+    private void abrir(int numero) throws IOException {
+        Path ficheiro = pasta.resolve(LeitorDiario.nomeSegmento(numero));
+        try (FileChannel canal = FileChannel.open(ficheiro, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segmento = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanhoSegmento);
+        } catch (IOException e) {
+            // Sem isto, a próxima tentativa falharia por o ficheiro já existir
+            Files.deleteIfExists(ficheiro);
+            throw e;
+        }
+        numeroSegmento = numero;
+        abertoEm = System.nanoTime();
+    }
+
+    /**
+     * Obtém a pasta do diário.
+     *
+     * @return Pasta dos segmentos e instantâneos
+     */
+    public Path getPasta() {
+        return pasta;
+    }
+
+    /**
+     * Obtém o número do segmento em escrita.
+     *
+     * @return Número do segmento atual
+     */
+    public int getSegmentoAtual() {
+        return numeroSegmento;
+    }
+
+    /**
+     * Obtém o número de registos já forçados para o disco.
+     *
+     * @return Registos gravados desde o início
+     */
+    public long getRegistosGravados() {
+        return registosGravados;
+    }
+
+    /**
+     * Obtém o número de registos descartados, por a fila estar cheia ou por
+     * ainda não terem sido gravados quando o diário parou.
+     *
+     * @return Registos perdidos desde o início
+     */
+    public long getRegistosPerdidos() {
+        return registosPerdidos.get();
+    }
+}
@@ -0,0 +1,113 @@
+package com.mycompany.snake_ladder.persistencia;
+
+/**
+ * Estatísticas acumuladas de um jogador na {@link Classificacao}.
+ *
+ * É uma cópia tirada no momento da consulta: não muda quando o jogador
+ * termina mais partidas.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class EstatisticasJogador {
+    /** Nome que identifica o jogador */
+    private final String nome;
+
+    /** Partidas ganhas */
+    private final int vitorias;
+
+    /** Partidas terminadas em que o jogador estava sentado */
+    private final int partidas;
+
+    /** Jogadas somadas de todas essas partidas */
+    private final long jogadas;
+
+    /** Duração somada de todas essas partidas, em milissegundos */
+    private final long duracaoMs;
+
+    /**
+     * Cria as estatísticas de um jogador.
+     *
+     * @param nome Nome do jogador
+     * @param vitorias Partidas ganhas
+     * @param partidas Partidas jogadas
+     * @param jogadas Jogadas somadas das partidas
+     * @param duracaoMs Duração somada das partidas, em milissegundos
+     */
+    public EstatisticasJogador(String nome, int vitorias, int partidas, long jogadas, long duracaoMs) {
+        this.nome = nome;
+        this.vitorias = vitorias;
+        this.partidas = partidas;
+        this.jogadas = jogadas;
+        this.duracaoMs = duracaoMs;
+    }
+
+    /**
+     * Obtém o nome do jogador.
+     *
+     * @return Nome do jogador
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * Obtém o número de vitórias.
+     *
+     * @return Partidas ganhas
+     */
+    public int getVitorias() {
+        return vitorias;
+    }
+
+    /**
+     * Obtém o número de partidas jogadas.
+     *
+     * @return Partidas terminadas em que o jogador participou
+     */
+    public int getPartidas() {
+        return partidas;
+    }
+
+    /**
+     * Obtém o comprimento médio das partidas, em jogadas.
+     *
+     * @return Jogadas por partida, ou 0 sem partidas
+     */
+    public double getMediaJogadas() {
+        return partidas == 0 ? 0 : (double) jogadas / partidas;
+    }
+
+    /**
+     * Obtém a duração média das partidas.
+     *
+     * @return Milissegundos por partida, ou 0 sem partidas
+     */
+    public double getMediaDuracaoMs() {
+        return partidas == 0 ? 0 : (double) duracaoMs / partidas;
+    }
+
+    /**
+     * Obtém as jogadas somadas de todas as partidas.
+     *
+     * @return Jogadas
+     */
+    public long getJogadas() {
+        return jogadas;
+    }
+
+    /**
+     * Obtém a duração somada de todas as partidas.
+     *
+     * @return Milissegundos
+     */
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d vitórias em %d partidas (%.1f jogadas por partida)",
+            nome, vitorias, partidas, getMediaJogadas());
+    }
+}
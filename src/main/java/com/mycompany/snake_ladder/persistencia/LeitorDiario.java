@@ -0,0 +1,122 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Leitura dos segmentos do {@link Diario}.
+ *
+ * Percorre os registos de um segmento pela ordem em que foram gravados e
+ * para no primeiro que esteja vazio, truncado ou com o CRC errado: tudo o
+ * que vem depois de uma escrita interrompida é ignorado.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class LeitorDiario {
+    /** Prefixo do nome dos segmentos */
+    private static final String PREFIXO = "diario-";
+
+    /** Extensão dos segmentos */
+    private static final String EXTENSAO = ".seg";
+
+    /**
+     * Recebe os registos lidos de um segmento.
+     */
+    public interface Consumidor {
+        /**
+         * Chamado por cada registo válido.
+         *
+         * @param tipo Tipo do registo
+         * @param sala Identificador da sala
+         * @param dados Dados do registo, da posição 0 ao limite; só válidos durante a chamada
+         */
+        void registo(int tipo, long sala, ByteBuffer dados);
+    }
+
+    private LeitorDiario() {
+    }
+
+    /**
+     * Obtém o nome do ficheiro de um segmento.
+     *
+     * @param numero Número do segmento
+     * @return Nome do ficheiro
+     */
+    static String nomeSegmento(int numero) {
+        return String.format("%s%010d%s", PREFIXO, numero, EXTENSAO);
+    }
+
+    /**
+     * Lista os segmentos de uma pasta.
+     *
+     * @param pasta Pasta do diário
+     * @return Números dos segmentos, por ordem crescente
+     * @throws IOException Se não for possível listar a pasta
+     */
+    public static int[] segmentos(Path pasta) throws IOException {
+        if (!Files.isDirectory(pasta)) return new int[0];
+        int[] numeros = new int[16];
+        int n = 0;
+        try (DirectoryStream<Path> ficheiros = Files.newDirectoryStream(pasta, PREFIXO + "*" + EXTENSAO)) {
+            for (Path ficheiro : ficheiros) {
+                String nome = ficheiro.getFileName().toString();
+                try {
+                    int numero = Integer.parseInt(nome.substring(PREFIXO.length(), nome.length() - EXTENSAO.length()));
+                    if (n == numeros.length) numeros = Arrays.copyOf(numeros, n * 2);
+                    numeros[n++] = numero;
+                } catch (NumberFormatException e) {
+                    // Não é um segmento
+                }
+            }
+        }
+        numeros = Arrays.copyOf(numeros, n);
+        Arrays.sort(numeros);
+        return numeros;
+    }
+
+    /**
+     * Lê todos os registos válidos de um segmento.
+     *
+     * @param pasta Pasta do diário
+     * @param numero Número do segmento
+     * @param consumidor Quem recebe os registos
+     * @return Número de registos lidos
+     * @throws IOException Se não for possível abrir o segmento
+     */
+    public static long ler(Path pasta, int numero, Consumidor consumidor) throws IOException {
+        ByteBuffer segmento;
+        try (FileChannel canal = FileChannel.open(pasta.resolve(nomeSegmento(numero)), StandardOpenOption.READ)) {
+            segmento = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        CRC32C crc = new CRC32C();
+        long lidos = 0;
+        while (segmento.remaining() >= Diario.BYTES_CRC + Registo.CABECALHO + Registo.PREFIXO) {
+            int inicio = segmento.position();
+            int esperado = segmento.getInt(inicio);
+            int comprimento = segmento.getShort(inicio + Diario.BYTES_CRC) & 0xFFFF;
+            int fim = inicio + Diario.BYTES_CRC + Registo.CABECALHO + comprimento;
+            if (comprimento < Registo.PREFIXO || fim > segmento.limit()) break;
+            ByteBuffer registo = segmento.duplicate();
+            registo.position(inicio + Diario.BYTES_CRC).limit(fim);
+            crc.reset();
+            crc.update(registo);
+            if ((int) crc.getValue() != esperado) break;
+            int dados = inicio + Diario.BYTES_CRC + Registo.CABECALHO;
+            int tipo = segmento.get(dados) & 0xFF;
+            long sala = segmento.getLong(dados + 1);
+            registo.limit(fim).position(dados + Registo.PREFIXO);
+            consumidor.registo(tipo, sala, registo.slice());
+            segmento.position(fim);
+            lidos++;
+        }
+        return lidos;
+    }
+}
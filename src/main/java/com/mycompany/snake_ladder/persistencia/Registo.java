@@ -0,0 +1,217 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato dos registos do {@link Diario}.
+ *
+ * Cada registo é {@code [u16 comprimento][u8 tipo][u64 sala][dados]}, em
+ * big-endian, onde o comprimento conta o tipo, a sala e os dados. No ficheiro
+ * cada registo é precedido pelo CRC32C desses bytes, acrescentado pelo
+ * diário. Os métodos de fábrica devolvem o registo num buffer com o tamanho
+ * exato, pronto a entregar a {@link Diario#registar(ByteBuffer)}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Registo {
+    /** Bytes do campo de comprimento */
+    public static final int CABECALHO = 2;
+
+    /** Bytes do tipo e da sala, no início de todos os registos */
+    public static final int PREFIXO = 1 + 8;
+
+    /** A partida começou: u8 n, n textos com os nomes, pela ordem dos lugares; u64 semente da partida */
+    public static final int SALA_ABERTA = 1;
+
+    /** Tabuleiro em uso: u8 n, n pares (cabeça, cauda) de cobras; u8 n, n pares (base, topo) de escadas; u64 semente */
+    public static final int TABULEIRO = 2;
+
+    /** Jogada: u8 jogador, dado, origem, aterragem, casa final, tipo de movimento e u8 vez seguinte */
+    public static final int JOGADA = 3;
+
+    /** Voto para reiniciar: u8 lugar, u8 (1 sim, 0 não) */
+    public static final int VOTO = 4;
+
+    /** Partida reiniciada no tabuleiro do último {@link #TABULEIRO}: u8 vez */
+    public static final int REINICIO = 5;
+
+    /** Um jogador saiu a meio da partida: u8 lugar, u8 vez seguinte */
+    public static final int SAIDA = 6;
+
+    /** A sala fechou; sem dados */
+    public static final int SALA_FECHADA = 7;
+
+    /** Perderam-se registos desta sala e o seu estado no diário não é fiável; sem dados */
+    public static final int INCOMPLETA = 8;
+
+    private Registo() {
+    }
+
+    /**
+     * Cria o registo do início da partida.
+     *
+     * @param sala Identificador da sala
+     * @param nomes Nomes dos jogadores, por lugar
+     * @param semente Semente do gerador da partida
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer salaAberta(long sala, List<String> nomes, long semente) {
+        byte[][] textos = new byte[nomes.size()][];
+        int tamanho = 1 + 8;
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = nomes.get(i).getBytes(StandardCharsets.UTF_8);
+            tamanho += 2 + textos[i].length;
+        }
+        ByteBuffer b = comecar(SALA_ABERTA, sala, tamanho);
+        b.put((byte) textos.length);
+        for (byte[] texto : textos) {
+            b.putShort((short) texto.length).put(texto);
+        }
+        b.putLong(semente);
+        return terminar(b);
+    }
+
+    /**
+     * Cria o registo do tabuleiro em uso.
+     *
+     * @param sala Identificador da sala
+     * @param cobras Mapa das cobras (cabeça -> cauda)
+     * @param escadas Mapa das escadas (base -> topo)
+     * @param semente Semente com que o tabuleiro foi gerado
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer tabuleiro(long sala, Map<Integer, Integer> cobras, Map<Integer, Integer> escadas, long semente) {
+        ByteBuffer b = comecar(TABULEIRO, sala, 2 + 2 * (cobras.size() + escadas.size()) + 8);
+        b.put((byte) cobras.size());
+        for (Map.Entry<Integer, Integer> e : cobras.entrySet()) {
+            b.put(e.getKey().byteValue()).put(e.getValue().byteValue());
+        }
+        b.put((byte) escadas.size());
+        for (Map.Entry<Integer, Integer> e : escadas.entrySet()) {
+            b.put(e.getKey().byteValue()).put(e.getValue().byteValue());
+        }
+        b.putLong(semente);
+        return terminar(b);
+    }
+
+    /**
+     * Cria o registo de uma jogada.
+     *
+     * @param sala Identificador da sala
+     * @param evento Jogada feita
+     * @param vez Lugar de quem joga a seguir
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer jogada(long sala, EventoMovimento evento, int vez) {
+        ByteBuffer b = comecar(JOGADA, sala, 7);
+        b.put((byte) evento.getJogador()).put((byte) evento.getDado())
+         .put((byte) evento.getOrigem()).put((byte) evento.getAterragem())
+         .put((byte) evento.getCasaFinal()).put((byte) evento.getResultado())
+         .put((byte) vez);
+        return terminar(b);
+    }
+
+    /**
+     * Cria o registo de um voto para reiniciar.
+     *
+     * @param sala Identificador da sala
+     * @param lugar Lugar de quem votou
+     * @param sim true se votou para reiniciar
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer voto(long sala, int lugar, boolean sim) {
+        ByteBuffer b = comecar(VOTO, sala, 2);
+        b.put((byte) lugar).put((byte) (sim ? 1 : 0));
+        return terminar(b);
+    }
+
+    /**
+     * Cria o registo do reinício da partida.
+     *
+     * @param sala Identificador da sala
+     * @param vez Lugar de quem começa
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer reinicio(long sala, int vez) {
+        ByteBuffer b = comecar(REINICIO, sala, 1);
+        b.put((byte) vez);
+        return terminar(b);
+    }
+
+    /**
+     * Cria o registo da saída de um jogador a meio da partida.
+     *
+     * @param sala Identificador da sala
+     * @param lugar Lugar de quem saiu
+     * @param vez Lugar de quem joga a seguir
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer saida(long sala, int lugar, int vez) {
+        ByteBuffer b = comecar(SAIDA, sala, 2);
+        b.put((byte) lugar).put((byte) vez);
+        return terminar(b);
+    }
+
+    /**
+     * Cria o registo do fecho da sala.
+     *
+     * @param sala Identificador da sala
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer salaFechada(long sala) {
+        return terminar(comecar(SALA_FECHADA, sala, 0));
+    }
+
+    /**
+     * Cria o registo que marca uma sala com registos perdidos.
+     *
+     * @param sala Identificador da sala
+     * @return Registo pronto a gravar
+     */
+    public static ByteBuffer incompleta(long sala) {
+        return terminar(comecar(INCOMPLETA, sala, 0));
+    }
+
+    /**
+     * Lê a sala de um registo codificado.
+     *
+     * @param registo Registo em modo de leitura
+     * @return Identificador da sala
+     */
+    public static long sala(ByteBuffer registo) {
+        return registo.getLong(registo.position() + CABECALHO + 1);
+    }
+
+    /**
+     * Reserva um buffer e escreve o cabeçalho de um registo.
+     *
+     * @param tipo Tipo do registo
+     * @param sala Identificador da sala
+     * @param dados Bytes dos dados
+     * @return Buffer posicionado no início dos dados
+     */
+    private static ByteBuffer comecar(int tipo, long sala, int dados) {
+        ByteBuffer b = ByteBuffer.allocate(CABECALHO + PREFIXO + dados);
+        b.putShort((short) (PREFIXO + dados));
+        b.put((byte) tipo);
+        b.putLong(sala);
+        return b;
+    }
+
+    /**
+     * Termina um registo.
+     *
+     * @param b Buffer escrito até ao fim
+     * @return O mesmo buffer, em modo de leitura
+     */
+    private static ByteBuffer terminar(ByteBuffer b) {
+        b.flip();
+        return b;
+    }
+}
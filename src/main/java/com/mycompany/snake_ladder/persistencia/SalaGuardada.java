@@ -0,0 +1,461 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import com.mycompany.snake_ladder.model.EstadoJogo;
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado de uma sala reconstruído a partir do {@link Diario}.
+ *
+ * Cada registo é aplicado pela ordem em que foi gravado, sem voltar a
+ * lançar o dado: a jogada traz a casa final e a vez seguinte, por isso
+ * reproduzir o diário dá exatamente o estado que os jogadores viram.
+ * O estado também se escreve e lê em binário, para os instantâneos do
+ * {@link Compactador}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class SalaGuardada {
+    /** Formato dos instantâneos anteriores às sementes das partidas */
+    static final int FORMATO_INICIAL = 1;
+
+    /** Formato dos instantâneos com a semente e os tabuleiros da partida */
+    static final int FORMATO_SEMENTES = 2;
+
+    /** Formato atual, que junta as jogadas da partida em curso */
+    static final int FORMATO = 3;
+
+    /** Identificador da sala */
+    private final long id;
+
+    /** Nomes dos jogadores, por lugar; null até ao registo {@link Registo#SALA_ABERTA} */
+    private String[] nomes;
+
+    /** Cobras do tabuleiro em uso (cabeça -> cauda) */
+    private final Map<Integer, Integer> cobras = new HashMap<>();
+
+    /** Escadas do tabuleiro em uso (base -> topo) */
+    private final Map<Integer, Integer> escadas = new HashMap<>();
+
+    /** Posição de cada peça */
+    private int[] posicoes;
+
+    /** Vitórias de cada jogador */
+    private int[] vitorias;
+
+    /** Lugares cujos jogadores saíram a meio da partida */
+    private boolean[] ausentes;
+
+    /** Lugar de quem tem a vez */
+    private int vez;
+
+    /** Indica se a partida atual terminou */
+    private boolean finalizado;
+
+    /** Jogadas feitas na sala */
+    private long jogadas;
+
+    /** Jogadas da partida atual, desde o início da sala ou o último reinício */
+    private long jogadasPartida;
+
+    /** Partidas terminadas na sala */
+    private long partidas;
+
+    /** Indica se a sala fechou */
+    private boolean fechada;
+
+    /** Indica se se perderam registos da sala, e por isso o estado não é fiável */
+    private boolean incompleta;
+
+    /** Semente do gerador da partida, ou null num diário anterior às sementes */
+    private Long semente;
+
+    /** Tabuleiros gerados desde o início da partida, incluindo o primeiro */
+    private int tabuleiros;
+
+    /**
+     * Cria o estado de uma sala ainda sem registos.
+     *
+     * @param id Identificador da sala
+     */
+    public SalaGuardada(long id) {
+        this.id = id;
+    }
+
+    /**
+     * Aplica um registo do diário.
+     *
+     * @param tipo Tipo do registo
+     * @param dados Dados do registo, da posição 0 ao limite
+     */
+    public void aplicar(int tipo, ByteBuffer dados) {
+        if (tipo == Registo.SALA_ABERTA) {
+            int n = dados.get(0) & 0xFF;
+            nomes = new String[n];
+            int pos = 1;
+            for (int i = 0; i < n; i++) {
+                int bytes = dados.getShort(pos) & 0xFFFF;
+                nomes[i] = texto(dados, pos + 2, bytes);
+                pos += 2 + bytes;
+            }
+            semente = dados.limit() >= pos + 8 ? Long.valueOf(dados.getLong(pos)) : null;
+            tabuleiros = 0;
+            posicoes = new int[n];
+            Arrays.fill(posicoes, EstadoJogo.CASA_INICIAL);
+            vitorias = new int[n];
+            ausentes = new boolean[n];
+            vez = 0;
+            finalizado = false;
+            // Um identificador pode voltar a ser usado depois de a sala antiga ter sido compactada
+            cobras.clear();
+            escadas.clear();
+            jogadas = 0;
+            jogadasPartida = 0;
+            partidas = 0;
+            fechada = false;
+            incompleta = false;
+            return;
+        }
+        if (nomes == null) return; // Registos de uma partida cujo início não foi guardado
+        switch (tipo) {
+            case Registo.TABULEIRO:
+                cobras.clear();
+                escadas.clear();
+                int pos = lerPares(dados, 0, cobras);
+                lerPares(dados, pos, escadas);
+                tabuleiros++;
+                break;
+            case Registo.JOGADA:
+                int jogador = dados.get(0) & 0xFF;
+                posicoes[jogador] = dados.get(4) & 0xFF;
+                if ((dados.get(5) & 0xFF) == TabelaMovimentos.VITORIA) {
+                    vitorias[jogador]++;
+                    finalizado = true;
+                    partidas++;
+                }
+                vez = dados.get(6) & 0xFF;
+                jogadas++;
+                jogadasPartida++;
+                break;
+            case Registo.REINICIO:
+                Arrays.fill(posicoes, EstadoJogo.CASA_INICIAL);
+                finalizado = false;
+                jogadasPartida = 0;
+                vez = dados.get(0) & 0xFF;
+                break;
+            case Registo.SAIDA:
+                ausentes[dados.get(0) & 0xFF] = true;
+                vez = dados.get(1) & 0xFF;
+                break;
+            case Registo.SALA_FECHADA:
+                fechada = true;
+                break;
+            case Registo.INCOMPLETA:
+                incompleta = true;
+                break;
+            default:
+                // Votos e tipos desconhecidos não mudam o estado
+                break;
+        }
+    }
+
+    /**
+     * Lê uma lista de pares (origem, destino) de cobras ou escadas.
+     *
+     * @param dados Dados do registo
+     * @param pos Posição do contador
+     * @param destino Mapa a preencher
+     * @return Posição a seguir à lista
+     */
+    private static int lerPares(ByteBuffer dados, int pos, Map<Integer, Integer> destino) {
+        int n = dados.get(pos++) & 0xFF;
+        for (int i = 0; i < n; i++, pos += 2) {
+            destino.put(dados.get(pos) & 0xFF, dados.get(pos + 1) & 0xFF);
+        }
+        return pos;
+    }
+
+    /**
+     * Lê um texto UTF-8.
+     *
+     * @param dados Buffer de origem
+     * @param pos Posição do primeiro byte
+     * @param bytes Número de bytes
+     * @return Texto lido
+     */
+    private static String texto(ByteBuffer dados, int pos, int bytes) {
+        byte[] copia = new byte[bytes];
+        for (int i = 0; i < bytes; i++) copia[i] = dados.get(pos + i);
+        return new String(copia, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Calcula o espaço ocupado por {@link #escrever(ByteBuffer)}.
+     *
+     * @return Bytes necessários
+     */
+    int tamanho() {
+        int n = nomes.length;
+        int tamanho = 8 + 1 + 2 + 2 * (cobras.size() + escadas.size()) + 6 * n + 1 + 1 + 8 + 8 + 1 + 8 + 4 + 8;
+        for (String nome : nomes) tamanho += 2 + nome.getBytes(StandardCharsets.UTF_8).length;
+        return tamanho;
+    }
+
+    /**
+     * Escreve o estado da sala para um instantâneo.
+     *
+     * @param destino Buffer de destino
+     */
+    void escrever(ByteBuffer destino) {
+        int n = nomes.length;
+        destino.putLong(id);
+        destino.put((byte) n);
+        for (String nome : nomes) {
+            byte[] bytes = nome.getBytes(StandardCharsets.UTF_8);
+            destino.putShort((short) bytes.length).put(bytes);
+        }
+        escreverPares(destino, cobras);
+        escreverPares(destino, escadas);
+        for (int i = 0; i < n; i++) destino.put((byte) posicoes[i]);
+        for (int i = 0; i < n; i++) destino.putInt(vitorias[i]);
+        for (int i = 0; i < n; i++) destino.put((byte) (ausentes[i] ? 1 : 0));
+        destino.put((byte) vez);
+        destino.put((byte) (finalizado ? 1 : 0));
+        destino.putLong(jogadas);
+        destino.putLong(partidas);
+        destino.put((byte) (semente != null ? 1 : 0));
+        destino.putLong(semente != null ? semente : 0);
+        destino.putInt(tabuleiros);
+        destino.putLong(jogadasPartida);
+    }
+
+    /**
+     * Escreve uma lista de pares (origem, destino).
+     *
+     * @param destino Buffer de destino
+     * @param pares Cobras ou escadas
+     */
+    private static void escreverPares(ByteBuffer destino, Map<Integer, Integer> pares) {
+        destino.put((byte) pares.size());
+        for (Map.Entry<Integer, Integer> e : pares.entrySet()) {
+            destino.put(e.getKey().byteValue()).put(e.getValue().byteValue());
+        }
+    }
+
+    /**
+     * Lê o estado de uma sala de um instantâneo.
+     *
+     * @param origem Buffer posicionado no início da sala; avança até ao fim dela
+     * @param formato {@link #FORMATO} ou o de um instantâneo mais antigo, que acaba mais cedo
+     * @return Sala lida
+     */
+    static SalaGuardada ler(ByteBuffer origem, int formato) {
+        SalaGuardada sala = new SalaGuardada(origem.getLong());
+        int n = origem.get() & 0xFF;
+        sala.nomes = new String[n];
+        for (int i = 0; i < n; i++) {
+            int bytes = origem.getShort() & 0xFFFF;
+            sala.nomes[i] = texto(origem, origem.position(), bytes);
+            origem.position(origem.position() + bytes);
+        }
+        origem.position(lerPares(origem, origem.position(), sala.cobras));
+        origem.position(lerPares(origem, origem.position(), sala.escadas));
+        sala.posicoes = new int[n];
+        sala.vitorias = new int[n];
+        sala.ausentes = new boolean[n];
+        for (int i = 0; i < n; i++) sala.posicoes[i] = origem.get() & 0xFF;
+        for (int i = 0; i < n; i++) sala.vitorias[i] = origem.getInt();
+        for (int i = 0; i < n; i++) sala.ausentes[i] = origem.get() != 0;
+        sala.vez = origem.get() & 0xFF;
+        sala.finalizado = origem.get() != 0;
+        sala.jogadas = origem.getLong();
+        sala.partidas = origem.getLong();
+        if (formato >= FORMATO_SEMENTES) {
+            boolean temSemente = origem.get() != 0;
+            long semente = origem.getLong();
+            sala.semente = temSemente ? Long.valueOf(semente) : null;
+            sala.tabuleiros = origem.getInt();
+        }
+        if (formato >= FORMATO) {
+            sala.jogadasPartida = origem.getLong();
+        }
+        return sala;
+    }
+
+    /**
+     * Obtém o identificador da sala.
+     *
+     * @return Identificador da sala
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Verifica se a partida da sala já tinha começado.
+     *
+     * @return true se já houve um registo {@link Registo#SALA_ABERTA}
+     */
+    public boolean isIniciada() {
+        return nomes != null;
+    }
+
+    /**
+     * Obtém os nomes dos jogadores.
+     *
+     * @return Nomes, por lugar
+     */
+    public List<String> getNomes() {
+        return Collections.unmodifiableList(Arrays.asList(nomes));
+    }
+
+    /**
+     * Obtém as cobras do tabuleiro em uso.
+     *
+     * @return Mapa das cobras (cabeça -> cauda)
+     */
+    public Map<Integer, Integer> getCobras() {
+        return Collections.unmodifiableMap(cobras);
+    }
+
+    /**
+     * Obtém as escadas do tabuleiro em uso.
+     *
+     * @return Mapa das escadas (base -> topo)
+     */
+    public Map<Integer, Integer> getEscadas() {
+        return Collections.unmodifiableMap(escadas);
+    }
+
+    /**
+     * Obtém o número de lugares.
+     *
+     * @return Número de jogadores da partida
+     */
+    public int getNumeroJogadores() {
+        return nomes.length;
+    }
+
+    /**
+     * Obtém a posição de uma peça.
+     *
+     * @param lugar Lugar do jogador
+     * @return Casa onde está a peça
+     */
+    public int getPosicao(int lugar) {
+        return posicoes[lugar];
+    }
+
+    /**
+     * Obtém as vitórias de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Número de vitórias
+     */
+    public int getVitorias(int lugar) {
+        return vitorias[lugar];
+    }
+
+    /**
+     * Verifica se o jogador de um lugar saiu a meio da partida.
+     *
+     * @param lugar Lugar do jogador
+     * @return true se saiu
+     */
+    public boolean isAusente(int lugar) {
+        return ausentes[lugar];
+    }
+
+    /**
+     * Obtém o lugar de quem tem a vez.
+     *
+     * @return Lugar do jogador atual
+     */
+    public int getVez() {
+        return vez;
+    }
+
+    /**
+     * Verifica se a partida atual terminou.
+     *
+     * @return true se alguém venceu e a partida não foi reiniciada
+     */
+    public boolean isFinalizado() {
+        return finalizado;
+    }
+
+    /**
+     * Obtém o número de jogadas feitas na sala.
+     *
+     * @return Jogadas
+     */
+    public long getJogadas() {
+        return jogadas;
+    }
+
+    /**
+     * Obtém o número de jogadas da partida atual. Num instantâneo anterior
+     * a este contador começa em 0.
+     *
+     * @return Jogadas desde o início da sala ou o último reinício
+     */
+    public long getJogadasPartida() {
+        return jogadasPartida;
+    }
+
+    /**
+     * Obtém o número de partidas terminadas na sala.
+     *
+     * @return Partidas
+     */
+    public long getPartidas() {
+        return partidas;
+    }
+
+    /**
+     * Verifica se a sala fechou.
+     *
+     * @return true se houve um registo {@link Registo#SALA_FECHADA}
+     */
+    public boolean isFechada() {
+        return fechada;
+    }
+
+    /**
+     * Obtém a semente do gerador da partida. Com ela, o número de tabuleiros
+     * e o número de jogadas, o dado e os próximos tabuleiros continuam
+     * exatamente como continuariam sem o reinício do servidor.
+     *
+     * @return Semente, ou null se o diário não a tiver
+     */
+    public Long getSemente() {
+        return semente;
+    }
+
+    /**
+     * Obtém o número de tabuleiros gerados desde o início da partida.
+     *
+     * @return Tabuleiros, incluindo o primeiro
+     */
+    public int getTabuleiros() {
+        return tabuleiros;
+    }
+
+    /**
+     * Verifica se se perderam registos da sala. Uma sala incompleta não deve
+     * ser recriada, porque o estado reproduzido não é o que os jogadores viram.
+     *
+     * @return true se houve um registo {@link Registo#INCOMPLETA}
+     */
+    public boolean isIncompleta() {
+        return incompleta;
+    }
+}
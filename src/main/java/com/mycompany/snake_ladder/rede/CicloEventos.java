@@ -0,0 +1,331 @@
+package com.mycompany.snake_ladder.rede;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ciclo de eventos de rede numa única thread.
+ *
+ * Cada ciclo tem o seu {@link Selector} e atende as ligações registadas nele
+ * só quando há bytes para ler ou espaço para escrever: uma ligação parada
+ * não gasta CPU nem uma thread. Além da rede, o ciclo executa tarefas
+ * entregues por outras threads ({@link #executar(Runnable)}) e tarefas
+ * adiadas ({@link #agendar(Runnable, long)}), sempre pela ordem de chegada.
+ * As escritas pedidas durante uma volta do ciclo só são feitas no fim dela,
+ * de uma vez por ligação, para que várias tramas seguidas saiam juntas.
+ *
+ * As salas de jogo ficam presas a um ciclo: toda a lógica de uma sala corre
+ * na thread desse ciclo e por isso dispensa sincronização.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class CicloEventos implements Runnable {
+    /** Tamanho do buffer de leitura partilhado pelas ligações do ciclo */
+    private static final int TAMANHO_LEITURA = 64 * 1024;
+
+    /** Número máximo de buffers escritos numa só chamada ao socket */
+    private static final int TAMANHO_LOTE = 32;
+
+    /** Seletor das ligações deste ciclo */
+    private final Selector selector;
+
+    /** Thread que corre o ciclo */
+    private final Thread thread;
+
+    /** Tarefas entregues por qualquer thread, a executar no ciclo */
+    private final Queue<Runnable> tarefas = new ConcurrentLinkedQueue<>();
+
+    /** Tarefas adiadas, ordenadas pelo prazo; só usada na thread do ciclo */
+    private final PriorityQueue<TarefaAgendada> agendadas = new PriorityQueue<>();
+
+    /** Indica se já foi pedido um wakeup ao seletor desde o último select */
+    private final AtomicBoolean acordado = new AtomicBoolean();
+
+    /** Buffer onde são lidos os bytes de todas as ligações do ciclo */
+    private final ByteBuffer leitura = ByteBuffer.allocate(TAMANHO_LEITURA);
+
+    /** Lote de buffers de uma escrita agrupada, partilhado pelas ligações do ciclo */
+    private final ByteBuffer[] lote = new ByteBuffer[TAMANHO_LOTE];
+
+    /** Ligações com dados por escrever nesta volta do ciclo */
+    private final List<Ligacao> porEscrever = new ArrayList<>();
+
+    /** Contador que desempata tarefas agendadas para o mesmo instante */
+    private long sequencia;
+
+    /** Indica se o ciclo deve continuar a correr */
+    private volatile boolean ativo = true;
+
+    /**
+     * Cria um ciclo de eventos. A thread só arranca com {@link #iniciar()}.
+     *
+     * @param nome Nome da thread do ciclo
+     * @throws IOException Se não for possível abrir o seletor
+     */
+    public CicloEventos(String nome) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, nome);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Arranca a thread do ciclo.
+     */
+    public void iniciar() {
+        thread.start();
+    }
+
+    /**
+     * Pede ao ciclo para parar e fecha todas as ligações registadas nele.
+     */
+    public void parar() {
+        ativo = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Verifica se o código atual corre na thread deste ciclo.
+     *
+     * @return true se a thread atual é a do ciclo
+     */
+    public boolean naThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Entrega uma tarefa para ser executada na thread do ciclo.
+     * Pode ser chamado a partir de qualquer thread.
+     *
+     * @param tarefa Tarefa a executar
+     */
+    public void executar(Runnable tarefa) {
+        tarefas.add(tarefa);
+        if (!naThread() && acordado.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+    }
+
+    /**
+     * Agenda uma tarefa para ser executada no ciclo depois de um atraso.
+     * Substitui threads que apenas dormem à espera de um prazo.
+     *
+     * @param tarefa Tarefa a executar
+     * @param atrasoMs Atraso em milissegundos
+     */
+    public void agendar(Runnable tarefa, long atrasoMs) {
+        long prazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(atrasoMs);
+        executar(() -> agendadas.add(new TarefaAgendada(prazo, sequencia++, tarefa)));
+    }
+
+    /**
+     * Regista um canal aceite neste ciclo.
+     * Pode ser chamado a partir de qualquer thread.
+     *
+     * @param canal Canal do cliente, já em modo não bloqueante
+     * @param tratador Tratador dos acontecimentos da ligação
+     */
+    void registar(SocketChannel canal, TratadorLigacao tratador) {
+        executar(() -> {
+            Ligacao ligacao = new Ligacao(this, canal, tratador);
+            try {
+                ligacao.setChave(canal.register(selector, SelectionKey.OP_READ, ligacao));
+            } catch (ClosedChannelException e) {
+                ligacao.fechar();
+                return;
+            }
+            tratador.aoLigar(ligacao);
+        });
+    }
+
+    /**
+     * Regista no seletor deste ciclo um canal com um anexo arbitrário.
+     * Só pode ser chamado na thread do ciclo.
+     *
+     * @param canal Canal a registar
+     * @param operacoes Operações de interesse
+     * @param anexo Objeto que trata o canal
+     * @return Chave do registo
+     * @throws ClosedChannelException Se o canal estiver fechado
+     */
+    SelectionKey registarCanal(SelectableChannel canal, int operacoes, Object anexo)
+            throws ClosedChannelException {
+        return canal.register(selector, operacoes, anexo);
+    }
+
+    /**
+     * Buffer de leitura partilhado; só pode ser usado na thread do ciclo.
+     *
+     * @return Buffer de leitura, limpo
+     */
+    ByteBuffer bufferLeitura() {
+        leitura.clear();
+        return leitura;
+    }
+
+    /**
+     * Lote para escritas agrupadas; só pode ser usado na thread do ciclo
+     * e deve ser limpo depois de cada escrita.
+     *
+     * @return Array de buffers, vazio
+     */
+    ByteBuffer[] loteEscrita() {
+        return lote;
+    }
+
+    /**
+     * Pede que a ligação seja escrita no fim da volta atual do ciclo.
+     * Só pode ser chamado na thread do ciclo.
+     *
+     * @param ligacao Ligação com dados na fila de saída
+     */
+    void pedirEscrita(Ligacao ligacao) {
+        porEscrever.add(ligacao);
+    }
+
+    /**
+     * Corpo da thread: espera por rede, tarefas ou prazos e trata-os.
+     */
+    @Override
+    public void run() {
+        while (ativo) {
+            try {
+                acordado.set(false);
+                long espera = executarAgendadas();
+                if (!tarefas.isEmpty()) {
+                    selector.selectNow();
+                } else if (espera > 0) {
+                    selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(espera)));
+                } else {
+                    selector.select();
+                }
+                processarChaves();
+                executarTarefas();
+                escreverPendentes();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        fecharTudo();
+    }
+
+    /**
+     * Trata as chaves prontas do último select.
+     */
+    private void processarChaves() {
+        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+            SelectionKey chave = it.next();
+            it.remove();
+            Object anexo = chave.attachment();
+            try {
+                if (anexo instanceof Ligacao) {
+                    ((Ligacao) anexo).processar(chave);
+                } else if (anexo instanceof ServidorRede && chave.isValid() && chave.isAcceptable()) {
+                    ((ServidorRede) anexo).aceitar();
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Executa as tarefas pendentes, incluindo as que forem chegando.
+     */
+    private void executarTarefas() {
+        Runnable tarefa;
+        while ((tarefa = tarefas.poll()) != null) {
+            try {
+                tarefa.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Escreve as ligações que receberam dados nesta volta do ciclo.
+     */
+    private void escreverPendentes() {
+        for (int i = 0; i < porEscrever.size(); i++) {
+            try {
+                porEscrever.get(i).escrever();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+        porEscrever.clear();
+    }
+
+    /**
+     * Passa as tarefas adiadas cujo prazo chegou para a fila de execução.
+     *
+     * @return Nanossegundos até ao próximo prazo, ou 0 se não houver nenhum
+     */
+    private long executarAgendadas() {
+        long agora = System.nanoTime();
+        TarefaAgendada proxima;
+        while ((proxima = agendadas.peek()) != null && proxima.prazo - agora <= 0) {
+            agendadas.poll();
+            tarefas.add(proxima.tarefa);
+        }
+        return proxima == null ? 0 : proxima.prazo - agora;
+    }
+
+    /**
+     * Fecha o seletor e todas as ligações ao terminar o ciclo.
+     */
+    private void fecharTudo() {
+        for (SelectionKey chave : selector.keys()) {
+            Object anexo = chave.attachment();
+            if (anexo instanceof Ligacao) {
+                ((Ligacao) anexo).fechar();
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Tarefa adiada, ordenada pelo prazo e pela ordem de agendamento.
+     */
+    private static final class TarefaAgendada implements Comparable<TarefaAgendada> {
+        /** Instante, em nanossegundos, a partir do qual a tarefa corre */
+        private final long prazo;
+
+        /** Ordem de agendamento */
+        private final long ordem;
+
+        /** Tarefa a executar */
+        private final Runnable tarefa;
+
+        TarefaAgendada(long prazo, long ordem, Runnable tarefa) {
+            this.prazo = prazo;
+            this.ordem = ordem;
+            this.tarefa = tarefa;
+        }
+
+        @Override
+        public int compareTo(TarefaAgendada outra) {
+            int c = Long.compare(prazo - outra.prazo, 0);
+            return c != 0 ? c : Long.compare(ordem, outra.ordem);
+        }
+    }
+}
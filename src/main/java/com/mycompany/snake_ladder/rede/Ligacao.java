@@ -0,0 +1,363 @@
+package com.mycompany.snake_ladder.rede;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Ligação de um cliente atendida por um {@link CicloEventos}.
+ *
+ * Os bytes recebidos são partidos em tramas do {@link Protocolo} e entregues
+ * ao {@link TratadorLigacao} assim que chegam, como vistas do buffer de
+ * leitura do ciclo, sem cópia. Uma ligação parada não tem buffers próprios:
+ * só guarda os bytes de uma trama incompleta, e apenas enquanto ela não
+ * termina. O envio é seguro a partir de qualquer thread;
+ * a escrita no socket é sempre feita na thread do ciclo, no fim da volta em
+ * que as tramas chegaram, juntando numa só chamada tudo o que estiver em
+ * fila. Se o socket estiver cheio, o resto espera até o seletor indicar
+ * espaço livre.
+ *
+ * A fila de saída é limitada: uma trama marcada como substituível toma o
+ * lugar da anterior do mesmo tipo que ainda esteja à espera (um estado novo
+ * torna o antigo inútil), e um cliente que mesmo assim acumule mais de
+ * {@link #SAIDA_MAXIMA} bytes por enviar é desligado, em vez de atrasar
+ * os restantes ou esgotar a memória.
+ *
+ * {@link #fechar()} corta a ligação de imediato e descarta a fila;
+ * {@link #fecharDepoisDeEnviar()} deixa de ler e só fecha quando a fila
+ * esvazia, para que uma última trama (um erro, por exemplo) chegue ao
+ * cliente.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Ligacao {
+    /** Comprimento máximo de uma trama recebida; os clientes só enviam comandos curtos */
+    private static final int TRAMA_MAXIMA_ENTRADA = 1024;
+
+    /** Bytes por enviar a partir dos quais o cliente é considerado parado */
+    private static final int SAIDA_MAXIMA = 64 * 1024;
+
+    /** Tempo máximo para enviar a fila antes de fechar, numa ligação a encerrar */
+    private static final long ESPERA_ENCERRAMENTO_MS = 5_000;
+
+    /** Ciclo que atende esta ligação */
+    private final CicloEventos ciclo;
+
+    /** Canal do cliente */
+    private final SocketChannel canal;
+
+    /** Tratador dos acontecimentos da ligação */
+    private final TratadorLigacao tratador;
+
+    /** Chave do canal no seletor do ciclo */
+    private SelectionKey chave;
+
+    /** Bytes de uma trama ainda incompleta, ou null */
+    private byte[] resto;
+
+    /** Número de bytes válidos em {@link #resto} */
+    private int tamanhoResto;
+
+    /** Dados à espera de serem escritos no socket; só usada na thread do ciclo */
+    private final ArrayDeque<ByteBuffer> saida = new ArrayDeque<>();
+
+    /** Bytes ainda por enviar em {@link #saida} */
+    private int bytesPendentes;
+
+    /** Última trama substituível posta na fila, ou null */
+    private ByteBuffer ultimaSubstituivel;
+
+    /** Indica se a escrita já foi pedida ao ciclo ou está à espera de OP_WRITE */
+    private boolean escritaPedida;
+
+    /** Objeto associado pela aplicação (por exemplo, o lugar do jogador) */
+    private volatile Object anexo;
+
+    /** Indica se a ligação já foi fechada */
+    private volatile boolean fechada;
+
+    /** Indica se a ligação só espera que a fila de saída se esvazie para fechar */
+    private boolean aEncerrar;
+
+    /**
+     * Cria a ligação de um canal aceite.
+     *
+     * @param ciclo Ciclo que atende a ligação
+     * @param canal Canal do cliente
+     * @param tratador Tratador dos acontecimentos
+     */
+    Ligacao(CicloEventos ciclo, SocketChannel canal, TratadorLigacao tratador) {
+        this.ciclo = ciclo;
+        this.canal = canal;
+        this.tratador = tratador;
+    }
+
+    /**
+     * Define a chave do canal no seletor.
+     *
+     * @param chave Chave do registo
+     */
+    void setChave(SelectionKey chave) {
+        this.chave = chave;
+    }
+
+    /**
+     * Obtém o ciclo que atende esta ligação.
+     *
+     * @return Ciclo de eventos da ligação
+     */
+    public CicloEventos getCiclo() {
+        return ciclo;
+    }
+
+    /**
+     * Obtém o objeto associado pela aplicação.
+     *
+     * @return Anexo da ligação, ou null
+     */
+    public Object getAnexo() {
+        return anexo;
+    }
+
+    /**
+     * Associa um objeto da aplicação à ligação.
+     *
+     * @param anexo Objeto a associar
+     */
+    public void setAnexo(Object anexo) {
+        this.anexo = anexo;
+    }
+
+    /**
+     * Verifica se a ligação está aberta.
+     *
+     * @return true se ainda não foi fechada
+     */
+    public boolean isAberta() {
+        return !fechada;
+    }
+
+    /**
+     * Envia uma trama já codificada.
+     * Pode ser chamado a partir de qualquer thread; as tramas chegam ao
+     * cliente pela ordem em que foram enviadas pela mesma thread.
+     *
+     * @param trama Trama em modo de leitura; passa a pertencer à ligação
+     */
+    public void enviar(ByteBuffer trama) {
+        enviar(trama, false);
+    }
+
+    /**
+     * Envia uma trama já codificada, possivelmente substituível.
+     * Uma trama substituível que ainda não começou a ser escrita é
+     * descartada se, entretanto, for enviada outra substituível do mesmo tipo.
+     * Para difundir a mesma trama a vários clientes, cada um deve receber
+     * um {@link ByteBuffer#duplicate()}, que partilha os bytes.
+     *
+     * @param trama Trama em modo de leitura; passa a pertencer à ligação
+     * @param substituivel true se uma trama mais recente do mesmo tipo a torna inútil
+     */
+    public void enviar(ByteBuffer trama, boolean substituivel) {
+        if (ciclo.naThread()) {
+            enfileirar(trama, substituivel);
+        } else {
+            ciclo.executar(() -> enfileirar(trama, substituivel));
+        }
+    }
+
+    /**
+     * Fecha a ligação. Pode ser chamado a partir de qualquer thread e mais
+     * do que uma vez; o tratador é avisado apenas na primeira.
+     */
+    public void fechar() {
+        if (!ciclo.naThread()) {
+            ciclo.executar(this::fechar);
+            return;
+        }
+        if (fechada) return;
+        fechada = true;
+        if (chave != null) chave.cancel();
+        try {
+            canal.close();
+        } catch (IOException e) {
+            // o canal já não está utilizável; nada mais a fazer
+        }
+        saida.clear();
+        ultimaSubstituivel = null;
+        resto = null;
+        tratador.aoDesligar(this);
+    }
+
+    /**
+     * Fecha a ligação depois de enviar o que já está na fila. Deixa de ler
+     * de imediato e as tramas enviadas depois disto são descartadas. Se o
+     * cliente não receber a fila em {@link #ESPERA_ENCERRAMENTO_MS}, a
+     * ligação é fechada na mesma. Pode ser chamado a partir de qualquer thread.
+     */
+    public void fecharDepoisDeEnviar() {
+        if (!ciclo.naThread()) {
+            ciclo.executar(this::fecharDepoisDeEnviar);
+            return;
+        }
+        if (fechada || aEncerrar) return;
+        aEncerrar = true;
+        resto = null;
+        if (saida.isEmpty()) {
+            fechar();
+            return;
+        }
+        if (chave != null && chave.isValid()) {
+            chave.interestOps(chave.interestOps() & ~SelectionKey.OP_READ);
+        }
+        if (!escritaPedida) {
+            escritaPedida = true;
+            ciclo.pedirEscrita(this);
+        }
+        ciclo.agendar(this::fechar, ESPERA_ENCERRAMENTO_MS);
+    }
+
+    /**
+     * Trata uma chave pronta do seletor.
+     *
+     * @param chave Chave desta ligação
+     */
+    void processar(SelectionKey chave) {
+        if (!chave.isValid()) return;
+        if (chave.isWritable()) escrever();
+        if (chave.isValid() && !aEncerrar && chave.isReadable()) ler();
+    }
+
+    /**
+     * Lê tudo o que estiver disponível e entrega as tramas completas.
+     * Uma trama inválida ou maior que {@link #TRAMA_MAXIMA_ENTRADA} fecha a ligação.
+     */
+    private void ler() {
+        ByteBuffer buffer = ciclo.bufferLeitura();
+        if (resto != null) {
+            buffer.put(resto, 0, tamanhoResto);
+            resto = null;
+            tamanhoResto = 0;
+        }
+        try {
+            if (canal.read(buffer) < 0) {
+                fechar();
+                return;
+            }
+        } catch (IOException e) {
+            fechar();
+            return;
+        }
+        buffer.flip();
+        while (!fechada && !aEncerrar && buffer.remaining() >= Protocolo.CABECALHO) {
+            int comprimento = buffer.getShort(buffer.position()) & 0xFFFF;
+            if (comprimento == 0 || comprimento > TRAMA_MAXIMA_ENTRADA) {
+                fechar();
+                return;
+            }
+            if (buffer.remaining() < Protocolo.CABECALHO + comprimento) break;
+            int fim = buffer.position() + Protocolo.CABECALHO + comprimento;
+            int limite = buffer.limit();
+            buffer.position(buffer.position() + Protocolo.CABECALHO).limit(fim);
+            try {
+                tratador.aoReceber(this, buffer);
+            } catch (RuntimeException e) {
+                // Trama mal formada: o cliente não segue o protocolo
+                e.printStackTrace();
+                fechar();
+                return;
+            }
+            buffer.limit(limite).position(fim);
+        }
+        if (!fechada && !aEncerrar && buffer.hasRemaining()) {
+            tamanhoResto = buffer.remaining();
+            resto = new byte[tamanhoResto];
+            buffer.get(resto);
+        }
+    }
+
+    /**
+     * Põe uma trama na fila de saída e pede a escrita ao ciclo.
+     *
+     * @param trama Trama a enviar
+     * @param substituivel true se pode tomar o lugar da anterior do mesmo tipo
+     */
+    private void enfileirar(ByteBuffer trama, boolean substituivel) {
+        if (fechada || aEncerrar) return;
+        ByteBuffer anterior = ultimaSubstituivel;
+        if (substituivel && anterior != null && saida.peekLast() == anterior
+                && anterior.position() == 0 && tipo(anterior) == tipo(trama)) {
+            // O cliente está atrasado: o estado pendente é substituído pelo novo
+            saida.pollLast();
+            bytesPendentes -= anterior.remaining();
+        }
+        saida.addLast(trama);
+        bytesPendentes += trama.remaining();
+        ultimaSubstituivel = substituivel ? trama : null;
+        if (bytesPendentes > SAIDA_MAXIMA) {
+            fechar();
+            return;
+        }
+        if (!escritaPedida) {
+            escritaPedida = true;
+            ciclo.pedirEscrita(this);
+        }
+    }
+
+    /**
+     * Tipo de uma trama completa, ainda com o cabeçalho.
+     *
+     * @param trama Trama em modo de leitura
+     * @return Byte do tipo
+     */
+    private static int tipo(ByteBuffer trama) {
+        return trama.get(trama.position() + Protocolo.CABECALHO) & 0xFF;
+    }
+
+    /**
+     * Escreve o que o socket aceitar, várias tramas por chamada; o resto
+     * espera por OP_WRITE.
+     */
+    void escrever() {
+        if (fechada) return;
+        ByteBuffer[] lote = ciclo.loteEscrita();
+        try {
+            while (!saida.isEmpty()) {
+                int n = 0;
+                long total = 0;
+                for (ByteBuffer dados : saida) {
+                    lote[n++] = dados;
+                    total += dados.remaining();
+                    if (n == lote.length) break;
+                }
+                long escritos = canal.write(lote, 0, n);
+                Arrays.fill(lote, 0, n, null);
+                bytesPendentes -= (int) escritos;
+                while (!saida.isEmpty() && !saida.peekFirst().hasRemaining()) {
+                    saida.pollFirst();
+                }
+                if (escritos < total) {
+                    if ((chave.interestOps() & SelectionKey.OP_WRITE) == 0) {
+                        chave.interestOps(aEncerrar ? SelectionKey.OP_WRITE : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    }
+                    return;
+                }
+            }
+            escritaPedida = false;
+            if (aEncerrar) {
+                fechar();
+                return;
+            }
+            if ((chave.interestOps() & SelectionKey.OP_WRITE) != 0) {
+                chave.interestOps(SelectionKey.OP_READ);
+            }
+        } catch (IOException e) {
+            Arrays.fill(lote, null);
+            fechar();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.mycompany.snake_ladder.rede;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Ligação do cliente ao servidor, sobre um {@link SocketChannel} bloqueante.
+ *
+ * Uma única thread lê as tramas com {@link #lerTrama()}; cada trama é uma
+ * vista do buffer de receção, sem cópia, válida até à leitura seguinte.
+ * Os envios podem vir de qualquer thread (por exemplo, a do JavaFX) e são
+ * codificados num buffer próprio antes de serem escritos.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class LigacaoCliente implements Closeable {
+    /** Endereço do servidor */
+    private final String ip;
+
+    /** Porta do servidor */
+    private final int porta;
+
+    /** Canal ligado ao servidor */
+    private final SocketChannel canal;
+
+    /** Buffer de receção, em modo de leitura entre chamadas */
+    private final ByteBuffer entrada = ByteBuffer.allocate(Protocolo.CABECALHO + Protocolo.TRAMA_MAXIMA);
+
+    /** Buffer onde são codificados os envios */
+    private final ByteBuffer saida = ByteBuffer.allocate(1024);
+
+    /** Limite dos dados recebidos enquanto uma trama está a ser lida, ou -1 */
+    private int limiteDados = -1;
+
+    /** Fim da última trama devolvida */
+    private int fimTrama;
+
+    /**
+     * Liga ao servidor.
+     *
+     * @param ip Endereço do servidor
+     * @param porta Porta do servidor
+     * @throws IOException Se a ligação falhar
+     */
+    public LigacaoCliente(String ip, int porta) throws IOException {
+        this.ip = ip;
+        this.porta = porta;
+        canal = SocketChannel.open(new InetSocketAddress(ip, porta));
+        canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        entrada.flip();
+    }
+
+    /**
+     * Bloqueia até haver uma trama completa.
+     *
+     * @return Trama posicionada no byte do tipo, válida até à próxima leitura,
+     *         ou null se o servidor fechou a ligação
+     * @throws IOException Se a leitura falhar ou a trama for inválida
+     */
+    public ByteBuffer lerTrama() throws IOException {
+        if (limiteDados >= 0) {
+            entrada.limit(limiteDados).position(fimTrama);
+            limiteDados = -1;
+        }
+        while (true) {
+            if (entrada.remaining() >= Protocolo.CABECALHO) {
+                int comprimento = entrada.getShort(entrada.position()) & 0xFFFF;
+                if (comprimento == 0) {
+                    throw new IOException("Trama vazia recebida do servidor");
+                }
+                if (entrada.remaining() >= Protocolo.CABECALHO + comprimento) {
+                    limiteDados = entrada.limit();
+                    fimTrama = entrada.position() + Protocolo.CABECALHO + comprimento;
+                    entrada.position(entrada.position() + Protocolo.CABECALHO).limit(fimTrama);
+                    return entrada;
+                }
+            }
+            entrada.compact();
+            int lidos = canal.read(entrada);
+            entrada.flip();
+            if (lidos < 0) return null;
+        }
+    }
+
+    /**
+     * Abre uma ligação nova ao mesmo servidor, por exemplo depois de esta cair.
+     *
+     * @return Nova ligação, ainda sem aperto de mão
+     * @throws IOException Se a ligação falhar
+     */
+    public LigacaoCliente religar() throws IOException {
+        return new LigacaoCliente(ip, porta);
+    }
+
+    /**
+     * Envia o aperto de mão com o nome do jogador.
+     *
+     * @param nome Nome do jogador
+     * @throws IOException Se a escrita falhar
+     */
+    public synchronized void enviarOla(String nome) throws IOException {
+        saida.clear();
+        Protocolo.escreverOla(saida, nome);
+        escrever();
+    }
+
+    /**
+     * Volta a um lugar numa partida já começada, depois de a ligação anterior cair.
+     *
+     * @param sala Identificador da sala
+     * @param lugar Lugar do jogador
+     * @param nome Nome do jogador
+     * @throws IOException Se a escrita falhar
+     */
+    public synchronized void enviarRetomar(long sala, int lugar, String nome) throws IOException {
+        saida.clear();
+        Protocolo.escreverRetomar(saida, sala, lugar, nome);
+        escrever();
+    }
+
+    /**
+     * Pede ao servidor para rolar o dado.
+     *
+     * @throws IOException Se a escrita falhar
+     */
+    public synchronized void enviarRolarDado() throws IOException {
+        saida.clear();
+        Protocolo.escreverRolarDado(saida);
+        escrever();
+    }
+
+    /**
+     * Envia o voto para reiniciar a partida.
+     *
+     * @param sim true para reiniciar
+     * @throws IOException Se a escrita falhar
+     */
+    public synchronized void enviarVotoReinicio(boolean sim) throws IOException {
+        saida.clear();
+        Protocolo.escreverVotoReinicio(saida, sim);
+        escrever();
+    }
+
+    /**
+     * Confirma a versão do estado aplicada pelo cliente.
+     *
+     * @param versao Versão aplicada
+     * @throws IOException Se a escrita falhar
+     */
+    public synchronized void enviarConfirmar(int versao) throws IOException {
+        saida.clear();
+        Protocolo.escreverConfirmar(saida, versao);
+        escrever();
+    }
+
+    /**
+     * Pede um estado completo, depois de faltar uma versão.
+     *
+     * @throws IOException Se a escrita falhar
+     */
+    public synchronized void enviarPedirEstado() throws IOException {
+        saida.clear();
+        Protocolo.escreverPedirEstado(saida);
+        escrever();
+    }
+
+    /**
+     * Escreve todo o buffer de saída no canal.
+     *
+     * @throws IOException Se a escrita falhar
+     */
+    private void escrever() throws IOException {
+        saida.flip();
+        while (saida.hasRemaining()) canal.write(saida);
+    }
+
+    /**
+     * Fecha a ligação ao servidor.
+     *
+     * @throws IOException Se o fecho falhar
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
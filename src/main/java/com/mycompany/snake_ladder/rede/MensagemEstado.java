@@ -0,0 +1,245 @@
+package com.mycompany.snake_ladder.rede;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Estado da partida no cliente, mantido a partir das tramas
+ * {@link Protocolo#ESTADO} e {@link Protocolo#DELTA}.
+ *
+ * A mesma instância é reaproveitada em cada receção: os arrays só crescem
+ * quando chega uma sala maior, por isso decodificar não cria objetos.
+ * Um {@link Protocolo#ESTADO} substitui tudo; uma {@link Protocolo#DELTA}
+ * só é aplicada se vier logo a seguir à versão atual. Se faltar alguma,
+ * {@link #ler(ByteBuffer)} devolve {@link #LACUNA} uma vez e as deltas
+ * seguintes são ignoradas até chegar um estado completo.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class MensagemEstado {
+    /** Resultado de {@link #ler(ByteBuffer)}: o estado foi atualizado */
+    public static final int APLICADA = 0;
+
+    /** Resultado de {@link #ler(ByteBuffer)}: a trama foi ignorada, o estado não mudou */
+    public static final int IGNORADA = 1;
+
+    /** Resultado de {@link #ler(ByteBuffer)}: falta uma versão; deve ser pedido um estado completo */
+    public static final int LACUNA = 2;
+
+    /** De quantas em quantas versões o cliente confirma o que recebeu */
+    private static final int CONFIRMAR_A_CADA = 4;
+
+    /** Versão do estado atual, ou -1 antes do primeiro estado completo */
+    private int versao = -1;
+
+    /** Indica se foi detetada uma falha e se espera um estado completo */
+    private boolean aguardaEstado;
+
+    /** Indica se a última trama aplicada foi um estado completo */
+    private boolean ultimaCompleta;
+
+    /** Índice do jogador que deve jogar */
+    private int jogadorAtual;
+
+    /** Flags da trama */
+    private int flags;
+
+    /** Número de jogadores */
+    private int numJogadores;
+
+    /** Posições das peças, indexadas pelo lugar */
+    private int[] posicoes = new int[4];
+
+    /** Vitórias, indexadas pelo lugar */
+    private int[] vitorias = new int[4];
+
+    /** Jogada que originou o estado, válida se {@link #temEvento()} */
+    private final EventoMovimento evento = new EventoMovimento();
+
+    /**
+     * Aplica uma trama de estado completo ou de alterações.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @return {@link #APLICADA}, {@link #IGNORADA} ou {@link #LACUNA}
+     * @throws IllegalArgumentException Se a trama não for de estado
+     * @throws IndexOutOfBoundsException Se a trama estiver truncada
+     */
+    public int ler(ByteBuffer trama) {
+        int tipo = Protocolo.tipo(trama);
+        if (tipo == Protocolo.ESTADO) {
+            lerEstado(trama);
+            ultimaCompleta = true;
+            return APLICADA;
+        }
+        if (tipo != Protocolo.DELTA) {
+            throw new IllegalArgumentException("Trama não é de estado");
+        }
+        int nova = Protocolo.lerInt(trama, 0);
+        if (aguardaEstado || nova - versao <= 0) {
+            return IGNORADA;
+        }
+        if (versao < 0 || nova != versao + 1) {
+            aguardaEstado = true;
+            return LACUNA;
+        }
+        lerDelta(trama, nova);
+        ultimaCompleta = false;
+        return APLICADA;
+    }
+
+    /**
+     * Substitui o estado pelo de uma trama {@link Protocolo#ESTADO}.
+     *
+     * @param trama Trama de estado completo
+     */
+    private void lerEstado(ByteBuffer trama) {
+        versao = Protocolo.lerInt(trama, 0);
+        aguardaEstado = false;
+        jogadorAtual = Protocolo.lerU8(trama, 4);
+        flags = Protocolo.lerU8(trama, 5);
+        int n = Protocolo.lerU8(trama, 6);
+        if (posicoes.length < n) {
+            posicoes = Arrays.copyOf(posicoes, n);
+            vitorias = Arrays.copyOf(vitorias, n);
+        }
+        numJogadores = n;
+        int pos = 7;
+        for (int i = 0; i < n; i++) posicoes[i] = Protocolo.lerU8(trama, pos++);
+        for (int i = 0; i < n; i++, pos += 4) vitorias[i] = Protocolo.lerInt(trama, pos);
+        lerEvento(trama, pos);
+    }
+
+    /**
+     * Aplica as alterações de uma trama {@link Protocolo#DELTA}.
+     *
+     * @param trama Trama de alterações
+     * @param nova Versão da trama
+     */
+    private void lerDelta(ByteBuffer trama, int nova) {
+        versao = nova;
+        jogadorAtual = Protocolo.lerU8(trama, 4);
+        flags = Protocolo.lerU8(trama, 5);
+        int k = Protocolo.lerU8(trama, 6);
+        int pos = 7;
+        for (int i = 0; i < k; i++, pos += 2) {
+            posicoes[Protocolo.lerU8(trama, pos)] = Protocolo.lerU8(trama, pos + 1);
+        }
+        k = Protocolo.lerU8(trama, pos++);
+        for (int i = 0; i < k; i++, pos += 5) {
+            vitorias[Protocolo.lerU8(trama, pos)] = Protocolo.lerInt(trama, pos + 1);
+        }
+        lerEvento(trama, pos);
+    }
+
+    /**
+     * Lê a jogada no fim da trama, se a flag o indicar.
+     *
+     * @param trama Trama de estado
+     * @param pos Posição do evento a seguir ao tipo
+     */
+    private void lerEvento(ByteBuffer trama, int pos) {
+        if ((flags & Protocolo.FLAG_EVENTO) != 0) {
+            evento.definir(Protocolo.lerU8(trama, pos), Protocolo.lerU8(trama, pos + 1),
+                Protocolo.lerU8(trama, pos + 2), Protocolo.lerU8(trama, pos + 3),
+                Protocolo.lerU8(trama, pos + 4), Protocolo.lerU8(trama, pos + 5));
+        }
+    }
+
+    /**
+     * Indica se a versão acabada de aplicar deve ser confirmada ao servidor.
+     * Confirmar só de vez em quando chega para o servidor saber quem está
+     * atrasado; depois de um estado completo confirma-se sempre, para que o
+     * servidor volte a enviar deltas o quanto antes.
+     *
+     * @return true se o cliente deve enviar {@link Protocolo#CONFIRMAR}
+     */
+    public boolean deveConfirmar() {
+        return ultimaCompleta || versao % CONFIRMAR_A_CADA == 0;
+    }
+
+    /**
+     * Obtém a versão do estado atual.
+     *
+     * @return Versão, ou -1 se ainda não chegou nenhum estado completo
+     */
+    public int getVersao() {
+        return versao;
+    }
+
+    /**
+     * Obtém o índice do jogador que deve jogar.
+     *
+     * @return Lugar do jogador atual
+     */
+    public int getJogadorAtual() {
+        return jogadorAtual;
+    }
+
+    /**
+     * Obtém o número de jogadores.
+     *
+     * @return Número de lugares no estado
+     */
+    public int getNumeroJogadores() {
+        return numJogadores;
+    }
+
+    /**
+     * Obtém a posição de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Casa onde está a peça
+     */
+    public int getPosicao(int lugar) {
+        return posicoes[lugar];
+    }
+
+    /**
+     * Obtém as vitórias de um jogador.
+     *
+     * @param lugar Lugar do jogador
+     * @return Número de vitórias
+     */
+    public int getVitorias(int lugar) {
+        return vitorias[lugar];
+    }
+
+    /**
+     * Verifica se a partida terminou.
+     *
+     * @return true se o estado é o final da partida
+     */
+    public boolean isFim() {
+        return (flags & Protocolo.FLAG_FIM) != 0;
+    }
+
+    /**
+     * Verifica se é o primeiro estado de uma partida reiniciada.
+     *
+     * @return true se a partida acabou de ser reiniciada
+     */
+    public boolean isReinicio() {
+        return (flags & Protocolo.FLAG_REINICIO) != 0;
+    }
+
+    /**
+     * Verifica se o estado traz a jogada que o originou.
+     *
+     * @return true se {@link #getEvento()} é válido
+     */
+    public boolean temEvento() {
+        return (flags & Protocolo.FLAG_EVENTO) != 0;
+    }
+
+    /**
+     * Obtém a jogada que originou o estado. A instância é reaproveitada.
+     *
+     * @return Evento da jogada, válido apenas se {@link #temEvento()}
+     */
+    public EventoMovimento getEvento() {
+        return evento;
+    }
+}
@@ -0,0 +1,487 @@
+package com.mycompany.snake_ladder.rede;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+import com.mycompany.snake_ladder.model.InstantaneoJogo;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Protocolo binário entre cliente e servidor.
+ *
+ * Cada mensagem é uma trama {@code [u16 comprimento][u8 tipo][dados]}, em
+ * big-endian, onde o comprimento conta o tipo e os dados. A versão do
+ * protocolo é trocada uma vez no aperto de mão: o cliente envia
+ * {@link #OLA} com a sua versão e o nome, e o servidor responde com
+ * {@link #BEM_VINDO} e o lugar atribuído, ou com {@link #ERRO}. Um cliente
+ * cuja ligação caiu a meio da partida (ou cujo servidor foi reiniciado) volta
+ * ao mesmo lugar com {@link #RETOMAR} em vez de {@link #OLA}.
+ *
+ * Os métodos {@code escrever*} codificam diretamente no buffer de destino e
+ * os métodos {@code ler*} leem os campos da trama no próprio buffer de
+ * receção, sem cópias intermédias. Textos são {@code [u16 bytes][UTF-8]}.
+ *
+ * O estado da partida é numerado: cada difusão tem a versão seguinte à
+ * anterior. Em regra só segue uma {@link #DELTA} com o que mudou desde a
+ * versão anterior; um {@link #ESTADO} completo é enviado no início, no
+ * reinício, periodicamente, a quem o pedir com {@link #PEDIR_ESTADO} e a
+ * quem estiver atrasado nas confirmações ({@link #CONFIRMAR}).
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Protocolo {
+    /** Versão do protocolo */
+    public static final int VERSAO = 2;
+
+    /** Bytes do campo de comprimento */
+    public static final int CABECALHO = 2;
+
+    /** Comprimento máximo de uma trama, sem o cabeçalho */
+    public static final int TRAMA_MAXIMA = 0xFFFF;
+
+    // Cliente -> servidor
+
+    /** Aperto de mão: u8 versão, texto nome */
+    public static final int OLA = 1;
+
+    /** Pedido para rolar o dado; sem dados */
+    public static final int ROLAR_DADO = 2;
+
+    /** Voto para reiniciar: u8 (1 sim, 0 não) */
+    public static final int VOTO_REINICIO = 3;
+
+    /** Confirmação do estado recebido: u32 versão */
+    public static final int CONFIRMAR = 4;
+
+    /** Pedido de um estado completo, depois de uma falha na sequência; sem dados */
+    public static final int PEDIR_ESTADO = 5;
+
+    /** Aperto de mão de quem volta a uma partida: u8 versão, u64 sala, u8 lugar, texto nome */
+    public static final int RETOMAR = 6;
+
+    // Servidor -> cliente
+
+    /** Resposta ao aperto de mão: u8 versão, u8 lugar, u64 sala */
+    public static final int BEM_VINDO = 16;
+
+    /** A partida vai começar; sem dados */
+    public static final int INICIO = 17;
+
+    /** Nomes dos jogadores: u8 n, n textos, pela ordem dos lugares */
+    public static final int JOGADORES = 18;
+
+    /** Tabuleiro: u8 n, n pares (cabeça, cauda) de cobras; u8 n, n pares (base, topo) de escadas */
+    public static final int TABULEIRO = 19;
+
+    /**
+     * Estado completo: u32 versão, u8 vez, u8 flags ({@link #FLAG_FIM}, {@link #FLAG_REINICIO},
+     * {@link #FLAG_EVENTO}), u8 n, n u8 posições, n u32 vitórias e, se houver
+     * evento, u8 jogador, dado, origem, aterragem, casa final e tipo de movimento.
+     */
+    public static final int ESTADO = 20;
+
+    /** Erro fatal antes de fechar a ligação: texto mensagem */
+    public static final int ERRO = 21;
+
+    /**
+     * Alterações desde a versão anterior: u32 versão, u8 vez, u8 flags, u8 k,
+     * k pares (u8 lugar, u8 posição), u8 m, m pares (u8 lugar, u32 vitórias)
+     * e, se houver evento, os mesmos seis campos do {@link #ESTADO}.
+     */
+    public static final int DELTA = 22;
+
+    /** Dados de {@link #ESTADO} sem jogadores nem evento */
+    private static final int BASE_ESTADO = 1 + 4 + 3;
+
+    /** Bytes de um evento codificado */
+    private static final int TAMANHO_EVENTO = 6;
+
+    /** Flag de {@link #ESTADO}: a partida terminou */
+    public static final int FLAG_FIM = 1;
+
+    /** Flag de {@link #ESTADO}: primeiro estado de uma partida reiniciada */
+    public static final int FLAG_REINICIO = 1 << 1;
+
+    /** Flag de {@link #ESTADO}: a trama traz a jogada que originou o estado */
+    public static final int FLAG_EVENTO = 1 << 2;
+
+    private Protocolo() {
+    }
+
+    /**
+     * Começa uma trama: reserva o comprimento e escreve o tipo.
+     *
+     * @param destino Buffer de destino
+     * @param tipo Tipo da mensagem
+     * @return Posição do campo de comprimento, a passar a {@link #terminar(ByteBuffer, int)}
+     */
+    private static int comecar(ByteBuffer destino, int tipo) {
+        int inicio = destino.position();
+        destino.putShort((short) 0);
+        destino.put((byte) tipo);
+        return inicio;
+    }
+
+    /**
+     * Termina uma trama, preenchendo o comprimento.
+     *
+     * @param destino Buffer de destino
+     * @param inicio Posição devolvida por {@link #comecar(ByteBuffer, int)}
+     */
+    private static void terminar(ByteBuffer destino, int inicio) {
+        int comprimento = destino.position() - inicio - CABECALHO;
+        if (comprimento > TRAMA_MAXIMA) {
+            throw new IllegalArgumentException("Trama demasiado grande: " + comprimento + " bytes");
+        }
+        destino.putShort(inicio, (short) comprimento);
+    }
+
+    /**
+     * Escreve um texto como {@code [u16 bytes][UTF-8]}.
+     *
+     * @param destino Buffer de destino
+     * @param texto Texto a escrever
+     */
+    private static void escreverTexto(ByteBuffer destino, String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        destino.putShort((short) bytes.length);
+        destino.put(bytes);
+    }
+
+    /**
+     * Escreve o aperto de mão do cliente.
+     *
+     * @param destino Buffer de destino
+     * @param nome Nome do jogador
+     */
+    public static void escreverOla(ByteBuffer destino, String nome) {
+        int inicio = comecar(destino, OLA);
+        destino.put((byte) VERSAO);
+        escreverTexto(destino, nome);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve o aperto de mão de um cliente que volta ao seu lugar.
+     *
+     * @param destino Buffer de destino
+     * @param sala Identificador da sala recebido em {@link #BEM_VINDO}
+     * @param lugar Lugar recebido em {@link #BEM_VINDO}
+     * @param nome Nome do jogador nesse lugar
+     */
+    public static void escreverRetomar(ByteBuffer destino, long sala, int lugar, String nome) {
+        int inicio = comecar(destino, RETOMAR);
+        destino.put((byte) VERSAO);
+        destino.putLong(sala);
+        destino.put((byte) lugar);
+        escreverTexto(destino, nome);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve um pedido para rolar o dado.
+     *
+     * @param destino Buffer de destino
+     */
+    public static void escreverRolarDado(ByteBuffer destino) {
+        terminar(destino, comecar(destino, ROLAR_DADO));
+    }
+
+    /**
+     * Escreve um voto para reiniciar a partida.
+     *
+     * @param destino Buffer de destino
+     * @param sim true para reiniciar
+     */
+    public static void escreverVotoReinicio(ByteBuffer destino, boolean sim) {
+        int inicio = comecar(destino, VOTO_REINICIO);
+        destino.put((byte) (sim ? 1 : 0));
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve a confirmação de uma versão do estado.
+     *
+     * @param destino Buffer de destino
+     * @param versao Versão recebida e aplicada
+     */
+    public static void escreverConfirmar(ByteBuffer destino, int versao) {
+        int inicio = comecar(destino, CONFIRMAR);
+        destino.putInt(versao);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve o pedido de um estado completo.
+     *
+     * @param destino Buffer de destino
+     */
+    public static void escreverPedirEstado(ByteBuffer destino) {
+        terminar(destino, comecar(destino, PEDIR_ESTADO));
+    }
+
+    /**
+     * Escreve a resposta ao aperto de mão.
+     *
+     * @param destino Buffer de destino
+     * @param lugar Lugar atribuído ao jogador
+     * @param sala Identificador da sala
+     */
+    public static void escreverBemVindo(ByteBuffer destino, int lugar, long sala) {
+        int inicio = comecar(destino, BEM_VINDO);
+        destino.put((byte) VERSAO);
+        destino.put((byte) lugar);
+        destino.putLong(sala);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve o aviso de início da partida.
+     *
+     * @param destino Buffer de destino
+     */
+    public static void escreverInicio(ByteBuffer destino) {
+        terminar(destino, comecar(destino, INICIO));
+    }
+
+    /**
+     * Escreve os nomes dos jogadores.
+     *
+     * @param destino Buffer de destino
+     * @param nomes Nomes, pela ordem dos lugares
+     */
+    public static void escreverJogadores(ByteBuffer destino, List<String> nomes) {
+        int inicio = comecar(destino, JOGADORES);
+        destino.put((byte) nomes.size());
+        for (String nome : nomes) escreverTexto(destino, nome);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve as cobras e escadas de um tabuleiro.
+     *
+     * @param destino Buffer de destino
+     * @param cobras Mapa das cobras (cabeça -> cauda)
+     * @param escadas Mapa das escadas (base -> topo)
+     */
+    public static void escreverTabuleiro(ByteBuffer destino, Map<Integer, Integer> cobras, Map<Integer, Integer> escadas) {
+        int inicio = comecar(destino, TABULEIRO);
+        destino.put((byte) cobras.size());
+        for (Map.Entry<Integer, Integer> e : cobras.entrySet()) {
+            destino.put(e.getKey().byteValue()).put(e.getValue().byteValue());
+        }
+        destino.put((byte) escadas.size());
+        for (Map.Entry<Integer, Integer> e : escadas.entrySet()) {
+            destino.put(e.getKey().byteValue()).put(e.getValue().byteValue());
+        }
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Obtém o tamanho máximo de um {@link #ESTADO} ou {@link #DELTA}.
+     *
+     * @param jogadores Número de lugares da sala
+     * @return Bytes da maior trama de estado possível, com o cabeçalho
+     */
+    public static int tamanhoMaximoEstado(int jogadores) {
+        return CABECALHO + BASE_ESTADO + 1 + 5 * jogadores + 2 * jogadores + TAMANHO_EVENTO;
+    }
+
+    /**
+     * Escreve o estado completo da partida.
+     *
+     * @param destino Buffer de destino
+     * @param versao Versão do estado
+     * @param estado Instantâneo da partida
+     * @param evento Jogada que originou o estado, ou null
+     * @param reinicio Indica se é o primeiro estado de uma partida reiniciada
+     * @param fim Indica se a partida terminou
+     */
+    public static void escreverEstado(ByteBuffer destino, int versao, InstantaneoJogo estado,
+                                      EventoMovimento evento, boolean reinicio, boolean fim) {
+        int inicio = comecar(destino, ESTADO);
+        int n = estado.getNumeroJogadores();
+        destino.putInt(versao);
+        destino.put((byte) estado.getJogadorAtual());
+        destino.put((byte) flags(evento, reinicio, fim));
+        destino.put((byte) n);
+        for (int i = 0; i < n; i++) destino.put((byte) estado.getPosicao(i));
+        for (int i = 0; i < n; i++) destino.putInt(estado.getVitorias(i));
+        escreverEvento(destino, evento);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Escreve apenas o que mudou entre dois estados consecutivos.
+     * As peças e os contadores iguais aos do estado anterior não são enviados,
+     * por isso o tamanho depende da jogada e não do número de lugares.
+     *
+     * @param destino Buffer de destino
+     * @param versao Versão do novo estado; o anterior tem a versão imediatamente abaixo
+     * @param anterior Estado difundido na versão anterior
+     * @param estado Novo estado, com o mesmo número de jogadores
+     * @param evento Jogada que originou o estado, ou null
+     * @param fim Indica se a partida terminou
+     */
+    public static void escreverDelta(ByteBuffer destino, int versao, InstantaneoJogo anterior,
+                                     InstantaneoJogo estado, EventoMovimento evento, boolean fim) {
+        int inicio = comecar(destino, DELTA);
+        int n = estado.getNumeroJogadores();
+        destino.putInt(versao);
+        destino.put((byte) estado.getJogadorAtual());
+        destino.put((byte) flags(evento, false, fim));
+        int contagem = destino.position();
+        int k = 0;
+        destino.put((byte) 0);
+        for (int i = 0; i < n; i++) {
+            if (estado.getPosicao(i) != anterior.getPosicao(i)) {
+                destino.put((byte) i).put((byte) estado.getPosicao(i));
+                k++;
+            }
+        }
+        destino.put(contagem, (byte) k);
+        contagem = destino.position();
+        k = 0;
+        destino.put((byte) 0);
+        for (int i = 0; i < n; i++) {
+            if (estado.getVitorias(i) != anterior.getVitorias(i)) {
+                destino.put((byte) i).putInt(estado.getVitorias(i));
+                k++;
+            }
+        }
+        destino.put(contagem, (byte) k);
+        escreverEvento(destino, evento);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Junta as flags de uma trama de estado.
+     *
+     * @param evento Jogada, ou null
+     * @param reinicio Indica se é o primeiro estado de uma partida reiniciada
+     * @param fim Indica se a partida terminou
+     * @return Flags combinadas
+     */
+    private static int flags(EventoMovimento evento, boolean reinicio, boolean fim) {
+        return (fim ? FLAG_FIM : 0) | (reinicio ? FLAG_REINICIO : 0) | (evento != null ? FLAG_EVENTO : 0);
+    }
+
+    /**
+     * Escreve os campos de uma jogada, se existir.
+     *
+     * @param destino Buffer de destino
+     * @param evento Jogada, ou null
+     */
+    private static void escreverEvento(ByteBuffer destino, EventoMovimento evento) {
+        if (evento != null) {
+            destino.put((byte) evento.getJogador()).put((byte) evento.getDado())
+                   .put((byte) evento.getOrigem()).put((byte) evento.getAterragem())
+                   .put((byte) evento.getCasaFinal()).put((byte) evento.getResultado());
+        }
+    }
+
+    /**
+     * Escreve uma mensagem de erro.
+     *
+     * @param destino Buffer de destino
+     * @param mensagem Descrição do erro
+     */
+    public static void escreverErro(ByteBuffer destino, String mensagem) {
+        int inicio = comecar(destino, ERRO);
+        escreverTexto(destino, mensagem);
+        terminar(destino, inicio);
+    }
+
+    /**
+     * Codifica uma trama num buffer novo, pronto a enviar.
+     *
+     * @param capacidade Capacidade máxima da trama
+     * @param escritor Código que escreve a trama
+     * @return Buffer com a trama, em modo de leitura
+     */
+    public static ByteBuffer codificar(int capacidade, Consumer<ByteBuffer> escritor) {
+        ByteBuffer buffer = ByteBuffer.allocate(capacidade);
+        escritor.accept(buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Obtém o tipo de uma trama.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @return Tipo da mensagem
+     */
+    public static int tipo(ByteBuffer trama) {
+        return trama.get(trama.position()) & 0xFF;
+    }
+
+    /**
+     * Lê um byte sem sinal dos dados de uma trama.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @param deslocamento Posição do campo a seguir ao tipo
+     * @return Valor entre 0 e 255
+     */
+    public static int lerU8(ByteBuffer trama, int deslocamento) {
+        return trama.get(trama.position() + 1 + deslocamento) & 0xFF;
+    }
+
+    /**
+     * Lê um inteiro de 32 bits dos dados de uma trama.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @param deslocamento Posição do campo a seguir ao tipo
+     * @return Valor lido
+     */
+    public static int lerInt(ByteBuffer trama, int deslocamento) {
+        return trama.getInt(trama.position() + 1 + deslocamento);
+    }
+
+    /**
+     * Lê um inteiro de 64 bits dos dados de uma trama.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @param deslocamento Posição do campo a seguir ao tipo
+     * @return Valor lido
+     */
+    public static long lerLong(ByteBuffer trama, int deslocamento) {
+        return trama.getLong(trama.position() + 1 + deslocamento);
+    }
+
+    /**
+     * Lê um texto dos dados de uma trama.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @param deslocamento Posição do campo a seguir ao tipo
+     * @return Texto lido
+     */
+    public static String lerTexto(ByteBuffer trama, int deslocamento) {
+        int pos = trama.position() + 1 + deslocamento;
+        int bytes = trama.getShort(pos) & 0xFFFF;
+        if (pos + 2 + bytes > trama.limit()) {
+            throw new IllegalArgumentException("Texto excede a trama");
+        }
+        if (trama.hasArray()) {
+            return new String(trama.array(), trama.arrayOffset() + pos + 2, bytes, StandardCharsets.UTF_8);
+        }
+        byte[] copia = new byte[bytes];
+        for (int i = 0; i < bytes; i++) copia[i] = trama.get(pos + 2 + i);
+        return new String(copia, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Obtém o espaço ocupado por um texto codificado a partir de uma posição.
+     *
+     * @param trama Trama recebida, posicionada no byte do tipo
+     * @param deslocamento Posição do texto a seguir ao tipo
+     * @return Bytes ocupados pelo texto, incluindo o comprimento
+     */
+    public static int tamanhoTexto(ByteBuffer trama, int deslocamento) {
+        return 2 + (trama.getShort(trama.position() + 1 + deslocamento) & 0xFFFF);
+    }
+}
@@ -0,0 +1,160 @@
+package com.mycompany.snake_ladder.rede;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Servidor TCP não bloqueante com um ou mais {@link CicloEventos}.
+ *
+ * O socket de escuta é atendido pelo primeiro ciclo; cada ligação aceite é
+ * entregue ao ciclo seguinte, em rotação, e fica nele até fechar. Com um
+ * ciclo por núcleo o servidor escala com a máquina, e cada sala de jogo
+ * pode ser presa a um ciclo com {@link #getCiclo(int)}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class ServidorRede {
+    /** Ciclos de eventos do servidor */
+    private final CicloEventos[] ciclos;
+
+    /** Tratador das ligações aceites */
+    private final TratadorLigacao tratador;
+
+    /** Canal de escuta, aberto em {@link #iniciar(InetSocketAddress)} */
+    private ServerSocketChannel escuta;
+
+    /** Índice do ciclo que recebe a próxima ligação; só usado no primeiro ciclo */
+    private int proximoCiclo;
+
+    /**
+     * Cria um servidor com um ciclo de eventos por núcleo.
+     *
+     * @param tratador Tratador das ligações aceites
+     * @throws IOException Se não for possível abrir os seletores
+     */
+    public ServidorRede(TratadorLigacao tratador) throws IOException {
+        this(Runtime.getRuntime().availableProcessors(), tratador);
+    }
+
+    /**
+     * Cria um servidor com um número fixo de ciclos de eventos.
+     *
+     * @param numCiclos Número de ciclos (threads de rede)
+     * @param tratador Tratador das ligações aceites
+     * @throws IOException Se não for possível abrir os seletores
+     */
+    public ServidorRede(int numCiclos, TratadorLigacao tratador) throws IOException {
+        if (numCiclos < 1) {
+            throw new IllegalArgumentException("É preciso pelo menos um ciclo de eventos");
+        }
+        this.tratador = tratador;
+        this.ciclos = new CicloEventos[numCiclos];
+        for (int i = 0; i < numCiclos; i++) {
+            ciclos[i] = new CicloEventos("rede-" + i);
+        }
+    }
+
+    /**
+     * Abre o socket de escuta e arranca os ciclos de eventos.
+     * Só regressa depois de o socket estar registado, por isso os clientes
+     * podem ligar-se logo a seguir.
+     *
+     * @param endereco Endereço e porta de escuta
+     * @throws IOException Se não for possível abrir o socket
+     */
+    public void iniciar(InetSocketAddress endereco) throws IOException {
+        escuta = ServerSocketChannel.open();
+        escuta.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        escuta.bind(endereco, 1024);
+        escuta.configureBlocking(false);
+        for (CicloEventos ciclo : ciclos) ciclo.iniciar();
+
+        CompletableFuture<Void> registado = new CompletableFuture<>();
+        ciclos[0].executar(() -> {
+            try {
+                ciclos[0].registarCanal(escuta, SelectionKey.OP_ACCEPT, this);
+                registado.complete(null);
+            } catch (IOException e) {
+                registado.completeExceptionally(e);
+            }
+        });
+        try {
+            registado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrompido ao iniciar o servidor", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Não foi possível escutar em " + endereco, e.getCause());
+        }
+    }
+
+    /**
+     * Aceita todas as ligações pendentes e reparte-as pelos ciclos.
+     * Chamado pelo primeiro ciclo quando o socket de escuta fica pronto.
+     */
+    void aceitar() {
+        while (true) {
+            SocketChannel canal;
+            try {
+                canal = escuta.accept();
+                if (canal == null) return;
+                canal.configureBlocking(false);
+                canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            CicloEventos ciclo = ciclos[proximoCiclo];
+            proximoCiclo = (proximoCiclo + 1) % ciclos.length;
+            ciclo.registar(canal, tratador);
+        }
+    }
+
+    /**
+     * Obtém a porta onde o servidor está a escutar.
+     *
+     * @return Porta local, útil quando se pediu a porta 0
+     * @throws IOException Se o socket não estiver aberto
+     */
+    public int getPorta() throws IOException {
+        return ((InetSocketAddress) escuta.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Obtém o número de ciclos de eventos.
+     *
+     * @return Número de ciclos
+     */
+    public int getNumeroCiclos() {
+        return ciclos.length;
+    }
+
+    /**
+     * Obtém um ciclo de eventos, por exemplo para lhe prender uma sala.
+     *
+     * @param indice Índice do ciclo (pode exceder o número de ciclos; é usado o resto)
+     * @return Ciclo de eventos
+     */
+    public CicloEventos getCiclo(int indice) {
+        return ciclos[Math.floorMod(indice, ciclos.length)];
+    }
+
+    /**
+     * Fecha o socket de escuta e pára todos os ciclos, fechando as ligações.
+     */
+    public void parar() {
+        try {
+            if (escuta != null) escuta.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        for (CicloEventos ciclo : ciclos) ciclo.parar();
+    }
+}
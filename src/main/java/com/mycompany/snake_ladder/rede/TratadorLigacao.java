@@ -0,0 +1,40 @@
+package com.mycompany.snake_ladder.rede;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Recebe os acontecimentos de rede de uma {@link Ligacao}.
+ *
+ * Todos os métodos são chamados na thread do {@link CicloEventos} a que a
+ * ligação pertence, por isso não podem bloquear: qualquer trabalho demorado
+ * deve ser entregue a outro ciclo com {@link CicloEventos#executar(Runnable)}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public interface TratadorLigacao {
+    /**
+     * Chamado quando um cliente acabou de se ligar.
+     *
+     * @param ligacao Ligação nova
+     */
+    void aoLigar(Ligacao ligacao);
+
+    /**
+     * Chamado por cada trama completa recebida do cliente.
+     * A trama é uma vista do buffer de leitura do ciclo, válida apenas
+     * durante a chamada: quem precisar dos dados noutra thread deve
+     * extraí-los antes de regressar.
+     *
+     * @param ligacao Ligação que enviou a trama
+     * @param trama Trama posicionada no byte do tipo, com o limite no seu fim
+     */
+    void aoReceber(Ligacao ligacao, ByteBuffer trama);
+
+    /**
+     * Chamado uma única vez quando a ligação é fechada, por qualquer motivo.
+     *
+     * @param ligacao Ligação fechada
+     */
+    void aoDesligar(Ligacao ligacao);
+}
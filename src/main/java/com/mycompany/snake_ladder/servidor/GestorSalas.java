@@ -0,0 +1,428 @@
+package com.mycompany.snake_ladder.servidor;
+
+import com.mycompany.snake_ladder.persistencia.Classificacao;
+import com.mycompany.snake_ladder.persistencia.Compactador;
+import com.mycompany.snake_ladder.persistencia.Diario;
+import com.mycompany.snake_ladder.persistencia.SalaGuardada;
+import com.mycompany.snake_ladder.rede.Ligacao;
+import com.mycompany.snake_ladder.rede.ServidorRede;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gestor de muitas salas de jogo independentes num só processo.
+ *
+ * Cada cliente que faz o aperto de mão é sentado na sala em espera; quando
+ * ela enche, ou quando passa o tempo de espera com pelo menos dois jogadores,
+ * a partida começa e as próximas entradas vão para uma sala nova. As salas
+ * são repartidas em rotação pelos ciclos de eventos do {@link ServidorRede}
+ * e removidas quando o último jogador sai.
+ *
+ * Só a escolha da sala é feita com lock; tudo o resto corre no ciclo de cada
+ * sala. Os contadores por sala e agregados podem ser lidos a qualquer momento.
+ * Com um {@link Diario}, todas as salas registam nele a sua história e, ao
+ * arrancar, as partidas que estavam a decorrer são recriadas a partir do
+ * último instantâneo e do resto do diário, para os jogadores as retomarem.
+ * Com uma {@link Classificacao}, cada partida terminada conta para as
+ * estatísticas dos seus jogadores.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class GestorSalas extends TratadorComandos implements OuvinteSala {
+    /** Jogadores necessários para o tempo de espera começar a contar */
+    private static final int MINIMO_JOGADORES = 2;
+
+    /** Servidor de rede cujos ciclos alojam as salas */
+    private final ServidorRede servidor;
+
+    /** Lugares de cada sala */
+    private final int lugaresPorSala;
+
+    /** Tempo de espera por mais jogadores, em milissegundos */
+    private final long esperaInicioMs;
+
+    /** Diário partilhado pelas salas, ou null */
+    private final Diario diario;
+
+    /** Classificação dos jogadores, ou null */
+    private final Classificacao classificacao;
+
+    /** Salas abertas, por identificador */
+    private final Map<Long, Sala> salas = new ConcurrentHashMap<>();
+
+    /** Gerador de identificadores de sala */
+    private final AtomicLong proximoId = new AtomicLong();
+
+    /** Jogadas das salas já fechadas */
+    private final LongAdder jogadasSalasFechadas = new LongAdder();
+
+    /** Partidas concluídas nas salas já fechadas */
+    private final LongAdder jogosSalasFechadas = new LongAdder();
+
+    /** Instante de criação do gestor, em nanossegundos */
+    private final long criadoEm = System.nanoTime();
+
+    /** Sala que está a receber jogadores; protegida pelo lock do gestor */
+    private Sala salaEmEspera;
+
+    /** Salas recriadas a partir do diário no arranque */
+    private int salasRecuperadas;
+
+    /** Registos do diário reproduzidos no arranque */
+    private long registosRecuperados;
+
+    /** Jogadas que as salas recuperadas já tinham antes do arranque */
+    private long jogadasRecuperadas;
+
+    /** Duração da recuperação no arranque, em milissegundos */
+    private long tempoRecuperacaoMs;
+
+    /**
+     * Cria um gestor e o respetivo servidor de rede.
+     *
+     * @param numCiclos Número de ciclos de eventos (threads de rede e de jogo)
+     * @param lugaresPorSala Lugares de cada sala
+     * @param esperaInicioMs Tempo máximo de espera por uma sala cheia, depois de haver dois jogadores
+     * @throws IOException Se não for possível abrir os seletores
+     */
+    public GestorSalas(int numCiclos, int lugaresPorSala, long esperaInicioMs) throws IOException {
+        this(numCiclos, lugaresPorSala, esperaInicioMs, null);
+    }
+
+    /**
+     * Cria um gestor cujas salas registam a sua história num diário.
+     *
+     * @param numCiclos Número de ciclos de eventos (threads de rede e de jogo)
+     * @param lugaresPorSala Lugares de cada sala
+     * @param esperaInicioMs Tempo máximo de espera por uma sala cheia, depois de haver dois jogadores
+     * @param diario Diário das salas, ou null para não registar nada
+     * @throws IOException Se não for possível abrir os seletores
+     */
+    public GestorSalas(int numCiclos, int lugaresPorSala, long esperaInicioMs, Diario diario) throws IOException {
+        this(numCiclos, lugaresPorSala, esperaInicioMs, diario, null);
+    }
+
+    /**
+     * Cria um gestor com diário e classificação dos jogadores.
+     *
+     * @param numCiclos Número de ciclos de eventos (threads de rede e de jogo)
+     * @param lugaresPorSala Lugares de cada sala
+     * @param esperaInicioMs Tempo máximo de espera por uma sala cheia, depois de haver dois jogadores
+     * @param diario Diário das salas, ou null para não registar nada
+     * @param classificacao Classificação onde contam as partidas terminadas, ou null
+     * @throws IOException Se não for possível abrir os seletores
+     */
+    public GestorSalas(int numCiclos, int lugaresPorSala, long esperaInicioMs, Diario diario,
+            Classificacao classificacao) throws IOException {
+        if (lugaresPorSala < MINIMO_JOGADORES) {
+            throw new IllegalArgumentException("Cada sala precisa de pelo menos " + MINIMO_JOGADORES + " lugares");
+        }
+        if (lugaresPorSala > Sala.LUGARES_MAXIMOS) {
+            throw new IllegalArgumentException("Cada sala tem no máximo " + Sala.LUGARES_MAXIMOS + " lugares");
+        }
+        this.lugaresPorSala = lugaresPorSala;
+        this.esperaInicioMs = esperaInicioMs;
+        this.diario = diario;
+        this.classificacao = classificacao;
+        this.servidor = new ServidorRede(numCiclos, this);
+    }
+
+    /**
+     * Recupera as salas do diário, se houver, abre-o, carrega a classificação
+     * e começa a aceitar clientes.
+     *
+     * @param endereco Endereço e porta de escuta
+     * @throws IOException Se não for possível ler ou abrir o diário ou a classificação, ou abrir o socket
+     */
+    public void iniciar(InetSocketAddress endereco) throws IOException {
+        if (classificacao != null) classificacao.iniciar();
+        if (diario != null) {
+            recuperar();
+            diario.iniciar();
+        }
+        servidor.iniciar(endereco);
+    }
+
+    /**
+     * Recria as partidas que o diário mostra a decorrer: carrega o último
+     * instantâneo, reproduz os segmentos seguintes e entrega cada sala ao seu
+     * ciclo, antes de a rede aceitar clientes. As salas de que o diário
+     * perdeu registos não são recriadas. Os identificadores novos continuam
+     * acima de todos os que aparecem no diário.
+     *
+     * @throws IOException Se não for possível ler o diário
+     */
+    private synchronized void recuperar() throws IOException {
+        long inicio = System.nanoTime();
+        Map<Long, SalaGuardada> guardadas = new HashMap<>();
+        int desde = Compactador.carregar(diario.getPasta(), guardadas);
+        registosRecuperados = Compactador.reproduzir(diario.getPasta(), desde, Integer.MAX_VALUE, guardadas);
+        long maiorId = -1;
+        for (SalaGuardada guardada : guardadas.values()) {
+            maiorId = Math.max(maiorId, guardada.getId());
+            if (guardada.isFechada() || !guardada.isIniciada()) continue;
+            if (guardada.isIncompleta()) {
+                System.err.println("Sala " + guardada.getId() + " não recuperada: o diário perdeu registos dela");
+                continue;
+            }
+            long id = guardada.getId();
+            Sala sala = new Sala(id, servidor.getCiclo((int) id), guardada.getNumeroJogadores(), this, diario);
+            sala.fecharInscricoes();
+            salas.put(id, sala);
+            sala.getCiclo().executar(() -> sala.restaurar(guardada));
+            salasRecuperadas++;
+            jogadasRecuperadas += guardada.getJogadas();
+        }
+        proximoId.set(maiorId + 1);
+        tempoRecuperacaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    /**
+     * Pára o servidor, fechando todas as ligações. O diário é fechado antes
+     * da rede, por isso o fecho das ligações no encerramento não fica
+     * registado como saída dos jogadores; a classificação é gravada no fim.
+     */
+    public void parar() {
+        if (diario != null) diario.parar();
+        servidor.parar();
+        if (classificacao != null) classificacao.parar();
+    }
+
+    /**
+     * Obtém a classificação dos jogadores.
+     *
+     * @return Classificação, ou null se o gestor não tiver nenhuma
+     */
+    public Classificacao getClassificacao() {
+        return classificacao;
+    }
+
+    /**
+     * Obtém o servidor de rede do gestor.
+     *
+     * @return Servidor de rede
+     */
+    public ServidorRede getServidor() {
+        return servidor;
+    }
+
+    @Override
+    protected void entrar(Ligacao ligacao, String nome) {
+        colocar(ligacao, nome);
+    }
+
+    @Override
+    protected void retomar(Ligacao ligacao, long id, int lugar, String nome) {
+        Sala sala = salas.get(id);
+        if (sala == null) {
+            recusar(ligacao, "A sala " + id + " já não existe");
+            return;
+        }
+        naSala(sala, () -> {
+            if (!sala.retomar(ligacao, lugar, nome)) {
+                recusar(ligacao, "Não é possível voltar ao lugar " + lugar + " da sala " + id);
+            }
+        });
+    }
+
+    /**
+     * Reserva um lugar para o jogador e entrega a entrada ao ciclo da sala.
+     * A reserva e a entrega são feitas com o lock, por isso a entrada chega
+     * ao ciclo antes do início da partida que essa reserva possa provocar.
+     *
+     * @param ligacao Ligação do jogador
+     * @param nome Nome do jogador
+     */
+    private synchronized void colocar(Ligacao ligacao, String nome) {
+        int reservados = salaEmEspera == null ? -1 : salaEmEspera.reservarLugar();
+        if (reservados < 0) {
+            salaEmEspera = criarSala();
+            reservados = salaEmEspera.reservarLugar();
+        }
+        Sala sala = salaEmEspera;
+        sala.getCiclo().executar(() -> {
+            if (!sala.entrar(ligacao, nome)) {
+                libertarLugar(sala);
+                if (ligacao.isAberta()) colocar(ligacao, nome);
+            }
+        });
+
+        if (reservados == lugaresPorSala) {
+            comecar(sala);
+        } else if (reservados == MINIMO_JOGADORES) {
+            sala.getCiclo().agendar(() -> comecarPorTempo(sala), esperaInicioMs);
+        }
+    }
+
+    /**
+     * Cria uma sala nova, presa ao próximo ciclo de eventos.
+     *
+     * @return Sala criada
+     */
+    private Sala criarSala() {
+        long id = proximoId.getAndIncrement();
+        Sala sala = new Sala(id, servidor.getCiclo((int) id), lugaresPorSala, this, diario);
+        salas.put(id, sala);
+        return sala;
+    }
+
+    /**
+     * Fecha as inscrições de uma sala e manda-a começar.
+     * Chamado apenas com o lock do gestor.
+     *
+     * @param sala Sala a começar
+     */
+    private void comecar(Sala sala) {
+        if (!sala.fecharInscricoes()) return;
+        if (salaEmEspera == sala) salaEmEspera = null;
+        sala.getCiclo().executar(sala::iniciar);
+    }
+
+    /**
+     * Começa uma sala que esperou o tempo máximo, se ainda tiver dois jogadores.
+     *
+     * @param sala Sala cujo tempo de espera terminou
+     */
+    private synchronized void comecarPorTempo(Sala sala) {
+        if (sala.getFase() == Sala.ESPERA && sala.getNumeroJogadores() >= MINIMO_JOGADORES) {
+            comecar(sala);
+        }
+    }
+
+    /**
+     * Liberta um lugar reservado que não chegou a ser ocupado ou foi deixado.
+     *
+     * @param sala Sala do lugar
+     */
+    private synchronized void libertarLugar(Sala sala) {
+        sala.libertarLugar();
+    }
+
+    @Override
+    public void jogadorSaiu(Sala sala, String nome) {
+        libertarLugar(sala);
+    }
+
+    @Override
+    public void partidaTerminada(Sala sala, List<String> nomes, int vencedor, long jogadas, long duracaoMs) {
+        if (classificacao != null) classificacao.registarPartida(nomes, vencedor, jogadas, duracaoMs);
+    }
+
+    @Override
+    public synchronized void salaFechada(Sala sala) {
+        sala.fecharInscricoes();
+        if (salaEmEspera == sala) salaEmEspera = null;
+        if (salas.remove(sala.getId()) != null) {
+            jogadasSalasFechadas.add(sala.getJogadas());
+            jogosSalasFechadas.add(sala.getJogosConcluidos());
+        }
+    }
+
+    /**
+     * Obtém o número de salas recriadas a partir do diário no arranque.
+     *
+     * @return Salas recuperadas
+     */
+    public int getSalasRecuperadas() {
+        return salasRecuperadas;
+    }
+
+    /**
+     * Obtém o número de registos do diário reproduzidos no arranque.
+     *
+     * @return Registos reproduzidos por cima do último instantâneo
+     */
+    public long getRegistosRecuperados() {
+        return registosRecuperados;
+    }
+
+    /**
+     * Obtém quanto tempo demorou a recuperação no arranque.
+     *
+     * @return Duração em milissegundos
+     */
+    public long getTempoRecuperacaoMs() {
+        return tempoRecuperacaoMs;
+    }
+
+    /**
+     * Obtém as salas abertas, para consultar as estatísticas de cada uma.
+     *
+     * @return Vista só de leitura das salas abertas
+     */
+    public Collection<Sala> getSalas() {
+        return Collections.unmodifiableCollection(salas.values());
+    }
+
+    /**
+     * Obtém o número de salas abertas.
+     *
+     * @return Salas abertas
+     */
+    public int getNumeroSalas() {
+        return salas.size();
+    }
+
+    /**
+     * Obtém o total de jogadas em todas as salas, abertas ou já fechadas.
+     * As salas recuperadas do diário trazem as jogadas de antes do arranque.
+     *
+     * @return Jogadas desde o arranque, mais as das salas recuperadas
+     */
+    public long getJogadasTotais() {
+        long total = jogadasSalasFechadas.sum();
+        for (Sala sala : salas.values()) total += sala.getJogadas();
+        return total;
+    }
+
+    /**
+     * Obtém o total de partidas concluídas em todas as salas.
+     *
+     * @return Partidas concluídas desde o arranque, mais as das salas recuperadas
+     */
+    public long getJogosConcluidosTotais() {
+        long total = jogosSalasFechadas.sum();
+        for (Sala sala : salas.values()) total += sala.getJogosConcluidos();
+        return total;
+    }
+
+    /**
+     * Obtém o ritmo médio de jogadas de todo o servidor desde o arranque.
+     *
+     * @return Jogadas por segundo
+     */
+    public double getJogadasPorSegundo() {
+        double segundos = (System.nanoTime() - criadoEm) / 1e9;
+        return segundos > 0 ? (getJogadasTotais() - jogadasRecuperadas) / segundos : 0;
+    }
+
+    /**
+     * Resume o estado do servidor numa linha, para registo.
+     *
+     * @return Salas abertas, jogadas, partidas, ritmo e, havendo diário ou classificação, o seu estado
+     */
+    public String resumo() {
+        String texto = String.format("salas=%d jogadas=%d partidas=%d ritmo=%.1f jogadas/s",
+            getNumeroSalas(), getJogadasTotais(), getJogosConcluidosTotais(), getJogadasPorSegundo());
+        if (diario != null) {
+            texto += String.format(" diario=%d registos (%d perdidos, segmento %d)",
+                diario.getRegistosGravados(), diario.getRegistosPerdidos(), diario.getSegmentoAtual());
+        }
+        if (classificacao != null) {
+            texto += String.format(" classificacao=%d jogadores (%d idas ao disco)",
+                classificacao.getNumeroJogadores(), classificacao.getIdasAoDisco());
+        }
+        return texto;
+    }
+}
@@ -0,0 +1,53 @@
+package com.mycompany.snake_ladder.servidor;
+
+import java.util.List;
+
+/**
+ * Recebe as mudanças de ocupação e de ciclo de vida de uma {@link Sala}.
+ *
+ * Os métodos são chamados na thread do ciclo de eventos da sala.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public interface OuvinteSala {
+    /**
+     * Chamado quando um jogador ocupa um lugar na sala.
+     *
+     * @param sala Sala onde o jogador entrou
+     * @param lugar Lugar ocupado
+     * @param nome Nome do jogador
+     */
+    default void jogadorEntrou(Sala sala, int lugar, String nome) {
+    }
+
+    /**
+     * Chamado quando um jogador sai da sala antes de a partida começar,
+     * ou quando a sua ligação fecha antes de chegar a entrar.
+     *
+     * @param sala Sala que o jogador deixou
+     * @param nome Nome do jogador
+     */
+    default void jogadorSaiu(Sala sala, String nome) {
+    }
+
+    /**
+     * Chamado quando alguém ganha uma partida da sala.
+     *
+     * @param sala Sala onde a partida terminou
+     * @param nomes Nomes dos jogadores da partida, por lugar; só válidos durante a chamada
+     * @param vencedor Lugar de quem ganhou
+     * @param jogadas Jogadas feitas na partida
+     * @param duracaoMs Duração da partida, em milissegundos
+     */
+    default void partidaTerminada(Sala sala, List<String> nomes, int vencedor, long jogadas, long duracaoMs) {
+    }
+
+    /**
+     * Chamado uma única vez quando a sala é fechada.
+     *
+     * @param sala Sala fechada
+     */
+    default void salaFechada(Sala sala) {
+    }
+}
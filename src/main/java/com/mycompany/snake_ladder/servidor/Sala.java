@@ -0,0 +1,760 @@
+package com.mycompany.snake_ladder.servidor;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+import com.mycompany.snake_ladder.model.GeradorSplittable;
+import com.mycompany.snake_ladder.model.InstantaneoJogo;
+import com.mycompany.snake_ladder.model.Jogo;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import com.mycompany.snake_ladder.persistencia.Diario;
+import com.mycompany.snake_ladder.persistencia.Registo;
+import com.mycompany.snake_ladder.persistencia.SalaGuardada;
+import com.mycompany.snake_ladder.rede.CicloEventos;
+import com.mycompany.snake_ladder.rede.Ligacao;
+import com.mycompany.snake_ladder.rede.Protocolo;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Uma mesa de jogo: o seu tabuleiro, os lugares, os votos de reinício e o
+ * ciclo de vida (espera, em jogo, fechada).
+ *
+ * Cada sala está presa a um {@link CicloEventos} e todos os métodos públicos
+ * que alteram o estado têm de ser chamados na thread desse ciclo; assim a
+ * partida dispensa locks, e salas em ciclos diferentes correm em paralelo.
+ * Os contadores de jogadas e de partidas são voláteis para poderem ser
+ * lidos por outras threads (estatísticas).
+ *
+ * O estado é difundido com versões consecutivas. Cada jogada segue como
+ * uma delta codificada uma só vez; quem estiver demasiado atrasado nas
+ * confirmações recebe antes um estado completo, que pode ser substituído
+ * na fila pelo seguinte.
+ *
+ * Com um {@link Diario}, o início da partida, cada tabuleiro, jogada, voto,
+ * reinício e saída ficam registados, sem que a sala espere pelo disco.
+ * Depois de um reinício do servidor, a sala é recriada a partir do diário
+ * ({@link #restaurar(SalaGuardada)}) com todos os lugares vagos, e cada
+ * jogador volta ao seu com {@link #retomar(Ligacao, int, String)}.
+ *
+ * Cada partida tem um {@link GeradorSplittable} próprio, cuja semente vai
+ * para o diário: os tabuleiros e os dados de uma partida real podem ser
+ * repetidos a partir dela, e uma sala restaurada continua a mesma sequência.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class Sala {
+    /** Fase da sala: à espera de jogadores */
+    public static final int ESPERA = 0;
+
+    /** Fase da sala: partida a decorrer */
+    public static final int EM_JOGO = 1;
+
+    /** Fase da sala: fechada, sem jogadores */
+    public static final int FECHADA = 2;
+
+    /** Número máximo de lugares de uma sala: o lugar viaja num byte do protocolo */
+    public static final int LUGARES_MAXIMOS = 255;
+
+    /** De quantas em quantas versões é difundido um estado completo */
+    private static final int PERIODO_ESTADO_COMPLETO = 64;
+
+    /** Versões por confirmar a partir das quais um cliente recebe estados completos */
+    private static final int JANELA_CONFIRMACAO = 8;
+
+    /** Tempo dado aos jogadores de uma sala restaurada para voltarem, em milissegundos */
+    private static final long ESPERA_RETOMA_MS = 60_000;
+
+    /** Identificador da sala */
+    private final long id;
+
+    /** Ciclo de eventos onde corre a sala */
+    private final CicloEventos ciclo;
+
+    /** Número máximo de lugares */
+    private final int lugares;
+
+    /** Quem é avisado das entradas, saídas e do fecho */
+    private final OuvinteSala ouvinte;
+
+    /** Diário onde a sala regista o que acontece, ou null */
+    private final Diario diario;
+
+    /** Ligações dos jogadores, indexadas pelo lugar; null num lugar restaurado a que ninguém voltou */
+    private final List<Ligacao> ligacoes = new ArrayList<>();
+
+    /** Nomes dos jogadores, indexados pelo lugar */
+    private final List<String> nomesJogadores = new ArrayList<>();
+
+    /** Partida da sala, criada em {@link #iniciar()} */
+    private Jogo jogo;
+
+    /** Gerador da partida: dá a semente de cada tabuleiro e, dividido, lança o dado */
+    private GeradorSplittable gerador;
+
+    /** Indica se a partida atual já terminou */
+    private boolean jogoFinalizado = false;
+
+    /** Lugares que já votaram para reiniciar a partida terminada */
+    private boolean[] votosReinicio;
+
+    /** Versão do último estado difundido */
+    private int versaoEstado;
+
+    /** Último estado difundido, base da próxima delta */
+    private InstantaneoJogo ultimoEstado;
+
+    /** Última versão confirmada por cada lugar */
+    private int[] versoesConfirmadas;
+
+    /** Buffer onde são codificados os estados antes de terem o tamanho certo */
+    private ByteBuffer rascunho;
+
+    /** Fase atual da sala */
+    private volatile int fase = ESPERA;
+
+    /** Jogadas da partida atual */
+    private long jogadasPartida;
+
+    /** Instante em que a partida atual começou, em nanossegundos */
+    private long inicioPartida;
+
+    /** Jogadas feitas nesta sala */
+    private volatile long jogadas;
+
+    /** Partidas terminadas nesta sala */
+    private volatile long jogosConcluidos;
+
+    /** Jogadas trazidas do diário por {@link #restaurar(SalaGuardada)}, fora do ritmo */
+    private volatile long jogadasRestauradas;
+
+    /** Instante de criação, em nanossegundos */
+    private final long criadaEm = System.nanoTime();
+
+    /** Lugares reservados pelo {@link GestorSalas}; protegido pelo lock do gestor */
+    private int reservas;
+
+    /** Indica se o gestor ainda envia jogadores; protegido pelo lock do gestor */
+    private boolean inscricoesAbertas = true;
+
+    /**
+     * Cria uma sala vazia.
+     *
+     * @param id Identificador da sala
+     * @param ciclo Ciclo de eventos onde a sala corre
+     * @param lugares Número máximo de jogadores, até {@link #LUGARES_MAXIMOS}
+     * @param ouvinte Quem é avisado das mudanças da sala
+     */
+    public Sala(long id, CicloEventos ciclo, int lugares, OuvinteSala ouvinte) {
+        this(id, ciclo, lugares, ouvinte, null);
+    }
+
+    /**
+     * Cria uma sala vazia que regista a sua história num diário.
+     *
+     * @param id Identificador da sala
+     * @param ciclo Ciclo de eventos onde a sala corre
+     * @param lugares Número máximo de jogadores, até {@link #LUGARES_MAXIMOS}
+     * @param ouvinte Quem é avisado das mudanças da sala
+     * @param diario Diário da sala, ou null para não registar nada
+     */
+    public Sala(long id, CicloEventos ciclo, int lugares, OuvinteSala ouvinte, Diario diario) {
+        if (lugares < 1 || lugares > LUGARES_MAXIMOS) {
+            throw new IllegalArgumentException("Uma sala tem entre 1 e " + LUGARES_MAXIMOS + " lugares");
+        }
+        this.id = id;
+        this.ciclo = ciclo;
+        this.lugares = lugares;
+        this.ouvinte = ouvinte;
+        this.diario = diario;
+    }
+
+    /**
+     * Senta um jogador no próximo lugar livre.
+     *
+     * @param ligacao Ligação do jogador
+     * @param nome Nome do jogador
+     * @return true se o jogador ficou sentado; false se a sala já começou,
+     *         está cheia ou a ligação entretanto fechou
+     */
+    public boolean entrar(Ligacao ligacao, String nome) {
+        if (fase != ESPERA || ligacoes.size() >= lugares || !ligacao.isAberta()) {
+            return false;
+        }
+        ligacao.setAnexo(this);
+        if (!ligacao.isAberta()) {
+            // Fechou entre a verificação e o anexo: quem a fechou pode não ter visto esta sala
+            ligacao.setAnexo(null);
+            return false;
+        }
+        ligacoes.add(ligacao);
+        nomesJogadores.add(nome);
+        int lugar = ligacoes.size() - 1;
+        ligacao.enviar(Protocolo.codificar(16, b -> Protocolo.escreverBemVindo(b, lugar, id)));
+        ouvinte.jogadorEntrou(this, lugar, nome);
+        return true;
+    }
+
+    /**
+     * Trata a saída de um jogador cuja ligação fechou.
+     * Antes da partida o lugar é libertado; durante a partida o lugar fica
+     * vago e a vez salta por cima dele. A sala fecha quando não resta ninguém.
+     *
+     * @param ligacao Ligação que fechou
+     */
+    public void sair(Ligacao ligacao) {
+        int lugar = ligacoes.indexOf(ligacao);
+        if (lugar < 0 || fase == FECHADA) return;
+        if (fase == ESPERA) {
+            ligacoes.remove(lugar);
+            String nome = nomesJogadores.remove(lugar);
+            ouvinte.jogadorSaiu(this, nome);
+            return;
+        }
+        boolean passaVez = getJogadoresPresentes() > 0 && !jogoFinalizado && jogo.getJogadorAtualIndex() == lugar;
+        if (passaVez) saltarAusentes();
+        if (diario != null) diario.registar(Registo.saida(id, lugar, jogo.getJogadorAtualIndex()));
+        if (getJogadoresPresentes() == 0) {
+            fechar();
+        } else if (passaVez) {
+            broadcastEstado(null, false, false);
+        } else if (jogoFinalizado) {
+            // O voto de quem sai deixa de contar, e os que ficam podem já ter votado todos
+            votosReinicio[lugar] = false;
+            if (todosVotaram()) reiniciarJogo();
+        }
+    }
+
+    /**
+     * Começa a partida com os jogadores sentados: cria o tabuleiro e o jogo
+     * e avisa os clientes. Uma sala sem ninguém é fechada.
+     */
+    public void iniciar() {
+        if (fase != ESPERA) return;
+        if (getJogadoresPresentes() == 0) {
+            fechar();
+            return;
+        }
+        fase = EM_JOGO;
+        inicioPartida = System.nanoTime();
+
+        // Um gerador por partida: com a sua semente no diário, tabuleiros e dados podem ser repetidos
+        long semente = GeradorSplittable.novaSemente();
+        gerador = new GeradorSplittable(semente);
+        GeradorSplittable dado = gerador.dividir();
+        Tabuleiro tabuleiro = new Tabuleiro(gerador.proximaSemente());
+        jogo = new Jogo(nomesJogadores, tabuleiro, dado);
+        versoesConfirmadas = new int[ligacoes.size()];
+        votosReinicio = new boolean[ligacoes.size()];
+        rascunho = ByteBuffer.allocate(Protocolo.tamanhoMaximoEstado(ligacoes.size()));
+        if (diario != null) {
+            diario.registar(Registo.salaAberta(id, nomesJogadores, semente));
+            diario.registar(Registo.tabuleiro(id, tabuleiro.getCobras(), tabuleiro.getEscadas(), tabuleiro.getSemente()));
+        }
+
+        // Primeiro, avisar todos os clientes para migrarem para o tabuleiro
+        difundir(Protocolo.codificar(Protocolo.CABECALHO + 1, Protocolo::escreverInicio), false);
+
+        // Dar um segundo aos clientes para mudarem de tela, sem bloquear o ciclo
+        ciclo.agendar(() -> {
+            if (fase != EM_JOGO) return;
+            difundir(codificarJogadores(), false);
+            difundir(codificarMapas(tabuleiro), false);
+            // Enviar estado inicial para todos
+            broadcastEstado(null, false, false);
+        }, 1000);
+    }
+
+    /**
+     * Recria uma partida guardada no diário, com todos os lugares vagos à
+     * espera de que os jogadores voltem. A versão do estado recomeça, porque
+     * quem volta recebe sempre um estado completo. Se passado
+     * {@link #ESPERA_RETOMA_MS} ninguém tiver voltado a sala fecha; se só
+     * faltar alguém, esses lugares ficam como os de quem saiu. Os
+     * contadores de jogadas e de partidas continuam os da sala guardada.
+     *
+     * @param guardada Estado reconstruído da sala
+     */
+    void restaurar(SalaGuardada guardada) {
+        if (fase != ESPERA || !ligacoes.isEmpty()) return;
+        int n = guardada.getNumeroJogadores();
+        nomesJogadores.addAll(guardada.getNomes());
+        for (int i = 0; i < n; i++) ligacoes.add(null);
+        GeradorSplittable dado;
+        if (guardada.getSemente() != null) {
+            // O gerador volta ao ponto onde estava: cada tabuleiro tirou uma semente e cada jogada um dado
+            gerador = new GeradorSplittable(guardada.getSemente());
+            dado = gerador.dividir();
+            for (int i = 0; i < guardada.getTabuleiros(); i++) gerador.proximaSemente();
+            for (long i = 0; i < guardada.getJogadas(); i++) dado.rolarDado();
+        } else {
+            gerador = new GeradorSplittable();
+            dado = gerador.dividir();
+        }
+        jogo = new Jogo(nomesJogadores, new Tabuleiro(guardada.getCobras(), guardada.getEscadas()), dado);
+        for (int i = 0; i < n; i++) {
+            jogo.setPosicaoJogador(i, guardada.getPosicao(i));
+            jogo.setVitoriasJogador(i, guardada.getVitorias(i));
+        }
+        jogo.setJogadorAtual(guardada.getVez());
+        jogoFinalizado = guardada.isFinalizado();
+        jogo.setJogoFinalizado(jogoFinalizado);
+        versoesConfirmadas = new int[n];
+        votosReinicio = new boolean[n];
+        rascunho = ByteBuffer.allocate(Protocolo.tamanhoMaximoEstado(n));
+        ultimoEstado = jogo.getInstantaneo();
+        // As jogadas da partida contam desde o início dela; a duração, só desde o reinício do servidor
+        jogadasPartida = guardada.getJogadasPartida();
+        jogosConcluidos = guardada.getPartidas();
+        jogadasRestauradas = guardada.getJogadas();
+        jogadas = jogadasRestauradas;
+        inicioPartida = System.nanoTime();
+        fase = EM_JOGO;
+        ciclo.agendar(this::terminarRetoma, ESPERA_RETOMA_MS);
+    }
+
+    /**
+     * Devolve um jogador ao seu lugar, depois de a ligação dele ter caído ou
+     * de o servidor ter sido reiniciado. O jogador recebe de novo tudo o que
+     * o início da partida envia, com o estado completo atual.
+     *
+     * @param ligacao Nova ligação do jogador
+     * @param lugar Lugar a retomar
+     * @param nome Nome do jogador, que tem de ser o desse lugar
+     * @return true se o jogador voltou ao lugar; false se a partida não está
+     *         a decorrer, o lugar está ocupado ou o nome não corresponde
+     */
+    public boolean retomar(Ligacao ligacao, int lugar, String nome) {
+        if (fase != EM_JOGO || lugar < 0 || lugar >= ligacoes.size() || presente(lugar)
+                || !nomesJogadores.get(lugar).equals(nome) || !ligacao.isAberta()) {
+            return false;
+        }
+        ligacao.setAnexo(this);
+        if (!ligacao.isAberta()) {
+            // Fechou entre a verificação e o anexo: quem a fechou pode não ter visto esta sala
+            ligacao.setAnexo(null);
+            return false;
+        }
+        ligacoes.set(lugar, ligacao);
+        versoesConfirmadas[lugar] = versaoEstado;
+        ligacao.enviar(Protocolo.codificar(16, b -> Protocolo.escreverBemVindo(b, lugar, id)));
+        ligacao.enviar(Protocolo.codificar(Protocolo.CABECALHO + 1, Protocolo::escreverInicio));
+        ligacao.enviar(codificarJogadores());
+        ligacao.enviar(codificarMapas(jogo.getTabuleiro()));
+        if (ultimoEstado != null) {
+            ligacao.enviar(codificarEstado(ultimoEstado, null, false, jogoFinalizado));
+        }
+        return true;
+    }
+
+    /**
+     * Termina a espera pelos jogadores de uma sala restaurada: sem ninguém a
+     * sala fecha; caso contrário os lugares ainda vagos contam como saídas.
+     */
+    private void terminarRetoma() {
+        if (fase != EM_JOGO) return;
+        if (getJogadoresPresentes() == 0) {
+            fechar();
+            return;
+        }
+        int vez = jogo.getJogadorAtualIndex();
+        if (!jogoFinalizado) saltarAusentes();
+        for (int i = 0; i < ligacoes.size(); i++) {
+            if (ligacoes.get(i) == null && diario != null) {
+                diario.registar(Registo.saida(id, i, jogo.getJogadorAtualIndex()));
+            }
+        }
+        if (jogo.getJogadorAtualIndex() != vez) {
+            broadcastEstado(null, false, false);
+        }
+    }
+
+    /**
+     * Rola o dado pelo jogador, se for a vez dele e a partida não tiver terminado.
+     *
+     * @param ligacao Ligação que pediu para rolar
+     */
+    public void rolarDado(Ligacao ligacao) {
+        if (fase != EM_JOGO || jogoFinalizado) return;
+        int lugar = ligacoes.indexOf(ligacao);
+        if (lugar < 0 || jogo.getJogadorAtualIndex() != lugar) return;
+        int valor = jogo.rolarDado();
+        EventoMovimento evento = jogo.moverJogadorAtual(valor);
+        jogadas++;
+        jogadasPartida++;
+        if (evento.isVitoria()) {
+            jogoFinalizado = true;
+            jogosConcluidos++;
+            ouvinte.partidaTerminada(this, nomesJogadores, lugar, jogadasPartida,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioPartida));
+        } else if (!evento.isJogaDeNovo()) {
+            jogo.passarVez();
+            saltarAusentes();
+        }
+        if (diario != null) diario.registar(Registo.jogada(id, evento, jogo.getJogadorAtualIndex()));
+        broadcastEstado(evento, false, jogoFinalizado);
+    }
+
+    /**
+     * Regista o voto de um jogador para reiniciar a partida terminada.
+     * Cada lugar conta uma vez; reinicia quando todos os presentes votam
+     * sim, e um não anula os votos. Votos durante a partida são ignorados.
+     *
+     * @param ligacao Ligação que votou
+     * @param sim true para reiniciar
+     */
+    public void votarReinicio(Ligacao ligacao, boolean sim) {
+        int lugar = ligacoes.indexOf(ligacao);
+        if (fase != EM_JOGO || !jogoFinalizado || lugar < 0 || !presente(lugar)) return;
+        if (sim && votosReinicio[lugar]) return;
+        if (diario != null) diario.registar(Registo.voto(id, lugar, sim));
+        if (sim) {
+            votosReinicio[lugar] = true;
+            if (todosVotaram()) {
+                reiniciarJogo();
+            }
+        } else {
+            Arrays.fill(votosReinicio, false);
+        }
+    }
+
+    /**
+     * Verifica se todos os jogadores presentes já votaram para reiniciar.
+     *
+     * @return true se há jogadores presentes e todos votaram sim
+     */
+    private boolean todosVotaram() {
+        boolean algum = false;
+        for (int i = 0; i < ligacoes.size(); i++) {
+            if (!presente(i)) continue;
+            if (!votosReinicio[i]) return false;
+            algum = true;
+        }
+        return algum;
+    }
+
+    /**
+     * Regista a versão do estado que um jogador confirmou ter aplicado.
+     *
+     * @param ligacao Ligação que confirmou
+     * @param versao Versão confirmada
+     */
+    public void confirmar(Ligacao ligacao, int versao) {
+        if (fase != EM_JOGO) return;
+        int lugar = ligacoes.indexOf(ligacao);
+        if (lugar >= 0 && versao - versoesConfirmadas[lugar] > 0 && versao - versaoEstado <= 0) {
+            versoesConfirmadas[lugar] = versao;
+        }
+    }
+
+    /**
+     * Envia o último estado completo a um jogador que o pediu.
+     *
+     * @param ligacao Ligação que pediu o estado
+     */
+    public void enviarEstado(Ligacao ligacao) {
+        if (fase != EM_JOGO || ultimoEstado == null || ligacoes.indexOf(ligacao) < 0) return;
+        ligacao.enviar(codificarEstado(ultimoEstado, null, false, jogoFinalizado));
+    }
+
+    /**
+     * Fecha a sala e todas as ligações que ainda estejam abertas.
+     */
+    public void fechar() {
+        if (fase == FECHADA) return;
+        fase = FECHADA;
+        if (diario != null && jogo != null) diario.registar(Registo.salaFechada(id));
+        for (Ligacao ligacao : ligacoes) {
+            if (ligacao != null) ligacao.fechar();
+        }
+        ouvinte.salaFechada(this);
+    }
+
+    /**
+     * Passa a vez por cima dos lugares cujos jogadores já saíram.
+     */
+    private void saltarAusentes() {
+        for (int i = 0; i < ligacoes.size() && !presente(jogo.getJogadorAtualIndex()); i++) {
+            jogo.passarVez();
+        }
+    }
+
+    /**
+     * Verifica se o jogador de um lugar está ligado.
+     *
+     * @param lugar Lugar a verificar
+     * @return true se o lugar tem uma ligação aberta
+     */
+    private boolean presente(int lugar) {
+        Ligacao ligacao = ligacoes.get(lugar);
+        return ligacao != null && ligacao.isAberta();
+    }
+
+    /**
+     * Codifica os nomes dos jogadores.
+     *
+     * @return Trama {@link Protocolo#JOGADORES}
+     */
+    private ByteBuffer codificarJogadores() {
+        int capacidade = Protocolo.CABECALHO + 2;
+        for (String nome : nomesJogadores) capacidade += 2 + nome.length() * 3;
+        return Protocolo.codificar(capacidade, b -> Protocolo.escreverJogadores(b, nomesJogadores));
+    }
+
+    /**
+     * Codifica as cobras e escadas de um tabuleiro.
+     *
+     * @param tabuleiro Tabuleiro da partida
+     * @return Trama {@link Protocolo#TABULEIRO}
+     */
+    private static ByteBuffer codificarMapas(Tabuleiro tabuleiro) {
+        int capacidade = Protocolo.CABECALHO + 3 + 2 * (tabuleiro.getCobras().size() + tabuleiro.getEscadas().size());
+        return Protocolo.codificar(capacidade,
+            b -> Protocolo.escreverTabuleiro(b, tabuleiro.getCobras(), tabuleiro.getEscadas()));
+    }
+
+    /**
+     * Envia o estado atual do jogo para todos os clientes conectados.
+     * Inclui a vez, as posições das peças, as vitórias e a jogada; o texto
+     * para o jogador é produzido pelo cliente. Normalmente segue só uma
+     * {@link Protocolo#DELTA} com o que mudou; o estado completo segue no
+     * início, no reinício, a cada {@link #PERIODO_ESTADO_COMPLETO} versões e
+     * a quem tiver mais de {@link #JANELA_CONFIRMACAO} versões por confirmar.
+     * Os estados completos intermédios podem ser substituídos na fila de um
+     * cliente atrasado, que salta para o mais recente; o do reinício e o do
+     * fim nunca são descartados.
+     *
+     * @param evento Jogada que originou o estado, ou null no início do jogo
+     * @param reinicio Indica se o estado é o primeiro de um jogo reiniciado
+     * @param fim Indica se o jogo chegou ao fim
+     */
+    private void broadcastEstado(EventoMovimento evento, boolean reinicio, boolean fim) {
+        InstantaneoJogo anterior = ultimoEstado;
+        InstantaneoJogo estado = jogo.getInstantaneo();
+        int versao = ++versaoEstado;
+        ultimoEstado = estado;
+        boolean substituivel = !reinicio && !fim;
+        if (anterior == null || reinicio || versao % PERIODO_ESTADO_COMPLETO == 0) {
+            difundir(codificarEstado(estado, evento, reinicio, fim), substituivel);
+            return;
+        }
+
+        rascunho.clear();
+        Protocolo.escreverDelta(rascunho, versao, anterior, estado, evento, fim);
+        ByteBuffer delta = copiarRascunho().asReadOnlyBuffer();
+        ByteBuffer completo = null;
+        for (int i = 0; i < ligacoes.size(); i++) {
+            if (!presente(i)) continue;
+            Ligacao ligacao = ligacoes.get(i);
+            if (versao - 1 - versoesConfirmadas[i] <= JANELA_CONFIRMACAO) {
+                ligacao.enviar(delta.duplicate(), false);
+            } else {
+                if (completo == null) {
+                    completo = codificarEstado(estado, evento, false, fim).asReadOnlyBuffer();
+                }
+                ligacao.enviar(completo.duplicate(), substituivel);
+            }
+        }
+    }
+
+    /**
+     * Codifica o estado completo na versão atual.
+     *
+     * @param estado Estado a enviar
+     * @param evento Jogada que originou o estado, ou null
+     * @param reinicio Indica se o estado é o primeiro de um jogo reiniciado
+     * @param fim Indica se o jogo chegou ao fim
+     * @return Trama pronta a enviar
+     */
+    private ByteBuffer codificarEstado(InstantaneoJogo estado, EventoMovimento evento, boolean reinicio, boolean fim) {
+        rascunho.clear();
+        Protocolo.escreverEstado(rascunho, versaoEstado, estado, evento, reinicio, fim);
+        return copiarRascunho();
+    }
+
+    /**
+     * Copia a trama do rascunho para um buffer com o tamanho exato, que
+     * pode ficar em fila enquanto o rascunho é reaproveitado.
+     *
+     * @return Trama em modo de leitura
+     */
+    private ByteBuffer copiarRascunho() {
+        rascunho.flip();
+        ByteBuffer trama = ByteBuffer.allocate(rascunho.remaining());
+        trama.put(rascunho).flip();
+        return trama;
+    }
+
+    /**
+     * Envia a mesma trama a todos os jogadores presentes.
+     * A trama é codificada uma só vez; cada ligação recebe uma vista
+     * própria dos mesmos bytes, só de leitura.
+     *
+     * @param trama Trama em modo de leitura
+     * @param substituivel true se uma trama mais recente do mesmo tipo a torna inútil
+     */
+    private void difundir(ByteBuffer trama, boolean substituivel) {
+        ByteBuffer partilhada = trama.asReadOnlyBuffer();
+        for (int i = 0; i < ligacoes.size(); i++) {
+            if (presente(i)) {
+                ligacoes.get(i).enviar(partilhada.duplicate(), substituivel);
+            }
+        }
+    }
+
+    /**
+     * Reinicia o jogo com um novo tabuleiro aleatório.
+     * Reseta todas as posições das peças, cria novas cobras e escadas,
+     * e envia o novo estado para todos os clientes.
+     * As vitórias dos jogadores são preservadas.
+     */
+    private void reiniciarJogo() {
+        // Resetar votos
+        Arrays.fill(votosReinicio, false);
+
+        // Novo tabuleiro aleatório, com a semente seguinte do gerador da partida
+        Tabuleiro novoTabuleiro = new Tabuleiro(gerador.proximaSemente());
+
+        // Atualizar apenas o tabuleiro do jogo existente, preservando as vitórias
+        jogo.setTabuleiro(novoTabuleiro);
+        jogo.reiniciarJogo(); // Resetar posições das peças para casa 1
+        jogoFinalizado = false;
+        jogadasPartida = 0;
+        inicioPartida = System.nanoTime();
+        saltarAusentes();
+        if (diario != null) {
+            diario.registar(Registo.tabuleiro(id, novoTabuleiro.getCobras(), novoTabuleiro.getEscadas(), novoTabuleiro.getSemente()));
+            diario.registar(Registo.reinicio(id, jogo.getJogadorAtualIndex()));
+        }
+
+        // Enviar novos mapas para todos os clientes
+        difundir(codificarMapas(novoTabuleiro), false);
+
+        // Enviar estado inicial
+        broadcastEstado(null, true, false);
+    }
+
+    /**
+     * Obtém o identificador da sala.
+     *
+     * @return Identificador da sala
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Obtém o ciclo de eventos onde a sala corre.
+     *
+     * @return Ciclo de eventos da sala
+     */
+    public CicloEventos getCiclo() {
+        return ciclo;
+    }
+
+    /**
+     * Obtém a fase atual da sala.
+     *
+     * @return {@link #ESPERA}, {@link #EM_JOGO} ou {@link #FECHADA}
+     */
+    public int getFase() {
+        return fase;
+    }
+
+    /**
+     * Obtém o número máximo de lugares.
+     *
+     * @return Lugares da sala
+     */
+    public int getLugares() {
+        return lugares;
+    }
+
+    /**
+     * Obtém o número de lugares ocupados, incluindo os de quem já saiu a meio.
+     * Só pode ser chamado na thread do ciclo da sala.
+     *
+     * @return Número de lugares ocupados
+     */
+    public int getNumeroJogadores() {
+        return ligacoes.size();
+    }
+
+    /**
+     * Obtém o número de jogadores ainda ligados.
+     * Só pode ser chamado na thread do ciclo da sala.
+     *
+     * @return Número de jogadores presentes
+     */
+    public int getJogadoresPresentes() {
+        int presentes = 0;
+        for (int i = 0; i < ligacoes.size(); i++) {
+            if (presente(i)) presentes++;
+        }
+        return presentes;
+    }
+
+    /**
+     * Obtém o número de jogadas feitas nesta sala, incluindo as que o diário
+     * trouxe de antes de um reinício do servidor.
+     *
+     * @return Jogadas desde a criação
+     */
+    public long getJogadas() {
+        return jogadas;
+    }
+
+    /**
+     * Obtém o número de partidas terminadas nesta sala.
+     *
+     * @return Partidas concluídas desde a criação
+     */
+    public long getJogosConcluidos() {
+        return jogosConcluidos;
+    }
+
+    /**
+     * Obtém o ritmo médio de jogadas desde a criação da sala. Numa sala
+     * restaurada contam só as jogadas feitas depois do reinício.
+     *
+     * @return Jogadas por segundo
+     */
+    public double getJogadasPorSegundo() {
+        double segundos = (System.nanoTime() - criadaEm) / 1e9;
+        return segundos > 0 ? (jogadas - jogadasRestauradas) / segundos : 0;
+    }
+
+    /**
+     * Reserva um lugar para um jogador que o gestor vai enviar.
+     * Chamado apenas com o lock do {@link GestorSalas}.
+     *
+     * @return Número de lugares reservados depois desta reserva, ou -1 se não havia lugar
+     */
+    int reservarLugar() {
+        if (!inscricoesAbertas || reservas >= lugares) return -1;
+        return ++reservas;
+    }
+
+    /**
+     * Liberta um lugar reservado que não chegou a ser ocupado ou foi deixado.
+     * Chamado apenas com o lock do {@link GestorSalas}.
+     */
+    void libertarLugar() {
+        if (reservas > 0) reservas--;
+    }
+
+    /**
+     * Deixa de aceitar jogadores do gestor.
+     * Chamado apenas com o lock do {@link GestorSalas}.
+     *
+     * @return true se as inscrições estavam abertas
+     */
+    boolean fecharInscricoes() {
+        boolean estavamAbertas = inscricoesAbertas;
+        inscricoesAbertas = false;
+        return estavamAbertas;
+    }
+}
@@ -0,0 +1,130 @@
+package com.mycompany.snake_ladder.servidor;
+
+import com.mycompany.snake_ladder.rede.Ligacao;
+import com.mycompany.snake_ladder.rede.Protocolo;
+import com.mycompany.snake_ladder.rede.TratadorLigacao;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Traduz as tramas dos clientes em ações sobre a {@link Sala} de cada um.
+ *
+ * Trata o aperto de mão ({@link Protocolo#OLA} ou {@link Protocolo#RETOMAR}) e entrega os comandos seguintes
+ * à sala onde o jogador está sentado, na thread do ciclo dessa sala. Os
+ * campos são lidos da trama antes de mudar de thread, porque a trama só é
+ * válida durante a receção. As subclasses decidem em que sala o jogador entra.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public abstract class TratadorComandos implements TratadorLigacao {
+    /** Comprimento máximo do nome de um jogador, em bytes UTF-8 */
+    private static final int NOME_MAXIMO = 64;
+
+    /**
+     * Senta um jogador que acabou de fazer o aperto de mão.
+     * Chamado na thread da ligação; a ligação já tem o nome como anexo.
+     *
+     * @param ligacao Ligação do jogador
+     * @param nome Nome do jogador
+     */
+    protected abstract void entrar(Ligacao ligacao, String nome);
+
+    /**
+     * Devolve um jogador ao seu lugar numa partida já começada.
+     * Chamado na thread da ligação; por omissão o pedido é recusado.
+     *
+     * @param ligacao Nova ligação do jogador
+     * @param sala Identificador da sala
+     * @param lugar Lugar do jogador
+     * @param nome Nome do jogador, que tem de ser o desse lugar
+     */
+    protected void retomar(Ligacao ligacao, long sala, int lugar, String nome) {
+        recusar(ligacao, "Este servidor não retoma partidas");
+    }
+
+    @Override
+    public void aoLigar(Ligacao ligacao) {
+        // O cliente envia OLA logo após conectar
+    }
+
+    @Override
+    public void aoReceber(Ligacao ligacao, ByteBuffer trama) {
+        Object anexo = ligacao.getAnexo();
+        int tipo = Protocolo.tipo(trama);
+        if (tipo == Protocolo.OLA || tipo == Protocolo.RETOMAR) {
+            if (anexo != null) return; // Aperto de mão repetido
+            int versao = Protocolo.lerU8(trama, 0);
+            if (versao != Protocolo.VERSAO) {
+                recusar(ligacao, "Versão do protocolo não suportada: " + versao);
+                return;
+            }
+            int posNome = tipo == Protocolo.OLA ? 1 : 1 + 8 + 1;
+            if (Protocolo.tamanhoTexto(trama, posNome) - 2 > NOME_MAXIMO) {
+                recusar(ligacao, "Nome demasiado comprido");
+                return;
+            }
+            String nome = Protocolo.lerTexto(trama, posNome);
+            // Marca a ligação para que um segundo aperto de mão não a sente duas vezes
+            ligacao.setAnexo(nome);
+            if (tipo == Protocolo.OLA) {
+                entrar(ligacao, nome);
+            } else {
+                retomar(ligacao, Protocolo.lerLong(trama, 1), Protocolo.lerU8(trama, 9), nome);
+            }
+        } else if (!(anexo instanceof Sala)) {
+            // Comandos antes de o jogador estar sentado são ignorados
+        } else if (tipo == Protocolo.ROLAR_DADO) {
+            Sala sala = (Sala) anexo;
+            naSala(sala, () -> sala.rolarDado(ligacao));
+        } else if (tipo == Protocolo.VOTO_REINICIO) {
+            Sala sala = (Sala) anexo;
+            boolean sim = Protocolo.lerU8(trama, 0) != 0;
+            naSala(sala, () -> sala.votarReinicio(ligacao, sim));
+        } else if (tipo == Protocolo.CONFIRMAR) {
+            Sala sala = (Sala) anexo;
+            int versao = Protocolo.lerInt(trama, 0);
+            naSala(sala, () -> sala.confirmar(ligacao, versao));
+        } else if (tipo == Protocolo.PEDIR_ESTADO) {
+            Sala sala = (Sala) anexo;
+            naSala(sala, () -> sala.enviarEstado(ligacao));
+        } else {
+            recusar(ligacao, "Mensagem desconhecida: " + tipo);
+        }
+    }
+
+    @Override
+    public void aoDesligar(Ligacao ligacao) {
+        Object anexo = ligacao.getAnexo();
+        if (anexo instanceof Sala) {
+            Sala sala = (Sala) anexo;
+            naSala(sala, () -> sala.sair(ligacao));
+        }
+    }
+
+    /**
+     * Executa uma ação na thread da sala, de imediato se já for essa a thread.
+     *
+     * @param sala Sala alvo
+     * @param acao Ação a executar
+     */
+    protected static void naSala(Sala sala, Runnable acao) {
+        if (sala.getCiclo().naThread()) {
+            acao.run();
+        } else {
+            sala.getCiclo().executar(acao);
+        }
+    }
+
+    /**
+     * Envia um erro ao cliente e fecha a ligação assim que ele for enviado.
+     *
+     * @param ligacao Ligação a recusar
+     * @param mensagem Motivo
+     */
+    protected static void recusar(Ligacao ligacao, String mensagem) {
+        ligacao.enviar(Protocolo.codificar(Protocolo.CABECALHO + 1 + 2 + mensagem.length() * 3,
+            b -> Protocolo.escreverErro(b, mensagem)));
+        ligacao.fecharDepoisDeEnviar();
+    }
+}
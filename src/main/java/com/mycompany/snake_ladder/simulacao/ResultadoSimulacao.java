@@ -0,0 +1,251 @@
+package com.mycompany.snake_ladder.simulacao;
+
+import java.util.Arrays;
+
+/**
+ * Resultado agregado de uma simulação Monte Carlo de partidas completas.
+ *
+ * Guarda o histograma da duração das partidas (em jogadas, isto é, em
+ * lançamentos de dado somados de todos os jogadores), as vitórias por
+ * lugar na mesa e o número de vezes que cada cobra e escada foi usada.
+ * Cada tarefa paralela preenche a sua própria instância, que depois é
+ * combinada com {@link #combinar(ResultadoSimulacao)}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class ResultadoSimulacao {
+    /** Número de casas do tabuleiro (1-100) */
+    private static final int NUM_CASAS = 100;
+
+    /** Histograma: posição i contém o número de partidas com i jogadas */
+    private long[] histograma = new long[256];
+
+    /** Maior duração registada, para limitar as iterações do histograma */
+    private int maiorDuracao = 0;
+
+    /** Vitórias por lugar na mesa (índice 0 é quem joga primeiro) */
+    private final long[] vitoriasPorLugar;
+
+    /** Quedas em cada cabeça de cobra, indexadas pelo número da casa */
+    private final long[] quedasCobra = new long[NUM_CASAS + 1];
+
+    /** Subidas em cada base de escada, indexadas pelo número da casa */
+    private final long[] subidasEscada = new long[NUM_CASAS + 1];
+
+    /** Número de partidas terminadas */
+    private long jogos = 0;
+
+    /** Partidas interrompidas por excederem o limite de jogadas */
+    private long jogosInterrompidos = 0;
+
+    /** Soma das durações, para o cálculo da média */
+    private long somaJogadas = 0;
+
+    /**
+     * Cria um resultado vazio.
+     *
+     * @param numJogadores Número de lugares na mesa
+     */
+    ResultadoSimulacao(int numJogadores) {
+        this.vitoriasPorLugar = new long[numJogadores];
+    }
+
+    /**
+     * Regista uma partida terminada.
+     *
+     * @param jogadas Número total de lançamentos da partida
+     * @param vencedor Lugar do jogador que venceu
+     */
+    void registarJogo(int jogadas, int vencedor) {
+        if (jogadas >= histograma.length) {
+            histograma = Arrays.copyOf(histograma, Math.max(jogadas + 1, histograma.length * 2));
+        }
+        histograma[jogadas]++;
+        if (jogadas > maiorDuracao) maiorDuracao = jogadas;
+        vitoriasPorLugar[vencedor]++;
+        somaJogadas += jogadas;
+        jogos++;
+    }
+
+    /**
+     * Regista uma partida que não terminou dentro do limite de jogadas.
+     */
+    void registarInterrompido() {
+        jogosInterrompidos++;
+    }
+
+    /**
+     * Acumula neste resultado os contadores de quedas e subidas de uma tarefa.
+     *
+     * @param cobras Quedas por cabeça de cobra
+     * @param escadas Subidas por base de escada
+     */
+    void acumularSaltos(long[] cobras, long[] escadas) {
+        for (int i = 0; i <= NUM_CASAS; i++) {
+            quedasCobra[i] += cobras[i];
+            subidasEscada[i] += escadas[i];
+        }
+    }
+
+    /**
+     * Junta outro resultado a este.
+     *
+     * @param outro Resultado de outra tarefa da mesma simulação
+     * @return Este resultado, já combinado
+     */
+    ResultadoSimulacao combinar(ResultadoSimulacao outro) {
+        if (outro.maiorDuracao >= histograma.length) {
+            histograma = Arrays.copyOf(histograma, outro.maiorDuracao + 1);
+        }
+        for (int i = 0; i <= outro.maiorDuracao; i++) {
+            histograma[i] += outro.histograma[i];
+        }
+        maiorDuracao = Math.max(maiorDuracao, outro.maiorDuracao);
+        for (int i = 0; i < vitoriasPorLugar.length; i++) {
+            vitoriasPorLugar[i] += outro.vitoriasPorLugar[i];
+        }
+        acumularSaltos(outro.quedasCobra, outro.subidasEscada);
+        jogos += outro.jogos;
+        jogosInterrompidos += outro.jogosInterrompidos;
+        somaJogadas += outro.somaJogadas;
+        return this;
+    }
+
+    /**
+     * Obtém o número de partidas terminadas.
+     *
+     * @return Partidas terminadas
+     */
+    public long getJogos() {
+        return jogos;
+    }
+
+    /**
+     * Obtém o número de partidas interrompidas pelo limite de jogadas.
+     * Um valor diferente de zero indica um tabuleiro muito difícil de terminar.
+     *
+     * @return Partidas interrompidas
+     */
+    public long getJogosInterrompidos() {
+        return jogosInterrompidos;
+    }
+
+    /**
+     * Obtém a duração média das partidas terminadas.
+     *
+     * @return Média de jogadas por partida, ou 0 se não houver partidas
+     */
+    public double getMediaJogadas() {
+        return jogos == 0 ? 0 : (double) somaJogadas / jogos;
+    }
+
+    /**
+     * Obtém um percentil da duração das partidas.
+     *
+     * @param percentil Valor entre 0 e 100 (por exemplo 50, 90 ou 99.9)
+     * @return Menor duração que cobre a fração pedida das partidas
+     */
+    public int getPercentilJogadas(double percentil) {
+        if (jogos == 0) return 0;
+        long alvo = (long) Math.ceil(jogos * Math.min(Math.max(percentil, 0), 100) / 100.0);
+        if (alvo == 0) alvo = 1;
+        long acumulado = 0;
+        for (int i = 0; i <= maiorDuracao; i++) {
+            acumulado += histograma[i];
+            if (acumulado >= alvo) return i;
+        }
+        return maiorDuracao;
+    }
+
+    /**
+     * Obtém a maior duração observada.
+     *
+     * @return Número máximo de jogadas numa partida terminada
+     */
+    public int getMaximoJogadas() {
+        return maiorDuracao;
+    }
+
+    /**
+     * Obtém o número de partidas terminadas com uma duração exata.
+     *
+     * @param jogadas Duração em jogadas
+     * @return Número de partidas com essa duração
+     */
+    public long getFrequenciaJogadas(int jogadas) {
+        return jogadas >= 0 && jogadas <= maiorDuracao ? histograma[jogadas] : 0;
+    }
+
+    /**
+     * Obtém o número de vitórias de um lugar da mesa.
+     *
+     * @param lugar Índice do lugar (0 joga primeiro)
+     * @return Vitórias desse lugar
+     */
+    public long getVitoriasLugar(int lugar) {
+        return vitoriasPorLugar[lugar];
+    }
+
+    /**
+     * Obtém a taxa de vitória de um lugar da mesa.
+     *
+     * @param lugar Índice do lugar (0 joga primeiro)
+     * @return Fração das partidas terminadas ganhas por esse lugar
+     */
+    public double getTaxaVitoria(int lugar) {
+        return jogos == 0 ? 0 : (double) vitoriasPorLugar[lugar] / jogos;
+    }
+
+    /**
+     * Obtém o número de lugares simulados.
+     *
+     * @return Número de jogadores por partida
+     */
+    public int getNumeroJogadores() {
+        return vitoriasPorLugar.length;
+    }
+
+    /**
+     * Obtém quantas vezes uma cobra foi usada.
+     *
+     * @param cabeca Casa da cabeça da cobra
+     * @return Número de quedas nessa cobra
+     */
+    public long getQuedasCobra(int cabeca) {
+        return quedasCobra[cabeca];
+    }
+
+    /**
+     * Obtém quantas vezes uma escada foi usada.
+     *
+     * @param base Casa da base da escada
+     * @return Número de subidas nessa escada
+     */
+    public long getSubidasEscada(int base) {
+        return subidasEscada[base];
+    }
+
+    /**
+     * Produz um resumo legível da simulação.
+     *
+     * @return Texto com percentis, taxas de vitória e uso de cobras/escadas
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Partidas: ").append(jogos);
+        if (jogosInterrompidos > 0) sb.append(" (interrompidas: ").append(jogosInterrompidos).append(")");
+        sb.append(String.format("%nJogadas: média %.2f, p50 %d, p90 %d, p99 %d, máx %d",
+            getMediaJogadas(), getPercentilJogadas(50), getPercentilJogadas(90),
+            getPercentilJogadas(99), maiorDuracao));
+        for (int i = 0; i < vitoriasPorLugar.length; i++) {
+            sb.append(String.format("%nLugar %d: %.2f%% de vitórias", i, getTaxaVitoria(i) * 100));
+        }
+        for (int casa = 1; casa <= NUM_CASAS; casa++) {
+            if (quedasCobra[casa] > 0) sb.append(String.format("%nCobra %d: %d quedas", casa, quedasCobra[casa]));
+            if (subidasEscada[casa] > 0) sb.append(String.format("%nEscada %d: %d subidas", casa, subidasEscada[casa]));
+        }
+        return sb.toString();
+    }
+}
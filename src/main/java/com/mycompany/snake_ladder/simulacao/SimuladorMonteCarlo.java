@@ -0,0 +1,179 @@
+package com.mycompany.snake_ladder.simulacao;
+
+import com.mycompany.snake_ladder.model.GeradorAleatorio;
+import com.mycompany.snake_ladder.model.GeradorSplittable;
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Motor de simulação Monte Carlo sem interface gráfica.
+ *
+ * Joga partidas completas num {@link Tabuleiro} com as mesmas regras de
+ * {@link com.mycompany.snake_ladder.model.Jogo}: todos começam na casa 1,
+ * é preciso o número exato para chegar à casa 100 e quem tira 6 joga
+ * outra vez. As partidas são repartidas por todos os núcleos com
+ * fork-join; cada jogada é uma leitura da {@link TabelaMovimentos} do
+ * tabuleiro, sem mapas nem mensagens de texto.
+ *
+ * Cada tarefa recebe o seu próprio {@link GeradorAleatorio}, obtido por
+ * divisão do gerador da tarefa-mãe. Como a árvore de divisão depende só
+ * do número de partidas, a mesma semente dá sempre o mesmo resultado,
+ * seja qual for o número de threads.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class SimuladorMonteCarlo {
+    /** Casa que termina a partida */
+    private static final int CASA_FINAL = TabelaMovimentos.CASA_FINAL;
+
+    /** Número de partidas a partir do qual uma tarefa se divide em duas */
+    private static final int LIMIAR_DIVISAO = 8192;
+
+    /** Jogadas máximas por partida antes de a considerar interrompida */
+    static final int LIMITE_JOGADAS = 10_000;
+
+    /** Lançamentos gerados de cada vez no buffer de cada tarefa */
+    private static final int TAMANHO_BUFFER_DADOS = 4096;
+
+    /** Tabela de movimentos do tabuleiro simulado */
+    private final TabelaMovimentos tabela;
+
+    /** Número de jogadores em cada partida simulada */
+    private final int numJogadores;
+
+    /** Pool onde as tarefas são executadas */
+    private final ForkJoinPool pool;
+
+    /**
+     * Cria um simulador que usa o pool comum do fork-join.
+     *
+     * @param tabuleiro Tabuleiro a avaliar
+     * @param numJogadores Número de jogadores por partida
+     */
+    public SimuladorMonteCarlo(Tabuleiro tabuleiro, int numJogadores) {
+        this(tabuleiro, numJogadores, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Cria um simulador que corre num pool específico.
+     *
+     * @param tabuleiro Tabuleiro a avaliar
+     * @param numJogadores Número de jogadores por partida
+     * @param pool Pool fork-join a usar
+     */
+    public SimuladorMonteCarlo(Tabuleiro tabuleiro, int numJogadores, ForkJoinPool pool) {
+        if (numJogadores < 1) {
+            throw new IllegalArgumentException("É preciso pelo menos um jogador");
+        }
+        this.tabela = tabuleiro.getTabelaMovimentos();
+        this.numJogadores = numJogadores;
+        this.pool = pool;
+    }
+
+    /**
+     * Simula um número de partidas completas em paralelo, com uma semente nova.
+     *
+     * @param numJogos Número de partidas a jogar
+     * @return Resultado agregado de todas as partidas
+     */
+    public ResultadoSimulacao simular(int numJogos) {
+        return simular(numJogos, GeradorSplittable.novaSemente());
+    }
+
+    /**
+     * Simula um número de partidas completas em paralelo, de forma reproduzível.
+     *
+     * @param numJogos Número de partidas a jogar
+     * @param semente Semente de toda a simulação
+     * @return Resultado agregado de todas as partidas
+     */
+    public ResultadoSimulacao simular(int numJogos, long semente) {
+        return pool.invoke(new TarefaSimulacao(numJogos, new GeradorSplittable(semente)));
+    }
+
+    /**
+     * Tarefa fork-join que joga um intervalo de partidas.
+     * Divide-se ao meio enquanto o intervalo for maior que {@link #LIMIAR_DIVISAO}.
+     */
+    private final class TarefaSimulacao extends RecursiveTask<ResultadoSimulacao> {
+        private static final long serialVersionUID = 1L;
+
+        /** Partidas a jogar por esta tarefa */
+        private final int numJogos;
+
+        /** Gerador exclusivo desta tarefa */
+        private final GeradorAleatorio gerador;
+
+        TarefaSimulacao(int numJogos, GeradorAleatorio gerador) {
+            this.numJogos = numJogos;
+            this.gerador = gerador;
+        }
+
+        @Override
+        protected ResultadoSimulacao compute() {
+            if (numJogos > LIMIAR_DIVISAO) {
+                int metade = numJogos / 2;
+                TarefaSimulacao esquerda = new TarefaSimulacao(metade, gerador.dividir());
+                esquerda.fork();
+                ResultadoSimulacao direita = new TarefaSimulacao(numJogos - metade, gerador).compute();
+                return direita.combinar(esquerda.join());
+            }
+            return jogar();
+        }
+
+        /**
+         * Joga sequencialmente todas as partidas desta tarefa.
+         *
+         * @return Resultado parcial
+         */
+        private ResultadoSimulacao jogar() {
+            byte[] dados = new byte[TAMANHO_BUFFER_DADOS];
+            int proximoDado = TAMANHO_BUFFER_DADOS;
+            ResultadoSimulacao resultado = new ResultadoSimulacao(numJogadores);
+            long[] cobras = new long[CASA_FINAL + 1];
+            long[] escadas = new long[CASA_FINAL + 1];
+            int[] posicoes = new int[numJogadores];
+
+            for (int jogo = 0; jogo < numJogos; jogo++) {
+                for (int i = 0; i < numJogadores; i++) posicoes[i] = 1;
+                int vez = 0;
+                int jogadas = 0;
+                int vencedor = -1;
+
+                while (jogadas < LIMITE_JOGADAS) {
+                    if (proximoDado == TAMANHO_BUFFER_DADOS) {
+                        gerador.preencherDados(dados, 0, TAMANHO_BUFFER_DADOS);
+                        proximoDado = 0;
+                    }
+                    int dado = dados[proximoDado++];
+                    jogadas++;
+                    int origem = posicoes[vez];
+                    int movimento = tabela.mover(origem, dado);
+                    int resultadoMovimento = TabelaMovimentos.resultado(movimento);
+                    posicoes[vez] = TabelaMovimentos.casaFinal(movimento);
+                    if (resultadoMovimento == TabelaMovimentos.VITORIA) {
+                        vencedor = vez;
+                        break;
+                    } else if (resultadoMovimento == TabelaMovimentos.COBRA) {
+                        cobras[origem + dado]++;
+                    } else if (resultadoMovimento == TabelaMovimentos.ESCADA) {
+                        escadas[origem + dado]++;
+                    }
+                    if (dado != 6) vez = (vez + 1) % numJogadores;
+                }
+
+                if (vencedor >= 0) {
+                    resultado.registarJogo(jogadas, vencedor);
+                } else {
+                    resultado.registarInterrompido();
+                }
+            }
+            resultado.acumularSaltos(cobras, escadas);
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.mycompany.snake_ladder.simulacao;
+
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+
+import java.util.Arrays;
+
+/**
+ * Análise exata de um {@link Tabuleiro} como cadeia de Markov absorvente.
+ *
+ * Cada estado é a casa onde está a peça de um jogador; cada passo é um
+ * lançamento do dado. A casa 100 é o único estado absorvente e, como em
+ * {@link com.mycompany.snake_ladder.model.Jogo}, um lançamento que passa
+ * da casa 100 deixa a peça onde está. A partir da matriz de transição
+ * esparsa (no máximo seis entradas por linha) o solucionador calcula:
+ * <ul>
+ *   <li>o número esperado de lançamentos até terminar, a partir da casa 1;</li>
+ *   <li>a distribuição completa da duração, em lançamentos;</li>
+ *   <li>a frequência com que cada casa é atingida por lançamento,
+ *       incluindo cabeças de cobra e bases de escada.</li>
+ * </ul>
+ *
+ * Os buffers de trabalho são reutilizados entre chamadas a
+ * {@link #resolver(Tabuleiro)}, por isso cada instância só deve ser usada
+ * por uma thread de cada vez.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+public final class SolucionadorMarkov {
+    /** Casa que termina a partida */
+    private static final int CASA_FINAL = TabelaMovimentos.CASA_FINAL;
+
+    /** Casa onde todas as peças começam */
+    private static final int CASA_INICIAL = 1;
+
+    /** Massa de probabilidade por absorver abaixo da qual a distribuição é cortada */
+    private static final double TOLERANCIA = 1e-12;
+
+    /** Número máximo de passos calculados para a distribuição da duração */
+    private static final int LIMITE_PASSOS = 100_000;
+
+    /** Início de cada linha da matriz esparsa (formato CSR) */
+    private final int[] inicioLinha = new int[CASA_FINAL + 2];
+
+    /** Coluna de cada entrada da matriz esparsa */
+    private final int[] colunas = new int[(CASA_FINAL + 1) * 6];
+
+    /** Probabilidade de cada entrada da matriz esparsa */
+    private final double[] probabilidades = new double[(CASA_FINAL + 1) * 6];
+
+    /** Índice denso de cada casa transitória alcançável, ou -1 */
+    private final int[] indiceDenso = new int[CASA_FINAL + 1];
+
+    /** Casa correspondente a cada índice denso */
+    private final int[] casaDenso = new int[CASA_FINAL];
+
+    /** Matriz densa (I - Q)^T usada na eliminação de Gauss */
+    private final double[] matriz = new double[CASA_FINAL * CASA_FINAL];
+
+    /** Lado direito / solução do sistema linear */
+    private final double[] solucao = new double[CASA_FINAL];
+
+    /** Pilha de trabalho das pesquisas de alcançabilidade */
+    private final int[] pilha = new int[CASA_FINAL + 1];
+
+    /** Marcas das pesquisas de alcançabilidade */
+    private final boolean[] marcado = new boolean[CASA_FINAL + 1];
+
+    /** Vetores de probabilidade usados na iteração da distribuição */
+    private final double[] atual = new double[CASA_FINAL + 1];
+    private final double[] seguinte = new double[CASA_FINAL + 1];
+
+    /** Número esperado de visitas a cada casa antes de terminar */
+    private final double[] visitas = new double[CASA_FINAL + 1];
+
+    /** Número esperado de vezes que cada casa é atingida antes de cobras/escadas */
+    private final double[] aterragens = new double[CASA_FINAL + 1];
+
+    /** Probabilidade de a partida terminar exatamente no passo k */
+    private double[] duracao = new double[512];
+
+    /** Último passo com probabilidade calculada */
+    private int passoMaximo = 0;
+
+    /** Número esperado de lançamentos até terminar */
+    private double esperado = 0;
+
+    /**
+     * Resolve a cadeia de Markov de um tabuleiro.
+     * Os resultados ficam disponíveis nos métodos de consulta até à próxima chamada.
+     *
+     * @param tabuleiro Tabuleiro a analisar
+     * @return Número esperado de lançamentos até chegar à casa 100
+     * @throws IllegalArgumentException Se a casa 100 não for alcançável a partir
+     *         de todas as casas alcançáveis a partir da casa 1
+     */
+    public double resolver(Tabuleiro tabuleiro) {
+        construirMatriz(tabuleiro.getTabelaMovimentos());
+        int n = indexarAlcancaveis();
+        resolverVisitas(n);
+        calcularAterragens();
+        calcularDuracao();
+        return esperado;
+    }
+
+    /**
+     * Constrói a matriz de transição esparsa a partir da tabela de movimentos.
+     * Transições repetidas para a mesma casa são juntadas numa só entrada.
+     *
+     * @param tabela Tabela de movimentos do tabuleiro
+     */
+    private void construirMatriz(TabelaMovimentos tabela) {
+        int k = 0;
+        for (int casa = 0; casa <= CASA_FINAL; casa++) {
+            inicioLinha[casa] = k;
+            if (casa == 0) continue;
+            if (casa == CASA_FINAL) {
+                colunas[k] = CASA_FINAL;
+                probabilidades[k++] = 1.0;
+                continue;
+            }
+            int inicio = k;
+            for (int dado = 1; dado <= 6; dado++) {
+                int destino = TabelaMovimentos.casaFinal(tabela.mover(casa, dado));
+                int j = inicio;
+                while (j < k && colunas[j] != destino) j++;
+                if (j == k) {
+                    colunas[k] = destino;
+                    probabilidades[k++] = 0;
+                }
+                probabilidades[j] += 1.0 / 6.0;
+            }
+        }
+        inicioLinha[CASA_FINAL + 1] = k;
+    }
+
+    /**
+     * Marca as casas transitórias alcançáveis a partir da casa inicial e
+     * verifica que todas conseguem chegar à casa final.
+     *
+     * @return Número de casas transitórias alcançáveis
+     */
+    private int indexarAlcancaveis() {
+        Arrays.fill(indiceDenso, -1);
+        Arrays.fill(marcado, false);
+        int n = 0;
+        int topo = 0;
+        pilha[topo++] = CASA_INICIAL;
+        marcado[CASA_INICIAL] = true;
+        while (topo > 0) {
+            int casa = pilha[--topo];
+            if (casa == CASA_FINAL) continue;
+            indiceDenso[casa] = n;
+            casaDenso[n++] = casa;
+            for (int k = inicioLinha[casa]; k < inicioLinha[casa + 1]; k++) {
+                int destino = colunas[k];
+                if (!marcado[destino]) {
+                    marcado[destino] = true;
+                    pilha[topo++] = destino;
+                }
+            }
+        }
+
+        // Propagação inversa: casas que chegam à final em algum número de passos
+        Arrays.fill(marcado, false);
+        marcado[CASA_FINAL] = true;
+        boolean mudou = true;
+        while (mudou) {
+            mudou = false;
+            for (int i = 0; i < n; i++) {
+                int casa = casaDenso[i];
+                if (marcado[casa]) continue;
+                for (int k = inicioLinha[casa]; k < inicioLinha[casa + 1]; k++) {
+                    if (marcado[colunas[k]]) {
+                        marcado[casa] = true;
+                        mudou = true;
+                        break;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (!marcado[casaDenso[i]]) {
+                throw new IllegalArgumentException("A casa " + CASA_FINAL
+                    + " não é alcançável a partir da casa " + casaDenso[i]);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Resolve (I - Q)^T v = e_inicial por eliminação de Gauss com pivô parcial.
+     * v é a linha da matriz fundamental da casa inicial, ou seja, o número
+     * esperado de visitas a cada casa; a sua soma é a duração esperada.
+     *
+     * @param n Número de casas transitórias alcançáveis
+     */
+    private void resolverVisitas(int n) {
+        Arrays.fill(matriz, 0, n * n, 0);
+        Arrays.fill(solucao, 0, n, 0);
+        for (int i = 0; i < n; i++) {
+            int casa = casaDenso[i];
+            matriz[i * n + i] += 1.0;
+            for (int k = inicioLinha[casa]; k < inicioLinha[casa + 1]; k++) {
+                int j = indiceDenso[colunas[k]];
+                // Transposta: a entrada Q[i][j] vai para a linha j, coluna i
+                if (j >= 0) matriz[j * n + i] -= probabilidades[k];
+            }
+        }
+        solucao[indiceDenso[CASA_INICIAL]] = 1.0;
+
+        for (int col = 0; col < n; col++) {
+            int pivo = col;
+            double maior = Math.abs(matriz[col * n + col]);
+            for (int lin = col + 1; lin < n; lin++) {
+                double v = Math.abs(matriz[lin * n + col]);
+                if (v > maior) {
+                    maior = v;
+                    pivo = lin;
+                }
+            }
+            if (pivo != col) {
+                for (int c = col; c < n; c++) {
+                    double t = matriz[col * n + c];
+                    matriz[col * n + c] = matriz[pivo * n + c];
+                    matriz[pivo * n + c] = t;
+                }
+                double t = solucao[col];
+                solucao[col] = solucao[pivo];
+                solucao[pivo] = t;
+            }
+            double diag = matriz[col * n + col];
+            for (int lin = col + 1; lin < n; lin++) {
+                double fator = matriz[lin * n + col] / diag;
+                if (fator == 0) continue;
+                for (int c = col; c < n; c++) {
+                    matriz[lin * n + c] -= fator * matriz[col * n + c];
+                }
+                solucao[lin] -= fator * solucao[col];
+            }
+        }
+        for (int lin = n - 1; lin >= 0; lin--) {
+            double soma = solucao[lin];
+            for (int c = lin + 1; c < n; c++) {
+                soma -= matriz[lin * n + c] * solucao[c];
+            }
+            solucao[lin] = soma / matriz[lin * n + lin];
+        }
+
+        Arrays.fill(visitas, 0);
+        esperado = 0;
+        for (int i = 0; i < n; i++) {
+            visitas[casaDenso[i]] = solucao[i];
+            esperado += solucao[i];
+        }
+    }
+
+    /**
+     * Calcula quantas vezes, em média, cada casa é atingida por um lançamento
+     * antes de se aplicar a cobra ou escada que lá esteja.
+     */
+    private void calcularAterragens() {
+        Arrays.fill(aterragens, 0);
+        for (int casa = 1; casa < CASA_FINAL; casa++) {
+            if (visitas[casa] == 0) continue;
+            double porFace = visitas[casa] / 6.0;
+            for (int dado = 1; dado <= 6 && casa + dado <= CASA_FINAL; dado++) {
+                aterragens[casa + dado] += porFace;
+            }
+        }
+    }
+
+    /**
+     * Calcula a distribuição da duração multiplicando repetidamente o vetor
+     * de probabilidades pela matriz esparsa, até a massa por absorver ser
+     * desprezável.
+     */
+    private void calcularDuracao() {
+        Arrays.fill(atual, 0);
+        atual[CASA_INICIAL] = 1.0;
+        double absorvido = 0;
+        int passo = 0;
+        while (1.0 - absorvido > TOLERANCIA && passo < LIMITE_PASSOS) {
+            Arrays.fill(seguinte, 0);
+            for (int casa = 1; casa < CASA_FINAL; casa++) {
+                double p = atual[casa];
+                if (p == 0) continue;
+                for (int k = inicioLinha[casa]; k < inicioLinha[casa + 1]; k++) {
+                    seguinte[colunas[k]] += p * probabilidades[k];
+                }
+            }
+            passo++;
+            if (passo >= duracao.length) duracao = Arrays.copyOf(duracao, duracao.length * 2);
+            duracao[passo] = seguinte[CASA_FINAL];
+            absorvido += seguinte[CASA_FINAL];
+            seguinte[CASA_FINAL] = 0;
+            System.arraycopy(seguinte, 0, atual, 0, atual.length);
+        }
+        duracao[0] = 0;
+        passoMaximo = passo;
+    }
+
+    /**
+     * Obtém o número esperado de lançamentos até chegar à casa 100.
+     *
+     * @return Duração esperada, em lançamentos de um jogador
+     */
+    public double getJogadasEsperadas() {
+        return esperado;
+    }
+
+    /**
+     * Obtém a probabilidade de chegar à casa 100 exatamente num lançamento.
+     *
+     * @param jogadas Número do lançamento (1 é o primeiro)
+     * @return Probabilidade de terminar nesse lançamento
+     */
+    public double getProbabilidadeDuracao(int jogadas) {
+        return jogadas >= 1 && jogadas <= passoMaximo ? duracao[jogadas] : 0;
+    }
+
+    /**
+     * Obtém a probabilidade de chegar à casa 100 até um dado lançamento, inclusive.
+     *
+     * @param jogadas Número do lançamento
+     * @return Probabilidade acumulada
+     */
+    public double getProbabilidadeAcumulada(int jogadas) {
+        double soma = 0;
+        for (int k = 1; k <= Math.min(jogadas, passoMaximo); k++) soma += duracao[k];
+        return soma;
+    }
+
+    /**
+     * Obtém o último lançamento com probabilidade calculada.
+     * Para lá dele a massa restante é inferior a 1e-12.
+     *
+     * @return Comprimento da distribuição da duração
+     */
+    public int getDuracaoMaxima() {
+        return passoMaximo;
+    }
+
+    /**
+     * Obtém o número esperado de lançamentos feitos a partir de uma casa,
+     * isto é, quantas vezes a peça ocupa essa casa antes de terminar.
+     *
+     * @param casa Número da casa (1-99)
+     * @return Visitas esperadas a essa casa antes de terminar
+     */
+    public double getVisitasEsperadas(int casa) {
+        return visitas[casa];
+    }
+
+    /**
+     * Obtém a frequência estacionária de aterragem numa casa: a fração dos
+     * lançamentos que atingem essa casa, antes de aplicar cobras e escadas.
+     *
+     * @param casa Número da casa (1-100)
+     * @return Aterragens esperadas nessa casa por lançamento
+     */
+    public double getFrequenciaAterragem(int casa) {
+        return esperado == 0 ? 0 : aterragens[casa] / esperado;
+    }
+}
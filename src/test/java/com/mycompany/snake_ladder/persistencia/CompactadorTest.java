@@ -0,0 +1,121 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do {@link Compactador}: um instantâneo mais os segmentos
+ * seguintes têm de dar o mesmo estado que reproduzir o diário todo.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+class CompactadorTest {
+    /** Intervalo entre instantâneos do diário dos testes, em milissegundos */
+    private static final long INTERVALO_MS = 50;
+
+    /** Tempo máximo de espera por um instantâneo, em milissegundos */
+    private static final long ESPERA_MS = 10_000;
+
+    @TempDir
+    Path pasta;
+
+    /**
+     * Espera até a pasta ter um instantâneo que inclua um segmento.
+     *
+     * @param segmento Segmento que o instantâneo tem de incluir
+     * @throws Exception Se a espera passar de {@link #ESPERA_MS}
+     */
+    private void esperarInstantaneo(int segmento) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ESPERA_MS);
+        while (Compactador.proximoSegmento(pasta) <= segmento) {
+            assertTrue(System.nanoTime() < limite, "o instantâneo não foi gravado a tempo");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Reconstrói as salas como no arranque do servidor.
+     *
+     * @return Salas por identificador
+     * @throws IOException Se a leitura falhar
+     */
+    private Map<Long, SalaGuardada> recuperar() throws IOException {
+        Map<Long, SalaGuardada> salas = new HashMap<>();
+        int desde = Compactador.carregar(pasta, salas);
+        Compactador.reproduzir(pasta, desde, Integer.MAX_VALUE, salas);
+        return salas;
+    }
+
+    @Test
+    void instantaneoMaisCaudaDaOEstadoCompleto() throws Exception {
+        Map<Integer, Integer> cobras = new HashMap<>();
+        cobras.put(40, 4);
+        Map<Integer, Integer> escadas = new HashMap<>();
+        escadas.put(8, 30);
+
+        Diario diario = new Diario(pasta, 128 * 1024, INTERVALO_MS);
+        diario.iniciar();
+        diario.registar(Registo.salaAberta(1, Arrays.asList("Ana", "Bruno"), 11));
+        diario.registar(Registo.tabuleiro(1, cobras, escadas, 12));
+        diario.registar(SalaGuardadaTest.jogada(1, 0, 3, 1, 4, TabelaMovimentos.NORMAL, 1));
+        diario.registar(Registo.salaAberta(2, Arrays.asList("Clara", "Duarte"), 21));
+        diario.registar(Registo.salaFechada(2));
+        diario.registar(Registo.salaAberta(3, Arrays.asList("Eva", "Filipe"), 31));
+        diario.registar(Registo.incompleta(3));
+        int antes = diario.getSegmentoAtual();
+        esperarInstantaneo(antes);
+
+        // Cauda: registos depois do instantâneo, ainda só nos segmentos
+        diario.registar(SalaGuardadaTest.jogada(1, 1, 5, 1, 6, TabelaMovimentos.NORMAL, 0));
+        diario.registar(SalaGuardadaTest.jogada(1, 0, 4, 4, 30, TabelaMovimentos.ESCADA, 1));
+        diario.parar();
+
+        Map<Long, SalaGuardada> soInstantaneo = new HashMap<>();
+        Compactador.carregar(pasta, soInstantaneo);
+        assertEquals(1, soInstantaneo.size(), "salas fechadas e incompletas não passam para o instantâneo");
+        assertEquals(4, soInstantaneo.get(1L).getPosicao(0));
+
+        Map<Long, SalaGuardada> salas = recuperar();
+        assertEquals(1, salas.size());
+        SalaGuardada sala = salas.get(1L);
+        assertEquals(30, sala.getPosicao(0));
+        assertEquals(6, sala.getPosicao(1));
+        assertEquals(1, sala.getVez());
+        assertEquals(3, sala.getJogadas());
+        assertEquals(Long.valueOf(11), sala.getSemente());
+        assertEquals(cobras, sala.getCobras());
+        assertEquals(escadas, sala.getEscadas());
+    }
+
+    @Test
+    void compactarDuasVezesNaoPerdeEstado() throws Exception {
+        Diario diario = new Diario(pasta, 128 * 1024, INTERVALO_MS);
+        diario.iniciar();
+        diario.registar(Registo.salaAberta(7, Arrays.asList("Ana", "Bruno"), 70));
+        diario.registar(SalaGuardadaTest.jogada(7, 0, 6, 1, 7, TabelaMovimentos.NORMAL, 1));
+        esperarInstantaneo(diario.getSegmentoAtual());
+        diario.registar(SalaGuardadaTest.jogada(7, 1, 2, 1, 3, TabelaMovimentos.NORMAL, 0));
+        esperarInstantaneo(diario.getSegmentoAtual());
+        diario.parar();
+
+        Map<Long, SalaGuardada> salas = recuperar();
+        SalaGuardada sala = salas.get(7L);
+        assertEquals(7, sala.getPosicao(0));
+        assertEquals(3, sala.getPosicao(1));
+        assertEquals(2, sala.getJogadas());
+        assertFalse(sala.isFechada());
+    }
+}
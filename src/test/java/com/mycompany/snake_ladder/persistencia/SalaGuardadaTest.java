@@ -0,0 +1,160 @@
+package com.mycompany.snake_ladder.persistencia;
+
+import com.mycompany.snake_ladder.model.EventoMovimento;
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da reprodução de registos em {@link SalaGuardada} e da sua
+ * escrita e leitura nos instantâneos.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+class SalaGuardadaTest {
+    /** Identificador da sala dos testes */
+    private static final long SALA = 42;
+
+    /** Semente da partida dos testes */
+    private static final long SEMENTE = 0x5EED_1234_ABCDL;
+
+    /**
+     * Aplica um registo codificado, como faz o {@link LeitorDiario}.
+     *
+     * @param sala Sala a atualizar
+     * @param registo Registo criado por um método de {@link Registo}
+     */
+    static void aplicar(SalaGuardada sala, ByteBuffer registo) {
+        int tipo = registo.get(Registo.CABECALHO) & 0xFF;
+        registo.position(Registo.CABECALHO + Registo.PREFIXO);
+        sala.aplicar(tipo, registo.slice());
+    }
+
+    /**
+     * Cria o registo de uma jogada.
+     *
+     * @param sala Identificador da sala
+     * @param jogador Lugar de quem jogou
+     * @param dado Valor do dado
+     * @param origem Casa de partida
+     * @param casaFinal Casa onde a peça ficou
+     * @param resultado Tipo de movimento
+     * @param vez Lugar de quem joga a seguir
+     * @return Registo pronto a aplicar
+     */
+    static ByteBuffer jogada(long sala, int jogador, int dado, int origem, int casaFinal, int resultado, int vez) {
+        EventoMovimento evento = new EventoMovimento();
+        evento.definir(jogador, dado, origem, origem + dado, casaFinal, resultado);
+        return Registo.jogada(sala, evento, vez);
+    }
+
+    /**
+     * Sala com uma partida de três jogadores: uma vitória, um reinício,
+     * mais duas jogadas e a saída de um jogador.
+     *
+     * @return Sala reconstruída
+     */
+    private static SalaGuardada partida() {
+        Map<Integer, Integer> cobras = new HashMap<>();
+        cobras.put(98, 12);
+        Map<Integer, Integer> escadas = new HashMap<>();
+        escadas.put(3, 51);
+        SalaGuardada sala = new SalaGuardada(SALA);
+        aplicar(sala, Registo.salaAberta(SALA, Arrays.asList("Ana", "Bruno", "Clara"), SEMENTE));
+        aplicar(sala, Registo.tabuleiro(SALA, cobras, escadas, 7));
+        aplicar(sala, jogada(SALA, 0, 2, 1, 51, TabelaMovimentos.ESCADA, 1));
+        aplicar(sala, jogada(SALA, 1, 6, 94, 100, TabelaMovimentos.VITORIA, 1));
+        aplicar(sala, Registo.tabuleiro(SALA, escadas, cobras, 8));
+        aplicar(sala, Registo.reinicio(SALA, 2));
+        aplicar(sala, jogada(SALA, 2, 4, 1, 5, TabelaMovimentos.NORMAL, 0));
+        aplicar(sala, jogada(SALA, 0, 5, 1, 6, TabelaMovimentos.NORMAL, 1));
+        aplicar(sala, Registo.saida(SALA, 2, 1));
+        return sala;
+    }
+
+    @Test
+    void reproduzOsRegistosPelaOrdem() {
+        SalaGuardada sala = partida();
+
+        assertTrue(sala.isIniciada());
+        assertEquals(Arrays.asList("Ana", "Bruno", "Clara"), sala.getNomes());
+        assertEquals(6, sala.getPosicao(0));
+        assertEquals(1, sala.getPosicao(1));
+        assertEquals(5, sala.getPosicao(2));
+        assertEquals(1, sala.getVitorias(1));
+        assertEquals(1, sala.getVez());
+        assertTrue(sala.isAusente(2));
+        assertFalse(sala.isFinalizado());
+        assertEquals(4, sala.getJogadas());
+        assertEquals(2, sala.getJogadasPartida());
+        assertEquals(1, sala.getPartidas());
+        assertEquals(SEMENTE, sala.getSemente());
+        assertEquals(2, sala.getTabuleiros());
+        assertEquals(Integer.valueOf(98), sala.getEscadas().keySet().iterator().next());
+    }
+
+    @Test
+    void escreverELerDevolvemOMesmoEstado() {
+        SalaGuardada original = partida();
+        ByteBuffer buffer = ByteBuffer.allocate(original.tamanho());
+        original.escrever(buffer);
+        assertFalse(buffer.hasRemaining(), "tamanho() deve ser exato");
+
+        buffer.flip();
+        SalaGuardada lida = SalaGuardada.ler(buffer, SalaGuardada.FORMATO);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(original.getId(), lida.getId());
+        assertEquals(original.getNomes(), lida.getNomes());
+        assertEquals(original.getCobras(), lida.getCobras());
+        assertEquals(original.getEscadas(), lida.getEscadas());
+        for (int i = 0; i < original.getNumeroJogadores(); i++) {
+            assertEquals(original.getPosicao(i), lida.getPosicao(i));
+            assertEquals(original.getVitorias(i), lida.getVitorias(i));
+            assertEquals(original.isAusente(i), lida.isAusente(i));
+        }
+        assertEquals(original.getVez(), lida.getVez());
+        assertEquals(original.isFinalizado(), lida.isFinalizado());
+        assertEquals(original.getJogadas(), lida.getJogadas());
+        assertEquals(original.getJogadasPartida(), lida.getJogadasPartida());
+        assertEquals(original.getPartidas(), lida.getPartidas());
+        assertEquals(original.getSemente(), lida.getSemente());
+        assertEquals(original.getTabuleiros(), lida.getTabuleiros());
+    }
+
+    @Test
+    void leInstantaneoAnteriorAsSementes() {
+        SalaGuardada original = partida();
+        ByteBuffer buffer = ByteBuffer.allocate(original.tamanho());
+        original.escrever(buffer);
+        // O formato inicial acaba nas partidas: sem a marca, a semente, os tabuleiros e as jogadas da partida
+        buffer.flip().limit(buffer.limit() - 1 - 8 - 4 - 8);
+
+        SalaGuardada lida = SalaGuardada.ler(buffer, SalaGuardada.FORMATO_INICIAL);
+
+        assertFalse(buffer.hasRemaining());
+        assertEquals(original.getPartidas(), lida.getPartidas());
+        assertNull(lida.getSemente());
+        assertEquals(0, lida.getJogadasPartida());
+    }
+
+    @Test
+    void registoIncompletaMarcaASala() {
+        SalaGuardada sala = partida();
+        assertFalse(sala.isIncompleta());
+
+        aplicar(sala, Registo.incompleta(SALA));
+
+        assertTrue(sala.isIncompleta());
+    }
+}
@@ -0,0 +1,293 @@
+package com.mycompany.snake_ladder.servidor;
+
+import com.mycompany.snake_ladder.persistencia.Classificacao;
+import com.mycompany.snake_ladder.persistencia.Diario;
+import com.mycompany.snake_ladder.persistencia.EstatisticasJogador;
+import com.mycompany.snake_ladder.rede.LigacaoCliente;
+import com.mycompany.snake_ladder.rede.MensagemEstado;
+import com.mycompany.snake_ladder.rede.Protocolo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes da recuperação das salas a partir do diário: um servidor é parado
+ * a meio de uma partida e outro, na mesma pasta, tem de a devolver aos
+ * jogadores tal como estava.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+class RecuperacaoTest {
+    /** Intervalo entre instantâneos do diário dos testes, em milissegundos */
+    private static final long INTERVALO_MS = 1_000;
+
+    /** Tamanho de cada segmento do diário dos testes */
+    private static final int TAMANHO_SEGMENTO = 128 * 1024;
+
+    /** Jogadas antes e depois do instantâneo */
+    private static final int JOGADAS = 8;
+
+    /** Jogadas a partir das quais se desiste de ver uma partida terminar */
+    private static final int JOGADAS_MAXIMAS = 5_000;
+
+    /** Nomes dos jogadores, pela ordem de chegada */
+    private static final String[] NOMES = {"Ana", "Bruno"};
+
+    @TempDir
+    Path pasta;
+
+    /**
+     * Jogador do lado do cliente: a ligação, o lugar e o último estado.
+     */
+    private static final class Jogador {
+        /** Ligação ao servidor */
+        LigacaoCliente ligacao;
+
+        /** Nome do jogador */
+        final String nome;
+
+        /** Lugar na sala */
+        int lugar;
+
+        /** Identificador da sala */
+        long sala;
+
+        /** Último estado recebido */
+        MensagemEstado estado = new MensagemEstado();
+
+        /**
+         * Cria um jogador ainda sem ligação.
+         *
+         * @param nome Nome do jogador
+         */
+        Jogador(String nome) {
+            this.nome = nome;
+        }
+
+        /**
+         * Lê tramas até à de boas-vindas, que traz o lugar e a sala.
+         *
+         * @throws IOException Se a leitura falhar
+         */
+        void esperarLugar() throws IOException {
+            while (true) {
+                ByteBuffer trama = ligacao.lerTrama();
+                assertNotNull(trama, "o servidor fechou a ligação de " + nome);
+                if (Protocolo.tipo(trama) == Protocolo.BEM_VINDO) {
+                    lugar = Protocolo.lerU8(trama, 1);
+                    sala = Protocolo.lerLong(trama, 2);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Lê tramas até aplicar um estado, confirmando-o se for preciso.
+         *
+         * @throws IOException Se a leitura falhar
+         */
+        void esperarEstado() throws IOException {
+            while (true) {
+                ByteBuffer trama = ligacao.lerTrama();
+                assertNotNull(trama, "o servidor fechou a ligação de " + nome);
+                int tipo = Protocolo.tipo(trama);
+                if (tipo == Protocolo.BEM_VINDO) {
+                    lugar = Protocolo.lerU8(trama, 1);
+                    sala = Protocolo.lerLong(trama, 2);
+                } else if (tipo == Protocolo.ESTADO || tipo == Protocolo.DELTA) {
+                    int resultado = estado.ler(trama);
+                    if (resultado == MensagemEstado.LACUNA) {
+                        ligacao.enviarPedirEstado();
+                    } else if (resultado == MensagemEstado.APLICADA) {
+                        if (estado.deveConfirmar()) ligacao.enviarConfirmar(estado.getVersao());
+                        return;
+                    }
+                } else {
+                    assertFalse(tipo == Protocolo.ERRO, "o servidor recusou " + nome);
+                }
+            }
+        }
+    }
+
+    /**
+     * Joga algumas rondas, esperando que cada jogada chegue a todos.
+     *
+     * @param jogadores Jogadores pela ordem dos lugares
+     * @param jogadas Número de jogadas
+     * @return Jogadas feitas, menos que as pedidas se a partida terminar
+     * @throws IOException Se a comunicação falhar
+     */
+    private static int jogar(Jogador[] jogadores, int jogadas) throws IOException {
+        int feitas = 0;
+        for (; feitas < jogadas && !jogadores[0].estado.isFim(); feitas++) {
+            jogadores[jogadores[0].estado.getJogadorAtual()].ligacao.enviarRolarDado();
+            for (Jogador jogador : jogadores) jogador.esperarEstado();
+        }
+        return feitas;
+    }
+
+    /**
+     * Arranca um servidor com o diário na pasta do teste.
+     *
+     * @param classificacao Classificação do servidor, ou null
+     * @return Servidor a aceitar ligações numa porta livre
+     * @throws IOException Se o servidor não arrancar
+     */
+    private GestorSalas arrancar(Classificacao classificacao) throws IOException {
+        GestorSalas gestor = new GestorSalas(1, NOMES.length, 0,
+            new Diario(pasta.resolve("diario"), TAMANHO_SEGMENTO, INTERVALO_MS), classificacao);
+        gestor.iniciar(new InetSocketAddress("127.0.0.1", 0));
+        return gestor;
+    }
+
+    /**
+     * Senta os jogadores numa sala nova e espera pelo primeiro estado.
+     *
+     * @param porta Porta do servidor
+     * @return Jogadores pela ordem dos lugares
+     * @throws IOException Se a comunicação falhar
+     */
+    private static Jogador[] entrar(int porta) throws IOException {
+        Jogador[] jogadores = new Jogador[NOMES.length];
+        for (int i = 0; i < NOMES.length; i++) {
+            Jogador jogador = new Jogador(NOMES[i]);
+            jogador.ligacao = new LigacaoCliente("127.0.0.1", porta);
+            jogador.ligacao.enviarOla(jogador.nome);
+            // Um de cada vez, para os lugares seguirem a ordem dos nomes
+            jogador.esperarLugar();
+            jogadores[i] = jogador;
+        }
+        for (Jogador jogador : jogadores) jogador.esperarEstado();
+        assertEquals(jogadores[0].sala, jogadores[1].sala);
+        assertEquals(0, jogadores[0].lugar);
+        assertEquals(1, jogadores[1].lugar);
+        return jogadores;
+    }
+
+    /**
+     * Pára o servidor e espera que ele feche as ligações dos jogadores.
+     *
+     * @param gestor Servidor a parar
+     * @param jogadores Jogadores ligados a ele
+     * @throws IOException Se a comunicação falhar
+     */
+    private static void parar(GestorSalas gestor, Jogador[] jogadores) throws IOException {
+        gestor.parar();
+        for (Jogador jogador : jogadores) {
+            assertEquals(null, jogador.ligacao.lerTrama());
+            jogador.ligacao.close();
+        }
+    }
+
+    /**
+     * Devolve os jogadores aos seus lugares num servidor recuperado.
+     *
+     * @param porta Porta do servidor
+     * @param jogadores Jogadores com a sala e o lugar de antes
+     * @throws IOException Se a comunicação falhar
+     */
+    private static void retomar(int porta, Jogador[] jogadores) throws IOException {
+        for (Jogador jogador : jogadores) {
+            jogador.ligacao = new LigacaoCliente("127.0.0.1", porta);
+            jogador.ligacao.enviarRetomar(jogador.sala, jogador.lugar, jogador.nome);
+            jogador.estado = new MensagemEstado();
+            jogador.esperarEstado();
+        }
+    }
+
+    /**
+     * Indica se a pasta do diário já tem algum instantâneo.
+     *
+     * @return true se existir um ficheiro de instantâneo
+     * @throws IOException Se a pasta não puder ser lida
+     */
+    private boolean temInstantaneo() throws IOException {
+        try (Stream<Path> ficheiros = Files.list(pasta.resolve("diario"))) {
+            return ficheiros.anyMatch(f -> f.getFileName().toString().endsWith(".snap"));
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void reinicioDevolveAPartidaComoEstava() throws Exception {
+        GestorSalas gestor = arrancar(null);
+        Jogador[] jogadores = entrar(gestor.getServidor().getPorta());
+
+        // Parte da partida fica no instantâneo e o resto só nos segmentos
+        int jogadas = jogar(jogadores, JOGADAS);
+        Thread.sleep(INTERVALO_MS * 3 / 2);
+        jogadas += jogar(jogadores, JOGADAS);
+        MensagemEstado antes = jogadores[0].estado;
+        parar(gestor, jogadores);
+        assertTrue(temInstantaneo(), "o diário devia ter gravado um instantâneo");
+
+        GestorSalas recuperado = arrancar(null);
+        try {
+            assertEquals(1, recuperado.getSalasRecuperadas());
+            assertTrue(recuperado.getTempoRecuperacaoMs() < INTERVALO_MS,
+                "a recuperação demorou " + recuperado.getTempoRecuperacaoMs() + " ms");
+
+            retomar(recuperado.getServidor().getPorta(), jogadores);
+            // Os contadores da sala continuam os de antes do reinício
+            assertEquals(jogadas, recuperado.getJogadasTotais());
+            assertEquals(antes.isFim() ? 1 : 0, recuperado.getJogosConcluidosTotais());
+            for (Jogador jogador : jogadores) {
+                MensagemEstado depois = jogador.estado;
+                assertEquals(antes.getJogadorAtual(), depois.getJogadorAtual());
+                assertEquals(antes.isFim(), depois.isFim());
+                for (int i = 0; i < NOMES.length; i++) {
+                    assertEquals(antes.getPosicao(i), depois.getPosicao(i));
+                    assertEquals(antes.getVitorias(i), depois.getVitorias(i));
+                }
+            }
+
+            // A partida continua a partir do estado recuperado
+            if (!antes.isFim()) jogar(jogadores, 2);
+        } finally {
+            for (Jogador jogador : jogadores) jogador.ligacao.close();
+            recuperado.parar();
+        }
+    }
+
+    @Test
+    @Timeout(60)
+    void partidaRecuperadaContaTodasAsJogadas() throws Exception {
+        GestorSalas gestor = arrancar(null);
+        Jogador[] jogadores = entrar(gestor.getServidor().getPorta());
+        int jogadas = jogar(jogadores, JOGADAS);
+        assertFalse(jogadores[0].estado.isFim(), "a partida terminou antes do reinício");
+        parar(gestor, jogadores);
+
+        Classificacao classificacao = new Classificacao(pasta.resolve("classificacao.dat"));
+        GestorSalas recuperado = arrancar(classificacao);
+        try {
+            retomar(recuperado.getServidor().getPorta(), jogadores);
+            jogadas += jogar(jogadores, JOGADAS_MAXIMAS);
+            assertTrue(jogadores[0].estado.isFim(), "a partida não terminou");
+
+            // Cada jogador conta as jogadas da partida inteira, de antes e depois do reinício
+            for (String nome : NOMES) {
+                EstatisticasJogador estatisticas = classificacao.getEstatisticas(nome);
+                assertNotNull(estatisticas);
+                assertEquals(1, estatisticas.getPartidas());
+                assertEquals(jogadas, estatisticas.getJogadas());
+            }
+        } finally {
+            for (Jogador jogador : jogadores) jogador.ligacao.close();
+            recuperado.parar();
+        }
+    }
+}
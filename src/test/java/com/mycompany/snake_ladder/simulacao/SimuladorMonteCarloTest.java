@@ -0,0 +1,91 @@
+package com.mycompany.snake_ladder.simulacao;
+
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do {@link SimuladorMonteCarlo} com sementes fixas.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+class SimuladorMonteCarloTest {
+    /** Semente dos dados de todas as simulações dos testes */
+    private static final long SEMENTE = 20240611L;
+
+    /** Partidas de cada simulação, acima do limiar de divisão das tarefas */
+    private static final int JOGOS = 60_000;
+
+    /**
+     * Tabuleiro com uma escada na casa 2 e uma cobra na 99. Como ninguém
+     * volta à casa 1, só se sobe a escada com um 1 no primeiro lançamento.
+     *
+     * @return Tabuleiro fixo
+     */
+    private static Tabuleiro tabuleiroFixo() {
+        Map<Integer, Integer> cobras = new HashMap<>();
+        cobras.put(99, 50);
+        Map<Integer, Integer> escadas = new HashMap<>();
+        escadas.put(2, 30);
+        return new Tabuleiro(cobras, escadas);
+    }
+
+    @Test
+    void taxasDeVitoriaSomamUm() {
+        ResultadoSimulacao resultado = new SimuladorMonteCarlo(new Tabuleiro(7L), 3).simular(JOGOS, SEMENTE);
+
+        assertEquals(JOGOS, resultado.getJogos() + resultado.getJogosInterrompidos());
+        assertEquals(0, resultado.getJogosInterrompidos());
+        double soma = 0;
+        long vitorias = 0;
+        for (int lugar = 0; lugar < 3; lugar++) {
+            soma += resultado.getTaxaVitoria(lugar);
+            vitorias += resultado.getVitoriasLugar(lugar);
+        }
+        assertEquals(1.0, soma, 1e-12);
+        assertEquals(resultado.getJogos(), vitorias);
+        // Quem joga primeiro tem vantagem
+        assertTrue(resultado.getTaxaVitoria(0) > resultado.getTaxaVitoria(2));
+    }
+
+    @Test
+    void contaCobrasEEscadasNoTabuleiroFixo() {
+        ResultadoSimulacao resultado = new SimuladorMonteCarlo(tabuleiroFixo(), 1).simular(JOGOS, SEMENTE);
+
+        assertEquals(JOGOS, resultado.getJogos());
+        assertEquals(1.0, resultado.getTaxaVitoria(0));
+        // Subidas: binomial(60 000, 1/6), média 10 000 e desvio de 91
+        long subidas = resultado.getSubidasEscada(2);
+        assertTrue(Math.abs(subidas - JOGOS / 6) < 500, "subidas na escada: " + subidas);
+        assertTrue(resultado.getQuedasCobra(99) > 0);
+        for (int casa = 1; casa <= 100; casa++) {
+            if (casa != 2) assertEquals(0, resultado.getSubidasEscada(casa), "escada na casa " + casa);
+            if (casa != 99) assertEquals(0, resultado.getQuedasCobra(casa), "cobra na casa " + casa);
+        }
+    }
+
+    @Test
+    void mesmaSementeDaOMesmoResultadoComQualquerNumeroDeThreads() {
+        ForkJoinPool umaThread = new ForkJoinPool(1);
+        ForkJoinPool quatroThreads = new ForkJoinPool(4);
+        try {
+            ResultadoSimulacao a = new SimuladorMonteCarlo(tabuleiroFixo(), 2, umaThread).simular(JOGOS, SEMENTE);
+            ResultadoSimulacao b = new SimuladorMonteCarlo(tabuleiroFixo(), 2, quatroThreads).simular(JOGOS, SEMENTE);
+
+            assertEquals(a.getMediaJogadas(), b.getMediaJogadas());
+            assertEquals(a.getVitoriasLugar(0), b.getVitoriasLugar(0));
+            assertEquals(a.getSubidasEscada(2), b.getSubidasEscada(2));
+            assertEquals(a.getQuedasCobra(99), b.getQuedasCobra(99));
+        } finally {
+            umaThread.shutdown();
+            quatroThreads.shutdown();
+        }
+    }
+}
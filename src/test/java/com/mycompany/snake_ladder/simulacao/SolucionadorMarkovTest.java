@@ -0,0 +1,124 @@
+package com.mycompany.snake_ladder.simulacao;
+
+import com.mycompany.snake_ladder.model.TabelaMovimentos;
+import com.mycompany.snake_ladder.model.Tabuleiro;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testes do {@link SolucionadorMarkov}: valores exatos num tabuleiro vazio,
+ * uma iteração independente num tabuleiro fixo e a concordância com o
+ * {@link SimuladorMonteCarlo}.
+ *
+ * @author Snake_Ladder Team
+ * @version 1.0
+ */
+class SolucionadorMarkovTest {
+    /** Lançamentos esperados de um só jogador num tabuleiro sem cobras nem escadas */
+    private static final double ESPERADO_VAZIO = 33.047619047619;
+
+    /**
+     * Calcula os lançamentos esperados por iteração de valor, sem matrizes:
+     * E(s) = 1 + média de E(destino) nos seis lançamentos, até convergir.
+     *
+     * @param tabuleiro Tabuleiro a analisar
+     * @return Lançamentos esperados a partir da casa 1
+     */
+    private static double iterar(Tabuleiro tabuleiro) {
+        TabelaMovimentos tabela = tabuleiro.getTabelaMovimentos();
+        double[] esperado = new double[TabelaMovimentos.CASA_FINAL + 1];
+        double variacao = 1;
+        while (variacao > 1e-13) {
+            variacao = 0;
+            for (int casa = TabelaMovimentos.CASA_FINAL - 1; casa >= 1; casa--) {
+                double soma = 0;
+                for (int dado = 1; dado <= 6; dado++) {
+                    soma += esperado[TabelaMovimentos.casaFinal(tabela.mover(casa, dado))];
+                }
+                double novo = 1 + soma / 6;
+                variacao = Math.max(variacao, Math.abs(novo - esperado[casa]));
+                esperado[casa] = novo;
+            }
+        }
+        return esperado[1];
+    }
+
+    /**
+     * Tabuleiro com cobras e escadas fixas, algumas encadeadas.
+     *
+     * @return Tabuleiro fixo
+     */
+    private static Tabuleiro tabuleiroFixo() {
+        Map<Integer, Integer> cobras = new HashMap<>();
+        cobras.put(99, 21);
+        cobras.put(64, 36);
+        cobras.put(47, 19);
+        Map<Integer, Integer> escadas = new HashMap<>();
+        escadas.put(4, 25);
+        escadas.put(33, 49);
+        escadas.put(71, 91);
+        return new Tabuleiro(cobras, escadas);
+    }
+
+    /**
+     * Verifica que a distribuição da duração soma 1 e tem a média esperada.
+     *
+     * @param solucionador Solucionador já resolvido
+     */
+    private static void verificarDistribuicao(SolucionadorMarkov solucionador) {
+        double soma = 0;
+        double media = 0;
+        for (int k = 1; k <= solucionador.getDuracaoMaxima(); k++) {
+            soma += solucionador.getProbabilidadeDuracao(k);
+            media += k * solucionador.getProbabilidadeDuracao(k);
+        }
+        assertEquals(1.0, soma, 1e-9);
+        assertEquals(soma, solucionador.getProbabilidadeAcumulada(solucionador.getDuracaoMaxima()), 1e-12);
+        assertEquals(solucionador.getJogadasEsperadas(), media, 1e-6);
+    }
+
+    @Test
+    void tabuleiroVazioTemOValorExato() {
+        SolucionadorMarkov solucionador = new SolucionadorMarkov();
+        Tabuleiro vazio = new Tabuleiro(new HashMap<>(), new HashMap<>());
+
+        assertEquals(ESPERADO_VAZIO, solucionador.resolver(vazio), 1e-9);
+        assertEquals(ESPERADO_VAZIO, iterar(vazio), 1e-9);
+        // São precisos pelo menos 17 lançamentos (16 seis e um 3) para andar 99 casas
+        assertEquals(0, solucionador.getProbabilidadeAcumulada(16));
+        assertTrue(solucionador.getProbabilidadeDuracao(17) > 0);
+        assertEquals(1.0, solucionador.getVisitasEsperadas(1), 1e-12);
+        verificarDistribuicao(solucionador);
+    }
+
+    @Test
+    void tabuleiroFixoConcordaComAIteracao() {
+        SolucionadorMarkov solucionador = new SolucionadorMarkov();
+        Tabuleiro tabuleiro = tabuleiroFixo();
+
+        assertEquals(iterar(tabuleiro), solucionador.resolver(tabuleiro), 1e-9);
+        verificarDistribuicao(solucionador);
+        // A base de uma escada e a cabeça de uma cobra contam como aterragens
+        assertTrue(solucionador.getFrequenciaAterragem(4) > 0);
+        assertTrue(solucionador.getFrequenciaAterragem(99) > 0);
+    }
+
+    @Test
+    void tabuleirosGeradosConcordamComASimulacao() {
+        SolucionadorMarkov solucionador = new SolucionadorMarkov();
+        for (long semente = 1; semente <= 3; semente++) {
+            Tabuleiro tabuleiro = new Tabuleiro(semente);
+            double exato = solucionador.resolver(tabuleiro);
+            verificarDistribuicao(solucionador);
+
+            // Um só jogador: cada jogada da simulação é um lançamento da cadeia
+            ResultadoSimulacao simulado = new SimuladorMonteCarlo(tabuleiro, 1).simular(200_000, semente);
+            assertEquals(exato, simulado.getMediaJogadas(), 0.25, "tabuleiro " + semente);
+        }
+    }
+}